@@ -0,0 +1,219 @@
+package com.aifinancial.clarity.poc.audit;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.event.AuditEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes {@link AuditEvent}s to audit_log off the request path. Events of committed transactions
+ * go into a lock-free ring buffer; a single flusher thread inserts them in multi-row batches every
+ * {@code audit.flush-interval-ms}, or as soon as {@code audit.batch-size} events are waiting.
+ * <p>
+ * When the buffer is full the event is written synchronously instead of being dropped. On
+ * shutdown the buffer is flushed after the web server has stopped taking requests.
+ */
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_log (occurred_at, actor_id, actor_username, action, target_type, target_id, details) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?::jsonb)";
+    private static final int COLUMNS = 7;
+
+    // Stop after the web server (phase Integer.MAX_VALUE - 1024), so in-flight requests are flushed too
+    private static final int PHASE = Integer.MAX_VALUE - 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate overflowTransaction;
+    private final ObjectMapper objectMapper;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final AtomicLong writtenEvents = new AtomicLong();
+    private final AtomicLong overflowWrites = new AtomicLong();
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+                          @Value("${audit.batch-size:200}") int batchSize,
+                          @Value("${audit.flush-interval-ms:500}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.overflowTransaction = new TransactionTemplate(transactionManager);
+        this.overflowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    }
+
+    @EventListener
+    public void onAudit(AuditEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    /**
+     * Buffer an event, or write it right away when the buffer is full or the flusher has stopped
+     */
+    public void enqueue(AuditEvent event) {
+        if (running && buffer.offer(event)) {
+            if (!running) {
+                // stop() may have drained the buffer between the check and the offer
+                overflowTransaction.executeWithoutResult(status -> flushAll());
+            } else if (buffer.size() >= batchSize) {
+                LockSupport.unpark(flusher);
+            }
+            return;
+        }
+        // Runs after the caller's commit, so a failure here must not reach the caller
+        try {
+            overflowTransaction.executeWithoutResult(status -> insert(List.of(event)));
+            overflowWrites.incrementAndGet();
+        } catch (Exception e) {
+            logger.error("Could not write audit event {}: {}", event, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the flusher left, including events enqueued while it was finishing
+        flushAll();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public long getWrittenEvents() {
+        return writtenEvents.get();
+    }
+
+    public long getOverflowWrites() {
+        return overflowWrites.get();
+    }
+
+    public int getBufferedEvents() {
+        return buffer.size();
+    }
+
+    private void flushLoop() {
+        while (running) {
+            int flushed = flushAll();
+            if (flushed < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    // Returns the number of events written; the flusher is the only caller while it runs
+    private synchronized int flushAll() {
+        int flushed = 0;
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                insert(batch);
+                flushed += batch.size();
+            } catch (Exception e) {
+                // The events are out of the buffer already; fall back to writing them one by one
+                logger.warn("Audit batch of {} event(s) failed, writing them singly: {}", batch.size(), e.getMessage());
+                for (AuditEvent event : batch) {
+                    try {
+                        insert(List.of(event));
+                        flushed++;
+                    } catch (Exception single) {
+                        logger.error("Could not write audit event {}: {}", event, single.getMessage());
+                    }
+                }
+            }
+            batch.clear();
+        }
+        return flushed;
+    }
+
+    private void insert(List<AuditEvent> events) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        Object[] args = new Object[events.size() * COLUMNS];
+        int i = 0;
+        for (AuditEvent event : events) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[i++] = Timestamp.from(event.occurredAt().toInstant());
+            args[i++] = event.actorId();
+            args[i++] = event.actorUsername();
+            args[i++] = event.action();
+            args[i++] = event.targetType();
+            args[i++] = event.targetId();
+            args[i++] = toJson(event);
+        }
+        jdbcTemplate.update(sql.toString(), args);
+        writtenEvents.addAndGet(events.size());
+    }
+
+    private String toJson(AuditEvent event) {
+        if (event.details() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(event.details());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize audit details of " + event.action(), e);
+        }
+    }
+}
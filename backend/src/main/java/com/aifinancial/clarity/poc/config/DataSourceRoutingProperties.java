@@ -0,0 +1,46 @@
+package com.aifinancial.clarity.poc.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Read-replica routing settings, bound from the {@code datasource-routing.*} properties
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Route read-only transactions to the configured replicas
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replica lag above which a replica stops receiving reads
+     */
+    private long maxReplicaLagMs = 5000;
+
+    /**
+     * How long a user's reads stay on the primary after one of their own writes
+     */
+    private long readYourWritesWindowMs = 10000;
+
+    /**
+     * Interval between replica health and lag checks
+     */
+    private long healthCheckIntervalMs = 5000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,13 @@
+package com.aifinancial.clarity.poc.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background tasks. They run on a pool sized by
+ * {@code spring.task.scheduling.pool.size}, so one slow job does not delay the others.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,51 @@
+package com.aifinancial.clarity.poc.constant;
+
+import java.util.Locale;
+
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+
+/**
+ * File formats supported by the export and import endpoints
+ */
+public enum DataFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    DataFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Picks the format from a file name's extension, e.g. for uploads without an explicit format
+     */
+    public static DataFormat fromFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new BadRequestException("Cannot determine format of file '" + fileName + "', specify format=ndjson or format=csv");
+    }
+
+    public static DataFormat fromValue(String value) {
+        try {
+            return DataFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported format: " + value);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aifinancial.clarity.poc.constant;
+
+/**
+ * How a moderator resolves items of the moderation queue
+ */
+public enum ModerationAction {
+    // Disable the todo and close the item
+    DISABLE,
+    // Leave the todo as it is and close the item
+    CLEAR
+}
@@ -0,0 +1,11 @@
+package com.aifinancial.clarity.poc.constant;
+
+/**
+ * How often a todo template repeats; the interval counts these units
+ */
+public enum RecurrenceFrequency {
+    // Every interval-th day from the start date
+    DAILY,
+    // On the template's weekdays of every interval-th week from the start date
+    WEEKLY
+}
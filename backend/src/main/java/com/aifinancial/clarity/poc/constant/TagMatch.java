@@ -0,0 +1,23 @@
+package com.aifinancial.clarity.poc.constant;
+
+import java.util.Locale;
+
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+
+/**
+ * How a tag filter combines its tags
+ */
+public enum TagMatch {
+    // Todos carrying every one of the tags
+    ALL,
+    // Todos carrying at least one of the tags
+    ANY;
+
+    public static TagMatch fromValue(String value) {
+        try {
+            return TagMatch.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported tag mode: " + value + ", use all or any");
+        }
+    }
+}
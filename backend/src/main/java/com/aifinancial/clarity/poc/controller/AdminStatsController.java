@@ -0,0 +1,82 @@
+package com.aifinancial.clarity.poc.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.dto.response.CacheStatisticsResponse;
+import com.aifinancial.clarity.poc.dto.response.OutboxStatisticsResponse;
+import com.aifinancial.clarity.poc.dto.response.RecurrenceStatisticsResponse;
+import com.aifinancial.clarity.poc.service.CacheStatisticsService;
+import com.aifinancial.clarity.poc.service.OutboxStatisticsService;
+import com.aifinancial.clarity.poc.service.RecurrenceStatisticsService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/admin/stats")
+@Tag(name = "Admin Statistics", description = "Runtime statistics for operators")
+public class AdminStatsController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+    private final OutboxStatisticsService outboxStatisticsService;
+    private final RecurrenceStatisticsService recurrenceStatisticsService;
+
+    public AdminStatsController(CacheStatisticsService cacheStatisticsService,
+                                OutboxStatisticsService outboxStatisticsService,
+                                RecurrenceStatisticsService recurrenceStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+        this.outboxStatisticsService = outboxStatisticsService;
+        this.recurrenceStatisticsService = recurrenceStatisticsService;
+    }
+
+    @GetMapping("/cache")
+    @PreAuthorize("hasRole('" + RoleConstants.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Get cache statistics",
+               description = "Returns Hibernate second-level and query cache hit ratios. Requires SUPER_ADMIN role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CacheStatisticsResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<CacheStatisticsResponse> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getCacheStatistics());
+    }
+
+    @GetMapping("/outbox")
+    @PreAuthorize("hasRole('" + RoleConstants.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Get outbox statistics",
+               description = "Returns the outbox backlog, the age of its oldest event and the relay's delivery lag. Requires SUPER_ADMIN role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OutboxStatisticsResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<OutboxStatisticsResponse> getOutboxStatistics() {
+        return ResponseEntity.ok(outboxStatisticsService.getOutboxStatistics());
+    }
+
+    @GetMapping("/recurrence")
+    @PreAuthorize("hasRole('" + RoleConstants.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Get recurring todo statistics",
+               description = "Returns the number of recurring todo templates waiting for materialization and the materializer's throughput. Requires SUPER_ADMIN role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = RecurrenceStatisticsResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<RecurrenceStatisticsResponse> getRecurrenceStatistics() {
+        return ResponseEntity.ok(recurrenceStatisticsService.getRecurrenceStatistics());
+    }
+}
@@ -0,0 +1,52 @@
+package com.aifinancial.clarity.poc.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.dto.response.AuditLogEntryResponse;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.service.AuditService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/admin/audit")
+@Tag(name = "Audit", description = "Audit log of moderation and admin actions")
+public class AuditController {
+
+    private final AuditService auditService;
+
+    public AuditController(AuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('" + RoleConstants.ROLE_SUPER_ADMIN + "')")
+    @Operation(summary = "Get audit log",
+               description = "Returns who disabled or enabled which todo and who changed which user's role, newest first. "
+                       + "Entries are written in the background and appear within about a second. Requires SUPER_ADMIN role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Audit log retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, or targetId without targetType"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<CursorPage<AuditLogEntryResponse>> getAuditLog(
+            @Parameter(description = "Only actions by this user") @RequestParam(required = false) Long actorId,
+            @Parameter(description = "Only this action, e.g. TODO_DISABLED or USER_ROLE_CHANGED") @RequestParam(required = false) String action,
+            @Parameter(description = "Only actions on this kind of target: TODO or USER") @RequestParam(required = false) String targetType,
+            @Parameter(description = "Only actions on this target; requires targetType") @RequestParam(required = false) Long targetId,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getAuditLog(actorId, action, targetType, targetId, cursor, size));
+    }
+}
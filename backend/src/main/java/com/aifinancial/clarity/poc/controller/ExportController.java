@@ -0,0 +1,87 @@
+package com.aifinancial.clarity.poc.controller;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.service.ExportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/export")
+@Tag(name = "Export", description = "Streaming export of todos and folders")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/todos")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Export todos",
+               description = "Streams all todos of the current user, or of the given user (requires moderator or admin), as NDJSON or CSV")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @Parameter(description = "Optional user ID to export todos for")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Output format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        DataFormat exportFormat = DataFormat.fromValue(format);
+        Long ownerId = exportService.resolveExportOwnerId(userId);
+        return streaming("todos-user-" + ownerId, exportFormat,
+                out -> exportService.writeTodos(ownerId, exportFormat, out));
+    }
+
+    @GetMapping("/folders")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Export folders",
+               description = "Streams all folders of the current user, or of the given user (requires moderator or admin), as NDJSON or CSV")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<StreamingResponseBody> exportFolders(
+            @Parameter(description = "Optional user ID to export folders for")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Output format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        DataFormat exportFormat = DataFormat.fromValue(format);
+        Long ownerId = exportService.resolveExportOwnerId(userId);
+        return streaming("folders-user-" + ownerId, exportFormat,
+                out -> exportService.writeFolders(ownerId, exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(String fileName, DataFormat format, StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(fileName + "." + format.getFileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
@@ -2,22 +2,31 @@ package com.aifinancial.clarity.poc.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.aifinancial.clarity.poc.constant.PermissionConstants;
 import com.aifinancial.clarity.poc.dto.request.FolderRequest;
+import com.aifinancial.clarity.poc.dto.request.MoveFolderRequest;
+import com.aifinancial.clarity.poc.dto.response.ErrorResponse;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.FolderSubtreeStatsResponse;
+import com.aifinancial.clarity.poc.dto.response.MoveTodosResponse;
 import com.aifinancial.clarity.poc.service.FolderService;
+import com.aifinancial.clarity.poc.util.ETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -43,30 +52,34 @@ public class FolderController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get folders", 
-               description = "Retrieves folders. Returns current user's folders unless specific userId is provided (requires permissions).")
+               description = "Retrieves folders. Returns current user's folders unless specific userId is provided (requires permissions). "
+                       + "The whole tree is read in one query and returned depth-first, each folder followed by its subfolders. "
+                       + "The ETag header identifies the owner's current state; sending it back in If-None-Match returns 304 while nothing has changed.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Folders retrieved successfully",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = FolderResponse.class)))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
     public ResponseEntity<List<FolderResponse>> getFolders(
             @Parameter(description = "Optional user ID to filter folders by owner") 
-            @RequestParam(required = false) Long userId) {
-        if (userId != null) {
-            // This requires moderator or admin privileges, which is checked in the service
-            return ResponseEntity.ok(folderService.getFoldersByUserId(userId));
-        } else {
-            // Otherwise, return current user's folders
-            return ResponseEntity.ok(folderService.getCurrentUserFolders());
-        }
+            @RequestParam(required = false) Long userId,
+            WebRequest webRequest) {
+        // A null userId returns the current user's folders; any other requires moderator or admin
+        // privileges, which is checked in the service before the change stamp is compared
+        List<FolderResponse> folders = folderService.getFoldersIfModified(userId,
+                changeStamp -> webRequest.checkNotModified(ETags.ofList("folders", changeStamp)));
+        // checkNotModified has set the ETag header, and the 304 status when it matched
+        return folders != null ? ResponseEntity.ok(folders) : null;
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get a folder by ID", 
-               description = "Retrieves a specific folder by its ID (if user has access)")
+               description = "Retrieves a specific folder by its ID (if user has access). "
+                       + "The ETag header carries the folder's version for conditional writes.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Folder retrieved successfully",
                     content = @Content(schema = @Schema(implementation = FolderResponse.class))),
@@ -77,19 +90,55 @@ public class FolderController {
     public ResponseEntity<FolderResponse> getFolder(
             @Parameter(description = "ID of the folder to retrieve", required = true)
             @PathVariable Long id) {
-        return ResponseEntity.ok(folderService.getFolder(id));
+        FolderResponse folder = folderService.getFolder(id);
+        return ResponseEntity.ok().eTag(ETags.of(folder.getVersion())).body(folder);
+    }
+
+    @GetMapping("/{id}/subtree")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get a folder's subtree",
+               description = "Retrieves a folder and all folders below it, depth-first (if user has access)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Subtree retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = FolderResponse.class)))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<List<FolderResponse>> getSubtree(
+            @Parameter(description = "ID of the subtree's root folder", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(folderService.getSubtree(id));
+    }
+
+    @GetMapping("/{id}/subtree/stats")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Count todos in a folder's subtree",
+               description = "Sums the todo counters of a folder and all folders below it (if user has access)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Subtree counts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = FolderSubtreeStatsResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<FolderSubtreeStatsResponse> getSubtreeStats(
+            @Parameter(description = "ID of the subtree's root folder", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(folderService.getSubtreeStats(id));
     }
 
     @PostMapping
     @PreAuthorize("hasAuthority('" + PermissionConstants.FOLDERS_OWN_CREATE + "')")
     @Operation(summary = "Create a new folder", 
-               description = "Creates a new folder for the current user. Requires 'folders.own.create' permission.")
+               description = "Creates a new folder for the current user, inside parentId when given. Requires 'folders.own.create' permission.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Folder created successfully",
                     content = @Content(schema = @Schema(implementation = FolderResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
-        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Parent folder not found")
     })
     public ResponseEntity<FolderResponse> createFolder(
             @Parameter(description = "Folder details", required = true)
@@ -100,37 +149,115 @@ public class FolderController {
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('" + PermissionConstants.FOLDERS_OWN_EDIT + "')")
     @Operation(summary = "Update a folder", 
-               description = "Updates an existing folder owned by the current user. Requires 'folders.own.edit' permission.")
+               description = "Updates an existing folder owned by the current user; its parent is kept. Requires 'folders.own.edit' permission.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Folder updated successfully",
                     content = @Content(schema = @Schema(implementation = FolderResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-        @ApiResponse(responseCode = "404", description = "Folder not found")
+        @ApiResponse(responseCode = "404", description = "Folder not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<FolderResponse> updateFolder(
             @Parameter(description = "ID of the folder to update", required = true)
             @PathVariable Long id,
             @Parameter(description = "Updated folder details", required = true)
-            @Valid @RequestBody FolderRequest folderRequest) {
-        return ResponseEntity.ok(folderService.updateFolder(id, folderRequest));
+            @Valid @RequestBody FolderRequest folderRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the folder has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        FolderResponse folder = folderService.updateFolder(id, folderRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(folder.getVersion())).body(folder);
+    }
+
+    @PatchMapping("/{id}/move")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.FOLDERS_OWN_EDIT + "')")
+    @Operation(summary = "Move a folder",
+               description = "Moves a folder owned by the current user, with all its subfolders, under parentId, "
+                       + "or to the top level when parentId is null. Requires 'folders.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Folder moved successfully",
+                    content = @Content(schema = @Schema(implementation = FolderResponse.class))),
+        @ApiResponse(responseCode = "400", description = "The new parent lies in the folder's own subtree",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Folder or parent folder not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<FolderResponse> moveFolder(
+            @Parameter(description = "ID of the folder to move", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "New parent folder", required = true)
+            @RequestBody MoveFolderRequest moveRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the folder has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        FolderResponse folder = folderService.moveFolder(id, moveRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(folder.getVersion())).body(folder);
+    }
+
+    @PostMapping("/{id}/duplicate")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.FOLDERS_OWN_CREATE + "')")
+    @Operation(summary = "Duplicate a folder",
+               description = "Copies a folder owned by the current user, with all its subfolders, todos and tags, next to "
+                       + "the original and named after it with \" (copy)\" appended. Requires 'folders.own.create' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Folder duplicated successfully",
+                    content = @Content(schema = @Schema(implementation = FolderResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<FolderResponse> duplicateFolder(
+            @Parameter(description = "ID of the folder to duplicate", required = true)
+            @PathVariable Long id) {
+        FolderResponse folder = folderService.duplicateFolder(id);
+        return ResponseEntity.ok().eTag(ETags.of(folder.getVersion())).body(folder);
+    }
+
+    @PostMapping("/{id}/move-todos")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Move all todos of a folder",
+               description = "Moves every todo directly in a folder of the current user below the todos of another of "
+                       + "their folders, keeping their order, or out of any folder when 'to' is omitted. Subfolders "
+                       + "are not touched. Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Todos moved successfully",
+                    content = @Content(schema = @Schema(implementation = MoveTodosResponse.class))),
+        @ApiResponse(responseCode = "400", description = "The target is the source folder",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Source or target folder not found")
+    })
+    public ResponseEntity<MoveTodosResponse> moveTodos(
+            @Parameter(description = "ID of the folder to empty", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ID of the folder to move the todos into; omit to move them out of any folder")
+            @RequestParam(value = "to", required = false) Long to) {
+        return ResponseEntity.ok(folderService.moveTodos(id, to));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('" + PermissionConstants.FOLDERS_OWN_DELETE + "')")
     @Operation(summary = "Delete a folder", 
-               description = "Deletes a folder owned by the current user. Requires 'folders.own.delete' permission.")
+               description = "Deletes a folder owned by the current user, with its subfolders and all their todos. Requires 'folders.own.delete' permission.")
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Folder deleted successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-        @ApiResponse(responseCode = "404", description = "Folder not found")
+        @ApiResponse(responseCode = "404", description = "Folder not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<Void> deleteFolder(
             @Parameter(description = "ID of the folder to delete", required = true)
-            @PathVariable Long id) {
-        folderService.deleteFolder(id);
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the folder has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        folderService.deleteFolder(id, ETags.parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
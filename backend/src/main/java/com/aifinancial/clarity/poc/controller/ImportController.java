@@ -0,0 +1,70 @@
+package com.aifinancial.clarity.poc.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.dto.response.ErrorResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoImportResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.service.ImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/import")
+@Tag(name = "Import", description = "Bulk import of todos")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(value = "/todos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Import todos",
+               description = "Imports todos for the current user from an NDJSON or CSV file. Folders are matched by name and "
+                       + "created when missing. Invalid rows are skipped and reported by line number.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import completed",
+                    content = @Content(schema = @Schema(implementation = TodoImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Missing file, unsupported format or invalid CSV header",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "413", description = "File exceeds the upload size limit")
+    })
+    public ResponseEntity<TodoImportResponse> importTodos(
+            @Parameter(description = "NDJSON or CSV file; CSV requires a header row with at least a title column")
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "File format: ndjson or csv. Detected from the file extension when omitted")
+            @RequestParam(required = false) String format) throws IOException {
+        if (file.isEmpty()) {
+            throw new BadRequestException("Import file is empty");
+        }
+        DataFormat dataFormat = format != null
+                ? DataFormat.fromValue(format)
+                : DataFormat.fromFileName(file.getOriginalFilename());
+
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importTodos(dataFormat, input));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.aifinancial.clarity.poc.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aifinancial.clarity.poc.constant.PermissionConstants;
+import com.aifinancial.clarity.poc.dto.request.ModerationResolveRequest;
+import com.aifinancial.clarity.poc.dto.request.ModerationRuleRequest;
+import com.aifinancial.clarity.poc.dto.response.ModerationItemResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationResolveResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationRuleResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
+import com.aifinancial.clarity.poc.dto.response.UserOverviewResponse;
+import com.aifinancial.clarity.poc.service.ModeratorService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/moderator")
+@Tag(name = "Moderator", description = "Moderator dashboard operations")
+public class ModeratorController {
+
+    private final ModeratorService moderatorService;
+
+    public ModeratorController(ModeratorService moderatorService) {
+        this.moderatorService = moderatorService;
+    }
+
+    @GetMapping("/overview")
+    @Operation(summary = "Get user overview",
+               description = "Returns per-user todo, completed, disabled and folder counts with the last activity time, "
+                       + "computed in a single query. Requires MODERATOR or SUPER_ADMIN role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Overview retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported sort field or direction, or invalid paging"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<SliceResponse<UserOverviewResponse>> getUserOverview(
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field: username, todoCount, completedCount, disabledCount, folderCount or lastActivityAt")
+            @RequestParam(defaultValue = "lastActivityAt") String sort,
+            @Parameter(description = "Sort direction: asc or desc") @RequestParam(defaultValue = "desc") String direction) {
+        return ResponseEntity.ok(moderatorService.getUserOverview(page, size, sort, direction));
+    }
+
+    @PostMapping("/queue/claim")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OTHERS_BAN + "')")
+    @Operation(summary = "Claim moderation queue items",
+               description = "Leases the oldest pending items of the moderation queue to the current moderator. "
+                       + "Items locked or leased by other moderators are skipped, so concurrent moderators never "
+                       + "receive the same item. Items not resolved before the lease expires are handed out again. "
+                       + "Requires 'todos.others.ban' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Items claimed; empty when the queue has nothing to hand out"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<List<ModerationItemResponse>> claimQueueItems(
+            @Parameter(description = "Number of items to claim, at most 100") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(moderatorService.claimQueueItems(limit));
+    }
+
+    @PostMapping("/queue/resolve")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OTHERS_BAN + "')")
+    @Operation(summary = "Resolve claimed moderation queue items",
+               description = "Disables the todos of the given items, or clears the items without touching the todos, "
+                       + "in a single statement. Only items claimed by the current moderator and still pending are "
+                       + "resolved. Requires 'todos.others.ban' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Items resolved"),
+        @ApiResponse(responseCode = "400", description = "Missing item ids or action, or too many item ids"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<ModerationResolveResponse> resolveQueueItems(
+            @Parameter(description = "Items to resolve and the action to take", required = true)
+            @Valid @RequestBody ModerationResolveRequest request) {
+        return ResponseEntity.ok(moderatorService.resolveQueueItems(request));
+    }
+
+    @GetMapping("/rules")
+    @Operation(summary = "Get moderation rules",
+               description = "Returns the keywords whose hits in new or edited todos are queued for moderation. "
+                       + "Requires MODERATOR or SUPER_ADMIN role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Rules retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<List<ModerationRuleResponse>> getRules() {
+        return ResponseEntity.ok(moderatorService.getRules());
+    }
+
+    @PostMapping("/rules")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OTHERS_BAN + "')")
+    @Operation(summary = "Create a moderation rule",
+               description = "Adds a keyword, matched ignoring case in todo titles and descriptions. Todos created "
+                       + "or edited afterwards that contain it are queued for moderation. "
+                       + "Requires 'todos.others.ban' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Rule created successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid keyword or keyword already in use"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<ModerationRuleResponse> createRule(
+            @Parameter(description = "Rule details", required = true)
+            @Valid @RequestBody ModerationRuleRequest request) {
+        return ResponseEntity.ok(moderatorService.createRule(request));
+    }
+
+    @DeleteMapping("/rules/{id}")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OTHERS_BAN + "')")
+    @Operation(summary = "Delete a moderation rule",
+               description = "Deletes a keyword rule; items it already queued stay in the queue. "
+                       + "Requires 'todos.others.ban' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Rule deleted successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Rule not found")
+    })
+    public ResponseEntity<Void> deleteRule(
+            @Parameter(description = "ID of the rule to delete", required = true) @PathVariable Long id) {
+        moderatorService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.aifinancial.clarity.poc.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+import com.aifinancial.clarity.poc.service.TodoStatsService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/stats")
+@Tag(name = "Statistics", description = "Todo progress statistics")
+public class StatsController {
+
+    private final TodoStatsService todoStatsService;
+
+    public StatsController(TodoStatsService todoStatsService) {
+        this.todoStatsService = todoStatsService;
+    }
+
+    @GetMapping("/me")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get my todo statistics",
+               description = "Returns the current user's completed, open and disabled todo counts, overall, per folder and for todos without a folder.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = TodoStatsResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required")
+    })
+    public ResponseEntity<TodoStatsResponse> getMyStats() {
+        return ResponseEntity.ok(todoStatsService.getCurrentUserStats());
+    }
+
+    @GetMapping("/users/{id}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get a user's todo statistics",
+               description = "Returns the todo statistics of the given user. Users may only request their own; moderators and admins may request anyone's.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = TodoStatsResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<TodoStatsResponse> getUserStats(
+            @Parameter(description = "ID of the user") @PathVariable Long id) {
+        return ResponseEntity.ok(todoStatsService.getUserStats(id));
+    }
+}
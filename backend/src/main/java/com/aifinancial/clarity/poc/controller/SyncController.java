@@ -0,0 +1,69 @@
+package com.aifinancial.clarity.poc.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.aifinancial.clarity.poc.dto.response.SyncResponse;
+import com.aifinancial.clarity.poc.service.SyncService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/sync")
+@Tag(name = "Sync", description = "Incremental sync of todos and folders")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get changes since a cursor",
+               description = "Returns the current user's todos and folders created or updated since the cursor, and the ids of those deleted since, "
+                       + "with the cursor to send next. Without a cursor, or with one older than the tombstone retention, a full snapshot is returned "
+                       + "and fullResync is set. Apply deletions after the created and updated items.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = SyncResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required")
+    })
+    public ResponseEntity<SyncResponse> getChanges(
+            @Parameter(description = "Cursor from the previous sync response") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes to return (capped at 1000)") @RequestParam(defaultValue = "200") int size) {
+        return ResponseEntity.ok(syncService.getChanges(since, size));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Stream change events",
+               description = "Server-sent events for every committed write to the current user's todos and folders, including changes made by "
+                       + "moderators. A change event names the type, operation and ids; fetch the new state with GET /sync. A resync event means "
+                       + "events were missed and the client should call GET /sync. Reconnects with Last-Event-ID resume where the stream stopped. "
+                       + "Streams that fall too far behind are closed.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Id of the last event received, sent by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return syncService.subscribe(lastEventId);
+    }
+}
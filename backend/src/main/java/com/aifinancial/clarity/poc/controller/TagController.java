@@ -0,0 +1,122 @@
+package com.aifinancial.clarity.poc.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aifinancial.clarity.poc.constant.PermissionConstants;
+import com.aifinancial.clarity.poc.dto.request.TagRequest;
+import com.aifinancial.clarity.poc.dto.response.ErrorResponse;
+import com.aifinancial.clarity.poc.dto.response.TagResponse;
+import com.aifinancial.clarity.poc.service.TagService;
+import com.aifinancial.clarity.poc.util.ETags;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/tags")
+@Tag(name = "Tags", description = "Tag management operations")
+public class TagController {
+
+    private final TagService tagService;
+
+    public TagController(TagService tagService) {
+        this.tagService = tagService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get my tags",
+               description = "Retrieves the current user's tags by name, each with the number of todos carrying it")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tags retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TagResponse.class)))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required")
+    })
+    public ResponseEntity<List<TagResponse>> getTags() {
+        return ResponseEntity.ok(tagService.getCurrentUserTags());
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Create a tag",
+               description = "Creates a tag for the current user. Names are unique per user, ignoring case. Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tag created successfully",
+                    content = @Content(schema = @Schema(implementation = TagResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or name already in use"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    })
+    public ResponseEntity<TagResponse> createTag(
+            @Parameter(description = "Tag details", required = true)
+            @Valid @RequestBody TagRequest tagRequest) {
+        TagResponse tag = tagService.createTag(tagRequest);
+        return ResponseEntity.ok().eTag(ETags.of(tag.getVersion())).body(tag);
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Rename a tag",
+               description = "Renames a tag of the current user. Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tag renamed successfully",
+                    content = @Content(schema = @Schema(implementation = TagResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or name already in use"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Tag not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TagResponse> renameTag(
+            @Parameter(description = "ID of the tag to rename", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "New tag details", required = true)
+            @Valid @RequestBody TagRequest tagRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the tag has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TagResponse tag = tagService.renameTag(id, tagRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(tag.getVersion())).body(tag);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Delete a tag",
+               description = "Deletes a tag of the current user and removes it from all todos. Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Tag deleted successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Tag not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> deleteTag(
+            @Parameter(description = "ID of the tag to delete", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the tag has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        tagService.deleteTag(id, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.aifinancial.clarity.poc.controller;
 
 import java.util.List;
+import java.util.Locale;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,16 +13,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.aifinancial.clarity.poc.constant.PermissionConstants;
+import com.aifinancial.clarity.poc.constant.TagMatch;
+import com.aifinancial.clarity.poc.dto.request.MoveTodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoReportRequest;
 import com.aifinancial.clarity.poc.dto.request.TodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoTagsRequest;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
 import com.aifinancial.clarity.poc.dto.response.ErrorResponse;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.service.TodoService;
+import com.aifinancial.clarity.poc.util.ETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -46,24 +57,70 @@ public class TodoController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get todos", 
-               description = "Retrieves todos. Returns current user's todos unless specific userId is provided (requires permissions).")
+               description = "Retrieves todos. Returns current user's todos unless specific userId is provided (requires permissions). "
+                       + "With tags, only live todos carrying all of them (mode=all) or any of them (mode=any) are returned. "
+                       + "The ETag header identifies the owner's current state; sending it back in If-None-Match returns 304 while nothing has changed.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Todos retrieved successfully",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = TodoResponse.class)))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid tag mode, or tags combined with includeArchived"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
     public ResponseEntity<List<TodoResponse>> getTodos(
             @Parameter(description = "Optional user ID to filter todos by owner") 
-            @RequestParam(required = false) Long userId) {
-        if (userId != null) {
-            // This requires moderator or admin privileges, which is checked in the service
-            return ResponseEntity.ok(todoService.getTodosByUserId(userId));
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Also return archived todos, newest first after the live ones")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @Parameter(description = "Comma-separated tag names to filter by, ignoring case")
+            @RequestParam(required = false) List<String> tags,
+            @Parameter(description = "all: todos carrying every tag; any: todos carrying at least one")
+            @RequestParam(defaultValue = "all") String mode,
+            WebRequest webRequest) {
+        // A null userId returns the current user's todos; any other requires moderator or admin
+        // privileges, which is checked in the service before the change stamp is compared
+        List<TodoResponse> todos;
+        if (tags != null && !tags.isEmpty()) {
+            // Archived todos keep no tags
+            if (includeArchived) {
+                throw new BadRequestException("Tags cannot be combined with includeArchived");
+            }
+            TagMatch match = TagMatch.fromValue(mode);
+            String list = "todos-" + match.name().toLowerCase(Locale.ROOT) + "-" + Integer.toHexString(String.join(",", tags).hashCode());
+            todos = todoService.getTodosByTagsIfModified(userId, tags, match,
+                    changeStamp -> webRequest.checkNotModified(ETags.ofList(list, changeStamp)));
         } else {
-            // Otherwise, return current user's todos
-            return ResponseEntity.ok(todoService.getCurrentUserTodos());
+            String list = includeArchived ? "todos-archived" : "todos";
+            todos = todoService.getTodosIfModified(userId, includeArchived,
+                    changeStamp -> webRequest.checkNotModified(ETags.ofList(list, changeStamp)));
         }
+        // checkNotModified has set the ETag header, and the 304 status when it matched
+        return todos != null ? ResponseEntity.ok(todos) : null;
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Search todos",
+               description = "Full-text search over todo titles and descriptions, best matches first. Normal users search their own todos; "
+                       + "moderators and admins search all todos, optionally restricted to one user. Supports quoted phrases, OR and -exclusions.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Empty query or invalid cursor",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<CursorPage<TodoResponse>> searchTodos(
+            @Parameter(description = "Search text, in web search syntax") @RequestParam String q,
+            @Parameter(description = "Optional user ID to restrict the search to (moderators/admins only)")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(todoService.searchTodos(q, userId, cursor, size));
     }
 
     @GetMapping("/folder/{folderId}")
@@ -79,14 +136,17 @@ public class TodoController {
     })
     public ResponseEntity<List<TodoResponse>> getTodosByFolder(
             @Parameter(description = "ID of the folder to get todos from", required = true)
-            @PathVariable Long folderId) {
-        return ResponseEntity.ok(todoService.getTodosByFolder(folderId));
+            @PathVariable Long folderId,
+            @Parameter(description = "Also return archived todos, newest first after the live ones")
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok(todoService.getTodosByFolder(folderId, includeArchived));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get a todo by ID", 
-               description = "Retrieves a specific todo by its ID (if user has access)")
+               description = "Retrieves a specific todo by its ID (if user has access), including archived todos. "
+                       + "The ETag header carries the todo's version for conditional writes.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Todo retrieved successfully",
                     content = @Content(schema = @Schema(implementation = TodoResponse.class))),
@@ -97,7 +157,8 @@ public class TodoController {
     public ResponseEntity<TodoResponse> getTodo(
             @Parameter(description = "ID of the todo to retrieve", required = true)
             @PathVariable Long id) {
-        return ResponseEntity.ok(todoService.getTodo(id));
+        TodoResponse todo = todoService.getTodo(id);
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
     }
 
     @PostMapping
@@ -127,14 +188,19 @@ public class TodoController {
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-        @ApiResponse(responseCode = "404", description = "Todo not found")
+        @ApiResponse(responseCode = "404", description = "Todo not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<TodoResponse> updateTodo(
             @Parameter(description = "ID of the todo to update", required = true)
             @PathVariable Long id,
             @Parameter(description = "Updated todo details", required = true)
-            @Valid @RequestBody TodoRequest todoRequest) {
-        return ResponseEntity.ok(todoService.updateTodo(id, todoRequest));
+            @Valid @RequestBody TodoRequest todoRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the todo has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoResponse todo = todoService.updateTodo(id, todoRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
     }
 
     @PatchMapping("/{id}/toggle-completed")
@@ -146,12 +212,70 @@ public class TodoController {
                     content = @Content(schema = @Schema(implementation = TodoResponse.class))),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-        @ApiResponse(responseCode = "404", description = "Todo not found")
+        @ApiResponse(responseCode = "404", description = "Todo not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<TodoResponse> toggleCompleted(
             @Parameter(description = "ID of the todo to toggle status", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(todoService.toggleCompleted(id));
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the todo has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoResponse todo = todoService.toggleCompleted(id, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
+    }
+
+    @PatchMapping("/{id}/move")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Move a todo",
+               description = "Places a todo owned by the current user in a folder, right after afterId and/or right before beforeId, "
+                       + "or at the top when neither is given. Only the moved todo is written. Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Todo moved successfully",
+                    content = @Content(schema = @Schema(implementation = TodoResponse.class))),
+        @ApiResponse(responseCode = "400", description = "A neighbour is the todo itself, in another folder, or not between the other",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Todo, neighbour or folder not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TodoResponse> moveTodo(
+            @Parameter(description = "ID of the todo to move", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Target folder and neighbours", required = true)
+            @RequestBody MoveTodoRequest moveRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the todo has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoResponse todo = todoService.moveTodo(id, moveRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
+    }
+
+    @PutMapping("/{id}/tags")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Set a todo's tags",
+               description = "Replaces the tags of a todo owned by the current user with the given tags of theirs. "
+                       + "Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tags set successfully",
+                    content = @Content(schema = @Schema(implementation = TodoResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Todo or tag not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TodoResponse> setTags(
+            @Parameter(description = "ID of the todo to tag", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "All tags the todo should carry", required = true)
+            @Valid @RequestBody TodoTagsRequest tagsRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the todo has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoResponse todo = todoService.setTags(id, tagsRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
     }
 
     @DeleteMapping("/{id}")
@@ -162,12 +286,16 @@ public class TodoController {
         @ApiResponse(responseCode = "204", description = "Todo deleted successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
-        @ApiResponse(responseCode = "404", description = "Todo not found")
+        @ApiResponse(responseCode = "404", description = "Todo not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<Void> deleteTodo(
             @Parameter(description = "ID of the todo to delete", required = true)
-            @PathVariable Long id) {
-        todoService.deleteTodo(id);
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the todo has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        todoService.deleteTodo(id, ETags.parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
@@ -183,11 +311,40 @@ public class TodoController {
         @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
         @ApiResponse(responseCode = "404", description = "Todo not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<MessageResponse> toggleDisabledStatus(
             @Parameter(description = "ID of the todo to toggle disabled status", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(todoService.toggleTodoDisabledStatus(id));
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the todo has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ResponseEntity.ok(todoService.toggleTodoDisabledStatus(id, ETags.parseIfMatch(ifMatch)));
+    }
+
+    @PostMapping("/{id}/report")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Report a todo",
+               description = "Queues another user's todo that the caller can view for moderation. Reports of a todo "
+                       + "that is already waiting for a moderator are counted on the same queue item, once per reporter. "
+                       + "Todos the caller cannot view are reported as not found.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Todo reported",
+                    content = @Content(schema = @Schema(implementation = MessageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Own todo or reason too long",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "404", description = "Todo not found or not visible to the caller",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "429", description = "Too many of the caller's reports are waiting for a moderator",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<MessageResponse> reportTodo(
+            @Parameter(description = "ID of the todo to report", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Why the todo is reported")
+            @Valid @RequestBody(required = false) TodoReportRequest reportRequest) {
+        return ResponseEntity.ok(todoService.reportTodo(id, reportRequest));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.aifinancial.clarity.poc.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aifinancial.clarity.poc.constant.PermissionConstants;
+import com.aifinancial.clarity.poc.dto.request.TodoTemplateRequest;
+import com.aifinancial.clarity.poc.dto.response.ErrorResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoTemplateResponse;
+import com.aifinancial.clarity.poc.service.TodoTemplateService;
+import com.aifinancial.clarity.poc.util.ETags;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/todo-templates")
+@Tag(name = "Todo Templates", description = "Recurring todo management operations")
+public class TodoTemplateController {
+
+    private final TodoTemplateService todoTemplateService;
+
+    public TodoTemplateController(TodoTemplateService todoTemplateService) {
+        this.todoTemplateService = todoTemplateService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get my todo templates",
+               description = "Retrieves the current user's recurring todo templates, newest first")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Templates retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TodoTemplateResponse.class)))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required")
+    })
+    public ResponseEntity<List<TodoTemplateResponse>> getTemplates() {
+        return ResponseEntity.ok(todoTemplateService.getCurrentUserTemplates());
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get a todo template", description = "Retrieves a recurring todo template of the current user")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Template retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = TodoTemplateResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "404", description = "Template not found")
+    })
+    public ResponseEntity<TodoTemplateResponse> getTemplate(
+            @Parameter(description = "ID of the template", required = true)
+            @PathVariable Long id) {
+        TodoTemplateResponse template = todoTemplateService.getTemplateById(id);
+        return ResponseEntity.ok().eTag(ETags.of(template.getVersion())).body(template);
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Create a todo template",
+               description = "Creates a recurrence rule for the current user. Its occurrences are created as todos "
+                       + "a few days ahead by a background job. Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Template created successfully",
+                    content = @Content(schema = @Schema(implementation = TodoTemplateResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data, time zone or period"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions or folder of another user"),
+        @ApiResponse(responseCode = "404", description = "Folder not found")
+    })
+    public ResponseEntity<TodoTemplateResponse> createTemplate(
+            @Parameter(description = "Template details", required = true)
+            @Valid @RequestBody TodoTemplateRequest templateRequest) {
+        TodoTemplateResponse template = todoTemplateService.createTemplate(templateRequest);
+        return ResponseEntity.ok().eTag(ETags.of(template.getVersion())).body(template);
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Update a todo template",
+               description = "Replaces the rule of a template of the current user. Occurrences already created are kept. "
+                       + "Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Template updated successfully",
+                    content = @Content(schema = @Schema(implementation = TodoTemplateResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data, time zone or period"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions or folder of another user"),
+        @ApiResponse(responseCode = "404", description = "Template or folder not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TodoTemplateResponse> updateTemplate(
+            @Parameter(description = "ID of the template to update", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "New template details", required = true)
+            @Valid @RequestBody TodoTemplateRequest templateRequest,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the template has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoTemplateResponse template = todoTemplateService.updateTemplate(id, templateRequest, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(template.getVersion())).body(template);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAuthority('" + PermissionConstants.TODOS_OWN_EDIT + "')")
+    @Operation(summary = "Delete a todo template",
+               description = "Stops the recurrence. Occurrences already created stay as ordinary todos. "
+                       + "Requires 'todos.own.edit' permission.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Template deleted successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "Template not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> deleteTemplate(
+            @Parameter(description = "ID of the template to delete", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ETag from a previous read; the write fails with 412 if the template has changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        todoTemplateService.deleteTemplate(id, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.aifinancial.clarity.poc.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.dto.response.FolderTreeResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoSummaryResponse;
+import com.aifinancial.clarity.poc.service.TreeService;
+import com.aifinancial.clarity.poc.util.ETags;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/tree")
+@Tag(name = "Tree", description = "Folders and todos as one tree")
+public class TreeController {
+
+    private final TreeService treeService;
+
+    public TreeController(TreeService treeService) {
+        this.treeService = treeService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get the folder tree",
+               description = "Returns the folders as a tree, each with its first todos in rank order, and the todos without a folder. "
+                       + "A folder with more todos than todosPerFolder carries a todosCursor; fetch the rest with GET /tree/todos. "
+                       + "Returns the current user's tree unless userId is given (requires permissions). "
+                       + "The ETag header identifies the owner's current state; sending it back in If-None-Match returns 304 while nothing has changed.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tree retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = FolderTreeResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<FolderTreeResponse> getTree(
+            @Parameter(description = "Optional user ID to get the tree of") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Todos included per folder (capped at 500)") @RequestParam(defaultValue = "50") int todosPerFolder,
+            WebRequest webRequest) {
+        // The tag covers the limit too, as it changes the body
+        FolderTreeResponse tree = treeService.getTreeIfModified(userId, todosPerFolder,
+                changeStamp -> webRequest.checkNotModified(ETags.ofList("tree-" + todosPerFolder, changeStamp)));
+        return tree != null ? ResponseEntity.ok(tree) : null;
+    }
+
+    @GetMapping("/todos")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get more todos of a tree folder",
+               description = "Returns the todos of a folder, or the todos without a folder when folderId is omitted, that follow a cursor "
+                       + "from GET /tree or from a previous page, in rank order.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Todos retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Login required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "404", description = "User or folder not found")
+    })
+    public ResponseEntity<CursorPage<TodoSummaryResponse>> getTreeTodos(
+            @Parameter(description = "Optional user ID, as for GET /tree") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Folder to page through; omit for the todos without a folder") @RequestParam(required = false) Long folderId,
+            @Parameter(description = "todosCursor from the tree, or nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 500") @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(treeService.getTreeTodos(userId, folderId, cursor, size));
+    }
+}
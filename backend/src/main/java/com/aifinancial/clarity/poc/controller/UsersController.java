@@ -8,15 +8,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.aifinancial.clarity.poc.constant.PermissionConstants;
 import com.aifinancial.clarity.poc.dto.request.RoleUpdateRequest;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
+import com.aifinancial.clarity.poc.dto.response.UserSummaryResponse;
 import com.aifinancial.clarity.poc.service.AdminService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -44,6 +48,25 @@ public class UsersController {
         return ResponseEntity.ok(adminService.getAllUsers());
     }
 
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search users",
+            description = "Finds users whose username or email contains the query, or closely resembles it (typo-tolerant). "
+                    + "Substring matches are listed first. Requires users.view permission.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved matching users"),
+                    @ApiResponse(responseCode = "400", description = "Query without a word of at least 3 letters or digits, or invalid paging"),
+                    @ApiResponse(responseCode = "403", description = "Access denied")
+            }
+    )
+    @PreAuthorize("hasAuthority('" + PermissionConstants.USERS_VIEW + "')")
+    public ResponseEntity<SliceResponse<UserSummaryResponse>> searchUsers(
+            @Parameter(description = "Search text; must contain a word of at least 3 letters or digits") @RequestParam String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.searchUsers(q, page, size));
+    }
+
     @PutMapping("/role")
     @Operation(
             summary = "Update user role",
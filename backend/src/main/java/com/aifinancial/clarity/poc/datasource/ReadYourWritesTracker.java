@@ -0,0 +1,50 @@
+package com.aifinancial.clarity.poc.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Remembers when each user last wrote, so their reads can be pinned to the primary
+ * until the replicas have had time to catch up with their own changes.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMs;
+    private final LongSupplier clock;
+    private final Map<Long, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this(windowMs, System::currentTimeMillis);
+    }
+
+    ReadYourWritesTracker(long windowMs, LongSupplier clock) {
+        this.windowMs = windowMs;
+        this.clock = clock;
+    }
+
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            lastWriteAt.put(userId, clock.getAsLong());
+        }
+    }
+
+    public boolean isWithinWindow(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteAt.get(userId);
+        return writtenAt != null && clock.getAsLong() - writtenAt < windowMs;
+    }
+
+    /**
+     * Drop users whose window has passed to keep the map bounded by recent writers
+     */
+    @Scheduled(fixedDelayString = "${datasource-routing.health-check-interval-ms:5000}")
+    public void evictExpired() {
+        long cutoff = clock.getAsLong() - windowMs;
+        lastWriteAt.values().removeIf(writtenAt -> writtenAt <= cutoff);
+    }
+}
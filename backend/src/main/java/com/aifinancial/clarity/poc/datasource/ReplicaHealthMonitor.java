@@ -0,0 +1,165 @@
+package com.aifinancial.clarity.poc.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Tracks whether each replica is reachable and how far it lags behind the primary.
+ * Only replicas that are up and within the lag budget are handed out for reads.
+ */
+public class ReplicaHealthMonitor implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    // Null while the replica is not streaming from the primary: a replica whose WAL receiver is gone replays what it
+    // received and then looks caught up however stale it is. Roles without pg_read_all_stats see the receiver's pid
+    // but not its status, so for them a running receiver counts as streaming. Lag is zero while a streaming replica
+    // has replayed everything it received; otherwise it is the age of the last replayed commit.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                 WHERE status = 'streaming' OR (status IS NULL AND pid IS NOT NULL)) THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+            END
+            """;
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, ReplicaStatus> statuses = new LinkedHashMap<>();
+    private final long maxLagMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> available = Collections.emptyList();
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, long maxLagMs) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagMs = maxLagMs;
+        replicas.keySet().forEach(key -> statuses.put(key, new ReplicaStatus(key)));
+    }
+
+    /**
+     * Probe every replica once and rebuild the set of replicas eligible for reads
+     */
+    @Scheduled(fixedDelayString = "${datasource-routing.health-check-interval-ms:5000}")
+    public synchronized void checkReplicas() {
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            ReplicaStatus status = statuses.get(replica.getKey());
+            try (Connection connection = replica.getValue().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                    resultSet.next();
+                    long lagMs = resultSet.getLong(1);
+                    if (resultSet.wasNull()) {
+                        if (status.isUp()) {
+                            logger.warn("Replica {} is not streaming from the primary, routing its reads to the primary",
+                                    replica.getKey());
+                        }
+                        status.update(false, -1);
+                    } else {
+                        status.update(true, lagMs);
+                    }
+                }
+            } catch (Exception e) {
+                if (status.isUp()) {
+                    logger.warn("Replica {} failed its health check, routing its reads to the primary: {}",
+                            replica.getKey(), e.getMessage());
+                }
+                status.update(false, -1);
+            }
+        }
+        refreshAvailable();
+    }
+
+    /**
+     * Mark a replica's state directly, used when a replica's state is known without probing it
+     */
+    public synchronized void updateStatus(String key, boolean up, long lagMs) {
+        ReplicaStatus status = statuses.get(key);
+        if (status != null) {
+            status.update(up, lagMs);
+            refreshAvailable();
+        }
+    }
+
+    /**
+     * Pick the next eligible replica round-robin, or {@code null} when reads must fall back to the primary
+     */
+    public String nextAvailableReplica() {
+        List<String> candidates = available;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    public synchronized List<ReplicaStatus> getStatuses() {
+        return new ArrayList<>(statuses.values());
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void refreshAvailable() {
+        List<String> eligible = new ArrayList<>();
+        for (ReplicaStatus status : statuses.values()) {
+            if (status.isUp() && status.getLagMs() <= maxLagMs) {
+                eligible.add(status.getKey());
+            } else if (status.isUp()) {
+                logger.debug("Replica {} lags {} ms behind the primary, skipping it for reads", status.getKey(), status.getLagMs());
+            }
+        }
+        available = List.copyOf(eligible);
+    }
+
+    public static class ReplicaStatus {
+        private final String key;
+        private volatile boolean up;
+        private volatile long lagMs = -1;
+
+        ReplicaStatus(String key) {
+            this.key = key;
+        }
+
+        void update(boolean up, long lagMs) {
+            this.up = up;
+            this.lagMs = lagMs;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        public long getLagMs() {
+            return lagMs;
+        }
+    }
+}
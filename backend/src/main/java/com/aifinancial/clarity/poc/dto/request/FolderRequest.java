@@ -19,4 +19,7 @@ public class FolderRequest {
     
     @Size(max = 255, message = "Description cannot exceed 255 characters")
     private String description;
+
+    // Parent folder when creating a subfolder; updates keep the parent, see MoveFolderRequest
+    private Long parentId;
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import com.aifinancial.clarity.poc.constant.ModerationAction;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Queue items, claimed by the current moderator, to close with one action
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationResolveRequest {
+
+    @NotEmpty(message = "Item ids are required")
+    @Size(max = 500, message = "At most 500 items can be resolved at once")
+    private List<Long> itemIds;
+
+    @NotNull(message = "Action is required")
+    private ModerationAction action;
+}
@@ -0,0 +1,20 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationRuleRequest {
+
+    // Matched ignoring case anywhere in a todo's title or description
+    @NotBlank(message = "Keyword is required")
+    @Size(max = 100, message = "Keyword cannot exceed 100 characters")
+    private String keyword;
+}
@@ -0,0 +1,18 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * New parent of a folder, or null to make it a top-level folder. Its subfolders move with it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveFolderRequest {
+
+    private Long parentId;
+}
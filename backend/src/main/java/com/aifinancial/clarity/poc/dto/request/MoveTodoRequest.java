@@ -0,0 +1,23 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where to place a todo: in folderId (null for no folder), right after afterId and right before
+ * beforeId. Give either neighbour, both, or neither to move it to the top.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveTodoRequest {
+
+    private Long folderId;
+
+    private Long afterId;
+
+    private Long beforeId;
+}
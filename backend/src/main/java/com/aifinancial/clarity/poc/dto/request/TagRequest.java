@@ -0,0 +1,22 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagRequest {
+
+    // Commas separate tags in the ?tags= filter, so they cannot be part of a name
+    @NotBlank(message = "Tag name is required")
+    @Size(max = 50, message = "Tag name cannot exceed 50 characters")
+    @Pattern(regexp = "[^,]*", message = "Tag name cannot contain commas")
+    private String name;
+}
@@ -0,0 +1,17 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoReportRequest {
+
+    @Size(max = 200, message = "Reason cannot exceed 200 characters")
+    private String reason;
+}
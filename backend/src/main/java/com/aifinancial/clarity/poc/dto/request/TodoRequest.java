@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.OffsetDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,4 +25,7 @@ public class TodoRequest {
     private boolean completed;
     
     private Long folderId;
+
+    // Optional; a reminder fires at this time unless the todo is completed
+    private OffsetDateTime dueAt;
 } 
\ No newline at end of file
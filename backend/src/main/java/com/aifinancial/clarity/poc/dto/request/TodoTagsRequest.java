@@ -0,0 +1,24 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The complete set of tags a todo should carry; tags not listed are removed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoTagsRequest {
+
+    @NotNull(message = "Tag ids are required")
+    @Size(max = 100, message = "A todo can carry at most 100 tags")
+    private List<Long> tagIds;
+}
@@ -0,0 +1,59 @@
+package com.aifinancial.clarity.poc.dto.request;
+
+import com.aifinancial.clarity.poc.constant.RecurrenceFrequency;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoTemplateRequest {
+
+    @NotBlank(message = "Todo title is required")
+    @Size(min = 1, max = 100, message = "Title must be between 1 and 100 characters")
+    private String title;
+
+    @Size(max = 1000, message = "Description cannot exceed 1000 characters")
+    private String description;
+
+    private Long folderId;
+
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+
+    // Repeat every n days or weeks
+    @Builder.Default
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Max(value = 365, message = "Interval cannot exceed 365")
+    private int intervalCount = 1;
+
+    // WEEKLY only; defaults to the weekday of startsOn
+    private Set<DayOfWeek> weekdays;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startsOn;
+
+    // Last date an occurrence may fall on; null repeats forever
+    private LocalDate endsOn;
+
+    // Local time at which occurrences are due; null for occurrences without a due date
+    private LocalTime dueTime;
+
+    // IANA zone of startsOn, endsOn and dueTime, e.g. Europe/Berlin; defaults to UTC
+    @Size(max = 64, message = "Time zone cannot exceed 64 characters")
+    private String timeZone;
+}
@@ -0,0 +1,25 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogEntryResponse {
+    private Long id;
+    private OffsetDateTime occurredAt;
+    // Null for actions taken by the system
+    private Long actorId;
+    private String actorUsername;
+    private String action;
+    private String targetType;
+    private Long targetId;
+    private Map<String, Object> details;
+}
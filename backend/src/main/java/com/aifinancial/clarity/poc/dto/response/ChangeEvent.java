@@ -0,0 +1,26 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One committed write to a user's todos or folders, pushed on /sync/events. It only says what
+ * changed; fetch the new state with GET /sync.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    private Long userId;
+    // TODO or FOLDER
+    private String type;
+    // INSERT, UPDATE or DELETE
+    private String op;
+    // Null when the write touched too many rows to list
+    private List<Long> ids;
+}
@@ -0,0 +1,22 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Flat, unmanaged projection of a folder used by the streaming export
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderExportRow {
+    private Long id;
+    private String name;
+    private String description;
+    private Long ownerId;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+}
@@ -17,7 +17,13 @@ public class FolderResponse {
     private String description;
     private Long ownerId;
     private String ownerUsername;
+    // Null for top-level folders
+    private Long parentId;
     private int todoCount;
+    private int completedCount;
+    private int disabledCount;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    // Optimistic-locking version; send it back as If-Match to make a write conditional
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderStatsResponse {
+    private Long folderId;
+    private String folderName;
+    private TodoCountsResponse counts;
+}
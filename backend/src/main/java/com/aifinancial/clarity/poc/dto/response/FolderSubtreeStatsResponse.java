@@ -0,0 +1,18 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderSubtreeStatsResponse {
+    private Long folderId;
+    private String folderName;
+    // The folder itself and all folders below it
+    private int folderCount;
+    private TodoCountsResponse counts;
+}
@@ -0,0 +1,31 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderTreeNodeResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private Long parentId;
+    private int todoCount;
+    private int completedCount;
+    private int disabledCount;
+    private Long version;
+    // The folder's first todos in rank order
+    @Builder.Default
+    private List<TodoSummaryResponse> todos = new ArrayList<>();
+    // Set when the folder has more todos than were included; pass it to GET /tree/todos for the rest
+    private String todosCursor;
+    @Builder.Default
+    private List<FolderTreeNodeResponse> children = new ArrayList<>();
+}
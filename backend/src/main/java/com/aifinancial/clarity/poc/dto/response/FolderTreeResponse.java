@@ -0,0 +1,24 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A user's folders as a tree, with the first todos of every folder, and their unfiled todos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderTreeResponse {
+    private Long ownerId;
+    // Top-level folders, newest first, each with its subfolders
+    private List<FolderTreeNodeResponse> folders;
+    private List<TodoSummaryResponse> unfiledTodos;
+    // Set when there are more unfiled todos than were included, see FolderTreeNodeResponse.todosCursor
+    private String unfiledTodosCursor;
+}
@@ -0,0 +1,30 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationItemResponse {
+    private Long id;
+    private Long todoId;
+    private Long ownerId;
+    private String ownerUsername;
+    private String title;
+    private String description;
+    private boolean disabled;
+    // RULE or REPORT
+    private String source;
+    // Matched keyword, or the first reporter's reason
+    private String detail;
+    private int reportCount;
+    private OffsetDateTime createdAt;
+    // The item is handed to other moderators once this has passed
+    private OffsetDateTime leaseExpiresAt;
+}
@@ -0,0 +1,18 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationResolveResponse {
+    private int requestedCount;
+    // Less than requested when items were resolved already or are claimed by another moderator
+    private int resolvedCount;
+    // Todos disabled by this request; todos that were disabled already are not counted
+    private int disabledCount;
+}
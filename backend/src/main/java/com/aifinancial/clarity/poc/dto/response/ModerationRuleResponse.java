@@ -0,0 +1,19 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationRuleResponse {
+    private Long id;
+    private String keyword;
+    private Long createdBy;
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveTodosResponse {
+    private Long sourceFolderId;
+    // Null when the todos were moved out of any folder
+    private Long targetFolderId;
+    private int movedCount;
+}
@@ -0,0 +1,25 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatisticsResponse {
+    private long pendingEvents;
+    private long retryingEvents;
+    // Age of the oldest undelivered event, 0 when the outbox is empty
+    private long oldestPendingAgeMs;
+    private long deliveredEvents;
+    private long failedBatches;
+    private long lastDeliveryLagMs;
+    private OffsetDateTime lastRunAt;
+    private List<String> sinks;
+}
@@ -0,0 +1,26 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurrenceStatisticsResponse {
+    // Templates whose recurrence has not ended
+    private long activeTemplates;
+    // Active templates whose materialize_at has passed
+    private long dueTemplates;
+    // How long the longest-waiting due template has waited, 0 when none is due
+    private long oldestDueAgeMs;
+    private long materializedTodos;
+    private long processedTemplates;
+    private long batches;
+    private long lastRunDurationMs;
+    private OffsetDateTime lastRunAt;
+}
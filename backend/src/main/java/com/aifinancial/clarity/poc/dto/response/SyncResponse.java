@@ -0,0 +1,28 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes since a sync cursor. Pass cursor back as {@code since} on the next call; while hasMore
+ * is true, call again right away to fetch the rest of the changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // Created or updated since the cursor
+    private List<FolderResponse> folders;
+    private List<TodoResponse> todos;
+    private List<Long> deletedFolderIds;
+    private List<Long> deletedTodoIds;
+    private String cursor;
+    private boolean hasMore;
+    // The client's local copy must be replaced: this is the first page of a full snapshot
+    private boolean fullResync;
+}
@@ -0,0 +1,23 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagResponse {
+    private Long id;
+    private String name;
+    // Live todos carrying the tag
+    private long todoCount;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+    // Optimistic-locking version; send it back as If-Match to make a write conditional
+    private Long version;
+}
@@ -0,0 +1,18 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoCountsResponse {
+    private int total;
+    private int completed;
+    // Not completed, including disabled todos
+    private int open;
+    private int disabled;
+}
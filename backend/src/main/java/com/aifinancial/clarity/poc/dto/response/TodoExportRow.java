@@ -0,0 +1,26 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Flat, unmanaged projection of a todo used by the streaming export
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoExportRow {
+    private Long id;
+    private String title;
+    private String description;
+    private boolean completed;
+    private boolean disabled;
+    private Long ownerId;
+    private Long folderId;
+    private String folderName;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+}
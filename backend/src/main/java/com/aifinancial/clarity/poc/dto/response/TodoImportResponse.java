@@ -0,0 +1,22 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoImportResponse {
+    private long rowsRead;
+    private long todosImported;
+    private long rowsRejected;
+    private long foldersCreated;
+    private List<ImportLineError> errors;
+    // True when more rows were rejected than are listed in errors
+    private boolean errorsTruncated;
+}
@@ -5,7 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -21,6 +23,19 @@ public class TodoResponse {
     private String ownerUsername;
     private Long folderId;
     private String folderName;
+    // Null when the todo has no due date
+    private OffsetDateTime dueAt;
+    // Set on occurrences of a recurring todo, see /todo-templates
+    private Long templateId;
+    private LocalDate occurrenceOn;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    // Optimistic-locking version; send it back as If-Match to make a write conditional
+    private Long version;
+    // Position within the folder; null for archived todos
+    private String rank;
+    // Ids of the todo's tags, see GET /tags; empty for archived todos
+    private List<Long> tagIds;
+    // True for todos read from the archive, which are read-only
+    private boolean archived;
 } 
\ No newline at end of file
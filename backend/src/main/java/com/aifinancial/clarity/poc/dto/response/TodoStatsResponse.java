@@ -0,0 +1,20 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStatsResponse {
+    private Long userId;
+    private TodoCountsResponse overall;
+    // Todos that are not in any folder
+    private TodoCountsResponse unfiled;
+    private List<FolderStatsResponse> folders;
+}
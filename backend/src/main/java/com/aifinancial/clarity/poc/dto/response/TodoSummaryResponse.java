@@ -0,0 +1,23 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A todo as listed in the folder tree; GET /todos/{id} has the full todo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoSummaryResponse {
+    private Long id;
+    private String title;
+    private boolean completed;
+    private boolean disabled;
+    private Long folderId;
+    private String rank;
+    private Long version;
+}
@@ -0,0 +1,39 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import com.aifinancial.clarity.poc.constant.RecurrenceFrequency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoTemplateResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private Long folderId;
+    private RecurrenceFrequency frequency;
+    private int intervalCount;
+    // Empty for DAILY templates
+    private List<DayOfWeek> weekdays;
+    private LocalDate startsOn;
+    private LocalDate endsOn;
+    private LocalTime dueTime;
+    private String timeZone;
+    // First date without an occurrence yet; null once the rule has ended
+    private LocalDate nextOccurrenceOn;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+    // Optimistic-locking version; send it back as If-Match to make a write conditional
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package com.aifinancial.clarity.poc.dto.response;
+
+import java.time.OffsetDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOverviewResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private String role;
+    private long todoCount;
+    private long completedCount;
+    private long disabledCount;
+    private long folderCount;
+    // Latest of account creation and the last todo or folder change
+    private OffsetDateTime lastActivityAt;
+}
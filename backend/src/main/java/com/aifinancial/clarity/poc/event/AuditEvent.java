@@ -0,0 +1,52 @@
+package com.aifinancial.clarity.poc.event;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.aifinancial.clarity.poc.model.Todo;
+import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+
+/**
+ * Published inside the writing transaction for every moderation or admin action that must be
+ * audited. It is written to audit_log only if the transaction commits.
+ */
+public record AuditEvent(OffsetDateTime occurredAt, Long actorId, String actorUsername,
+                         String action, String targetType, Long targetId, Map<String, Object> details) {
+
+    public static final String TODO_DISABLED = "TODO_DISABLED";
+    public static final String TODO_ENABLED = "TODO_ENABLED";
+    public static final String USER_ROLE_CHANGED = "USER_ROLE_CHANGED";
+
+    public static AuditEvent todoDisabledToggled(Todo todo) {
+        return byCurrentUser(todo.isDisabled() ? TODO_DISABLED : TODO_ENABLED, "TODO", todo.getId(),
+                Map.of("ownerId", todo.getOwner().getId()));
+    }
+
+    public static AuditEvent todoDisabledFromQueue(Long todoId, Long ownerId, Long moderationItemId) {
+        return byCurrentUser(TODO_DISABLED, "TODO", todoId, Map.of("ownerId", ownerId, "moderationItemId", moderationItemId));
+    }
+
+    public static AuditEvent userRoleChanged(User user, String previousRole) {
+        // The previous role may be null, which Map.of rejects
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("previousRole", previousRole);
+        details.put("role", user.getRole().getName());
+        return byCurrentUser(USER_ROLE_CHANGED, "USER", user.getId(), details);
+    }
+
+    /**
+     * An action performed by the authenticated user, or by the system when there is none
+     */
+    public static AuditEvent byCurrentUser(String action, String targetType, Long targetId, Map<String, Object> details) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return new AuditEvent(OffsetDateTime.now(), user.getId(), user.getUsername(), action, targetType, targetId, details);
+        }
+        return new AuditEvent(OffsetDateTime.now(), null, null, action, targetType, targetId, details);
+    }
+}
@@ -0,0 +1,33 @@
+package com.aifinancial.clarity.poc.event;
+
+import com.aifinancial.clarity.poc.model.Todo;
+
+/**
+ * Published inside the writing transaction whenever a todo is created, changed or deleted.
+ * {@code before} is null for a create and {@code after} is null for a delete.
+ */
+public record TodoChangedEvent(Long userId, TodoState before, TodoState after) {
+
+    /**
+     * The parts of a todo that statistics depend on
+     */
+    public record TodoState(Long folderId, boolean completed, boolean disabled) {
+
+        public static TodoState of(Todo todo) {
+            return new TodoState(todo.getFolder() != null ? todo.getFolder().getId() : null,
+                    todo.isCompleted(), todo.isDisabled());
+        }
+    }
+
+    public static TodoChangedEvent created(Todo todo) {
+        return new TodoChangedEvent(todo.getOwner().getId(), null, TodoState.of(todo));
+    }
+
+    public static TodoChangedEvent updated(TodoState before, Todo todo) {
+        return new TodoChangedEvent(todo.getOwner().getId(), before, TodoState.of(todo));
+    }
+
+    public static TodoChangedEvent deleted(Todo todo) {
+        return new TodoChangedEvent(todo.getOwner().getId(), TodoState.of(todo), null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.aifinancial.clarity.poc.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published inside the writing transaction when a todo gets a due date or its due date moves
+ */
+public record TodoDueDateChangedEvent(Long todoId, OffsetDateTime dueAt) {
+}
@@ -0,0 +1,8 @@
+package com.aifinancial.clarity.poc.event;
+
+/**
+ * Published when a user's todos or folders change in a way that cannot be expressed as a
+ * per-todo delta (folder created, renamed or deleted, bulk import)
+ */
+public record TodoStatsInvalidatedEvent(Long userId) {
+}
@@ -0,0 +1,124 @@
+package com.aifinancial.clarity.poc.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+
+/**
+ * Reads RFC 4180 CSV with a header row. Quoted fields may contain commas,
+ * quotes and line breaks. Columns are matched by header name, so the CSV
+ * export can be imported as is; unknown columns are ignored.
+ */
+class CsvTodoImportReader extends TodoImportReader {
+
+    private final int titleColumn;
+    private final int descriptionColumn;
+    private final int completedColumn;
+    private final int folderColumn;
+
+    private long lineNumber = 1;
+    private long recordStartLine;
+
+    CsvTodoImportReader(InputStream input) throws IOException {
+        super(input);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("CSV file is empty");
+        }
+        List<String> columns = header.stream().map(name -> name.strip().toLowerCase(Locale.ROOT)).toList();
+        // Spreadsheet tools often prefix UTF-8 files with a byte order mark
+        if (!columns.isEmpty() && columns.get(0).startsWith("\uFEFF")) {
+            columns = new ArrayList<>(columns);
+            columns.set(0, columns.get(0).substring(1));
+        }
+        titleColumn = columns.indexOf("title");
+        descriptionColumn = columns.indexOf("description");
+        completedColumn = columns.indexOf("completed");
+        folderColumn = columns.indexOf("foldername") >= 0 ? columns.indexOf("foldername") : columns.indexOf("folder");
+        if (titleColumn < 0) {
+            throw new BadRequestException("CSV header must contain a title column");
+        }
+    }
+
+    @Override
+    public TodoImportRecord next() throws IOException {
+        List<String> fields = readRecord();
+        if (fields == null) {
+            return null;
+        }
+        return toRecord(recordStartLine, field(fields, titleColumn), field(fields, descriptionColumn),
+                field(fields, completedColumn), field(fields, folderColumn));
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+
+    /**
+     * Reads the next non-blank record, or returns null at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        recordStartLine = lineNumber;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                lineNumber++;
+                if (fields.isEmpty() && field.isEmpty() && !fieldWasQuoted) {
+                    // Skip blank lines
+                    recordStartLine = lineNumber;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new ImportRowException(recordStartLine, "Unterminated quoted field");
+        }
+        if (fields.isEmpty() && field.isEmpty() && !fieldWasQuoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
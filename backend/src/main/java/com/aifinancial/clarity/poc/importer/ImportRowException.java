@@ -0,0 +1,19 @@
+package com.aifinancial.clarity.poc.importer;
+
+/**
+ * Thrown for a single row that cannot be imported. The reader stays usable
+ * and continues with the next row.
+ */
+public class ImportRowException extends RuntimeException {
+
+    private final long lineNumber;
+
+    public ImportRowException(long lineNumber, String message) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,53 @@
+package com.aifinancial.clarity.poc.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads one JSON object per line. Accepts the fields written by the NDJSON export.
+ */
+class NdjsonTodoImportReader extends TodoImportReader {
+
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonTodoImportReader(InputStream input, ObjectMapper objectMapper) {
+        super(input);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public TodoImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new ImportRowException(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new ImportRowException(lineNumber, "Expected a JSON object");
+        }
+
+        String folderName = text(node, "folderName");
+        return toRecord(lineNumber, text(node, "title"), text(node, "description"), text(node, "completed"),
+                folderName != null ? folderName : text(node, "folder"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
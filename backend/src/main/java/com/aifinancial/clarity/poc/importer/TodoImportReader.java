@@ -0,0 +1,93 @@
+package com.aifinancial.clarity.poc.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads todo rows from an import file one at a time, so the whole file is
+ * never held in memory. Line numbers refer to the physical line a row starts on.
+ */
+public abstract class TodoImportReader implements Closeable {
+
+    static final int MAX_TITLE_LENGTH = 100;
+    static final int MAX_DESCRIPTION_LENGTH = 1000;
+    static final int MAX_FOLDER_NAME_LENGTH = 100;
+
+    protected final BufferedReader reader;
+
+    protected TodoImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    public static TodoImportReader open(DataFormat format, InputStream input, ObjectMapper objectMapper) throws IOException {
+        return format == DataFormat.CSV
+                ? new CsvTodoImportReader(input)
+                : new NdjsonTodoImportReader(input, objectMapper);
+    }
+
+    /**
+     * Returns the next row, or null at the end of the input.
+     *
+     * @throws ImportRowException if the row is invalid; the caller may keep reading
+     */
+    public abstract TodoImportRecord next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    protected static TodoImportRecord toRecord(long lineNumber, String title, String description,
+                                               String completed, String folderName) {
+        title = trimToNull(title);
+        description = trimToNull(description);
+        folderName = trimToNull(folderName);
+
+        if (title == null) {
+            throw new ImportRowException(lineNumber, "Title is required");
+        }
+        checkLength(lineNumber, "Title", title, MAX_TITLE_LENGTH);
+        checkLength(lineNumber, "Description", description, MAX_DESCRIPTION_LENGTH);
+        checkLength(lineNumber, "Folder name", folderName, MAX_FOLDER_NAME_LENGTH);
+
+        return new TodoImportRecord(lineNumber, title, description, parseBoolean(lineNumber, completed), folderName);
+    }
+
+    private static boolean parseBoolean(long lineNumber, String value) {
+        value = trimToNull(value);
+        if (value == null) {
+            return false;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes" -> {
+                return true;
+            }
+            case "false", "0", "no" -> {
+                return false;
+            }
+            default -> throw new ImportRowException(lineNumber, "Invalid completed value: " + value);
+        }
+    }
+
+    private static void checkLength(long lineNumber, String field, String value, int maxLength) {
+        if (value != null && value.codePointCount(0, value.length()) > maxLength) {
+            throw new ImportRowException(lineNumber, field + " must be at most " + maxLength + " characters");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
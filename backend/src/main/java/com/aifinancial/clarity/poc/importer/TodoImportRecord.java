@@ -0,0 +1,19 @@
+package com.aifinancial.clarity.poc.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A validated todo row read from an import file
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoImportRecord {
+    private long lineNumber;
+    private String title;
+    private String description;
+    private boolean completed;
+    private String folderName;
+}
@@ -0,0 +1,193 @@
+package com.aifinancial.clarity.poc.job;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recomputes the trigger-maintained todo counters (folders and user_todo_stats) from the todos table
+ * and corrects any row that has drifted, e.g. after manual SQL with triggers disabled.
+ * Works in small id-ordered batches, each in its own short transaction.
+ */
+@Component
+public class CounterReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterReconciliationJob.class);
+
+    private static final String LOCK_FOLDERS_SQL =
+            "SELECT id FROM folders WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String RECONCILE_FOLDERS_SQL = """
+            UPDATE folders f
+            SET todo_count = c.todo_count,
+                completed_count = c.completed_count,
+                disabled_count = c.disabled_count
+            FROM (
+                SELECT f2.id,
+                       count(t.id) AS todo_count,
+                       count(t.id) FILTER (WHERE t.completed) AS completed_count,
+                       count(t.id) FILTER (WHERE t.disabled) AS disabled_count
+                FROM folders f2
+                LEFT JOIN todos t ON t.folder_id = f2.id AND t.user_id = f2.user_id
+                WHERE f2.id > ? AND f2.id <= ?
+                GROUP BY f2.id
+            ) c
+            WHERE f.id = c.id
+              AND (f.todo_count, f.completed_count, f.disabled_count)
+                  IS DISTINCT FROM (c.todo_count, c.completed_count, c.disabled_count)
+            RETURNING f.user_id
+            """;
+
+    // Counter-only folder updates do not fire trg_folders_change_stamp_update, so the owners of
+    // corrected folders are bumped here; locked in user id order like the counter triggers do
+    private static final String BUMP_CHANGE_STAMPS_SQL = """
+            UPDATE user_todo_stats s
+            SET change_stamp = nextval('user_change_stamp_seq')
+            FROM (
+                SELECT user_id FROM user_todo_stats
+                WHERE user_id = ANY (?)
+                ORDER BY user_id
+                FOR UPDATE
+            ) l
+            WHERE s.user_id = l.user_id
+            """;
+
+    private static final String NEXT_USERS_SQL =
+            "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String INSERT_MISSING_STATS_SQL = """
+            INSERT INTO user_todo_stats (user_id)
+            SELECT u.id FROM users u WHERE u.id > ? AND u.id <= ?
+            ORDER BY u.id
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+
+    private static final String LOCK_STATS_SQL =
+            "SELECT user_id FROM user_todo_stats WHERE user_id > ? AND user_id <= ? ORDER BY user_id FOR UPDATE";
+
+    private static final String RECONCILE_STATS_SQL = """
+            UPDATE user_todo_stats s
+            SET todo_count = c.todo_count,
+                completed_count = c.completed_count,
+                disabled_count = c.disabled_count,
+                updated_at = CURRENT_TIMESTAMP
+            FROM (
+                SELECT s2.user_id,
+                       count(t.id) AS todo_count,
+                       count(t.id) FILTER (WHERE t.completed) AS completed_count,
+                       count(t.id) FILTER (WHERE t.disabled) AS disabled_count
+                FROM user_todo_stats s2
+                LEFT JOIN todos t ON t.user_id = s2.user_id
+                WHERE s2.user_id > ? AND s2.user_id <= ?
+                GROUP BY s2.user_id
+            ) c
+            WHERE s.user_id = c.user_id
+              AND (s.todo_count, s.completed_count, s.disabled_count)
+                  IS DISTINCT FROM (c.todo_count, c.completed_count, c.disabled_count)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CounterReconciliationJob(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${counters.reconciliation.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${counters.reconciliation.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Todo counter reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reconcile every folder and user stats row
+     *
+     * @return the number of rows whose counters had drifted and were corrected
+     */
+    public int reconcile() {
+        int folders = reconcileFolders();
+        int users = reconcileUserStats();
+        if (folders > 0 || users > 0) {
+            logger.warn("Todo counter reconciliation corrected {} folder(s) and {} user stats row(s)", folders, users);
+        } else {
+            logger.info("Todo counter reconciliation found no drift");
+        }
+        return folders + users;
+    }
+
+    private int reconcileFolders() {
+        int corrected = 0;
+        long afterId = 0;
+        while (true) {
+            long lowerBound = afterId;
+            Batch batch = transactionTemplate.execute(status -> {
+                // Locking first makes any concurrent trigger update wait for us, or us for it. The
+                // recount is a separate statement so it reads a snapshot taken after the locks are held.
+                List<Long> ids = jdbcTemplate.queryForList(LOCK_FOLDERS_SQL, Long.class, lowerBound, batchSize);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                long upperBound = ids.get(ids.size() - 1);
+                List<Long> ownerIds = jdbcTemplate.queryForList(RECONCILE_FOLDERS_SQL, Long.class, lowerBound, upperBound);
+                if (!ownerIds.isEmpty()) {
+                    jdbcTemplate.update(BUMP_CHANGE_STAMPS_SQL, (Object) ownerIds.stream().distinct().toArray(Long[]::new));
+                }
+                return new Batch(upperBound, ownerIds.size(), ids.size());
+            });
+            if (batch == null) {
+                return corrected;
+            }
+            corrected += batch.corrected();
+            afterId = batch.lastId();
+            if (batch.size() < batchSize) {
+                return corrected;
+            }
+        }
+    }
+
+    private int reconcileUserStats() {
+        int corrected = 0;
+        long afterId = 0;
+        while (true) {
+            long lowerBound = afterId;
+            Batch batch = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(NEXT_USERS_SQL, Long.class, lowerBound, batchSize);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                long upperBound = ids.get(ids.size() - 1);
+                // Users who never had a todo have no stats row yet
+                jdbcTemplate.update(INSERT_MISSING_STATS_SQL, lowerBound, upperBound);
+                jdbcTemplate.queryForList(LOCK_STATS_SQL, Long.class, lowerBound, upperBound);
+                int updated = jdbcTemplate.update(RECONCILE_STATS_SQL, lowerBound, upperBound);
+                return new Batch(upperBound, updated, ids.size());
+            });
+            if (batch == null) {
+                return corrected;
+            }
+            corrected += batch.corrected();
+            afterId = batch.lastId();
+            if (batch.size() < batchSize) {
+                return corrected;
+            }
+        }
+    }
+
+    private record Batch(long lastId, int corrected, int size) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.aifinancial.clarity.poc.job;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+
+/**
+ * Creates the occurrences of recurring todo templates up to {@code todos.recurrence.lookahead-days}
+ * ahead. Each batch claims the templates whose materialize_at has passed with SKIP LOCKED, then
+ * expands and inserts all their occurrences in one INSERT ... SELECT, with a TODO_CREATED outbox
+ * event for each. A template is then due again
+ * after a random 50-150% of the refresh interval, so templates created together do not all come
+ * due in the same minute. The unique index on (user_id, template_id, occurrence_on) makes a date
+ * that was already materialized, by this node or another, a no-op; dates whose occurrence has
+ * since been archived are skipped.
+ */
+@Component
+public class RecurringTodoMaterializerJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTodoMaterializerJob.class);
+
+    // Also takes the owners' rank locks, in user order so concurrent batches cannot deadlock on them
+    private static final String CLAIM_BATCH_SQL = """
+            WITH claimed AS (
+                SELECT id, user_id
+                FROM todo_templates
+                WHERE materialize_at <= now() AND next_occurrence_on IS NOT NULL
+                ORDER BY materialize_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), locked AS (
+                SELECT count(pg_advisory_xact_lock(u.user_id)) AS users
+                FROM (SELECT DISTINCT user_id FROM claimed ORDER BY user_id) u
+            )
+            SELECT coalesce(array_agg(c.id), '{}') AS template_ids FROM locked LEFT JOIN claimed c ON TRUE
+            """;
+
+    // Runs as a separate statement once the rank locks are held, so its snapshot includes every
+    // todo appended before them. New occurrences go below the existing todos of their folder, in
+    // date order. Dates run up to the horizon in the template's own time zone; due_time is local
+    // to it too.
+    private static final String MATERIALIZE_BATCH_SQL = """
+            WITH claimed AS (
+                SELECT id, user_id, folder_id, title, description, frequency, interval_count, weekdays,
+                       starts_on, ends_on, due_time, time_zone, next_occurrence_on,
+                       least((now() AT TIME ZONE time_zone)::date + ?, coalesce(ends_on, 'infinity'::date)) AS horizon_on
+                FROM todo_templates
+                WHERE id = ANY (?)
+            ), occurrences AS (
+                SELECT c.id AS template_id, c.user_id, c.folder_id, c.title, c.description, d::date AS occurrence_on,
+                       (d::date + c.due_time) AT TIME ZONE c.time_zone AS due_at
+                FROM claimed c
+                CROSS JOIN LATERAL generate_series(c.next_occurrence_on, c.horizon_on, interval '1 day') AS d
+                WHERE CASE c.frequency
+                          WHEN 'DAILY' THEN (d::date - c.starts_on) % c.interval_count = 0
+                          ELSE ((d::date - c.starts_on) / 7) % c.interval_count = 0
+                               AND c.weekdays & (1 << (extract(isodow FROM d)::int - 1)) <> 0
+                      END
+                  -- Archived occurrences are out of reach of the unique index on todos
+                  AND NOT EXISTS (SELECT 1 FROM todos_archive a
+                                  WHERE a.template_id = c.id AND a.occurrence_on = d::date)
+            ), bottoms AS (
+                SELECT f.user_id, f.folder_id,
+                       coalesce((SELECT max(t.rank) FROM todos t
+                                 WHERE t.user_id = f.user_id AND t.folder_id IS NOT DISTINCT FROM f.folder_id), '') AS rank
+                FROM (SELECT DISTINCT user_id, folder_id FROM occurrences) f
+            ), inserted AS (
+                INSERT INTO todos (title, description, completed, disabled, user_id, folder_id, template_id, occurrence_on, due_at, rank)
+                SELECT o.title, o.description, FALSE, FALSE, o.user_id, o.folder_id, o.template_id, o.occurrence_on, o.due_at,
+                       b.rank || todo_rank_key(row_number() OVER w, count(*) OVER (PARTITION BY o.user_id, o.folder_id))
+                FROM occurrences o
+                JOIN bottoms b ON b.user_id = o.user_id AND b.folder_id IS NOT DISTINCT FROM o.folder_id
+                WINDOW w AS (PARTITION BY o.user_id, o.folder_id ORDER BY o.occurrence_on, o.template_id)
+                ON CONFLICT (user_id, template_id, occurrence_on) WHERE template_id IS NOT NULL DO NOTHING
+                RETURNING *
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'TODO', t.id, 'TODO_CREATED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+                FROM inserted t
+            ), advanced AS (
+                UPDATE todo_templates t
+                SET next_occurrence_on = CASE WHEN c.horizon_on >= c.ends_on THEN NULL ELSE c.horizon_on + 1 END,
+                    materialize_at = now() + make_interval(secs => ? * (0.5 + random()))
+                FROM claimed c
+                WHERE t.id = c.id
+                RETURNING t.id
+            )
+            SELECT (SELECT count(*) FROM advanced) AS templates,
+                   (SELECT count(*) FROM inserted) AS todos,
+                   (SELECT array_agg(DISTINCT user_id) FROM inserted) AS user_ids
+            """;
+
+    private record Batch(int templates, int todos, List<Long> ownerIds) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int lookaheadDays;
+    private final long refreshSeconds;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final AtomicLong materializedTodos = new AtomicLong();
+    private final AtomicLong processedTemplates = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile OffsetDateTime lastRunAt;
+    private volatile long lastRunDurationMs;
+
+    public RecurringTodoMaterializerJob(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${todos.recurrence.lookahead-days:7}") int lookaheadDays,
+                                        @Value("${todos.recurrence.refresh-interval:1d}") Duration refreshInterval,
+                                        @Value("${todos.recurrence.batch-size:200}") int batchSize,
+                                        @Value("${todos.recurrence.max-batches:50}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.lookaheadDays = lookaheadDays;
+        this.refreshSeconds = refreshInterval.toSeconds();
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${todos.recurrence.interval-ms:60000}")
+    public void run() {
+        try {
+            materialize();
+        } catch (Exception e) {
+            logger.error("Recurring todo materialization failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Materialize up to {@code max-batches} batches of templates that are due
+     *
+     * @return the number of todos created
+     */
+    public int materialize() {
+        long startedMs = System.currentTimeMillis();
+        int templates = 0;
+        int created = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Batch batch = transactionTemplate.execute(status -> {
+                Long[] templateIds = jdbcTemplate.queryForObject(CLAIM_BATCH_SQL,
+                        (rs, rowNum) -> (Long[]) rs.getArray("template_ids").getArray(), batchSize);
+                if (templateIds.length == 0) {
+                    return new Batch(0, 0, List.of());
+                }
+                Batch result = jdbcTemplate.queryForObject(MATERIALIZE_BATCH_SQL, (rs, rowNum) -> new Batch(
+                        rs.getInt("templates"), rs.getInt("todos"),
+                        rs.getArray("user_ids") != null ? List.of((Long[]) rs.getArray("user_ids").getArray()) : List.of()),
+                        lookaheadDays, templateIds, refreshSeconds);
+                // Cached /stats entries of these owners no longer match the counters
+                result.ownerIds().forEach(ownerId -> eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(ownerId)));
+                return result;
+            });
+            templates += batch.templates();
+            created += batch.todos();
+            batches.incrementAndGet();
+            if (batch.templates() < batchSize) {
+                break;
+            }
+        }
+        materializedTodos.addAndGet(created);
+        processedTemplates.addAndGet(templates);
+        lastRunAt = OffsetDateTime.now();
+        lastRunDurationMs = System.currentTimeMillis() - startedMs;
+        if (templates > 0) {
+            logger.info("Recurring todo materialization created {} todo(s) from {} template(s) in {} ms",
+                    created, templates, lastRunDurationMs);
+        }
+        return created;
+    }
+
+    public long getMaterializedTodos() {
+        return materializedTodos.get();
+    }
+
+    public long getProcessedTemplates() {
+        return processedTemplates.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public OffsetDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public long getLastRunDurationMs() {
+        return lastRunDurationMs;
+    }
+}
@@ -0,0 +1,69 @@
+package com.aifinancial.clarity.poc.job;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes sync tombstones older than {@code sync.tombstones.retention} in bounded batches.
+ * Clients whose cursor is older than the retention get a full resync instead, so nothing they
+ * still need is lost.
+ */
+@Component
+public class SyncTombstonePurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncTombstonePurgeJob.class);
+
+    private static final String PURGE_BATCH_SQL = """
+            DELETE FROM sync_tombstones
+            WHERE id IN (
+                SELECT id FROM sync_tombstones
+                WHERE deleted_at < ?
+                LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    public SyncTombstonePurgeJob(JdbcTemplate jdbcTemplate,
+                                 @Value("${sync.tombstones.retention:30d}") Duration retention,
+                                 @Value("${sync.tombstones.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${sync.tombstones.purge-cron:0 30 4 * * *}")
+    public void run() {
+        try {
+            purge();
+        } catch (Exception e) {
+            logger.error("Sync tombstone purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete all tombstones past the retention, one autocommitted batch at a time
+     *
+     * @return the number of tombstones deleted
+     */
+    public int purge() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_BATCH_SQL, cutoff, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        logger.info("Sync tombstone purge deleted {} tombstone(s) older than {}", purged, cutoff);
+        return purged;
+    }
+}
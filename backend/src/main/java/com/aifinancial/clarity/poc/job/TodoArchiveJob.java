@@ -0,0 +1,109 @@
+package com.aifinancial.clarity.poc.job;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+
+/**
+ * Moves completed todos that have not changed for {@code todos.archive.min-age} from todos into
+ * todos_archive, in bounded batches that each run in their own short transaction.
+ * Rows locked by a concurrent writer are skipped and picked up by a later run.
+ */
+@Component
+public class TodoArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoArchiveJob.class);
+
+    // The counter triggers on todos see the DELETE, so folder and user counters only count live todos.
+    // Each moved todo gets a TODO_ARCHIVED outbox event with its last state.
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH batch AS (
+                SELECT id, user_id FROM todos
+                WHERE completed AND updated_at < ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM todos t USING batch b
+                WHERE t.id = b.id AND t.user_id = b.user_id
+                RETURNING t.*
+            ), archived AS (
+                INSERT INTO todos_archive (id, title, description, completed, disabled, user_id, folder_id, created_at, updated_at, version,
+                                           rank, due_at, template_id, occurrence_on)
+                SELECT id, title, description, completed, disabled, user_id, folder_id, created_at, updated_at, version,
+                       rank, due_at, template_id, occurrence_on
+                FROM moved
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'TODO', t.id, 'TODO_ARCHIVED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+                FROM moved t
+            )
+            SELECT user_id FROM moved
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public TodoArchiveJob(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${todos.archive.min-age:90d}") Duration minAge,
+                          @Value("${todos.archive.batch-size:1000}") int batchSize,
+                          @Value("${todos.archive.max-batches:100}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${todos.archive.cron:0 0 4 * * *}")
+    public void run() {
+        try {
+            archive();
+        } catch (Exception e) {
+            logger.error("Todo archiving failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive up to {@code max-batches} batches of eligible todos
+     *
+     * @return the number of todos moved to the archive
+     */
+    public int archive() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(minAge);
+        int archived = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ownerIds = jdbcTemplate.queryForList(ARCHIVE_BATCH_SQL, Long.class, cutoff, batchSize);
+                // Cached /stats entries of these owners no longer match the counters
+                ownerIds.stream().distinct().forEach(ownerId -> eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(ownerId)));
+                return ownerIds.size();
+            });
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        logger.info("Todo archiving moved {} todo(s) completed before {}", archived, cutoff);
+        return archived;
+    }
+}
@@ -0,0 +1,85 @@
+package com.aifinancial.clarity.poc.job;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+
+/**
+ * Respaces the ranks of folders in which some key grew longer than {@code todos.rank.rebalance-length},
+ * as repeated moves into the same gap do. Each folder is rewritten in its own transaction under the
+ * owner's rank lock, keeping its order; only rows whose key changes are written, each with a new
+ * version and a TODO_UPDATED outbox event.
+ */
+@Component
+public class TodoRankRebalanceJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoRankRebalanceJob.class);
+
+    private static final String LONG_RANK_FOLDERS_SQL = """
+            SELECT DISTINCT user_id, folder_id FROM todos
+            WHERE length(rank) > ?
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebalanceLength;
+    private final int maxFolders;
+
+    public TodoRankRebalanceJob(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${todos.rank.rebalance-length:32}") int rebalanceLength,
+                                @Value("${todos.rank.max-folders:100}") int maxFolders) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebalanceLength = rebalanceLength;
+        this.maxFolders = maxFolders;
+    }
+
+    @Scheduled(cron = "${todos.rank.rebalance-cron:0 */5 * * * *}")
+    public void run() {
+        try {
+            rebalance();
+        } catch (Exception e) {
+            logger.error("Todo rank rebalancing failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebalance up to {@code max-folders} folders holding a long key
+     *
+     * @return the number of todos whose rank changed
+     */
+    public int rebalance() {
+        List<Map<String, Object>> folders = jdbcTemplate.queryForList(LONG_RANK_FOLDERS_SQL, rebalanceLength, maxFolders);
+        int updated = 0;
+        for (Map<String, Object> folder : folders) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ownerId", folder.get("user_id"))
+                    .addValue("folderId", folder.get("folder_id"))
+                    .addValue("excludeId", null);
+            updated += transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, folder.get("user_id"));
+                return namedJdbcTemplate.queryForObject(TodoRepository.REBALANCE_RANKS_SQL, params, Integer.class);
+            });
+        }
+        if (!folders.isEmpty()) {
+            logger.info("Todo rank rebalancing rewrote {} rank(s) in {} folder(s)", updated, folders.size());
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,73 @@
+package com.aifinancial.clarity.poc.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * A completed todo moved out of {@code todos} by the archive job. Archived todos are read-only.
+ */
+@Data
+@Entity
+@Builder
+@Immutable
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "todos_archive")
+public class ArchivedTodo {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(length = 1000)
+    private String description;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(nullable = false)
+    private boolean disabled;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "folder_id")
+    private Folder folder;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private OffsetDateTime archivedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // Rank the todo had in its folder; null for todos archived before V23
+    private String rank;
+
+    // Due date the todo had; null for todos archived before V24
+    @Column(name = "due_at")
+    private OffsetDateTime dueAt;
+
+    // Template and date the todo was an occurrence of; null for one-off todos and those archived before V25
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Column(name = "occurrence_on")
+    private LocalDate occurrenceOn;
+}
@@ -34,9 +34,24 @@ public class Folder {
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
 
+    // Null for top-level folders; folders.path follows it through database triggers (V17)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Folder parent;
+
     @OneToMany(mappedBy = "folder", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Todo> todos = new ArrayList<>();
 
+    // Maintained by database triggers on todos (V6), never written by the application
+    @Column(name = "todo_count", insertable = false, updatable = false)
+    private int todoCount;
+
+    @Column(name = "completed_count", insertable = false, updatable = false)
+    private int completedCount;
+
+    @Column(name = "disabled_count", insertable = false, updatable = false)
+    private int disabledCount;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
@@ -44,4 +59,8 @@ public class Folder {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 } 
\ No newline at end of file
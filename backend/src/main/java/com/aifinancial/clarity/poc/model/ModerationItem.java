@@ -0,0 +1,67 @@
+package com.aifinancial.clarity.poc.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A todo waiting for a moderator. Items are written, claimed and resolved by the native
+ * statements of ModerationQueueRepository, never through this entity.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "moderation_queue")
+public class ModerationItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "todo_id", nullable = false)
+    private Long todoId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long ownerId;
+
+    // RULE or REPORT
+    @Column(nullable = false, length = 10)
+    private String source;
+
+    @Column(length = 200)
+    private String detail;
+
+    @Column(name = "reported_by")
+    private Long reportedBy;
+
+    @Column(name = "report_count", nullable = false)
+    private int reportCount;
+
+    // PENDING or RESOLVED
+    @Column(nullable = false, length = 10)
+    private String status;
+
+    @Column(name = "claimed_by")
+    private Long claimedBy;
+
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;
+
+    @Column(length = 10)
+    private String resolution;
+
+    @Column(name = "resolved_by")
+    private Long resolvedBy;
+
+    @Column(name = "resolved_at")
+    private OffsetDateTime resolvedAt;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
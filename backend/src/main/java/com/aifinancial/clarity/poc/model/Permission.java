@@ -2,6 +2,8 @@ package com.aifinancial.clarity.poc.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -11,6 +13,7 @@ import java.util.Set;
 @ToString(exclude = "roles") // Exclude collections in toString to avoid recursion and excessive output
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY) // Reference data, only changed through migrations
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,6 +2,8 @@ package com.aifinancial.clarity.poc.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -11,6 +13,7 @@ import java.util.Set;
 @ToString(exclude = "permissions") // Exclude collections in toString to avoid recursion and excessive output
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY) // Reference data, only changed through migrations
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +29,7 @@ public class Role {
     private String name; // e.g., NORMAL, MODERATOR, SUPER_ADMIN
 
     @ManyToMany(fetch = FetchType.EAGER) // Eager fetch permissions for simplicity
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
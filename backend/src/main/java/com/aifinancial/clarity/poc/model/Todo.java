@@ -6,8 +6,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
 @Data
@@ -38,10 +40,35 @@ public class Todo {
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
 
+    // todos is hash-partitioned on user_id; Hibernate adds the partition key to the
+    // WHERE clause of its updates and deletes so they touch a single partition
+    @PartitionKey
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long ownerId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "folder_id")
     private Folder folder;
 
+    // Fractional index ordering the todo within its folder, see RankKeys
+    @Column(nullable = false)
+    private String rank;
+
+    // When the todo is due; a reminder fires then unless it is completed (V19)
+    @Column(name = "due_at")
+    private OffsetDateTime dueAt;
+
+    // Template and date this todo is an occurrence of, written by RecurringTodoMaterializerJob (V20)
+    @Column(name = "template_id", insertable = false, updatable = false)
+    private Long templateId;
+
+    @Column(name = "occurrence_on", insertable = false, updatable = false)
+    private LocalDate occurrenceOn;
+
+    // Sorted ids of the todo's tags, maintained by database triggers on todo_tags (V18)
+    @Column(name = "tag_ids", insertable = false, updatable = false)
+    private Long[] tagIds;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
@@ -49,4 +76,13 @@ public class Todo {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    void syncOwnerId() {
+        ownerId = owner != null ? owner.getId() : null;
+    }
 } 
\ No newline at end of file
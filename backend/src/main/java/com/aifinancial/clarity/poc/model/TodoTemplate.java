@@ -0,0 +1,88 @@
+package com.aifinancial.clarity.poc.model;
+
+import com.aifinancial.clarity.poc.constant.RecurrenceFrequency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+
+/**
+ * A recurrence rule; RecurringTodoMaterializerJob creates its occurrences as todos ahead of time
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "todo_templates")
+public class TodoTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "folder_id")
+    private Folder folder;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(length = 1000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "interval_count", nullable = false)
+    private int intervalCount;
+
+    // Bit mask of ISO weekdays (bit 0 = Monday) for WEEKLY rules
+    @Column(nullable = false)
+    private short weekdays;
+
+    @Column(name = "starts_on", nullable = false)
+    private LocalDate startsOn;
+
+    @Column(name = "ends_on")
+    private LocalDate endsOn;
+
+    // Local time at which occurrences are due; null for occurrences without a due date
+    @Column(name = "due_time")
+    private LocalTime dueTime;
+
+    @Column(name = "time_zone", nullable = false, length = 64)
+    private String timeZone;
+
+    // First date not materialized yet; null once the rule has ended
+    @Column(name = "next_occurrence_on")
+    private LocalDate nextOccurrenceOn;
+
+    @Column(name = "materialize_at", nullable = false)
+    private OffsetDateTime materializeAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+}
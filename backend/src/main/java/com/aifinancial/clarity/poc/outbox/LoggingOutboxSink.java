@@ -0,0 +1,31 @@
+package com.aifinancial.clarity.poc.outbox;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes each event to the application log, for development and tests
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox.sinks.log", name = "enabled", havingValue = "true")
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            logger.info("Outbox event {} {} {}#{}: {}", message.id(), message.eventType(),
+                    message.aggregateType(), message.aggregateId(), message.payload());
+        }
+    }
+}
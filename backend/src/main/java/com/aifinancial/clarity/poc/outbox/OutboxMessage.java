@@ -0,0 +1,12 @@
+package com.aifinancial.clarity.poc.outbox;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One outbox event as handed to the sinks. The id is unique and stable across redeliveries.
+ *
+ * @param payload the event's JSON document
+ */
+public record OutboxMessage(long id, String aggregateType, long aggregateId, String eventType,
+                            String payload, OffsetDateTime createdAt) {
+}
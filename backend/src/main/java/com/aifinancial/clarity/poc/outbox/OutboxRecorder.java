@@ -0,0 +1,106 @@
+package com.aifinancial.clarity.poc.outbox;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.Todo;
+import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.reminder.Reminder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes outbox events. Must run inside the transaction making the change, so the event is
+ * committed exactly when the change is; {@link OutboxRelay} delivers it afterwards.
+ */
+@Component
+public class OutboxRecorder {
+
+    public static final String TODO_CREATED = "TODO_CREATED";
+    public static final String TODO_UPDATED = "TODO_UPDATED";
+    public static final String TODO_DELETED = "TODO_DELETED";
+    // Written in SQL by the archive job
+    public static final String TODO_ARCHIVED = "TODO_ARCHIVED";
+    public static final String TODO_REMINDER_DUE = "TODO_REMINDER_DUE";
+    public static final String FOLDER_CREATED = "FOLDER_CREATED";
+    public static final String FOLDER_UPDATED = "FOLDER_UPDATED";
+    public static final String FOLDER_DELETED = "FOLDER_DELETED";
+    public static final String USER_ROLE_CHANGED = "USER_ROLE_CHANGED";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+            VALUES (?, ?, ?, ?::jsonb)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxRecorder(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTodo(String eventType, Todo todo) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", todo.getId());
+        payload.put("ownerId", todo.getOwner().getId());
+        payload.put("folderId", todo.getFolder() != null ? todo.getFolder().getId() : null);
+        payload.put("title", todo.getTitle());
+        payload.put("description", todo.getDescription());
+        payload.put("completed", todo.isCompleted());
+        payload.put("disabled", todo.isDisabled());
+        payload.put("dueAt", todo.getDueAt());
+        payload.put("tagIds", todo.getTagIds());
+        payload.put("version", todo.getVersion());
+        payload.put("updatedAt", todo.getUpdatedAt());
+        record("TODO", todo.getId(), eventType, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTodoReminder(Reminder reminder) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", reminder.todoId());
+        payload.put("ownerId", reminder.ownerId());
+        payload.put("title", reminder.title());
+        payload.put("dueAt", reminder.dueAt());
+        record("TODO", reminder.todoId(), TODO_REMINDER_DUE, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFolder(String eventType, Folder folder) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", folder.getId());
+        payload.put("ownerId", folder.getOwner().getId());
+        payload.put("parentId", folder.getParent() != null ? folder.getParent().getId() : null);
+        payload.put("name", folder.getName());
+        payload.put("description", folder.getDescription());
+        payload.put("version", folder.getVersion());
+        payload.put("updatedAt", folder.getUpdatedAt());
+        record("FOLDER", folder.getId(), eventType, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserRoleChanged(User user, String previousRole) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", user.getId());
+        payload.put("username", user.getUsername());
+        payload.put("previousRole", previousRole);
+        payload.put("role", user.getRole().getName());
+        record("USER", user.getId(), USER_ROLE_CHANGED, payload);
+    }
+
+    private void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, aggregateType, aggregateId, eventType, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+    }
+}
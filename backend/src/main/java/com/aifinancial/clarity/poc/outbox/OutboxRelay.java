@@ -0,0 +1,161 @@
+package com.aifinancial.clarity.poc.outbox;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers outbox events to every {@link OutboxSink} in bounded batches. Each batch is locked
+ * with SKIP LOCKED, so several nodes can relay side by side without taking the same events, and is
+ * deleted in the same transaction once all sinks accepted it. A failed batch stays in the outbox
+ * and is retried with exponential backoff.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String LOCK_BATCH_SQL = """
+            SELECT id, aggregate_type, aggregate_id, event_type, payload::text AS payload, created_at
+            FROM outbox
+            WHERE next_attempt_at <= now()
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_BATCH_SQL = "DELETE FROM outbox WHERE id = ANY (?)";
+
+    private static final String POSTPONE_BATCH_SQL = """
+            UPDATE outbox
+            SET attempts = attempts + 1,
+                next_attempt_at = now() + make_interval(secs => least(? * power(2, attempts), ?)),
+                last_error = left(?, 1000)
+            WHERE id = ANY (?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicLong deliveredEvents = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile long lastDeliveryLagMs = -1;
+    private volatile OffsetDateTime lastRunAt;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       List<OutboxSink> sinks,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches:20}") int maxBatches,
+                       @Value("${outbox.relay.initial-backoff:1s}") Duration initialBackoff,
+                       @Value("${outbox.relay.max-backoff:5m}") Duration maxBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sinks = List.copyOf(sinks);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        if (this.sinks.isEmpty()) {
+            logger.warn("No outbox sink is enabled; outbox events are kept until one is");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void run() {
+        try {
+            relay();
+        } catch (Exception e) {
+            logger.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deliver up to {@code max-batches} batches of due events
+     *
+     * @return the number of events delivered
+     */
+    public int relay() {
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+        int delivered = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer batch = transactionTemplate.execute(status -> relayBatch());
+            if (batch < 0) {
+                break;
+            }
+            delivered += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        lastRunAt = OffsetDateTime.now();
+        return delivered;
+    }
+
+    public List<String> getSinkNames() {
+        return sinks.stream().map(OutboxSink::getName).toList();
+    }
+
+    public long getDeliveredEvents() {
+        return deliveredEvents.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    /**
+     * Time from commit to delivery of the oldest event in the last delivered batch, or -1 before the first
+     */
+    public long getLastDeliveryLagMs() {
+        return lastDeliveryLagMs;
+    }
+
+    public OffsetDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    // Returns the number of events delivered, or -1 when the batch failed
+    private int relayBatch() {
+        List<OutboxMessage> messages = jdbcTemplate.query(LOCK_BATCH_SQL, (rs, rowNum) -> new OutboxMessage(
+                rs.getLong("id"), rs.getString("aggregate_type"), rs.getLong("aggregate_id"),
+                rs.getString("event_type"), rs.getString("payload"), rs.getObject("created_at", OffsetDateTime.class)), batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = messages.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(messages);
+            } catch (Exception e) {
+                logger.warn("Outbox sink {} rejected {} event(s) starting at {}, retrying later: {}",
+                        sink.getName(), messages.size(), ids[0], e.getMessage());
+                jdbcTemplate.update(POSTPONE_BATCH_SQL, initialBackoff.toMillis() / 1000.0, maxBackoff.toMillis() / 1000.0,
+                        sink.getName() + ": " + e.getMessage(), ids);
+                failedBatches.incrementAndGet();
+                return -1;
+            }
+        }
+        jdbcTemplate.update(DELETE_BATCH_SQL, (Object) ids);
+        deliveredEvents.addAndGet(messages.size());
+        lastDeliveryLagMs = Duration.between(messages.get(0).createdAt(), OffsetDateTime.now()).toMillis();
+        return messages.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.aifinancial.clarity.poc.outbox;
+
+import java.util.List;
+
+/**
+ * Downstream destination of outbox events. Every enabled sink receives every event, possibly
+ * more than once: a batch is sent again to all sinks when any of them fails.
+ */
+public interface OutboxSink {
+
+    String getName();
+
+    /**
+     * Deliver a batch in outbox order; return only once it is durably accepted
+     *
+     * @throws Exception to have the whole batch retried later
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,31 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes each reminder to the application log, for development and tests
+ */
+@Component
+@ConditionalOnProperty(prefix = "reminders.sinks.log", name = "enabled", havingValue = "true")
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            logger.info("Reminder for todo {} of user {}, due {}: {}", reminder.todoId(), reminder.ownerId(),
+                    reminder.dueAt(), reminder.title());
+        }
+    }
+}
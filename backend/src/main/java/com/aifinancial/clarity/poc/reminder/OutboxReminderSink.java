@@ -0,0 +1,35 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
+
+/**
+ * Records a TODO_REMINDER_DUE outbox event per reminder. The events commit together with the
+ * claim, so every outbox sink receives each reminder without a second delivery path.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reminders.sinks.outbox", name = "enabled", havingValue = "true")
+public class OutboxReminderSink implements ReminderSink {
+
+    private final OutboxRecorder outboxRecorder;
+
+    public OutboxReminderSink(OutboxRecorder outboxRecorder) {
+        this.outboxRecorder = outboxRecorder;
+    }
+
+    @Override
+    public String getName() {
+        return "outbox";
+    }
+
+    @Override
+    public void deliver(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            outboxRecorder.recordTodoReminder(reminder);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A due todo as handed to the reminder sinks. The todo id identifies the reminder across redeliveries.
+ */
+public record Reminder(long todoId, long ownerId, String title, OffsetDateTime dueAt) {
+}
@@ -0,0 +1,266 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.event.TodoDueDateChangedEvent;
+
+/**
+ * Fires due-date reminders without polling for due rows. Every refill interval the scheduler reads
+ * the reminders due within the next window from the index on todo_reminders.due_at: the slice the
+ * window moved over, plus rows committed since the snapshot the last refill took (by change_txid,
+ * so a transaction that commits late is not skipped). They go into an in-memory
+ * {@link TimingWheel}, which hands them out on the tick they are due. Due dates written through
+ * this node are queued when they commit and scheduled by the next tick.
+ * <p>
+ * Ticks run one at a time. The wheel is only locked while entries are added or taken out of it;
+ * reads, claims and sink deliveries happen outside that lock, and request threads only append to
+ * the queue.
+ * <p>
+ * Every node schedules every reminder. A fired batch is claimed with SKIP LOCKED, delivered to
+ * every {@link ReminderSink} and deleted in one transaction, so only one node delivers it; nodes
+ * that find it locked or gone drop it. A failed batch stays and is retried after the retry delay.
+ * Reminders still pending past the overdue grace, e.g. because the node that claimed them died,
+ * are picked up by the next refill on any node.
+ */
+@Component
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private static final String CURRENT_SNAPSHOT_SQL = "SELECT pg_current_snapshot()::text";
+
+    private static final String LOAD_DUE_BY_SQL = "SELECT todo_id, due_at FROM todo_reminders WHERE due_at <= ?";
+
+    private static final String LOAD_RANGE_SQL = "SELECT todo_id, due_at FROM todo_reminders WHERE due_at > ? AND due_at <= ?";
+
+    // Rows written by transactions that had not committed in the given snapshot
+    private static final String LOAD_CHANGED_SQL = """
+            SELECT todo_id, due_at FROM todo_reminders
+            WHERE change_txid >= pg_snapshot_xmin(CAST(? AS pg_snapshot))
+              AND NOT pg_visible_in_snapshot(change_txid, CAST(? AS pg_snapshot))
+              AND due_at <= ?
+            """;
+
+    // Rows whose due_at moved past now since they were scheduled are left for their new tick
+    private static final String CLAIM_BATCH_SQL = """
+            SELECT r.todo_id, r.user_id, r.due_at, t.title
+            FROM todo_reminders r
+            JOIN todos t ON t.id = r.todo_id AND t.user_id = r.user_id
+            WHERE r.todo_id = ANY (?) AND r.due_at <= ?
+            ORDER BY r.due_at, r.todo_id
+            FOR UPDATE OF r SKIP LOCKED
+            """;
+
+    private static final String DELETE_BATCH_SQL = "DELETE FROM todo_reminders WHERE todo_id = ANY (?)";
+
+    private static final RowMapper<Pending> PENDING_ROW = (rs, rowNum) ->
+            new Pending(rs.getLong("todo_id"), rs.getObject("due_at", OffsetDateTime.class).toInstant().toEpochMilli());
+
+    private record Pending(long todoId, long dueAtMs) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ReminderSink> sinks;
+    private final long windowMs;
+    private final long refillIntervalMs;
+    private final long overdueGraceMs;
+    private final long retryDelayMs;
+    private final int batchSize;
+    // Guarded by its own monitor
+    private final TimingWheel<Long> wheel;
+    // Due dates committed on this node, waiting for the next tick
+    private final Queue<Pending> changedDueDates = new ConcurrentLinkedQueue<>();
+    private final Object tickLock = new Object();
+
+    private final AtomicLong firedReminders = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    // Refill state, only touched under tickLock. End of the due_at range already read, or -1 before the first refill
+    private long loadedUntilMs = -1;
+    private String seenSnapshot;
+    private long nextRefillMs;
+
+    public ReminderScheduler(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             List<ReminderSink> sinks,
+                             @Value("${reminders.tick-ms:1000}") long tickMs,
+                             @Value("${reminders.wheel-size:60}") int wheelSize,
+                             @Value("${reminders.window:10m}") Duration window,
+                             @Value("${reminders.refill-interval-ms:15000}") long refillIntervalMs,
+                             @Value("${reminders.overdue-grace:1m}") Duration overdueGrace,
+                             @Value("${reminders.retry-delay:30s}") Duration retryDelay,
+                             @Value("${reminders.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sinks = List.copyOf(sinks);
+        this.windowMs = window.toMillis();
+        this.refillIntervalMs = refillIntervalMs;
+        this.overdueGraceMs = overdueGrace.toMillis();
+        this.retryDelayMs = retryDelay.toMillis();
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        if (windowMs <= refillIntervalMs) {
+            throw new IllegalArgumentException("reminders.window must be longer than reminders.refill-interval-ms");
+        }
+        if (this.sinks.isEmpty()) {
+            logger.warn("No reminder sink is enabled; reminders are kept until one is");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.tick-ms:1000}")
+    public void run() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            logger.error("Reminder scheduler failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Advance the wheel to {@code nowMs}, refill it when the refill interval has passed and
+     * deliver the reminders that came due
+     *
+     * @return the number of reminders delivered
+     */
+    public int tick(long nowMs) {
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+        synchronized (tickLock) {
+            List<Pending> loaded = List.of();
+            if (nowMs >= nextRefillMs) {
+                loaded = refill(nowMs);
+                nextRefillMs = nowMs + refillIntervalMs;
+            }
+            List<Pending> changed = new ArrayList<>();
+            for (Pending row; (row = changedDueDates.poll()) != null; ) {
+                // Due dates beyond the loaded window are left to the refill that reaches them
+                if (loadedUntilMs >= 0 && row.dueAtMs() <= loadedUntilMs) {
+                    changed.add(row);
+                }
+            }
+            List<Long> due;
+            synchronized (wheel) {
+                due = wheel.advance(nowMs);
+                schedule(loaded, due);
+                schedule(changed, due);
+            }
+            int delivered = 0;
+            for (int from = 0; from < due.size(); from += batchSize) {
+                delivered += fire(due.subList(from, Math.min(from + batchSize, due.size())), nowMs);
+            }
+            return delivered;
+        }
+    }
+
+    /**
+     * Queues a due date written on this node for the next tick instead of waiting for the next
+     * refill. Runs on the committing request thread, so it only appends to the queue.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDueDateChanged(TodoDueDateChangedEvent event) {
+        if (!sinks.isEmpty()) {
+            changedDueDates.add(new Pending(event.todoId(), event.dueAt().toInstant().toEpochMilli()));
+        }
+    }
+
+    public long getFiredReminders() {
+        return firedReminders.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public int getScheduledReminders() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    // Reads the reminders due within the window that the wheel does not know yet
+    private List<Pending> refill(long nowMs) {
+        long horizonMs = nowMs + windowMs;
+        // Taken before the scans, so rows committed during them are read again next time
+        String snapshot = jdbcTemplate.queryForObject(CURRENT_SNAPSHOT_SQL, String.class);
+        List<Pending> rows = new ArrayList<>();
+        if (loadedUntilMs < 0) {
+            rows.addAll(jdbcTemplate.query(LOAD_DUE_BY_SQL, PENDING_ROW, at(horizonMs)));
+        } else {
+            rows.addAll(jdbcTemplate.query(LOAD_RANGE_SQL, PENDING_ROW, at(loadedUntilMs), at(horizonMs)));
+            rows.addAll(jdbcTemplate.query(LOAD_CHANGED_SQL, PENDING_ROW, seenSnapshot, seenSnapshot, at(horizonMs)));
+            rows.addAll(jdbcTemplate.query(LOAD_DUE_BY_SQL, PENDING_ROW, at(nowMs - overdueGraceMs)));
+        }
+        loadedUntilMs = horizonMs;
+        seenSnapshot = snapshot;
+        return rows;
+    }
+
+    // Adds the rows to the wheel, and those already due to the due list. Called holding the wheel's monitor.
+    private void schedule(List<Pending> rows, List<Long> due) {
+        for (Pending row : rows) {
+            if (!wheel.add(row.todoId(), row.dueAtMs())) {
+                due.add(row.todoId());
+            }
+        }
+    }
+
+    private int fire(List<Long> todoIds, long nowMs) {
+        try {
+            Integer delivered = transactionTemplate.execute(status -> deliverBatch(todoIds, nowMs));
+            return delivered != null ? delivered : 0;
+        } catch (Exception e) {
+            logger.warn("Reminder batch of {} todo(s) starting at {} failed, retrying in {} ms: {}",
+                    todoIds.size(), todoIds.get(0), retryDelayMs, e.getMessage());
+            failedBatches.incrementAndGet();
+            synchronized (wheel) {
+                for (Long todoId : todoIds) {
+                    wheel.add(todoId, nowMs + retryDelayMs);
+                }
+            }
+            return 0;
+        }
+    }
+
+    private int deliverBatch(List<Long> todoIds, long nowMs) {
+        List<Reminder> reminders = jdbcTemplate.query(CLAIM_BATCH_SQL, (rs, rowNum) -> new Reminder(
+                rs.getLong("todo_id"), rs.getLong("user_id"), rs.getString("title"),
+                rs.getObject("due_at", OffsetDateTime.class)), todoIds.toArray(Long[]::new), at(nowMs));
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.deliver(reminders);
+            } catch (Exception e) {
+                throw new IllegalStateException("Reminder sink " + sink.getName() + " failed: " + e.getMessage(), e);
+            }
+        }
+        jdbcTemplate.update(DELETE_BATCH_SQL, (Object) reminders.stream().map(Reminder::todoId).toArray(Long[]::new));
+        firedReminders.addAndGet(reminders.size());
+        return reminders.size();
+    }
+
+    private static OffsetDateTime at(long epochMs) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,20 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import java.util.List;
+
+/**
+ * Destination of fired reminders. Every enabled sink receives every reminder, possibly more than
+ * once: a batch is sent again to all sinks when any of them fails.
+ */
+public interface ReminderSink {
+
+    String getName();
+
+    /**
+     * Deliver a batch, earliest due first; return only once it is accepted. Runs inside the
+     * transaction that claims the batch.
+     *
+     * @throws Exception to have the whole batch retried later
+     */
+    void deliver(List<Reminder> reminders) throws Exception;
+}
@@ -0,0 +1,123 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} buckets of one tick each; every level
+ * above has buckets as wide as the whole level below it, so a deadline hours away costs no more
+ * than one a second away. Adding an item is O(1); advancing the clock empties one level-0 bucket
+ * per tick and, whenever a coarser bucket begins, hands its items down to finer levels.
+ * <p>
+ * An item expires at the first tick boundary at or after its deadline, never before it.
+ * Not thread-safe.
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(T item, long tick) {
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    // levels.get(i) holds wheelSize buckets of wheelSize^i ticks each, created on first use
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    // Every item due at or before this tick has been handed out
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+    }
+
+    /**
+     * Schedule an item
+     *
+     * @return false, without adding it, when its deadline has already been reached
+     */
+    public boolean add(T item, long deadlineMs) {
+        long tick = -Math.floorDiv(-deadlineMs, tickMs);
+        if (tick <= currentTick) {
+            return false;
+        }
+        insert(new Entry<>(item, tick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Move the clock to {@code nowMs}
+     *
+     * @return the items whose deadline has been reached, earliest tick first
+     */
+    public List<T> advance(long nowMs) {
+        long target = Math.floorDiv(nowMs, tickMs);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < target) {
+            if (size == 0) {
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            // Coarser levels whose next bucket begins at this tick hand its items down
+            long width = wheelSize;
+            for (int level = 1; level < levels.size() && currentTick % width == 0; level++, width *= wheelSize) {
+                for (Entry<T> entry : take(level, (int) ((currentTick / width) % wheelSize))) {
+                    if (entry.tick() <= currentTick) {
+                        expired.add(entry.item());
+                        size--;
+                    } else {
+                        insert(entry);
+                    }
+                }
+            }
+            for (Entry<T> entry : take(0, (int) (currentTick % wheelSize))) {
+                expired.add(entry.item());
+                size--;
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Puts the entry on the finest level whose span still reaches its tick
+    private void insert(Entry<T> entry) {
+        long width = 1;
+        for (int level = 0; ; level++, width *= wheelSize) {
+            long levelStart = currentTick - currentTick % width;
+            if (width > Long.MAX_VALUE / wheelSize || entry.tick() < levelStart + width * wheelSize) {
+                bucket(level, (int) ((entry.tick() / width) % wheelSize)).add(entry);
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>> bucket(int level, int slot) {
+        while (levels.size() <= level) {
+            levels.add(new List[wheelSize]);
+        }
+        List<Entry<T>>[] buckets = levels.get(level);
+        if (buckets[slot] == null) {
+            buckets[slot] = new ArrayList<>();
+        }
+        return buckets[slot];
+    }
+
+    private List<Entry<T>> take(int level, int slot) {
+        if (level >= levels.size()) {
+            return List.of();
+        }
+        List<Entry<T>>[] buckets = levels.get(level);
+        List<Entry<T>> bucket = buckets[slot];
+        buckets[slot] = null;
+        return bucket != null ? bucket : List.of();
+    }
+}
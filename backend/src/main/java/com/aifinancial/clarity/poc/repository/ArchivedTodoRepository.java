@@ -0,0 +1,16 @@
+package com.aifinancial.clarity.poc.repository;
+
+import com.aifinancial.clarity.poc.model.ArchivedTodo;
+import com.aifinancial.clarity.poc.model.Folder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedTodoRepository extends JpaRepository<ArchivedTodo, Long> {
+
+    List<ArchivedTodo> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    List<ArchivedTodo> findByOwnerIdAndFolderOrderByCreatedAtDesc(Long ownerId, Folder folder);
+}
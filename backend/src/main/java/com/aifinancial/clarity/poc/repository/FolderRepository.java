@@ -1,21 +1,189 @@
 package com.aifinancial.clarity.poc.repository;
 
+import com.aifinancial.clarity.poc.dto.response.FolderExportRow;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.repository.projection.FolderSubtreeCountsView;
+import com.aifinancial.clarity.poc.repository.projection.TodoCountsView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FolderRepository extends JpaRepository<Folder, Long> {
+
+    /** Payload of {@link com.aifinancial.clarity.poc.outbox.OutboxRecorder#recordFolder}, built in SQL for folders aliased f */
+    String FOLDER_EVENT_PAYLOAD = """
+            jsonb_build_object('id', f.id, 'ownerId', f.user_id, 'parentId', f.parent_id, 'name', f.name,
+                               'description', f.description, 'version', f.version, 'updatedAt', f.updated_at)
+            """;
+
+    /**
+     * Copies a folder with its subfolders, their todos and the todos' tags, and records
+     * FOLDER_CREATED and TODO_CREATED outbox events for the copies. Ids are drawn up front so
+     * copies can point at copied parents; parents are inserted first, so the path trigger finds
+     * them. The copy sits next to the original and is named after it with " (copy)" appended.
+     */
+    String DUPLICATE_SUBTREE_SQL = """
+            WITH source_folders AS MATERIALIZED (
+                SELECT f.id, f.parent_id, f.name, f.description, nlevel(f.path) AS depth,
+                       nextval('folders_id_seq') AS new_id
+                FROM folders f
+                WHERE f.path <@ (SELECT r.path FROM folders r WHERE r.id = :rootId)
+            ), new_folders AS (
+                INSERT INTO folders (id, name, description, user_id, parent_id)
+                SELECT s.new_id, CASE WHEN s.id = :rootId THEN left(s.name, 93) || ' (copy)' ELSE s.name END,
+                       s.description, :ownerId, CASE WHEN s.id = :rootId THEN s.parent_id ELSE p.new_id END
+                FROM source_folders s
+                LEFT JOIN source_folders p ON p.id = s.parent_id
+                ORDER BY s.depth
+                RETURNING id, user_id, parent_id, name, description, version, updated_at
+            ), source_todos AS MATERIALIZED (
+                SELECT t.id, t.user_id, t.title, t.description, t.completed, t.disabled, t.rank, t.due_at, t.tag_ids,
+                       s.new_id AS folder_id, nextval('todos_id_seq') AS new_id
+                FROM todos t
+                JOIN source_folders s ON s.id = t.folder_id
+                WHERE t.user_id = :ownerId
+            ), new_todos AS (
+                INSERT INTO todos (id, title, description, completed, disabled, user_id, folder_id, rank, due_at, tag_ids)
+                SELECT new_id, title, description, completed, disabled, user_id, folder_id, rank, due_at, tag_ids
+                FROM source_todos
+                RETURNING *
+            ), new_links AS (
+                INSERT INTO todo_tags (user_id, todo_id, tag_id)
+                SELECT l.user_id, s.new_id, l.tag_id
+                FROM todo_tags l
+                JOIN source_todos s ON s.user_id = l.user_id AND s.id = l.todo_id
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'FOLDER', f.id, 'FOLDER_CREATED', """ + FOLDER_EVENT_PAYLOAD + """
+                FROM new_folders f
+                UNION ALL
+                SELECT 'TODO', t.id, 'TODO_CREATED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+                FROM new_todos t
+            )
+            SELECT new_id FROM source_folders WHERE id = :rootId
+            """;
+
+    /**
+     * Records FOLDER_DELETED events for a folder and every folder below it, and TODO_DELETED
+     * events for their todos, which the delete removes through ON DELETE CASCADE. Runs before the
+     * delete, with the subtree locked by {@link #lockSubtree}, so no todo or subfolder can be
+     * added to it in between.
+     */
+    String RECORD_SUBTREE_DELETED_SQL = """
+            WITH subtree AS MATERIALIZED (
+                SELECT f.* FROM folders f
+                WHERE f.path <@ (SELECT r.path FROM folders r WHERE r.id = :rootId)
+            )
+            INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+            SELECT 'TODO', t.id, 'TODO_DELETED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+            FROM todos t
+            JOIN subtree s ON s.id = t.folder_id
+            UNION ALL
+            SELECT 'FOLDER', f.id, 'FOLDER_DELETED', """ + FOLDER_EVENT_PAYLOAD + """
+            FROM subtree f
+            """;
     
     List<Folder> findByOwner(User owner);
     
     List<Folder> findByOwnerOrderByCreatedAtDesc(User owner);
+
+    /** Filters on the user_id column, so the owner is not loaded */
+    List<Folder> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
     
     Optional<Folder> findByIdAndOwner(Long id, User owner);
     
     boolean existsByIdAndOwner(Long id, User owner);
-} 
\ No newline at end of file
+
+    boolean existsByIdAndOwnerId(Long id, Long ownerId);
+
+    /**
+     * Streams a user's folders as unmanaged rows, fetched from a server-side cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("select new com.aifinancial.clarity.poc.dto.response.FolderExportRow("
+            + "f.id, f.name, f.description, f.owner.id, f.createdAt, f.updatedAt) "
+            + "from Folder f where f.owner.id = :ownerId order by f.id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = TodoRepository.EXPORT_FETCH_SIZE))
+    Stream<FolderExportRow> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Reads a user's folder counters together with their overall stats row (folder id null)
+     * in one statement, so both come from the same snapshot
+     */
+    @Query(value = "SELECT f.id AS folderId, f.name AS folderName, f.todo_count AS todoCount, "
+            + "f.completed_count AS completedCount, f.disabled_count AS disabledCount "
+            + "FROM folders f WHERE f.user_id = :ownerId "
+            + "UNION ALL "
+            + "SELECT NULL, NULL, s.todo_count, s.completed_count, s.disabled_count "
+            + "FROM user_todo_stats s WHERE s.user_id = :ownerId",
+            nativeQuery = true)
+    List<TodoCountsView> findTodoCountsByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * A folder and all folders below it, newest first, through the GiST index on folders.path
+     */
+    @Query(value = "SELECT f.* FROM folders f "
+            + "WHERE f.path <@ (SELECT r.path FROM folders r WHERE r.id = :rootId) "
+            + "ORDER BY f.created_at DESC",
+            nativeQuery = true)
+    List<Folder> findSubtree(@Param("rootId") Long rootId);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM folders f WHERE f.id = :id "
+            + "AND f.path <@ (SELECT r.path FROM folders r WHERE r.id = :rootId))",
+            nativeQuery = true)
+    boolean isInSubtree(@Param("rootId") Long rootId, @Param("id") Long id);
+
+    /**
+     * Sums the trigger-maintained counters over a folder and all folders below it
+     */
+    @Query(value = "SELECT count(*)::int AS folderCount, coalesce(sum(f.todo_count), 0)::int AS todoCount, "
+            + "coalesce(sum(f.completed_count), 0)::int AS completedCount, "
+            + "coalesce(sum(f.disabled_count), 0)::int AS disabledCount "
+            + "FROM folders f WHERE f.path <@ (SELECT r.path FROM folders r WHERE r.id = :rootId)",
+            nativeQuery = true)
+    FolderSubtreeCountsView countSubtree(@Param("rootId") Long rootId);
+
+    /**
+     * One statement however large the subtree; the caller holds the owner's tree lock
+     *
+     * @return the id of the copy of the root folder
+     */
+    @Query(value = DUPLICATE_SUBTREE_SQL, nativeQuery = true)
+    Long duplicateSubtree(@Param("rootId") Long rootId, @Param("ownerId") Long ownerId);
+
+    /**
+     * Locks a folder and every folder below it until the end of the transaction. Adding a todo
+     * or a subfolder to a locked folder waits on its foreign key check.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT f.id FROM folders f "
+            + "WHERE f.path <@ (SELECT r.path FROM folders r WHERE r.id = :rootId) FOR UPDATE) locked",
+            nativeQuery = true)
+    long lockSubtree(@Param("rootId") Long rootId);
+
+    /**
+     * One statement however large the subtree
+     *
+     * @return the number of events recorded
+     */
+    @Modifying
+    @Query(value = RECORD_SUBTREE_DELETED_SQL, nativeQuery = true)
+    int recordSubtreeDeleted(@Param("rootId") Long rootId);
+
+    /**
+     * Serializes folder tree changes of one user until the end of the transaction. The path
+     * trigger takes the same lock; taking it first keeps a move from deadlocking against it.
+     */
+    @Query(value = "SELECT pg_advisory_xact_lock(:userId)::text", nativeQuery = true)
+    String lockTree(@Param("userId") Long userId);
+}
@@ -0,0 +1,129 @@
+package com.aifinancial.clarity.poc.repository;
+
+import com.aifinancial.clarity.poc.model.ModerationItem;
+import com.aifinancial.clarity.poc.repository.projection.ModerationItemView;
+import com.aifinancial.clarity.poc.repository.projection.ResolvedModerationItemView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ModerationQueueRepository extends JpaRepository<ModerationItem, Long> {
+
+    /**
+     * Leases the oldest pending items that nobody holds a live lease on to one moderator. Rows
+     * another claim has locked are skipped rather than waited for, so concurrent claims hand out
+     * disjoint batches; items whose lease ran out are handed out again.
+     */
+    String CLAIM_BATCH_SQL = """
+            WITH picked AS (
+                SELECT id
+                FROM moderation_queue
+                WHERE status = 'PENDING' AND (lease_expires_at IS NULL OR lease_expires_at < CURRENT_TIMESTAMP)
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), claimed AS (
+                UPDATE moderation_queue q
+                SET claimed_by = :moderatorId,
+                    lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds)
+                FROM picked p
+                WHERE q.id = p.id
+                RETURNING q.*
+            )
+            SELECT c.id, c.todo_id AS todoId, c.user_id AS ownerId, u.username AS ownerUsername,
+                   t.title, t.description, t.disabled, c.source, c.detail, c.report_count AS reportCount,
+                   c.created_at AS createdAt, c.lease_expires_at AS leaseExpiresAt
+            FROM claimed c
+            JOIN todos t ON t.user_id = c.user_id AND t.id = c.todo_id
+            JOIN users u ON u.id = c.user_id
+            ORDER BY c.id
+            """;
+
+    /**
+     * Closes the given pending items held by the moderator and, for DISABLE, disables their
+     * todos and records a TODO_UPDATED outbox event for each, all in one statement. Items
+     * claimed by someone else or already resolved are left alone.
+     */
+    String RESOLVE_CLAIMED_SQL = """
+            WITH resolved AS (
+                UPDATE moderation_queue q
+                SET status = 'RESOLVED',
+                    resolution = :action,
+                    resolved_by = :moderatorId,
+                    resolved_at = CURRENT_TIMESTAMP,
+                    lease_expires_at = NULL
+                WHERE q.id = ANY (CAST(:itemIds AS bigint[])) AND q.status = 'PENDING' AND q.claimed_by = :moderatorId
+                RETURNING q.id, q.todo_id, q.user_id
+            ), disabled AS (
+                UPDATE todos t
+                SET disabled = true,
+                    version = t.version + 1,
+                    updated_at = CURRENT_TIMESTAMP
+                FROM resolved r
+                WHERE :action = 'DISABLE' AND t.user_id = r.user_id AND t.id = r.todo_id AND NOT t.disabled
+                RETURNING t.*
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'TODO', t.id, 'TODO_UPDATED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+                FROM disabled t
+            )
+            SELECT r.id AS itemId, r.todo_id AS todoId, r.user_id AS ownerId, d.id IS NOT NULL AS disabled
+            FROM resolved r
+            LEFT JOIN disabled d ON d.user_id = r.user_id AND d.id = r.todo_id
+            ORDER BY r.id
+            """;
+
+    /**
+     * Queues a todo as reported, or counts one more report if it is already pending. Each
+     * reporter is counted once per pending item; returns 0 for a repeated report.
+     */
+    String REPORT_SQL = """
+            WITH item AS (
+                INSERT INTO moderation_queue (todo_id, user_id, source, detail, reported_by, report_count)
+                VALUES (:todoId, :ownerId, 'REPORT', :reason, :reporterId, 1)
+                ON CONFLICT (todo_id, user_id) WHERE status = 'PENDING'
+                DO UPDATE SET report_count = moderation_queue.report_count + 1
+                WHERE NOT EXISTS (SELECT 1 FROM moderation_reports r
+                                  WHERE r.item_id = moderation_queue.id AND r.reporter_id = :reporterId)
+                RETURNING id
+            )
+            INSERT INTO moderation_reports (item_id, reporter_id)
+            SELECT id, :reporterId FROM item
+            ON CONFLICT DO NOTHING
+            """;
+
+    @Modifying
+    @Query(value = REPORT_SQL, nativeQuery = true)
+    int report(@Param("todoId") Long todoId, @Param("ownerId") Long ownerId,
+               @Param("reporterId") Long reporterId, @Param("reason") String reason);
+
+    /**
+     * Reports of the user whose items are still pending. Locks the user's row first, so one
+     * user's concurrent reports are counted one after the other.
+     */
+    String COUNT_OPEN_REPORTS_SQL = """
+            WITH reporter AS (
+                SELECT id FROM users WHERE id = :reporterId FOR NO KEY UPDATE
+            )
+            SELECT count(q.id)
+            FROM reporter u
+            LEFT JOIN moderation_reports r ON r.reporter_id = u.id
+            LEFT JOIN moderation_queue q ON q.id = r.item_id AND q.status = 'PENDING'
+            """;
+
+    @Query(value = COUNT_OPEN_REPORTS_SQL, nativeQuery = true)
+    long countOpenReportsLocked(@Param("reporterId") Long reporterId);
+
+    @Query(value = CLAIM_BATCH_SQL, nativeQuery = true)
+    List<ModerationItemView> claimBatch(@Param("moderatorId") Long moderatorId, @Param("limit") int limit,
+                                        @Param("leaseSeconds") long leaseSeconds);
+
+    @Query(value = RESOLVE_CLAIMED_SQL, nativeQuery = true)
+    List<ResolvedModerationItemView> resolveClaimed(@Param("moderatorId") Long moderatorId,
+                                                    @Param("itemIds") Long[] itemIds, @Param("action") String action);
+}
@@ -0,0 +1,15 @@
+package com.aifinancial.clarity.poc.repository;
+
+import com.aifinancial.clarity.poc.model.ModerationRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ModerationRuleRepository extends JpaRepository<ModerationRule, Long> {
+
+    List<ModerationRule> findAllByOrderByKeywordAsc();
+
+    boolean existsByKeyword(String keyword);
+}
@@ -0,0 +1,98 @@
+package com.aifinancial.clarity.poc.repository;
+
+import com.aifinancial.clarity.poc.model.Tag;
+import com.aifinancial.clarity.poc.repository.projection.TagTodoCountView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /**
+     * Records a TODO_UPDATED event for each todo carrying the tag, with the payload the todo_tags
+     * delete trigger leaves it in: the tag dropped from tag_ids, the version bumped and updated_at
+     * set to the transaction time. Runs before the tag is deleted, with the tag locked by
+     * {@link #findLockedByIdAndOwnerId} so no todo can be tagged in between; the todos are locked
+     * here so no edit lands between the events and the rewrite.
+     */
+    String RECORD_TAG_REMOVED_SQL = """
+            WITH tagged AS MATERIALIZED (
+                SELECT t.id, t.user_id, t.folder_id, t.title, t.description, t.completed, t.disabled, t.due_at,
+                       array_remove(t.tag_ids, CAST(:tagId AS bigint)) AS tag_ids,
+                       t.version + 1 AS version, CURRENT_TIMESTAMP AS updated_at
+                FROM todos t
+                JOIN todo_tags l ON l.user_id = t.user_id AND l.todo_id = t.id
+                WHERE l.user_id = :ownerId AND l.tag_id = :tagId
+                FOR NO KEY UPDATE OF t
+            )
+            INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+            SELECT 'TODO', t.id, 'TODO_UPDATED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+            FROM tagged t
+            """;
+
+    List<Tag> findByOwnerIdOrderByNameAsc(Long ownerId);
+
+    Optional<Tag> findByIdAndOwnerId(Long id, Long ownerId);
+
+    /** As findByIdAndOwnerId, with the row locked FOR UPDATE until the transaction ends */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Tag> findLockedByIdAndOwnerId(Long id, Long ownerId);
+
+    boolean existsByOwnerIdAndNameIgnoreCase(Long ownerId, String name);
+
+    long countByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    /**
+     * Ids of the owner's tags with the given names; pass the names lower-cased
+     */
+    @Query("select t.id from Tag t where t.owner.id = :ownerId and lower(t.name) in :names")
+    List<Long> findIdsByOwnerIdAndLowerNames(@Param("ownerId") Long ownerId, @Param("names") Collection<String> names);
+
+    @Query(value = "SELECT l.tag_id AS tagId, count(*) AS todoCount FROM todo_tags l "
+            + "WHERE l.user_id = :ownerId GROUP BY l.tag_id",
+            nativeQuery = true)
+    List<TagTodoCountView> countTodosByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT count(*) FROM todo_tags l WHERE l.user_id = :ownerId AND l.tag_id = :tagId",
+            nativeQuery = true)
+    long countTodosByOwnerIdAndTagId(@Param("ownerId") Long ownerId, @Param("tagId") Long tagId);
+
+    /**
+     * Attaches tags to a todo, skipping those it already has. The todo_tags triggers rewrite
+     * todos.tag_ids, version and updated_at, so the persistence context is cleared.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO todo_tags (user_id, todo_id, tag_id) "
+            + "SELECT :ownerId, :todoId, unnest(CAST(:tagIds AS bigint[])) "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addTodoTags(@Param("ownerId") Long ownerId, @Param("todoId") Long todoId, @Param("tagIds") Long[] tagIds);
+
+    /**
+     * Detaches every tag of a todo except {@code keepTagIds}, see {@link #addTodoTags}
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM todo_tags "
+            + "WHERE user_id = :ownerId AND todo_id = :todoId AND tag_id <> ALL (CAST(:keepTagIds AS bigint[]))",
+            nativeQuery = true)
+    int removeTodoTagsExcept(@Param("ownerId") Long ownerId, @Param("todoId") Long todoId,
+                             @Param("keepTagIds") Long[] keepTagIds);
+
+    /**
+     * One statement however many todos carry the tag
+     *
+     * @return the number of events recorded
+     */
+    @Modifying
+    @Query(value = RECORD_TAG_REMOVED_SQL, nativeQuery = true)
+    int recordTagRemoved(@Param("ownerId") Long ownerId, @Param("tagId") Long tagId);
+}
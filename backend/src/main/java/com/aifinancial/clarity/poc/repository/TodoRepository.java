@@ -1,16 +1,102 @@
 package com.aifinancial.clarity.poc.repository;
 
+import com.aifinancial.clarity.poc.dto.response.TodoExportRow;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.repository.projection.TodoSummaryView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, Long> {
+
+    /** Columns of {@link TodoSummaryView}, for todos aliased t */
+    String SUMMARY_COLUMNS = "t.id, t.title, t.completed, t.disabled, t.folder_id AS folderId, t.rank, t.version";
+
+    /** Rows pulled per round trip by the export cursors */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /** Payload of {@link com.aifinancial.clarity.poc.outbox.OutboxRecorder#recordTodo}, built in SQL for todos aliased t */
+    String TODO_EVENT_PAYLOAD = """
+            jsonb_build_object('id', t.id, 'ownerId', t.user_id, 'folderId', t.folder_id, 'title', t.title,
+                               'description', t.description, 'completed', t.completed, 'disabled', t.disabled,
+                               'dueAt', t.due_at, 'tagIds', t.tag_ids, 'version', t.version, 'updatedAt', t.updated_at)
+            """;
+
+    /**
+     * Moves every todo of one of the owner's folders into another (unfiled for a null targetId),
+     * below the todos already there and in their current order, and records a TODO_UPDATED
+     * outbox event for each. Bumps version and updated_at like an edit through the API.
+     */
+    // Both CTEs are materialized so the target's bottom rank is read once, not once per moved row
+    String MOVE_FOLDER_TODOS_SQL = """
+            WITH source AS MATERIALIZED (
+                SELECT id, row_number() OVER (ORDER BY rank, id) AS pos, count(*) OVER () AS total
+                FROM todos
+                WHERE user_id = :ownerId AND folder_id = :sourceId
+            ), bottom AS MATERIALIZED (
+                SELECT coalesce(max(rank), '') AS rank
+                FROM todos
+                WHERE user_id = :ownerId AND folder_id IS NOT DISTINCT FROM CAST(:targetId AS bigint)
+            ), moved AS (
+                UPDATE todos t
+                SET folder_id = CAST(:targetId AS bigint),
+                    rank = b.rank || todo_rank_key(s.pos, s.total),
+                    version = t.version + 1,
+                    updated_at = CURRENT_TIMESTAMP
+                FROM source s, bottom b
+                WHERE t.user_id = :ownerId AND t.id = s.id
+                RETURNING t.*
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'TODO', t.id, 'TODO_UPDATED', """ + TODO_EVENT_PAYLOAD + """
+                FROM moved t
+            )
+            SELECT CAST(count(*) AS int) FROM moved
+            """;
+
+    /**
+     * Rewrites the ranks of one of the owner's folders (unfiled todos for a null folderId) as evenly
+     * spaced keys in their current order, leaving out excludeId (null for none), and records a
+     * TODO_UPDATED outbox event for each rewritten todo. Bumps version and updated_at like an edit
+     * through the API, so a write of a todo loaded before the rebalance fails its version check
+     * instead of putting the old rank back.
+     */
+    String REBALANCE_RANKS_SQL = """
+            WITH rebalanced AS (
+                UPDATE todos t
+                SET rank = r.rank,
+                    version = t.version + 1,
+                    updated_at = now()
+                FROM (
+                    SELECT id, todo_rank_key(row_number() OVER (ORDER BY rank, id), count(*) OVER ()) AS rank
+                    FROM todos
+                    WHERE user_id = :ownerId AND folder_id IS NOT DISTINCT FROM CAST(:folderId AS bigint)
+                      AND id IS DISTINCT FROM CAST(:excludeId AS bigint)
+                ) r
+                WHERE t.user_id = :ownerId AND t.id = r.id AND t.rank <> r.rank
+                RETURNING t.*
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'TODO', t.id, 'TODO_UPDATED', """ + TODO_EVENT_PAYLOAD + """
+                FROM rebalanced t
+            )
+            SELECT CAST(count(*) AS int) FROM rebalanced
+            """;
     
     List<Todo> findByOwner(User owner);
     
@@ -25,6 +111,158 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
     List<Todo> findByFolderAndOwnerOrderByCreatedAtDesc(Folder folder, User owner);
     
     Optional<Todo> findByIdAndOwner(Long id, User owner);
+
+    /** Carries the partition key, so only the owner's partition is searched */
+    Optional<Todo> findByIdAndOwnerId(Long id, Long ownerId);
+
+    /** As findByIdAndOwnerId, with the row locked FOR UPDATE until the transaction ends */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Todo> findLockedByIdAndOwnerId(Long id, Long ownerId);
+
+    /** All of the owner's todos, folder by folder in rank order, unfiled todos last */
+    List<Todo> findByOwnerOrderByFolderIdAscRankAscIdAsc(User owner);
+
+    List<Todo> findByOwnerIdAndFolderOrderByRankAscIdAsc(Long ownerId, Folder folder);
+
+    @Query("select t.rank from Todo t where t.id = :id and t.ownerId = :ownerId")
+    Optional<String> findRankByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    /**
+     * Lowest rank above {@code after} in one of the owner's folders, or among the unfiled todos
+     * when folderId is null; pass "" for the first rank. excludeId, when given, is skipped.
+     */
+    @Query("select min(t.rank) from Todo t where t.ownerId = :ownerId and t.rank > :after "
+            + "and (t.folder.id = :folderId or (:folderId is null and t.folder is null)) "
+            + "and (:excludeId is null or t.id <> :excludeId)")
+    Optional<String> findNextRank(@Param("ownerId") Long ownerId, @Param("folderId") Long folderId,
+                                  @Param("after") String after, @Param("excludeId") Long excludeId);
+
+    /**
+     * Highest rank below {@code before}, see {@link #findNextRank}
+     */
+    @Query("select max(t.rank) from Todo t where t.ownerId = :ownerId and t.rank < :before "
+            + "and (t.folder.id = :folderId or (:folderId is null and t.folder is null)) "
+            + "and (:excludeId is null or t.id <> :excludeId)")
+    Optional<String> findPreviousRank(@Param("ownerId") Long ownerId, @Param("folderId") Long folderId,
+                                      @Param("before") String before, @Param("excludeId") Long excludeId);
+
+    /**
+     * The first {@code limit} todos, in rank order, of each of the owner's folders and of their
+     * unfiled todos. Each folder is read through idx_todos_folder_rank and stops after its limit,
+     * so large folders cost no more than small ones.
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM folders f "
+            + "CROSS JOIN LATERAL (SELECT * FROM todos t WHERE t.user_id = :ownerId AND t.folder_id = f.id "
+            + "ORDER BY t.rank, t.id LIMIT :limit) t "
+            + "WHERE f.user_id = :ownerId "
+            + "UNION ALL "
+            + "(SELECT " + SUMMARY_COLUMNS + " FROM todos t WHERE t.user_id = :ownerId AND t.folder_id IS NULL "
+            + "ORDER BY t.rank, t.id LIMIT :limit)",
+            nativeQuery = true)
+    List<TodoSummaryView> findTreeSummaries(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    /**
+     * The next todos of a folder in rank order after the (afterRank, afterId) position; pass ""
+     * and 0 to start at the top
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM todos t "
+            + "WHERE t.user_id = :ownerId AND t.folder_id = :folderId "
+            + "AND t.rank >= :afterRank AND (t.rank > :afterRank OR t.id > :afterId) "
+            + "ORDER BY t.rank, t.id LIMIT :limit",
+            nativeQuery = true)
+    List<TodoSummaryView> findSummariesInFolderAfter(@Param("ownerId") Long ownerId, @Param("folderId") Long folderId,
+                                                     @Param("afterRank") String afterRank, @Param("afterId") long afterId,
+                                                     @Param("limit") int limit);
+
+    /**
+     * The next unfiled todos, see {@link #findSummariesInFolderAfter}
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM todos t "
+            + "WHERE t.user_id = :ownerId AND t.folder_id IS NULL "
+            + "AND t.rank >= :afterRank AND (t.rank > :afterRank OR t.id > :afterId) "
+            + "ORDER BY t.rank, t.id LIMIT :limit",
+            nativeQuery = true)
+    List<TodoSummaryView> findUnfiledSummariesAfter(@Param("ownerId") Long ownerId, @Param("afterRank") String afterRank,
+                                                    @Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * The owner's todos carrying all of the given tags, folder by folder in rank order, through
+     * the GIN index on (user_id, tag_ids)
+     */
+    @Query(value = "SELECT t.* FROM todos t WHERE t.user_id = :ownerId AND t.tag_ids @> CAST(:tagIds AS bigint[]) "
+            + "ORDER BY t.folder_id, t.rank, t.id",
+            nativeQuery = true)
+    List<Todo> findByOwnerIdWithAllTags(@Param("ownerId") Long ownerId, @Param("tagIds") Long[] tagIds);
+
+    /**
+     * The owner's todos carrying at least one of the given tags, see {@link #findByOwnerIdWithAllTags}
+     */
+    @Query(value = "SELECT t.* FROM todos t WHERE t.user_id = :ownerId AND t.tag_ids && CAST(:tagIds AS bigint[]) "
+            + "ORDER BY t.folder_id, t.rank, t.id",
+            nativeQuery = true)
+    List<Todo> findByOwnerIdWithAnyTag(@Param("ownerId") Long ownerId, @Param("tagIds") Long[] tagIds);
+
+    /**
+     * The caller holds the owner's rank lock and passes the todo it is placing as excludeId, so
+     * the version of the entity it is about to save is left alone
+     *
+     * @return the number of todos whose rank changed
+     */
+    @Query(value = REBALANCE_RANKS_SQL, nativeQuery = true)
+    int rebalanceRanks(@Param("ownerId") Long ownerId, @Param("folderId") Long folderId, @Param("excludeId") Long excludeId);
+
+    /**
+     * One statement however many todos the folder holds; the caller holds the owner's rank lock
+     *
+     * @return the number of todos moved
+     */
+    @Query(value = MOVE_FOLDER_TODOS_SQL, nativeQuery = true)
+    int moveFolderTodos(@Param("ownerId") Long ownerId, @Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+
+    /**
+     * Serializes rank changes of one user until the end of the transaction; shares the key of
+     * the per-user import lock, as imports append ranks too
+     */
+    @Query(value = "SELECT pg_advisory_xact_lock(:userId)::text", nativeQuery = true)
+    String lockRanks(@Param("userId") Long userId);
     
     boolean existsByIdAndOwner(Long id, User owner);
+
+    /**
+     * Pass the owner's id when known so only their partition is read; null reads all partitions.
+     */
+    @Query("select t from Todo t join fetch t.owner left join fetch t.folder "
+            + "where t.id in :ids and (:ownerId is null or t.ownerId = :ownerId)")
+    List<Todo> findAllWithOwnerAndFolderByIdIn(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+
+    /**
+     * Full-text search over titles and descriptions, best matches first.
+     * Returns rows of [id, rank] after the (afterRank, afterId) keyset position;
+     * pass null for ownerId to search all users and null for afterId to start at the top.
+     */
+    @Query(value = """
+            SELECT s.id, s.rank FROM (
+                SELECT t.id, ts_rank(t.search_vector, q.query) AS rank
+                FROM todos t, websearch_to_tsquery('english', :query) AS q(query)
+                WHERE t.search_vector @@ q.query
+                  AND (CAST(:ownerId AS bigint) IS NULL OR t.user_id = CAST(:ownerId AS bigint))
+            ) s
+            WHERE CAST(:afterId AS bigint) IS NULL
+               OR (s.rank, s.id) < (CAST(:afterRank AS real), CAST(:afterId AS bigint))
+            ORDER BY s.rank DESC, s.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("query") String query, @Param("ownerId") Long ownerId,
+                                @Param("afterRank") Float afterRank, @Param("afterId") Long afterId,
+                                @Param("limit") int limit);
+
+    /**
+     * Streams a user's todos as unmanaged rows, fetched from a server-side cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @Query("select new com.aifinancial.clarity.poc.dto.response.TodoExportRow("
+            + "t.id, t.title, t.description, t.completed, t.disabled, t.owner.id, f.id, f.name, t.createdAt, t.updatedAt) "
+            + "from Todo t left join t.folder f where t.owner.id = :ownerId order by t.id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<TodoExportRow> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.aifinancial.clarity.poc.repository;
+
+import com.aifinancial.clarity.poc.model.TodoTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TodoTemplateRepository extends JpaRepository<TodoTemplate, Long> {
+
+    List<TodoTemplate> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    Optional<TodoTemplate> findByIdAndOwnerId(Long id, Long ownerId);
+}
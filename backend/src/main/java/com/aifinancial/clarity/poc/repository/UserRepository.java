@@ -2,10 +2,16 @@ package com.aifinancial.clarity.poc.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.repository.projection.UserOverviewView;
+import com.aifinancial.clarity.poc.repository.projection.UserSummaryView;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,4 +20,60 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    /**
+     * Substring and typo-tolerant lookup on username and email, served by the
+     * trigram indexes from V5. Substring matches rank above fuzzy ones.
+     *
+     * @param term    the raw search term, compared by trigram similarity
+     * @param pattern the term as an escaped ILIKE pattern, e.g. %term%
+     */
+    @Query(value = """
+            SELECT u.id AS id, u.username AS username, u.email AS email, r.name AS role
+            FROM users u
+            JOIN roles r ON r.id = u.role_id
+            WHERE u.username ILIKE :pattern OR u.email ILIKE :pattern
+               OR u.username % :term OR u.email % :term
+            ORDER BY (u.username ILIKE :pattern OR u.email ILIKE :pattern) DESC,
+                     GREATEST(similarity(u.username, :term), similarity(u.email, :term)) DESC,
+                     u.id
+            """, nativeQuery = true)
+    Slice<UserSummaryView> searchByUsernameOrEmail(@Param("term") String term, @Param("pattern") String pattern,
+                                                   Pageable pageable);
+
+    /**
+     * Todo, folder and activity metrics for every user in one statement. Todo counts come from the
+     * trigger-maintained user_todo_stats (V6) and the last todo change from one probe of
+     * idx_todos_user_updated_at (V7) per user, so the cost follows the number of users rather than
+     * todos. Wrapped in a derived table so the pageable's sort can refer to the metric aliases;
+     * callers must only sort by those aliases or id.
+     */
+    @Query(value = """
+            SELECT * FROM (
+                SELECT u.id AS id, u.username AS username, u.email AS email, r.name AS role,
+                       COALESCE(s.todo_count, 0) AS todoCount,
+                       COALESCE(s.completed_count, 0) AS completedCount,
+                       COALESCE(s.disabled_count, 0) AS disabledCount,
+                       COALESCE(f.folder_count, 0) AS folderCount,
+                       GREATEST(u.created_at,
+                                (SELECT max(t.updated_at) FROM todos t WHERE t.user_id = u.id),
+                                f.last_folder_at) AS lastActivityAt
+                FROM users u
+                JOIN roles r ON r.id = u.role_id
+                LEFT JOIN user_todo_stats s ON s.user_id = u.id
+                LEFT JOIN (
+                    SELECT user_id, count(*) AS folder_count, max(updated_at) AS last_folder_at
+                    FROM folders
+                    GROUP BY user_id
+                ) f ON f.user_id = u.id
+            ) overview
+            """, nativeQuery = true)
+    Slice<UserOverviewView> findUserOverview(Pageable pageable);
+
+    /**
+     * Stamp bumped by the todos and folders triggers (V11) on every write to the user's todos
+     * or folders. Empty for a user who has never written anything.
+     */
+    @Query(value = "SELECT change_stamp FROM user_todo_stats WHERE user_id = :userId", nativeQuery = true)
+    Optional<Long> findChangeStampByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,14 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+/**
+ * Counter columns summed over a folder and all folders below it
+ */
+public interface FolderSubtreeCountsView {
+    int getFolderCount();
+
+    int getTodoCount();
+
+    int getCompletedCount();
+
+    int getDisabledCount();
+}
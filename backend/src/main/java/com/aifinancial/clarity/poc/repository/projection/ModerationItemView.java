@@ -0,0 +1,32 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * A claimed moderation item with the todo it is about
+ */
+public interface ModerationItemView {
+    Long getId();
+
+    Long getTodoId();
+
+    Long getOwnerId();
+
+    String getOwnerUsername();
+
+    String getTitle();
+
+    String getDescription();
+
+    boolean getDisabled();
+
+    String getSource();
+
+    String getDetail();
+
+    int getReportCount();
+
+    Instant getCreatedAt();
+
+    Instant getLeaseExpiresAt();
+}
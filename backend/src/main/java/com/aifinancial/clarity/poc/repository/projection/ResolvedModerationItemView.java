@@ -0,0 +1,14 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+/**
+ * A moderation item closed by a bulk resolve, and whether that disabled its todo
+ */
+public interface ResolvedModerationItemView {
+    Long getItemId();
+
+    Long getTodoId();
+
+    Long getOwnerId();
+
+    boolean getDisabled();
+}
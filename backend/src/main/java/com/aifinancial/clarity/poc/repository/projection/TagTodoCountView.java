@@ -0,0 +1,10 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+/**
+ * Number of todos carrying one tag
+ */
+public interface TagTodoCountView {
+    Long getTagId();
+
+    long getTodoCount();
+}
@@ -0,0 +1,16 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+/**
+ * Counter columns of one folder, or of a user's stats row when the folder id is null
+ */
+public interface TodoCountsView {
+    Long getFolderId();
+
+    String getFolderName();
+
+    int getTodoCount();
+
+    int getCompletedCount();
+
+    int getDisabledCount();
+}
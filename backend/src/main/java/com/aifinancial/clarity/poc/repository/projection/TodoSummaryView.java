@@ -0,0 +1,20 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+/**
+ * The columns of a todo shown in the folder tree
+ */
+public interface TodoSummaryView {
+    Long getId();
+
+    String getTitle();
+
+    boolean getCompleted();
+
+    boolean getDisabled();
+
+    Long getFolderId();
+
+    String getRank();
+
+    Long getVersion();
+}
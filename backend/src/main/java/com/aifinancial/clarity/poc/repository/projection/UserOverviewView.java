@@ -0,0 +1,26 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Per-user activity aggregate for the moderator overview
+ */
+public interface UserOverviewView {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getRole();
+
+    long getTodoCount();
+
+    long getCompletedCount();
+
+    long getDisabledCount();
+
+    long getFolderCount();
+
+    Instant getLastActivityAt();
+}
@@ -0,0 +1,15 @@
+package com.aifinancial.clarity.poc.repository.projection;
+
+/**
+ * Lean read-only view of a user, selected directly by native queries
+ * without loading User entities
+ */
+public interface UserSummaryView {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getRole();
+}
@@ -2,7 +2,9 @@ package com.aifinancial.clarity.poc.service;
 
 import com.aifinancial.clarity.poc.dto.request.RoleUpdateRequest;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
+import com.aifinancial.clarity.poc.dto.response.UserSummaryResponse;
 
 import java.util.List;
 
@@ -19,4 +21,13 @@ public interface AdminService {
      * @return 操作結果消息
      */
     MessageResponse updateUserRole(RoleUpdateRequest request);
+
+    /**
+     * 依用戶名或電子郵件搜尋用戶（子字串及模糊比對）
+     * @param query 搜尋字串，須包含至少 3 個字母或數字的單字
+     * @param page 頁碼，從 0 開始
+     * @param size 每頁筆數
+     * @return 精簡用戶資料的分頁結果
+     */
+    SliceResponse<UserSummaryResponse> searchUsers(String query, int page, int size);
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.aifinancial.clarity.poc.service;
+
+import com.aifinancial.clarity.poc.dto.response.AuditLogEntryResponse;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+
+public interface AuditService {
+
+    /**
+     * Audit log entries newest first, optionally narrowed by actor, action and target. Entries
+     * are written asynchronously and show up shortly after the action.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    CursorPage<AuditLogEntryResponse> getAuditLog(Long actorId, String action, String targetType, Long targetId,
+                                                  String cursor, int size);
+}
@@ -0,0 +1,10 @@
+package com.aifinancial.clarity.poc.service;
+
+import com.aifinancial.clarity.poc.dto.response.CacheStatisticsResponse;
+
+public interface CacheStatisticsService {
+    /**
+     * Hibernate second-level and query cache statistics, including hit ratios per region
+     */
+    CacheStatisticsResponse getCacheStatistics();
+}
@@ -0,0 +1,19 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+
+public interface ExportService {
+
+    /**
+     * Resolves whose data is exported. Must be called on the request thread,
+     * before the response starts streaming, so permission errors still map to 403/404.
+     */
+    Long resolveExportOwnerId(Long userId);
+
+    void writeTodos(Long ownerId, DataFormat format, OutputStream out) throws IOException;
+
+    void writeFolders(Long ownerId, DataFormat format, OutputStream out) throws IOException;
+}
@@ -1,21 +1,65 @@
 package com.aifinancial.clarity.poc.service;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
 
 import com.aifinancial.clarity.poc.dto.request.FolderRequest;
+import com.aifinancial.clarity.poc.dto.request.MoveFolderRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.FolderSubtreeStatsResponse;
+import com.aifinancial.clarity.poc.dto.response.MoveTodosResponse;
 
 public interface FolderService {
     
+    /**
+     * The current user's folders in depth-first order, each followed by its subfolders
+     */
     List<FolderResponse> getCurrentUserFolders();
+
+    /**
+     * Current user's folders, or those of {@code userId} (moderators/admins only), unless the owner's
+     * change stamp, read first in the same transaction, is accepted by {@code notModified}
+     *
+     * @return null when {@code notModified} accepted the stamp; no folders are read then
+     */
+    List<FolderResponse> getFoldersIfModified(Long userId, LongPredicate notModified);
     
     FolderResponse getFolder(Long id);
     
     FolderResponse createFolder(FolderRequest folderRequest);
     
-    FolderResponse updateFolder(Long id, FolderRequest folderRequest);
+    /**
+     * @param expectedVersions versions listed in the If-Match header, or null for an unconditional write
+     */
+    FolderResponse updateFolder(Long id, FolderRequest folderRequest, Set<Long> expectedVersions);
+    
+    /**
+     * Re-parent a folder together with its subtree
+     */
+    FolderResponse moveFolder(Long id, MoveFolderRequest moveRequest, Set<Long> expectedVersions);
     
-    void deleteFolder(Long id);
+    void deleteFolder(Long id, Set<Long> expectedVersions);
+
+    /**
+     * Copy a folder with its subfolders, todos and tags in one statement, next to the original
+     *
+     * @return the copy of the folder
+     */
+    FolderResponse duplicateFolder(Long id);
+
+    /**
+     * Move all todos of a folder below those of another folder, or out of any folder when
+     * targetId is null, in one statement
+     */
+    MoveTodosResponse moveTodos(Long id, Long targetId);
+
+    /**
+     * The folder and all folders below it, in depth-first order
+     */
+    List<FolderResponse> getSubtree(Long id);
+
+    FolderSubtreeStatsResponse getSubtreeStats(Long id);
     
     List<FolderResponse> getFoldersByUserId(Long userId);
 } 
\ No newline at end of file
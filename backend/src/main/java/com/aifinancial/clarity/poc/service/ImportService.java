@@ -0,0 +1,12 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.dto.response.TodoImportResponse;
+
+public interface ImportService {
+
+    TodoImportResponse importTodos(DataFormat format, InputStream input) throws IOException;
+}
@@ -2,9 +2,16 @@ package com.aifinancial.clarity.poc.service;
 
 import java.util.List;
 
+import com.aifinancial.clarity.poc.dto.request.ModerationResolveRequest;
+import com.aifinancial.clarity.poc.dto.request.ModerationRuleRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationItemResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationResolveResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationRuleResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.dto.response.UserOverviewResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
 
 public interface ModeratorService {
@@ -34,4 +41,47 @@ public interface ModeratorService {
      * @return 操作结果消息
      */
     MessageResponse toggleTodoDisabledStatus(Long todoId);
-} 
\ No newline at end of file
+
+    /**
+     * 获取所有用户的待办事项、文件夹和最近活动汇总（单条分组查询）
+     * @param page 页码（从0开始）
+     * @param size 每页数量，最大100
+     * @param sort 排序字段：username、todoCount、completedCount、disabledCount、folderCount、lastActivityAt
+     * @param direction 排序方向：asc 或 desc
+     * @return 用户汇总分页结果
+     */
+    SliceResponse<UserOverviewResponse> getUserOverview(int page, int size, String sort, String direction);
+
+    /**
+     * 从审核队列领取一批待处理条目（FOR UPDATE SKIP LOCKED），租约期内不会再分给其他审核员
+     * @param limit 本批数量，最大100
+     * @return 按入队顺序排列的条目
+     */
+    List<ModerationItemResponse> claimQueueItems(int limit);
+
+    /**
+     * 用一条语句批量处理当前审核员已领取的条目：禁用待办事项或直接关闭
+     * @param request 条目ID和处理方式
+     * @return 请求、处理和禁用的数量
+     */
+    ModerationResolveResponse resolveQueueItems(ModerationResolveRequest request);
+
+    /**
+     * 获取所有内容关键词规则
+     * @return 按关键词排序的规则列表
+     */
+    List<ModerationRuleResponse> getRules();
+
+    /**
+     * 添加内容关键词规则，之后新建或修改的待办事项命中时自动进入审核队列
+     * @param request 关键词
+     * @return 新规则
+     */
+    ModerationRuleResponse createRule(ModerationRuleRequest request);
+
+    /**
+     * 删除内容关键词规则，已入队的条目保留
+     * @param ruleId 规则ID
+     */
+    void deleteRule(Long ruleId);
+}
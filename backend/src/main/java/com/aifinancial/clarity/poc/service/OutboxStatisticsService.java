@@ -0,0 +1,10 @@
+package com.aifinancial.clarity.poc.service;
+
+import com.aifinancial.clarity.poc.dto.response.OutboxStatisticsResponse;
+
+public interface OutboxStatisticsService {
+    /**
+     * Outbox backlog and relay delivery lag, counters cover this node since startup
+     */
+    OutboxStatisticsResponse getOutboxStatistics();
+}
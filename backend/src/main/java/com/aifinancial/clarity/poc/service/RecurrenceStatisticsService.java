@@ -0,0 +1,10 @@
+package com.aifinancial.clarity.poc.service;
+
+import com.aifinancial.clarity.poc.dto.response.RecurrenceStatisticsResponse;
+
+public interface RecurrenceStatisticsService {
+    /**
+     * Recurring todo backlog and materializer throughput, counters cover this node since startup
+     */
+    RecurrenceStatisticsResponse getRecurrenceStatistics();
+}
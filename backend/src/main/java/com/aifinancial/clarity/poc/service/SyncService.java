@@ -0,0 +1,20 @@
+package com.aifinancial.clarity.poc.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.aifinancial.clarity.poc.dto.response.SyncResponse;
+
+public interface SyncService {
+
+    /**
+     * Current user's todo and folder changes since {@code since}, oldest first
+     *
+     * @param since cursor from the previous response, or null for a full snapshot
+     */
+    SyncResponse getChanges(String since, int size);
+
+    /**
+     * Stream of the current user's change events, resumed after {@code lastEventId} when given
+     */
+    SseEmitter subscribe(String lastEventId);
+}
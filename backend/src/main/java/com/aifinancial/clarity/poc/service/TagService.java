@@ -0,0 +1,27 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.util.List;
+import java.util.Set;
+
+import com.aifinancial.clarity.poc.dto.request.TagRequest;
+import com.aifinancial.clarity.poc.dto.response.TagResponse;
+
+public interface TagService {
+
+    /**
+     * The current user's tags by name, each with the number of todos carrying it
+     */
+    List<TagResponse> getCurrentUserTags();
+
+    TagResponse createTag(TagRequest tagRequest);
+
+    /**
+     * @param expectedVersions versions listed in the If-Match header, or null for an unconditional write
+     */
+    TagResponse renameTag(Long id, TagRequest tagRequest, Set<Long> expectedVersions);
+
+    /**
+     * Deletes the tag and removes it from every todo carrying it
+     */
+    void deleteTag(Long id, Set<Long> expectedVersions);
+}
@@ -1,28 +1,69 @@
 package com.aifinancial.clarity.poc.service;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
 
+import com.aifinancial.clarity.poc.constant.TagMatch;
+import com.aifinancial.clarity.poc.dto.request.MoveTodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoReportRequest;
 import com.aifinancial.clarity.poc.dto.request.TodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoTagsRequest;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
 
 public interface TodoService {
     
-    List<TodoResponse> getCurrentUserTodos();
+    List<TodoResponse> getCurrentUserTodos(boolean includeArchived);
+
+    /**
+     * Current user's todos, or those of {@code userId} (moderators/admins only), unless the owner's
+     * change stamp, read first in the same transaction, is accepted by {@code notModified}
+     *
+     * @return null when {@code notModified} accepted the stamp; no todos are read then
+     */
+    List<TodoResponse> getTodosIfModified(Long userId, boolean includeArchived, LongPredicate notModified);
+
+    /**
+     * Live todos carrying all, or any, of the named tags, with the same owner rules and change
+     * stamp check as {@link #getTodosIfModified}; names compare ignoring case
+     */
+    List<TodoResponse> getTodosByTagsIfModified(Long userId, List<String> tags, TagMatch match, LongPredicate notModified);
     
-    List<TodoResponse> getTodosByFolder(Long folderId);
+    List<TodoResponse> getTodosByFolder(Long folderId, boolean includeArchived);
     
     TodoResponse getTodo(Long id);
     
     TodoResponse createTodo(TodoRequest todoRequest);
     
-    TodoResponse updateTodo(Long id, TodoRequest todoRequest);
+    /**
+     * @param expectedVersions versions listed in the If-Match header, or null for an unconditional write
+     */
+    TodoResponse updateTodo(Long id, TodoRequest todoRequest, Set<Long> expectedVersions);
+    
+    TodoResponse toggleCompleted(Long id, Set<Long> expectedVersions);
+
+    /**
+     * Give the todo a rank between its new neighbours, writing no other row
+     */
+    TodoResponse moveTodo(Long id, MoveTodoRequest moveRequest, Set<Long> expectedVersions);
     
-    TodoResponse toggleCompleted(Long id);
+    /**
+     * Replace the todo's tags with the given ones
+     */
+    TodoResponse setTags(Long id, TodoTagsRequest tagsRequest, Set<Long> expectedVersions);
     
-    void deleteTodo(Long id);
+    void deleteTodo(Long id, Set<Long> expectedVersions);
     
-    List<TodoResponse> getTodosByUserId(Long userId);
+    List<TodoResponse> getTodosByUserId(Long userId, boolean includeArchived);
     
-    MessageResponse toggleTodoDisabledStatus(Long id);
+    MessageResponse toggleTodoDisabledStatus(Long id, Set<Long> expectedVersions);
+
+    /**
+     * Queue another user's todo for moderation; repeated reports of a pending todo are counted
+     */
+    MessageResponse reportTodo(Long id, TodoReportRequest reportRequest);
+
+    CursorPage<TodoResponse> searchTodos(String query, Long userId, String cursor, int size);
 } 
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.aifinancial.clarity.poc.service;
+
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+
+public interface TodoStatsService {
+
+    TodoStatsResponse getCurrentUserStats();
+
+    TodoStatsResponse getUserStats(Long userId);
+}
@@ -0,0 +1,34 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.util.List;
+import java.util.Set;
+
+import com.aifinancial.clarity.poc.dto.request.TodoTemplateRequest;
+import com.aifinancial.clarity.poc.dto.response.TodoTemplateResponse;
+
+public interface TodoTemplateService {
+
+    /**
+     * The current user's recurring todo templates, newest first
+     */
+    List<TodoTemplateResponse> getCurrentUserTemplates();
+
+    TodoTemplateResponse getTemplateById(Long id);
+
+    /**
+     * Creates a template; its occurrences of the coming days are created by the next materializer run
+     */
+    TodoTemplateResponse createTemplate(TodoTemplateRequest templateRequest);
+
+    /**
+     * Replaces the rule. Occurrences already created are kept; later ones follow the new rule.
+     *
+     * @param expectedVersions versions listed in the If-Match header, or null for an unconditional write
+     */
+    TodoTemplateResponse updateTemplate(Long id, TodoTemplateRequest templateRequest, Set<Long> expectedVersions);
+
+    /**
+     * Stops the recurrence. Occurrences already created are kept as one-off todos.
+     */
+    void deleteTemplate(Long id, Set<Long> expectedVersions);
+}
@@ -0,0 +1,25 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.util.function.LongPredicate;
+
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.dto.response.FolderTreeResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoSummaryResponse;
+
+public interface TreeService {
+
+    /**
+     * The folder tree of the current user, or of {@code userId} (moderators/admins only), with the
+     * first {@code todosPerFolder} todos of every folder and of the unfiled todos, unless the
+     * owner's change stamp is accepted by {@code notModified}
+     *
+     * @return null when {@code notModified} accepted the stamp; nothing else is read then
+     */
+    FolderTreeResponse getTreeIfModified(Long userId, int todosPerFolder, LongPredicate notModified);
+
+    /**
+     * The todos of a folder, or the unfiled todos for a null folderId, that follow a cursor from
+     * the tree or from a previous page
+     */
+    CursorPage<TodoSummaryResponse> getTreeTodos(Long userId, Long folderId, String cursor, int size);
+}
@@ -2,7 +2,11 @@ package com.aifinancial.clarity.poc.service.impl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,26 +15,43 @@ import com.aifinancial.clarity.poc.constant.RoleConstants;
 import com.aifinancial.clarity.poc.converter.UserConverter;
 import com.aifinancial.clarity.poc.dto.request.RoleUpdateRequest;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
+import com.aifinancial.clarity.poc.dto.response.UserSummaryResponse;
+import com.aifinancial.clarity.poc.event.AuditEvent;
 import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.RoleRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.UserSummaryView;
 import com.aifinancial.clarity.poc.service.AdminService;
 
 @Service
 public class AdminServiceImpl implements AdminService {
 
+    // pg_trgm splits text into words of letters and digits; a term without a word of
+    // at least three characters has no selective trigram and would scan the whole index
+    static final int MIN_SEARCH_WORD_LENGTH = 3;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    static final int MAX_SEARCH_LENGTH = 100;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserConverter userConverter;
+    private final OutboxRecorder outboxRecorder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AdminServiceImpl(UserRepository userRepository, RoleRepository roleRepository, UserConverter userConverter) {
+    public AdminServiceImpl(UserRepository userRepository, RoleRepository roleRepository, UserConverter userConverter,
+                            OutboxRecorder outboxRecorder, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.userConverter = userConverter;
+        this.outboxRecorder = outboxRecorder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -56,10 +77,51 @@ public class AdminServiceImpl implements AdminService {
         }
 
         // Update user role using the Role entity
+        String previousRole = user.getRole() != null ? user.getRole().getName() : null;
         user.setRole(newRole);
         userRepository.save(user);
+        // 與角色變更同一交易寫入 outbox
+        outboxRecorder.recordUserRoleChanged(user, previousRole);
+        eventPublisher.publishEvent(AuditEvent.userRoleChanged(user, previousRole));
 
         // Use role name from the entity in the response message
         return new MessageResponse("User role updated successfully to " + newRole.getName());
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<UserSummaryResponse> searchUsers(String query, int page, int size) {
+        String term = query == null ? "" : query.strip();
+        if (NON_WORD.splitAsStream(term).noneMatch(word -> word.length() >= MIN_SEARCH_WORD_LENGTH)) {
+            throw new BadRequestException("Search query must contain a word of at least "
+                    + MIN_SEARCH_WORD_LENGTH + " letters or digits");
+        }
+        if (term.length() > MAX_SEARCH_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_SEARCH_LENGTH + " characters");
+        }
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+
+        Slice<UserSummaryView> slice = userRepository.searchByUsernameOrEmail(
+                term, "%" + escapeLikePattern(term) + "%", PageRequest.of(page, pageSize));
+
+        List<UserSummaryResponse> items = slice.getContent().stream()
+                .map(view -> UserSummaryResponse.builder()
+                        .id(view.getId())
+                        .username(view.getUsername())
+                        .email(view.getEmail())
+                        .role(view.getRole())
+                        .build())
+                .toList();
+        return new SliceResponse<>(items, page, pageSize, slice.hasNext());
+    }
+
+    /**
+     * Escapes LIKE wildcards so user input only ever matches literally
+     */
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
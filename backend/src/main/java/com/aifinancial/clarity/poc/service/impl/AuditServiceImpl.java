@@ -0,0 +1,114 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.dto.response.AuditLogEntryResponse;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.service.AuditService;
+import com.aifinancial.clarity.poc.util.CursorCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class AuditServiceImpl implements AuditService {
+
+    static final int MAX_AUDIT_PAGE_SIZE = 200;
+
+    private static final TypeReference<Map<String, Object>> DETAILS_TYPE = new TypeReference<>() {
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AuditServiceImpl(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLogEntryResponse> getAuditLog(Long actorId, String action, String targetType, Long targetId,
+                                                         String cursor, int size) {
+        if (targetId != null && targetType == null) {
+            throw new BadRequestException("targetId requires targetType");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_AUDIT_PAGE_SIZE));
+
+        // Only the given filters become conditions, so each combination is planned on its own index
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, occurred_at, actor_id, actor_username, action, target_type, target_id, details::text AS details
+                FROM audit_log
+                WHERE true
+                """);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", pageSize + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                params.addValue("beforeId", Long.valueOf(CursorCodec.decode(cursor, 1)[0]));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            sql.append(" AND id < :beforeId");
+        }
+        if (actorId != null) {
+            sql.append(" AND actor_id = :actorId");
+            params.addValue("actorId", actorId);
+        }
+        if (action != null && !action.isBlank()) {
+            sql.append(" AND action = :action");
+            params.addValue("action", action.strip().toUpperCase());
+        }
+        if (targetType != null && !targetType.isBlank()) {
+            sql.append(" AND target_type = :targetType");
+            params.addValue("targetType", targetType.strip().toUpperCase());
+        }
+        if (targetId != null) {
+            sql.append(" AND target_id = :targetId");
+            params.addValue("targetId", targetId);
+        }
+        sql.append(" ORDER BY id DESC LIMIT :limit");
+
+        // Fetch one extra row to know whether another page follows
+        List<AuditLogEntryResponse> entries = jdbcTemplate.query(sql.toString(), params, this::mapToEntry);
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? CursorCodec.encode(entries.get(entries.size() - 1).getId()) : null;
+        return new CursorPage<>(entries, nextCursor);
+    }
+
+    private AuditLogEntryResponse mapToEntry(ResultSet rs, int rowNum) throws SQLException {
+        return AuditLogEntryResponse.builder()
+                .id(rs.getLong("id"))
+                .occurredAt(rs.getObject("occurred_at", OffsetDateTime.class))
+                .actorId(rs.getObject("actor_id", Long.class))
+                .actorUsername(rs.getString("actor_username"))
+                .action(rs.getString("action"))
+                .targetType(rs.getString("target_type"))
+                .targetId(rs.getLong("target_id"))
+                .details(readDetails(rs.getString("details")))
+                .build();
+    }
+
+    private Map<String, Object> readDetails(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, DETAILS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable audit details", e);
+        }
+    }
+}
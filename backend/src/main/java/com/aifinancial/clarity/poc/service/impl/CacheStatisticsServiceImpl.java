@@ -0,0 +1,67 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import com.aifinancial.clarity.poc.dto.response.CacheRegionStatisticsResponse;
+import com.aifinancial.clarity.poc.dto.response.CacheStatisticsResponse;
+import com.aifinancial.clarity.poc.service.CacheStatisticsService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Service
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public CacheStatisticsResponse getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheRegionStatisticsResponse> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> mapToRegionResponse(region, statistics.getCacheRegionStatistics(region)))
+                .collect(Collectors.toList());
+
+        return CacheStatisticsResponse.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .secondLevelCacheHits(statistics.getSecondLevelCacheHitCount())
+                .secondLevelCacheMisses(statistics.getSecondLevelCacheMissCount())
+                .secondLevelCachePuts(statistics.getSecondLevelCachePutCount())
+                .secondLevelCacheHitRatio(hitRatio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()))
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .queryCachePuts(statistics.getQueryCachePutCount())
+                .queryCacheHitRatio(hitRatio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()))
+                .regions(regions)
+                .build();
+    }
+
+    private CacheRegionStatisticsResponse mapToRegionResponse(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return CacheRegionStatisticsResponse.builder().region(region).build();
+        }
+        return CacheRegionStatisticsResponse.builder()
+                .region(region)
+                .hits(regionStatistics.getHitCount())
+                .misses(regionStatistics.getMissCount())
+                .puts(regionStatistics.getPutCount())
+                .hitRatio(hitRatio(regionStatistics.getHitCount(), regionStatistics.getMissCount()))
+                .build();
+    }
+
+    private double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,149 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.dto.response.FolderExportRow;
+import com.aifinancial.clarity.poc.dto.response.TodoExportRow;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.ExportService;
+import com.aifinancial.clarity.poc.util.CsvUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String[] TODO_CSV_HEADER = {
+        "id", "title", "description", "completed", "disabled", "ownerId", "folderId", "folderName", "createdAt", "updatedAt"
+    };
+
+    private static final String[] FOLDER_CSV_HEADER = {
+        "id", "name", "description", "ownerId", "createdAt", "updatedAt"
+    };
+
+    private final TodoRepository todoRepository;
+    private final FolderRepository folderRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(TodoRepository todoRepository, FolderRepository folderRepository,
+                             UserRepository userRepository, ObjectMapper objectMapper) {
+        this.todoRepository = todoRepository;
+        this.folderRepository = folderRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    private boolean isCurrentUserModeratorOrAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_MODERATOR") ||
+                        a.getAuthority().equals("ROLE_SUPER_ADMIN"));
+    }
+
+    @Override
+    public Long resolveExportOwnerId(Long userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long currentUserId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+
+        if (userId == null || userId.equals(currentUserId)) {
+            return currentUserId;
+        }
+
+        // Exporting another user's data requires moderator or admin privileges
+        if (!isCurrentUserModeratorOrAdmin()) {
+            throw new UnauthorizedException("Not authorized to export data for this user");
+        }
+
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+
+        return userId;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeTodos(Long ownerId, DataFormat format, OutputStream out) throws IOException {
+        try (Stream<TodoExportRow> rows = todoRepository.streamExportRowsByOwnerId(ownerId)) {
+            write(rows, TodoExportRow.class, format, out, TODO_CSV_HEADER, row -> new Object[] {
+                row.getId(), row.getTitle(), row.getDescription(), row.isCompleted(), row.isDisabled(),
+                row.getOwnerId(), row.getFolderId(), row.getFolderName(), row.getCreatedAt(), row.getUpdatedAt()
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeFolders(Long ownerId, DataFormat format, OutputStream out) throws IOException {
+        try (Stream<FolderExportRow> rows = folderRepository.streamExportRowsByOwnerId(ownerId)) {
+            write(rows, FolderExportRow.class, format, out, FOLDER_CSV_HEADER, row -> new Object[] {
+                row.getId(), row.getName(), row.getDescription(), row.getOwnerId(), row.getCreatedAt(), row.getUpdatedAt()
+            });
+        }
+    }
+
+    private <T> void write(Stream<T> rows, Class<T> type, DataFormat format, OutputStream out,
+                           String[] csvHeader, Function<T, Object[]> csvColumns) throws IOException {
+        Iterator<T> iterator = rows.iterator();
+        if (format == DataFormat.CSV) {
+            writeCsv(iterator, out, csvHeader, csvColumns);
+        } else {
+            writeNdjson(iterator, type, out);
+        }
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, Class<T> type, OutputStream out) throws IOException {
+        // Flushing is left to the generator's buffer; flushing per row would turn every row into a socket write
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        while (rows.hasNext()) {
+            writer.writeValue(generator, rows.next());
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, OutputStream out, String[] header,
+                              Function<T, Object[]> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, header);
+        while (rows.hasNext()) {
+            writeCsvLine(writer, columns.apply(rows.next()));
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(CsvUtils.formatField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+}
@@ -1,8 +1,11 @@
 package com.aifinancial.clarity.poc.service.impl;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -10,26 +13,44 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.aifinancial.clarity.poc.constant.RoleConstants;
 import com.aifinancial.clarity.poc.dto.request.FolderRequest;
+import com.aifinancial.clarity.poc.dto.request.MoveFolderRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.FolderSubtreeStatsResponse;
+import com.aifinancial.clarity.poc.dto.response.MoveTodosResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoCountsResponse;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.exception.UnauthorizedException;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.FolderSubtreeCountsView;
 import com.aifinancial.clarity.poc.security.UserDetailsImpl;
 import com.aifinancial.clarity.poc.service.FolderService;
+import com.aifinancial.clarity.poc.util.ETags;
+import com.aifinancial.clarity.poc.util.FolderTrees;
 
 @Service
 public class FolderServiceImpl implements FolderService {
 
     private final FolderRepository folderRepository;
+    private final TodoRepository todoRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxRecorder outboxRecorder;
 
-    public FolderServiceImpl(FolderRepository folderRepository, UserRepository userRepository) {
+    public FolderServiceImpl(FolderRepository folderRepository, TodoRepository todoRepository, UserRepository userRepository,
+                             ApplicationEventPublisher eventPublisher, OutboxRecorder outboxRecorder) {
         this.folderRepository = folderRepository;
+        this.todoRepository = todoRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxRecorder = outboxRecorder;
     }
 
     private User getCurrentUser() {
@@ -39,6 +60,12 @@ public class FolderServiceImpl implements FolderService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
+    // Taken from the token rather than loaded, so a not-modified answer only reads the change stamp
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
     private boolean isCurrentUserModeratorOrAdmin() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication.getAuthorities().stream()
@@ -50,9 +77,29 @@ public class FolderServiceImpl implements FolderService {
     @Transactional(readOnly = true)
     public List<FolderResponse> getCurrentUserFolders() {
         User currentUser = getCurrentUser();
-        return folderRepository.findByOwnerOrderByCreatedAtDesc(currentUser).stream()
-                .map(this::mapToFolderResponse)
-                .collect(Collectors.toList());
+        // One query for the whole tree, ordered in memory
+        return inTreeOrder(folderRepository.findByOwnerOrderByCreatedAtDesc(currentUser));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FolderResponse> getFoldersIfModified(Long userId, LongPredicate notModified) {
+        Long ownerId = userId != null ? userId : getCurrentUserId();
+        if (userId != null) {
+            if (!isCurrentUserModeratorOrAdmin()) {
+                throw new UnauthorizedException("Not authorized to view folders for this user");
+            }
+            if (!userRepository.existsById(userId)) {
+                throw new ResourceNotFoundException("User not found with id: " + userId);
+            }
+        }
+
+        // Read before the folders, see TodoServiceImpl.getTodosIfModified
+        long changeStamp = userRepository.findChangeStampByUserId(ownerId).orElse(0L);
+        if (notModified.test(changeStamp)) {
+            return null;
+        }
+        return userId != null ? getFoldersByUserId(userId) : getCurrentUserFolders();
     }
 
     @Override
@@ -79,14 +126,20 @@ public class FolderServiceImpl implements FolderService {
         folder.setName(folderRequest.getName());
         folder.setDescription(folderRequest.getDescription());
         folder.setOwner(currentUser);
+        if (folderRequest.getParentId() != null) {
+            folder.setParent(findOwnParent(folderRequest.getParentId(), currentUser));
+            folderRepository.lockTree(currentUser.getId());
+        }
         
         folder = folderRepository.save(folder);
+        eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(currentUser.getId()));
+        outboxRecorder.recordFolder(OutboxRecorder.FOLDER_CREATED, folder);
         return mapToFolderResponse(folder);
     }
 
     @Override
     @Transactional
-    public FolderResponse updateFolder(Long id, FolderRequest folderRequest) {
+    public FolderResponse updateFolder(Long id, FolderRequest folderRequest, Set<Long> expectedVersions) {
         User currentUser = getCurrentUser();
         
         Folder folder = folderRepository.findById(id)
@@ -96,17 +149,49 @@ public class FolderServiceImpl implements FolderService {
         if (!folder.getOwner().getId().equals(currentUser.getId())) {
             throw new UnauthorizedException("Not authorized to update this folder");
         }
+        ETags.checkIfMatch(expectedVersions, folder.getVersion());
         
         folder.setName(folderRequest.getName());
         folder.setDescription(folderRequest.getDescription());
         
         folder = folderRepository.save(folder);
+        // Flush so the response carries the version this update produced
+        folderRepository.flush();
+        eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(currentUser.getId()));
+        outboxRecorder.recordFolder(OutboxRecorder.FOLDER_UPDATED, folder);
         return mapToFolderResponse(folder);
     }
 
     @Override
     @Transactional
-    public void deleteFolder(Long id) {
+    public FolderResponse moveFolder(Long id, MoveFolderRequest moveRequest, Set<Long> expectedVersions) {
+        User currentUser = getCurrentUser();
+
+        Folder folder = folderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + id));
+        if (!folder.getOwner().getId().equals(currentUser.getId())) {
+            throw new UnauthorizedException("Not authorized to move this folder");
+        }
+        ETags.checkIfMatch(expectedVersions, folder.getVersion());
+        Folder parent = moveRequest.getParentId() != null ? findOwnParent(moveRequest.getParentId(), currentUser) : null;
+
+        // Checked under the lock, so a concurrent move cannot close a cycle behind this check
+        folderRepository.lockTree(currentUser.getId());
+        if (parent != null && folderRepository.isInSubtree(folder.getId(), parent.getId())) {
+            throw new BadRequestException("A folder cannot be moved into its own subtree");
+        }
+
+        // The path triggers re-root the subtree in the same statement
+        folder.setParent(parent);
+        folder = folderRepository.save(folder);
+        folderRepository.flush();
+        outboxRecorder.recordFolder(OutboxRecorder.FOLDER_UPDATED, folder);
+        return mapToFolderResponse(folder);
+    }
+
+    @Override
+    @Transactional
+    public void deleteFolder(Long id, Set<Long> expectedVersions) {
         User currentUser = getCurrentUser();
         
         Folder folder = folderRepository.findById(id)
@@ -117,8 +202,53 @@ public class FolderServiceImpl implements FolderService {
                 ! (currentUser.getRole() != null && RoleConstants.ROLE_SUPER_ADMIN.equalsIgnoreCase(currentUser.getRole().getName())) ) {
             throw new UnauthorizedException("Not authorized to delete this folder");
         }
+        ETags.checkIfMatch(expectedVersions, folder.getVersion());
         
+        // Subfolders and their todos go with it (ON DELETE CASCADE), so their events are
+        // recorded first, in a statement of its own once nothing can be added to the subtree
+        folderRepository.lockSubtree(id);
+        folderRepository.recordSubtreeDeleted(id);
         folderRepository.delete(folder);
+        eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(folder.getOwner().getId()));
+    }
+
+    @Override
+    @Transactional
+    public FolderResponse duplicateFolder(Long id) {
+        Long ownerId = getCurrentUserId();
+        findOwnFolder(id, ownerId, "Not authorized to duplicate this folder");
+
+        // Subfolders always share their root's owner, so the one check above covers the subtree
+        folderRepository.lockTree(ownerId);
+        Long copyId = folderRepository.duplicateSubtree(id, ownerId);
+        eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(ownerId));
+        return mapToFolderResponse(folderRepository.findById(copyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + copyId)));
+    }
+
+    @Override
+    @Transactional
+    public MoveTodosResponse moveTodos(Long id, Long targetId) {
+        Long ownerId = getCurrentUserId();
+        findOwnFolder(id, ownerId, "Not authorized to move todos out of this folder");
+        if (targetId != null) {
+            if (targetId.equals(id)) {
+                throw new BadRequestException("Todos cannot be moved into the folder they are in");
+            }
+            findOwnFolder(targetId, ownerId, "Not authorized to move todos into this folder");
+        }
+
+        // Ranks below the target's last todo are assigned under the owner's rank lock
+        todoRepository.lockRanks(ownerId);
+        int moved = todoRepository.moveFolderTodos(ownerId, id, targetId);
+        if (moved > 0) {
+            eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(ownerId));
+        }
+        return MoveTodosResponse.builder()
+                .sourceFolderId(id)
+                .targetFolderId(targetId)
+                .movedCount(moved)
+                .build();
     }
 
     @Override
@@ -132,11 +262,71 @@ public class FolderServiceImpl implements FolderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         
-        List<Folder> folders = folderRepository.findByOwnerOrderByCreatedAtDesc(user);
-        return folders.stream()
+        return inTreeOrder(folderRepository.findByOwnerOrderByCreatedAtDesc(user));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FolderResponse> getSubtree(Long id) {
+        findViewableFolder(id);
+        return inTreeOrder(folderRepository.findSubtree(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FolderSubtreeStatsResponse getSubtreeStats(Long id) {
+        Folder folder = findViewableFolder(id);
+        FolderSubtreeCountsView counts = folderRepository.countSubtree(id);
+        return FolderSubtreeStatsResponse.builder()
+                .folderId(folder.getId())
+                .folderName(folder.getName())
+                .folderCount(counts.getFolderCount())
+                .counts(TodoCountsResponse.builder()
+                        .total(counts.getTodoCount())
+                        .completed(counts.getCompletedCount())
+                        .open(counts.getTodoCount() - counts.getCompletedCount())
+                        .disabled(counts.getDisabledCount())
+                        .build())
+                .build();
+    }
+
+    private Folder findViewableFolder(Long id) {
+        User currentUser = getCurrentUser();
+        Folder folder = folderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + id));
+        if (!folder.getOwner().getId().equals(currentUser.getId()) && !isCurrentUserModeratorOrAdmin()) {
+            throw new UnauthorizedException("Not authorized to view this folder");
+        }
+        return folder;
+    }
+
+    private Folder findOwnFolder(Long id, Long ownerId, String forbiddenMessage) {
+        Folder folder = folderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + id));
+        if (!folder.getOwner().getId().equals(ownerId)) {
+            throw new UnauthorizedException(forbiddenMessage);
+        }
+        return folder;
+    }
+
+    private Folder findOwnParent(Long parentId, User currentUser) {
+        Folder parent = folderRepository.findById(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + parentId));
+        if (!parent.getOwner().getId().equals(currentUser.getId())) {
+            throw new UnauthorizedException("Not authorized to add folders to this folder");
+        }
+        return parent;
+    }
+
+    private List<FolderResponse> inTreeOrder(List<Folder> folders) {
+        return FolderTrees.depthFirst(folders, Folder::getId, FolderServiceImpl::parentId).stream()
                 .map(this::mapToFolderResponse)
                 .collect(Collectors.toList());
     }
+
+    private static Long parentId(Folder folder) {
+        return folder.getParent() != null ? folder.getParent().getId() : null;
+    }
     
     private FolderResponse mapToFolderResponse(Folder folder) {
         return FolderResponse.builder()
@@ -145,9 +335,13 @@ public class FolderServiceImpl implements FolderService {
                 .description(folder.getDescription())
                 .ownerId(folder.getOwner().getId())
                 .ownerUsername(folder.getOwner().getUsername())
-                .todoCount(folder.getTodos().size())
+                .parentId(parentId(folder))
+                .todoCount(folder.getTodoCount())
+                .completedCount(folder.getCompletedCount())
+                .disabledCount(folder.getDisabledCount())
                 .createdAt(folder.getCreatedAt())
                 .updatedAt(folder.getUpdatedAt())
+                .version(folder.getVersion())
                 .build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.dto.response.ImportLineError;
+import com.aifinancial.clarity.poc.dto.response.TodoImportResponse;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.importer.ImportRowException;
+import com.aifinancial.clarity.poc.importer.TodoImportReader;
+import com.aifinancial.clarity.poc.importer.TodoImportRecord;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.ImportService;
+import com.aifinancial.clarity.poc.util.CsvUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk todo import. Rows are parsed incrementally, streamed into a temporary
+ * staging table with COPY, then merged into folders and todos by a single
+ * set-based statement.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportServiceImpl.class);
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int PROGRESS_LOG_INTERVAL = 100_000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE_SQL =
+            "CREATE TEMP TABLE todo_import_staging ("
+            + " line_no BIGINT NOT NULL,"
+            + " title VARCHAR(100) NOT NULL,"
+            + " description VARCHAR(1000),"
+            + " completed BOOLEAN NOT NULL,"
+            + " folder_name VARCHAR(100)"
+            + ") ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+            "COPY todo_import_staging (line_no, title, description, completed, folder_name) FROM STDIN (FORMAT csv)";
+
+    // Folder names are matched exactly; when a user already has several folders
+    // with the same name the oldest one wins. Folders created here are not visible
+    // to the folders scan in the same statement, hence the UNION. Every created folder
+    // and todo gets its FOLDER_CREATED or TODO_CREATED outbox event in the same statement.
+    private static final String MERGE_SQL = """
+            WITH new_folders AS (
+                INSERT INTO folders (name, user_id)
+                SELECT DISTINCT s.folder_name, ?
+                FROM todo_import_staging s
+                WHERE s.folder_name IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM folders f WHERE f.user_id = ? AND f.name = s.folder_name)
+                RETURNING *
+            ), user_folders AS (
+                SELECT id, name FROM new_folders
+                UNION ALL
+                (SELECT DISTINCT ON (name) id, name FROM folders WHERE user_id = ? ORDER BY name, id)
+            ), inserted AS (
+                INSERT INTO todos (title, description, completed, disabled, user_id, folder_id, rank)
+                SELECT s.title, s.description, s.completed, FALSE, ?, uf.id,
+                       -- Appended below the folder's last todo, in file order
+                       coalesce((SELECT max(t.rank) FROM todos t WHERE t.user_id = ? AND t.folder_id IS NOT DISTINCT FROM uf.id), '')
+                           || todo_rank_key(row_number() OVER (PARTITION BY uf.id ORDER BY s.line_no),
+                                            count(*) OVER (PARTITION BY uf.id))
+                FROM todo_import_staging s
+                LEFT JOIN user_folders uf ON uf.name = s.folder_name
+                ORDER BY s.line_no
+                RETURNING *
+            ), events AS (
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'FOLDER', f.id, 'FOLDER_CREATED', """ + FolderRepository.FOLDER_EVENT_PAYLOAD + """
+                FROM new_folders f
+                UNION ALL
+                SELECT 'TODO', t.id, 'TODO_CREATED', """ + TodoRepository.TODO_EVENT_PAYLOAD + """
+                FROM inserted t
+            )
+            SELECT (SELECT count(*) FROM new_folders) AS folders_created,
+                   (SELECT count(*) FROM inserted) AS todos_imported
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ImportServiceImpl(DataSource dataSource, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
+    @Override
+    @Transactional
+    public TodoImportResponse importTodos(DataFormat format, InputStream input) throws IOException {
+        Long userId = getCurrentUserId();
+
+        // Serialize imports per user so concurrent uploads cannot create the same folder twice
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, userId);
+        jdbcTemplate.execute(CREATE_STAGING_TABLE_SQL);
+
+        List<ImportLineError> errors = new ArrayList<>();
+        long rowsRead = 0;
+        long rowsRejected = 0;
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (TodoImportReader reader = TodoImportReader.open(format, input, objectMapper);
+             Writer copy = new BufferedWriter(new OutputStreamWriter(
+                     new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_SQL, COPY_BUFFER_SIZE),
+                     StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+            while (true) {
+                TodoImportRecord record;
+                try {
+                    record = reader.next();
+                } catch (ImportRowException e) {
+                    rowsRead++;
+                    rowsRejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(new ImportLineError(e.getLineNumber(), e.getMessage()));
+                    }
+                    continue;
+                }
+                if (record == null) {
+                    break;
+                }
+                rowsRead++;
+                writeStagingRow(copy, record);
+                if (rowsRead % PROGRESS_LOG_INTERVAL == 0) {
+                    logger.info("Import for user {}: {} rows read, {} rejected", userId, rowsRead, rowsRejected);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to stream rows into the staging table", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        long[] counts = jdbcTemplate.queryForObject(MERGE_SQL,
+                (rs, rowNum) -> new long[] { rs.getLong("folders_created"), rs.getLong("todos_imported") },
+                userId, userId, userId, userId, userId);
+        eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(userId));
+
+        logger.info("Import for user {} finished: {} rows read, {} todos imported, {} rejected, {} folders created",
+                userId, rowsRead, counts[1], rowsRejected, counts[0]);
+
+        return TodoImportResponse.builder()
+                .rowsRead(rowsRead)
+                .todosImported(counts[1])
+                .rowsRejected(rowsRejected)
+                .foldersCreated(counts[0])
+                .errors(errors)
+                .errorsTruncated(rowsRejected > errors.size())
+                .build();
+    }
+
+    private void writeStagingRow(Writer copy, TodoImportRecord record) throws IOException {
+        copy.write(Long.toString(record.getLineNumber()));
+        copy.write(',');
+        copy.write(CsvUtils.formatField(record.getTitle()));
+        copy.write(',');
+        copy.write(CsvUtils.formatField(record.getDescription()));
+        copy.write(',');
+        copy.write(record.isCompleted() ? "true" : "false");
+        copy.write(',');
+        copy.write(CsvUtils.formatField(record.getFolderName()));
+        copy.write('\n');
+    }
+}
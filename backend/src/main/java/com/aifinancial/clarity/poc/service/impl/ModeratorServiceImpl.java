@@ -1,39 +1,99 @@
 package com.aifinancial.clarity.poc.service.impl;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.aifinancial.clarity.poc.converter.UserConverter;
+import com.aifinancial.clarity.poc.dto.request.ModerationResolveRequest;
+import com.aifinancial.clarity.poc.dto.request.ModerationRuleRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationItemResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationResolveResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationRuleResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.dto.response.UserOverviewResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
+import com.aifinancial.clarity.poc.event.AuditEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent.TodoState;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.ModerationRule;
 import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.ModerationQueueRepository;
+import com.aifinancial.clarity.poc.repository.ModerationRuleRepository;
 import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.ModerationItemView;
+import com.aifinancial.clarity.poc.repository.projection.ResolvedModerationItemView;
+import com.aifinancial.clarity.poc.repository.projection.UserOverviewView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
 import com.aifinancial.clarity.poc.service.ModeratorService;
 
 @Service
 public class ModeratorServiceImpl implements ModeratorService {
 
+    static final int MAX_OVERVIEW_PAGE_SIZE = 100;
+
+    static final int MAX_CLAIM_SIZE = 100;
+
+    // Column aliases of UserRepository.findUserOverview; never pass user input through unchecked
+    private static final Set<String> OVERVIEW_SORT_FIELDS = Set.of(
+            "username", "todoCount", "completedCount", "disabledCount", "folderCount", "lastActivityAt");
+
     private final FolderRepository folderRepository;
     private final TodoRepository todoRepository;
     private final UserRepository userRepository;
     private final UserConverter userConverter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxRecorder outboxRecorder;
+    private final ModerationQueueRepository moderationQueueRepository;
+    private final ModerationRuleRepository moderationRuleRepository;
+    private final Duration lease;
 
     public ModeratorServiceImpl(FolderRepository folderRepository, TodoRepository todoRepository, 
-                                UserRepository userRepository, UserConverter userConverter) {
+                                UserRepository userRepository, UserConverter userConverter,
+                                ApplicationEventPublisher eventPublisher, OutboxRecorder outboxRecorder,
+                                ModerationQueueRepository moderationQueueRepository,
+                                ModerationRuleRepository moderationRuleRepository,
+                                @Value("${moderation.lease:5m}") Duration lease) {
         this.folderRepository = folderRepository;
         this.todoRepository = todoRepository;
         this.userRepository = userRepository;
         this.userConverter = userConverter;
+        this.eventPublisher = eventPublisher;
+        this.outboxRecorder = outboxRecorder;
+        this.moderationQueueRepository = moderationQueueRepository;
+        this.moderationRuleRepository = moderationRuleRepository;
+        this.lease = lease;
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
     }
 
     @Override
@@ -53,8 +113,10 @@ public class ModeratorServiceImpl implements ModeratorService {
                         .id(folder.getId())
                         .name(folder.getName())
                         .ownerId(folder.getOwner().getId())
+                        .parentId(folder.getParent() != null ? folder.getParent().getId() : null)
                         .createdAt(folder.getCreatedAt())
                         .updatedAt(folder.getUpdatedAt())
+                        .version(folder.getVersion())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -64,7 +126,7 @@ public class ModeratorServiceImpl implements ModeratorService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         
-        List<Todo> todos = todoRepository.findByOwnerOrderByCreatedAtDesc(user);
+        List<Todo> todos = todoRepository.findByOwnerOrderByFolderIdAscRankAscIdAsc(user);
         return todos.stream()
                 .map(todo -> TodoResponse.builder()
                         .id(todo.getId())
@@ -76,6 +138,12 @@ public class ModeratorServiceImpl implements ModeratorService {
                         .folderId(todo.getFolder() != null ? todo.getFolder().getId() : null)
                         .createdAt(todo.getCreatedAt())
                         .updatedAt(todo.getUpdatedAt())
+                        .version(todo.getVersion())
+                        .rank(todo.getRank())
+                        .dueAt(todo.getDueAt())
+                        .templateId(todo.getTemplateId())
+                        .occurrenceOn(todo.getOccurrenceOn())
+                        .tagIds(todo.getTagIds() != null ? List.of(todo.getTagIds()) : List.of())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -87,10 +155,141 @@ public class ModeratorServiceImpl implements ModeratorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + todoId));
 
         // 切换禁用状态
+        TodoState before = TodoState.of(todo);
         todo.setDisabled(!todo.isDisabled());
         todoRepository.save(todo);
+        todoRepository.flush();
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, todo));
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
+        eventPublisher.publishEvent(AuditEvent.todoDisabledToggled(todo));
 
         String status = todo.isDisabled() ? "disabled" : "enabled";
         return new MessageResponse("Todo successfully " + status);
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<UserOverviewResponse> getUserOverview(int page, int size, String sort, String direction) {
+        if (!OVERVIEW_SORT_FIELDS.contains(sort)) {
+            throw new BadRequestException("Unsupported sort field: " + sort + ". Supported: " + OVERVIEW_SORT_FIELDS);
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new BadRequestException("Sort direction must be asc or desc"));
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_OVERVIEW_PAGE_SIZE));
+
+        // id breaks ties so pages do not overlap or skip users
+        Sort order = Sort.by(sortDirection, sort).and(Sort.by(Sort.Direction.ASC, "id"));
+        Slice<UserOverviewView> slice = userRepository.findUserOverview(PageRequest.of(page, pageSize, order));
+
+        List<UserOverviewResponse> items = slice.getContent().stream()
+                .map(view -> UserOverviewResponse.builder()
+                        .id(view.getId())
+                        .username(view.getUsername())
+                        .email(view.getEmail())
+                        .role(view.getRole())
+                        .todoCount(view.getTodoCount())
+                        .completedCount(view.getCompletedCount())
+                        .disabledCount(view.getDisabledCount())
+                        .folderCount(view.getFolderCount())
+                        .lastActivityAt(view.getLastActivityAt() != null ? view.getLastActivityAt().atOffset(ZoneOffset.UTC) : null)
+                        .build())
+                .toList();
+        return new SliceResponse<>(items, page, pageSize, slice.hasNext());
+    }
+
+    @Override
+    @Transactional
+    public List<ModerationItemResponse> claimQueueItems(int limit) {
+        int batchSize = Math.max(1, Math.min(limit, MAX_CLAIM_SIZE));
+        // 一条语句领取，被其他审核员锁住的条目直接跳过，不会互相等待
+        List<ModerationItemView> items = moderationQueueRepository.claimBatch(getCurrentUserId(), batchSize, lease.toSeconds());
+        return items.stream()
+                .map(item -> ModerationItemResponse.builder()
+                        .id(item.getId())
+                        .todoId(item.getTodoId())
+                        .ownerId(item.getOwnerId())
+                        .ownerUsername(item.getOwnerUsername())
+                        .title(item.getTitle())
+                        .description(item.getDescription())
+                        .disabled(item.getDisabled())
+                        .source(item.getSource())
+                        .detail(item.getDetail())
+                        .reportCount(item.getReportCount())
+                        .createdAt(atUtc(item.getCreatedAt()))
+                        .leaseExpiresAt(atUtc(item.getLeaseExpiresAt()))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public ModerationResolveResponse resolveQueueItems(ModerationResolveRequest request) {
+        Long[] itemIds = request.getItemIds().stream().distinct().toArray(Long[]::new);
+        List<ResolvedModerationItemView> resolved = moderationQueueRepository.resolveClaimed(
+                getCurrentUserId(), itemIds, request.getAction().name());
+
+        // 与逐条切换一样记录审计日志，并让相关用户的统计缓存失效
+        List<ResolvedModerationItemView> disabled = resolved.stream().filter(ResolvedModerationItemView::getDisabled).toList();
+        disabled.forEach(item -> eventPublisher.publishEvent(
+                AuditEvent.todoDisabledFromQueue(item.getTodoId(), item.getOwnerId(), item.getItemId())));
+        disabled.stream()
+                .map(ResolvedModerationItemView::getOwnerId)
+                .distinct()
+                .forEach(ownerId -> eventPublisher.publishEvent(new TodoStatsInvalidatedEvent(ownerId)));
+
+        return ModerationResolveResponse.builder()
+                .requestedCount(itemIds.length)
+                .resolvedCount(resolved.size())
+                .disabledCount(disabled.size())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ModerationRuleResponse> getRules() {
+        return moderationRuleRepository.findAllByOrderByKeywordAsc().stream()
+                .map(this::toRuleResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public ModerationRuleResponse createRule(ModerationRuleRequest request) {
+        String keyword = request.getKeyword().trim().toLowerCase(Locale.ROOT);
+        if (keyword.isEmpty()) {
+            throw new BadRequestException("Keyword is required");
+        }
+        if (moderationRuleRepository.existsByKeyword(keyword)) {
+            throw new BadRequestException("A rule already exists for keyword: " + keyword);
+        }
+        ModerationRule rule = ModerationRule.builder()
+                .keyword(keyword)
+                .createdBy(getCurrentUserId())
+                .build();
+        return toRuleResponse(moderationRuleRepository.save(rule));
+    }
+
+    @Override
+    @Transactional
+    public void deleteRule(Long ruleId) {
+        ModerationRule rule = moderationRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Moderation rule not found with id: " + ruleId));
+        moderationRuleRepository.delete(rule);
+    }
+
+    private ModerationRuleResponse toRuleResponse(ModerationRule rule) {
+        return ModerationRuleResponse.builder()
+                .id(rule.getId())
+                .keyword(rule.getKeyword())
+                .createdBy(rule.getCreatedBy())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+
+    private static OffsetDateTime atUtc(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.aifinancial.clarity.poc.dto.response.OutboxStatisticsResponse;
+import com.aifinancial.clarity.poc.outbox.OutboxRelay;
+import com.aifinancial.clarity.poc.service.OutboxStatisticsService;
+
+@Service
+public class OutboxStatisticsServiceImpl implements OutboxStatisticsService {
+
+    private static final String BACKLOG_SQL = """
+            SELECT count(*) AS pending,
+                   count(*) FILTER (WHERE attempts > 0) AS retrying,
+                   coalesce(floor(extract(epoch FROM now() - min(created_at)) * 1000), 0)::bigint AS oldest_age_ms
+            FROM outbox
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxRelay outboxRelay;
+
+    public OutboxStatisticsServiceImpl(JdbcTemplate jdbcTemplate, OutboxRelay outboxRelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @Override
+    public OutboxStatisticsResponse getOutboxStatistics() {
+        OutboxStatisticsResponse.OutboxStatisticsResponseBuilder builder = OutboxStatisticsResponse.builder()
+                .deliveredEvents(outboxRelay.getDeliveredEvents())
+                .failedBatches(outboxRelay.getFailedBatches())
+                .lastDeliveryLagMs(outboxRelay.getLastDeliveryLagMs())
+                .lastRunAt(outboxRelay.getLastRunAt())
+                .sinks(outboxRelay.getSinkNames());
+        return jdbcTemplate.queryForObject(BACKLOG_SQL, (rs, rowNum) -> builder
+                .pendingEvents(rs.getLong("pending"))
+                .retryingEvents(rs.getLong("retrying"))
+                .oldestPendingAgeMs(rs.getLong("oldest_age_ms"))
+                .build());
+    }
+}
@@ -0,0 +1,43 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.aifinancial.clarity.poc.dto.response.RecurrenceStatisticsResponse;
+import com.aifinancial.clarity.poc.job.RecurringTodoMaterializerJob;
+import com.aifinancial.clarity.poc.service.RecurrenceStatisticsService;
+
+@Service
+public class RecurrenceStatisticsServiceImpl implements RecurrenceStatisticsService {
+
+    private static final String BACKLOG_SQL = """
+            SELECT count(*) AS active,
+                   count(*) FILTER (WHERE materialize_at <= now()) AS due,
+                   coalesce(floor(extract(epoch FROM now() - min(materialize_at) FILTER (WHERE materialize_at <= now())) * 1000), 0)::bigint AS oldest_age_ms
+            FROM todo_templates
+            WHERE next_occurrence_on IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RecurringTodoMaterializerJob materializerJob;
+
+    public RecurrenceStatisticsServiceImpl(JdbcTemplate jdbcTemplate, RecurringTodoMaterializerJob materializerJob) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.materializerJob = materializerJob;
+    }
+
+    @Override
+    public RecurrenceStatisticsResponse getRecurrenceStatistics() {
+        RecurrenceStatisticsResponse.RecurrenceStatisticsResponseBuilder builder = RecurrenceStatisticsResponse.builder()
+                .materializedTodos(materializerJob.getMaterializedTodos())
+                .processedTemplates(materializerJob.getProcessedTemplates())
+                .batches(materializerJob.getBatches())
+                .lastRunDurationMs(materializerJob.getLastRunDurationMs())
+                .lastRunAt(materializerJob.getLastRunAt());
+        return jdbcTemplate.queryForObject(BACKLOG_SQL, (rs, rowNum) -> builder
+                .activeTemplates(rs.getLong("active"))
+                .dueTemplates(rs.getLong("due"))
+                .oldestDueAgeMs(rs.getLong("oldest_age_ms"))
+                .build());
+    }
+}
@@ -0,0 +1,339 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.SyncResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.Todo;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.SyncService;
+import com.aifinancial.clarity.poc.sse.ChangeEventBroadcaster;
+import com.aifinancial.clarity.poc.util.CursorCodec;
+
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    static final int MAX_SYNC_PAGE_SIZE = 1000;
+
+    // Change kinds in cursor order
+    static final int FOLDER = 0;
+    static final int TODO = 1;
+    static final int TOMBSTONE = 2;
+
+    private static final String CURRENT_SNAPSHOT_SQL = "SELECT pg_current_snapshot()::text";
+
+    // xmin:xmax:xip,..., as pg_snapshot prints it
+    private static final Pattern SNAPSHOT_TEXT = Pattern.compile("\\d+:\\d+:(\\d+(,\\d+)*)?");
+
+    /**
+     * One keyset page of a pass over three streams. A pass returns the rows written by
+     * transactions that are visible in its snapshot :until but were not in :seen, the snapshot
+     * the client's previous pass ended with, whenever those transactions committed. Each stream
+     * is read in (change_txid, id) order from its (user_id, change_txid, id) index, bounded by
+     * the oldest transaction :seen did not include, and cut at :limit before the merge, so the
+     * work follows the number of changes rather than the user's total data. A snapshot pass
+     * (:snapshotPass) sends every row visible in :until and no tombstones: deletions committed
+     * after it started are reported by the next pass.
+     */
+    private static final String CHANGES_SQL = """
+            SELECT kind, id, change_txid::text AS txid, entity_type, entity_id FROM (
+                (SELECT 0 AS kind, f.id, f.change_txid, NULL AS entity_type, NULL::bigint AS entity_id
+                 FROM folders f
+                 WHERE f.user_id = :userId
+                   AND f.change_txid >= CAST(:lowestTxid AS xid8)
+                   AND f.change_txid < pg_snapshot_xmax(CAST(:until AS pg_snapshot))
+                   AND (f.change_txid, 0, f.id) > (CAST(:afterTxid AS xid8), :afterKind, :afterId)
+                   AND pg_visible_in_snapshot(f.change_txid, CAST(:until AS pg_snapshot))
+                   AND (:snapshotPass OR NOT pg_visible_in_snapshot(f.change_txid, CAST(:seen AS pg_snapshot)))
+                 ORDER BY f.change_txid, f.id
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT 1, t.id, t.change_txid, NULL, NULL
+                 FROM todos t
+                 WHERE t.user_id = :userId
+                   AND t.change_txid >= CAST(:lowestTxid AS xid8)
+                   AND t.change_txid < pg_snapshot_xmax(CAST(:until AS pg_snapshot))
+                   AND (t.change_txid, 1, t.id) > (CAST(:afterTxid AS xid8), :afterKind, :afterId)
+                   AND pg_visible_in_snapshot(t.change_txid, CAST(:until AS pg_snapshot))
+                   AND (:snapshotPass OR NOT pg_visible_in_snapshot(t.change_txid, CAST(:seen AS pg_snapshot)))
+                 ORDER BY t.change_txid, t.id
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT 2, s.id, s.change_txid, s.entity_type, s.entity_id
+                 FROM sync_tombstones s
+                 WHERE NOT :snapshotPass
+                   AND s.user_id = :userId
+                   AND s.change_txid >= CAST(:lowestTxid AS xid8)
+                   AND s.change_txid < pg_snapshot_xmax(CAST(:until AS pg_snapshot))
+                   AND (s.change_txid, 2, s.id) > (CAST(:afterTxid AS xid8), :afterKind, :afterId)
+                   AND pg_visible_in_snapshot(s.change_txid, CAST(:until AS pg_snapshot))
+                   AND NOT pg_visible_in_snapshot(s.change_txid, CAST(:seen AS pg_snapshot))
+                 ORDER BY s.change_txid, s.id
+                 LIMIT :limit)
+            ) changes
+            ORDER BY change_txid, kind, id
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TodoRepository todoRepository;
+    private final FolderRepository folderRepository;
+    private final ChangeEventBroadcaster changeEventBroadcaster;
+    private final Duration tombstoneRetention;
+
+    public SyncServiceImpl(NamedParameterJdbcTemplate jdbcTemplate, TodoRepository todoRepository,
+                           FolderRepository folderRepository, ChangeEventBroadcaster changeEventBroadcaster,
+                           @Value("${sync.tombstones.retention:30d}") Duration tombstoneRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.todoRepository = todoRepository;
+        this.folderRepository = folderRepository;
+        this.changeEventBroadcaster = changeEventBroadcaster;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
+    // Read-write on purpose: a pass starting on a lagging replica would take a snapshot older
+    // than the one the client has seen, and resend what it already has
+    @Override
+    @Transactional
+    public SyncResponse getChanges(String since, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SYNC_PAGE_SIZE));
+        Long userId = getCurrentUserId();
+        OffsetDateTime now = OffsetDateTime.now();
+
+        boolean fullResync = since == null || since.isBlank();
+        SyncPosition position = fullResync ? SyncPosition.SNAPSHOT : SyncPosition.decode(since);
+        if (!fullResync && position.seenAt() != null && position.seenAt().isBefore(now.minus(tombstoneRetention))) {
+            // Deletions that old have been purged, so the client can only start over
+            fullResync = true;
+            position = SyncPosition.SNAPSHOT;
+        }
+        if (!position.inPass()) {
+            position = position.startPass(jdbcTemplate.getJdbcTemplate().queryForObject(CURRENT_SNAPSHOT_SQL, String.class), now);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("lowestTxid", Long.toUnsignedString(position.lowestTxid()))
+                .addValue("afterTxid", Long.toUnsignedString(position.txid()))
+                .addValue("afterKind", position.kind())
+                .addValue("afterId", position.id())
+                .addValue("until", position.until())
+                .addValue("snapshotPass", position.seen() == null)
+                .addValue("seen", position.seen() != null ? position.seen() : position.until())
+                // Fetch one extra row to know whether another page follows
+                .addValue("limit", pageSize + 1);
+        List<Change> changes = jdbcTemplate.query(CHANGES_SQL, params, (rs, rowNum) -> new Change(
+                rs.getInt("kind"), rs.getLong("id"), Long.parseUnsignedLong(rs.getString("txid")),
+                rs.getString("entity_type"), rs.getObject("entity_id", Long.class)));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<Long> folderIds = new ArrayList<>();
+        List<Long> todoIds = new ArrayList<>();
+        List<Long> deletedFolderIds = new ArrayList<>();
+        List<Long> deletedTodoIds = new ArrayList<>();
+        for (Change change : changes) {
+            switch (change.kind()) {
+                case FOLDER -> folderIds.add(change.id());
+                case TODO -> todoIds.add(change.id());
+                default -> ("FOLDER".equals(change.entityType()) ? deletedFolderIds : deletedTodoIds).add(change.entityId());
+            }
+        }
+
+        SyncPosition next;
+        if (hasMore) {
+            Change last = changes.get(changes.size() - 1);
+            next = position.movedTo(last.txid(), last.kind(), last.id());
+        } else {
+            next = position.endPass();
+        }
+
+        return SyncResponse.builder()
+                .folders(loadFolders(folderIds))
+                .todos(loadTodos(todoIds, userId))
+                .deletedFolderIds(deletedFolderIds)
+                .deletedTodoIds(deletedTodoIds)
+                .cursor(next.encode())
+                .hasMore(hasMore)
+                .fullResync(fullResync)
+                .build();
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        return changeEventBroadcaster.subscribe(getCurrentUserId(), lastEventId);
+    }
+
+    private List<FolderResponse> loadFolders(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Folder> foldersById = folderRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Folder::getId, Function.identity()));
+        // Deleted since the change was listed: its tombstone comes in a later call
+        return ids.stream()
+                .map(foldersById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToFolderResponse)
+                .collect(Collectors.toList());
+    }
+
+    private List<TodoResponse> loadTodos(List<Long> ids, Long userId) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Todo> todosById = todoRepository.findAllWithOwnerAndFolderByIdIn(ids, userId).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        return ids.stream()
+                .map(todosById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToTodoResponse)
+                .collect(Collectors.toList());
+    }
+
+    private FolderResponse mapToFolderResponse(Folder folder) {
+        return FolderResponse.builder()
+                .id(folder.getId())
+                .name(folder.getName())
+                .description(folder.getDescription())
+                .ownerId(folder.getOwner().getId())
+                .ownerUsername(folder.getOwner().getUsername())
+                .parentId(folder.getParent() != null ? folder.getParent().getId() : null)
+                .todoCount(folder.getTodoCount())
+                .completedCount(folder.getCompletedCount())
+                .disabledCount(folder.getDisabledCount())
+                .createdAt(folder.getCreatedAt())
+                .updatedAt(folder.getUpdatedAt())
+                .version(folder.getVersion())
+                .build();
+    }
+
+    private TodoResponse mapToTodoResponse(Todo todo) {
+        return TodoResponse.builder()
+                .id(todo.getId())
+                .title(todo.getTitle())
+                .description(todo.getDescription())
+                .completed(todo.isCompleted())
+                .disabled(todo.isDisabled())
+                .ownerId(todo.getOwner().getId())
+                .ownerUsername(todo.getOwner().getUsername())
+                .folderId(todo.getFolder() != null ? todo.getFolder().getId() : null)
+                .folderName(todo.getFolder() != null ? todo.getFolder().getName() : null)
+                .createdAt(todo.getCreatedAt())
+                .updatedAt(todo.getUpdatedAt())
+                .version(todo.getVersion())
+                .rank(todo.getRank())
+                .dueAt(todo.getDueAt())
+                .templateId(todo.getTemplateId())
+                .occurrenceOn(todo.getOccurrenceOn())
+                .tagIds(todo.getTagIds() != null ? List.of(todo.getTagIds()) : List.of())
+                .build();
+    }
+
+    private record Change(int kind, long id, long txid, String entityType, Long entityId) {
+    }
+
+    /**
+     * Where a client stands. seen is the snapshot its last completed pass ended with, taken at
+     * seenAt; it is null until a first snapshot pass has completed. While a pass is being paged,
+     * until and untilAt hold the snapshot the pass runs up to, and (txid, kind, id) the last
+     * change returned from it. Snapshots are kept in their text form, e.g. 1040:1052:1043,1050.
+     */
+    record SyncPosition(String seen, OffsetDateTime seenAt, String until, OffsetDateTime untilAt,
+                        long txid, int kind, long id) {
+
+        static final SyncPosition SNAPSHOT = new SyncPosition(null, null, null, null, 0L, FOLDER, 0L);
+
+        boolean inPass() {
+            return until != null;
+        }
+
+        SyncPosition startPass(String snapshot, OffsetDateTime takenAt) {
+            return new SyncPosition(seen, seenAt, snapshot, takenAt, 0L, FOLDER, 0L);
+        }
+
+        SyncPosition movedTo(long lastTxid, int lastKind, long lastId) {
+            return new SyncPosition(seen, seenAt, until, untilAt, lastTxid, lastKind, lastId);
+        }
+
+        SyncPosition endPass() {
+            return new SyncPosition(until, untilAt, null, null, 0L, FOLDER, 0L);
+        }
+
+        // Every transaction older than seen's xmin was already visible in it
+        long lowestTxid() {
+            if (seen == null) {
+                return txid;
+            }
+            long seenXmin = Long.parseUnsignedLong(seen.substring(0, seen.indexOf(':')));
+            return Long.compareUnsigned(txid, seenXmin) > 0 ? txid : seenXmin;
+        }
+
+        String encode() {
+            return CursorCodec.encode(orEmpty(seen), orEmpty(seenAt), orEmpty(until), orEmpty(untilAt),
+                    Long.toUnsignedString(txid), kind, id);
+        }
+
+        static SyncPosition decode(String cursor) {
+            String[] parts = CursorCodec.decode(cursor, 7);
+            try {
+                int kind = Integer.parseInt(parts[5]);
+                if (kind < FOLDER || kind > TOMBSTONE
+                        || !isSnapshot(parts[0]) || !isSnapshot(parts[2]) || parts[0].isEmpty() != parts[1].isEmpty()
+                        || parts[2].isEmpty() != parts[3].isEmpty()) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                return new SyncPosition(emptyToNull(parts[0]), parseTime(parts[1]), emptyToNull(parts[2]), parseTime(parts[3]),
+                        Long.parseUnsignedLong(parts[4]), kind, Long.parseLong(parts[6]));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        private static boolean isSnapshot(String text) {
+            return text.isEmpty() || SNAPSHOT_TEXT.matcher(text).matches();
+        }
+
+        private static String emptyToNull(String text) {
+            return text.isEmpty() ? null : text;
+        }
+
+        private static OffsetDateTime parseTime(String text) {
+            return text.isEmpty() ? null : OffsetDateTime.parse(text);
+        }
+
+        private static Object orEmpty(Object value) {
+            return value != null ? value : "";
+        }
+    }
+}
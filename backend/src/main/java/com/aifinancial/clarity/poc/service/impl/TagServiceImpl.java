@@ -0,0 +1,127 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.dto.request.TagRequest;
+import com.aifinancial.clarity.poc.dto.response.TagResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.model.Tag;
+import com.aifinancial.clarity.poc.repository.TagRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.TagTodoCountView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.TagService;
+import com.aifinancial.clarity.poc.util.ETags;
+
+@Service
+public class TagServiceImpl implements TagService {
+
+    private final TagRepository tagRepository;
+    private final UserRepository userRepository;
+
+    public TagServiceImpl(TagRepository tagRepository, UserRepository userRepository) {
+        this.tagRepository = tagRepository;
+        this.userRepository = userRepository;
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagResponse> getCurrentUserTags() {
+        Long ownerId = getCurrentUserId();
+        Map<Long, Long> todoCounts = tagRepository.countTodosByOwnerId(ownerId).stream()
+                .collect(Collectors.toMap(TagTodoCountView::getTagId, TagTodoCountView::getTodoCount));
+        return tagRepository.findByOwnerIdOrderByNameAsc(ownerId).stream()
+                .map(tag -> mapToTagResponse(tag, todoCounts.getOrDefault(tag.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public TagResponse createTag(TagRequest tagRequest) {
+        Long ownerId = getCurrentUserId();
+        String name = tagRequest.getName().strip();
+        requireUnusedName(ownerId, name);
+
+        Tag tag = new Tag();
+        tag.setName(name);
+        tag.setOwner(userRepository.getReferenceById(ownerId));
+        return mapToTagResponse(saveAndFlush(tag), 0L);
+    }
+
+    @Override
+    @Transactional
+    public TagResponse renameTag(Long id, TagRequest tagRequest, Set<Long> expectedVersions) {
+        Long ownerId = getCurrentUserId();
+        Tag tag = findOwnTag(id, ownerId);
+        ETags.checkIfMatch(expectedVersions, tag.getVersion());
+        String name = tagRequest.getName().strip();
+        // Changing only the case of the name is allowed
+        if (!name.equalsIgnoreCase(tag.getName())) {
+            requireUnusedName(ownerId, name);
+        }
+
+        tag.setName(name);
+        tag = saveAndFlush(tag);
+        return mapToTagResponse(tag, tagRepository.countTodosByOwnerIdAndTagId(ownerId, tag.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void deleteTag(Long id, Set<Long> expectedVersions) {
+        Long ownerId = getCurrentUserId();
+        Tag tag = tagRepository.findLockedByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tag not found with id: " + id));
+        ETags.checkIfMatch(expectedVersions, tag.getVersion());
+        // todo_tags rows go with it (ON DELETE CASCADE) and their trigger rewrites the todos'
+        // tag_ids, so the events for those todos are recorded first, in one statement
+        tagRepository.recordTagRemoved(ownerId, id);
+        tagRepository.delete(tag);
+    }
+
+    // Tags of other users are reported as missing, so their ids reveal nothing
+    private Tag findOwnTag(Long id, Long ownerId) {
+        return tagRepository.findByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tag not found with id: " + id));
+    }
+
+    private void requireUnusedName(Long ownerId, String name) {
+        if (tagRepository.existsByOwnerIdAndNameIgnoreCase(ownerId, name)) {
+            throw new BadRequestException("A tag named '" + name + "' already exists");
+        }
+    }
+
+    // A concurrent create with the same name fails on the unique index instead of the check above
+    private Tag saveAndFlush(Tag tag) {
+        try {
+            return tagRepository.saveAndFlush(tag);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("A tag named '" + tag.getName() + "' already exists");
+        }
+    }
+
+    private TagResponse mapToTagResponse(Tag tag, long todoCount) {
+        return TagResponse.builder()
+                .id(tag.getId())
+                .name(tag.getName())
+                .todoCount(todoCount)
+                .createdAt(tag.getCreatedAt())
+                .updatedAt(tag.getUpdatedAt())
+                .version(tag.getVersion())
+                .build();
+    }
+}
@@ -1,40 +1,92 @@
 package com.aifinancial.clarity.poc.service.impl;
 
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.constant.TagMatch;
+import com.aifinancial.clarity.poc.dto.request.MoveTodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoReportRequest;
 import com.aifinancial.clarity.poc.dto.request.TodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoTagsRequest;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.event.AuditEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent.TodoState;
+import com.aifinancial.clarity.poc.event.TodoDueDateChangedEvent;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.TooManyRequestsException;
 import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.model.ArchivedTodo;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
+import com.aifinancial.clarity.poc.repository.ArchivedTodoRepository;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.ModerationQueueRepository;
+import com.aifinancial.clarity.poc.repository.TagRepository;
 import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
 import com.aifinancial.clarity.poc.security.UserDetailsImpl;
 import com.aifinancial.clarity.poc.service.TodoService;
+import com.aifinancial.clarity.poc.util.CursorCodec;
+import com.aifinancial.clarity.poc.util.ETags;
+import com.aifinancial.clarity.poc.util.RankKeys;
 
 @Service
 public class TodoServiceImpl implements TodoService {
 
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_QUERY_LENGTH = 256;
+    static final int MAX_RANK_LENGTH = 255;
+
     private final TodoRepository todoRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
     private final FolderRepository folderRepository;
     private final UserRepository userRepository;
+    private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxRecorder outboxRecorder;
+    private final ModerationQueueRepository moderationQueueRepository;
+    private final int maxOpenReports;
 
-    public TodoServiceImpl(TodoRepository todoRepository, FolderRepository folderRepository, UserRepository userRepository) {
+    public TodoServiceImpl(TodoRepository todoRepository, ArchivedTodoRepository archivedTodoRepository,
+                           FolderRepository folderRepository, UserRepository userRepository, TagRepository tagRepository,
+                           ApplicationEventPublisher eventPublisher, OutboxRecorder outboxRecorder,
+                           ModerationQueueRepository moderationQueueRepository,
+                           @Value("${moderation.max-open-reports:20}") int maxOpenReports) {
         this.todoRepository = todoRepository;
+        this.archivedTodoRepository = archivedTodoRepository;
         this.folderRepository = folderRepository;
         this.userRepository = userRepository;
+        this.tagRepository = tagRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxRecorder = outboxRecorder;
+        this.moderationQueueRepository = moderationQueueRepository;
+        this.maxOpenReports = maxOpenReports;
     }
 
     private User getCurrentUser() {
@@ -44,6 +96,12 @@ public class TodoServiceImpl implements TodoService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
+    // Taken from the token rather than loaded, so a not-modified answer only reads the change stamp
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
     private boolean isCurrentUserModeratorOrAdmin() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication.getAuthorities().stream()
@@ -53,16 +111,62 @@ public class TodoServiceImpl implements TodoService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<TodoResponse> getCurrentUserTodos() {
+    public List<TodoResponse> getCurrentUserTodos(boolean includeArchived) {
         User currentUser = getCurrentUser();
-        return todoRepository.findByOwnerOrderByCreatedAtDesc(currentUser).stream()
+        List<TodoResponse> todos = todoRepository.findByOwnerOrderByFolderIdAscRankAscIdAsc(currentUser).stream()
+                .map(this::mapToTodoResponse)
+                .collect(Collectors.toList());
+        return includeArchived
+                ? withArchived(todos, () -> archivedTodoRepository.findByOwnerIdOrderByCreatedAtDesc(currentUser.getId()))
+                : todos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TodoResponse> getTodosIfModified(Long userId, boolean includeArchived, LongPredicate notModified) {
+        Long ownerId = resolveListOwner(userId);
+
+        // Read before the todos: a write committing in between makes the stamp older than the
+        // list, which only costs the client one extra full response later
+        long changeStamp = userRepository.findChangeStampByUserId(ownerId).orElse(0L);
+        if (notModified.test(changeStamp)) {
+            return null;
+        }
+        return userId != null ? getTodosByUserId(userId, includeArchived) : getCurrentUserTodos(includeArchived);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TodoResponse> getTodosByTagsIfModified(Long userId, List<String> tags, TagMatch match,
+                                                       LongPredicate notModified) {
+        Long ownerId = resolveListOwner(userId);
+        List<String> names = normalizeTagNames(tags);
+        if (names.isEmpty()) {
+            throw new BadRequestException("At least one tag is required");
+        }
+
+        // Read before the todos, see getTodosIfModified
+        long changeStamp = userRepository.findChangeStampByUserId(ownerId).orElse(0L);
+        if (notModified.test(changeStamp)) {
+            return null;
+        }
+
+        Long[] tagIds = tagRepository.findIdsByOwnerIdAndLowerNames(ownerId, names).toArray(Long[]::new);
+        // An unknown name matches nothing, so with ALL no todo can carry every tag
+        if (tagIds.length == 0 || (match == TagMatch.ALL && tagIds.length < names.size())) {
+            return List.of();
+        }
+        List<Todo> todos = match == TagMatch.ALL
+                ? todoRepository.findByOwnerIdWithAllTags(ownerId, tagIds)
+                : todoRepository.findByOwnerIdWithAnyTag(ownerId, tagIds);
+        return todos.stream()
                 .map(this::mapToTodoResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TodoResponse> getTodosByFolder(Long folderId) {
+    public List<TodoResponse> getTodosByFolder(Long folderId, boolean includeArchived) {
         User currentUser = getCurrentUser();
         
         Folder folder = folderRepository.findById(folderId)
@@ -70,9 +174,13 @@ public class TodoServiceImpl implements TodoService {
         
         // If the user is the owner or moderator/admin, they can view the todos in this folder
         if (folder.getOwner().getId().equals(currentUser.getId()) || isCurrentUserModeratorOrAdmin()) {
-            return todoRepository.findByFolderOrderByCreatedAtDesc(folder).stream()
+            Long ownerId = folder.getOwner().getId();
+            List<TodoResponse> todos = todoRepository.findByOwnerIdAndFolderOrderByRankAscIdAsc(ownerId, folder).stream()
                     .map(this::mapToTodoResponse)
                     .collect(Collectors.toList());
+            return includeArchived
+                    ? withArchived(todos, () -> archivedTodoRepository.findByOwnerIdAndFolderOrderByCreatedAtDesc(ownerId, folder))
+                    : todos;
         }
         
         throw new UnauthorizedException("Not authorized to view todos in this folder");
@@ -82,15 +190,19 @@ public class TodoServiceImpl implements TodoService {
     @Transactional(readOnly = true)
     public TodoResponse getTodo(Long id) {
         User currentUser = getCurrentUser();
-        Todo todo = todoRepository.findById(id)
+        TodoResponse todo = todoRepository.findByIdAndOwnerId(id, currentUser.getId())
+                .or(() -> todoRepository.findById(id))
+                .map(this::mapToTodoResponse)
+                // Archived todos stay readable by id
+                .or(() -> archivedTodoRepository.findById(id).map(this::mapToTodoResponse))
                 .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
 
         // Check if the user is owner or moderator/admin
-        if (!todo.getOwner().getId().equals(currentUser.getId()) && !isCurrentUserModeratorOrAdmin()) {
+        if (!todo.getOwnerId().equals(currentUser.getId()) && !isCurrentUserModeratorOrAdmin()) {
             throw new UnauthorizedException("Not authorized to view this todo");
         }
 
-        return mapToTodoResponse(todo);
+        return todo;
     }
 
     @Override
@@ -103,6 +215,7 @@ public class TodoServiceImpl implements TodoService {
         todo.setDescription(todoRequest.getDescription());
         todo.setCompleted(todoRequest.isCompleted());
         todo.setDisabled(false); // Default to not disabled
+        todo.setDueAt(todoRequest.getDueAt());
         todo.setOwner(currentUser);
         
         // Set folder if provided
@@ -117,27 +230,42 @@ public class TodoServiceImpl implements TodoService {
             
             todo.setFolder(folder);
         }
+        // New todos go on top of their folder
+        todo.setRank(placeRank(currentUser.getId(), todoRequest.getFolderId(), null, null, null));
         
         todo = todoRepository.save(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.created(todo));
+        if (todo.getDueAt() != null) {
+            eventPublisher.publishEvent(new TodoDueDateChangedEvent(todo.getId(), todo.getDueAt()));
+        }
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_CREATED, todo);
         return mapToTodoResponse(todo);
     }
 
     @Override
     @Transactional
-    public TodoResponse updateTodo(Long id, TodoRequest todoRequest) {
+    public TodoResponse updateTodo(Long id, TodoRequest todoRequest, Set<Long> expectedVersions) {
         User currentUser = getCurrentUser();
         
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+        Todo todo = findTodo(id, currentUser.getId());
         
         // Check if the current user is the owner
         if (!todo.getOwner().getId().equals(currentUser.getId())) {
             throw new UnauthorizedException("Not authorized to update this todo");
         }
+        ETags.checkIfMatch(expectedVersions, todo.getVersion());
+        // Placed before any field changes: the rank queries would flush them as a separate update
+        Long previousFolderId = todo.getFolder() != null ? todo.getFolder().getId() : null;
+        String rank = Objects.equals(previousFolderId, todoRequest.getFolderId())
+                ? todo.getRank()
+                : placeRank(currentUser.getId(), todoRequest.getFolderId(), todo.getId(), null, null);
         
+        TodoState before = TodoState.of(todo);
+        OffsetDateTime previousDueAt = todo.getDueAt();
         todo.setTitle(todoRequest.getTitle());
         todo.setDescription(todoRequest.getDescription());
         todo.setCompleted(todoRequest.isCompleted());
+        todo.setDueAt(todoRequest.getDueAt());
         
         // Update folder if provided
         if (todoRequest.getFolderId() != null) {
@@ -153,49 +281,129 @@ public class TodoServiceImpl implements TodoService {
         } else {
             todo.setFolder(null);
         }
+        todo.setRank(rank);
         
         todo = todoRepository.save(todo);
+        // Flush so the response carries the version this update produced
+        todoRepository.flush();
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, todo));
+        if (todo.getDueAt() != null && (previousDueAt == null || !previousDueAt.isEqual(todo.getDueAt()))) {
+            eventPublisher.publishEvent(new TodoDueDateChangedEvent(todo.getId(), todo.getDueAt()));
+        }
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
         return mapToTodoResponse(todo);
     }
 
     @Override
     @Transactional
-    public TodoResponse toggleCompleted(Long id) {
+    public TodoResponse toggleCompleted(Long id, Set<Long> expectedVersions) {
         User currentUser = getCurrentUser();
         
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+        Todo todo = findTodo(id, currentUser.getId());
         
         // Check if the current user is the owner
         if (!todo.getOwner().getId().equals(currentUser.getId())) {
             throw new UnauthorizedException("Not authorized to update this todo");
         }
+        ETags.checkIfMatch(expectedVersions, todo.getVersion());
         
+        TodoState before = TodoState.of(todo);
         todo.setCompleted(!todo.isCompleted());
         todo = todoRepository.save(todo);
+        todoRepository.flush();
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, todo));
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
         return mapToTodoResponse(todo);
     }
 
     @Override
     @Transactional
-    public void deleteTodo(Long id) {
+    public TodoResponse moveTodo(Long id, MoveTodoRequest moveRequest, Set<Long> expectedVersions) {
+        User currentUser = getCurrentUser();
+        Long ownerId = currentUser.getId();
+
+        Todo todo = findTodo(id, ownerId);
+        if (!todo.getOwner().getId().equals(ownerId)) {
+            throw new UnauthorizedException("Not authorized to move this todo");
+        }
+        ETags.checkIfMatch(expectedVersions, todo.getVersion());
+
+        Long folderId = moveRequest.getFolderId();
+        Folder folder = null;
+        if (folderId != null) {
+            folder = folderRepository.findById(folderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + folderId));
+            if (!folder.getOwner().getId().equals(ownerId)) {
+                throw new UnauthorizedException("Not authorized to move todo to this folder");
+            }
+        }
+        requireNeighbour(moveRequest.getAfterId(), todo, folderId);
+        requireNeighbour(moveRequest.getBeforeId(), todo, folderId);
+
+        String rank = placeRank(ownerId, folderId, todo.getId(), moveRequest.getAfterId(), moveRequest.getBeforeId());
+
+        TodoState before = TodoState.of(todo);
+        todo.setFolder(folder);
+        todo.setRank(rank);
+        todo = todoRepository.save(todo);
+        todoRepository.flush();
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, todo));
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
+        return mapToTodoResponse(todo);
+    }
+
+    @Override
+    @Transactional
+    public TodoResponse setTags(Long id, TodoTagsRequest tagsRequest, Set<Long> expectedVersions) {
+        Long ownerId = getCurrentUserId();
+
+        // The tag writes below are native and skip the @Version check, so the row is locked before
+        // its version is compared: no other write can commit in between
+        Todo todo = todoRepository.findLockedByIdAndOwnerId(id, ownerId).orElseGet(() -> findTodo(id, ownerId));
+        if (!todo.getOwner().getId().equals(ownerId)) {
+            throw new UnauthorizedException("Not authorized to tag this todo");
+        }
+        ETags.checkIfMatch(expectedVersions, todo.getVersion());
+
+        Long[] tagIds = tagsRequest.getTagIds().stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (tagIds.length > 0 && tagRepository.countByOwnerIdAndIdIn(ownerId, Arrays.asList(tagIds)) < tagIds.length) {
+            throw new ResourceNotFoundException("Tag not found among ids: " + Arrays.toString(tagIds));
+        }
+        Long[] current = todo.getTagIds() != null ? todo.getTagIds() : new Long[0];
+        if (new HashSet<>(Arrays.asList(current)).equals(new HashSet<>(Arrays.asList(tagIds)))) {
+            return mapToTodoResponse(todo);
+        }
+
+        // The todo_tags triggers rewrite tag_ids, version and updated_at; read the todo again after them
+        tagRepository.removeTodoTagsExcept(ownerId, id, tagIds);
+        tagRepository.addTodoTags(ownerId, id, tagIds);
+        todo = findTodo(id, ownerId);
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
+        return mapToTodoResponse(todo);
+    }
+
+    @Override
+    @Transactional
+    public void deleteTodo(Long id, Set<Long> expectedVersions) {
         User currentUser = getCurrentUser();
         
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+        Todo todo = findTodo(id, currentUser.getId());
         
         // Check if the current user is the owner or admin
         if (!todo.getOwner().getId().equals(currentUser.getId()) && 
                 ! (currentUser.getRole() != null && RoleConstants.ROLE_SUPER_ADMIN.equalsIgnoreCase(currentUser.getRole().getName())) ) {
             throw new UnauthorizedException("Not authorized to delete this todo");
         }
+        ETags.checkIfMatch(expectedVersions, todo.getVersion());
         
         todoRepository.delete(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.deleted(todo));
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_DELETED, todo);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TodoResponse> getTodosByUserId(Long userId) {
+    public List<TodoResponse> getTodosByUserId(Long userId, boolean includeArchived) {
         // Check if current user has moderator or admin privileges
         if (!isCurrentUserModeratorOrAdmin()) {
             throw new UnauthorizedException("Not authorized to view todos for this user");
@@ -204,15 +412,17 @@ public class TodoServiceImpl implements TodoService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         
-        List<Todo> todos = todoRepository.findByOwnerOrderByCreatedAtDesc(user);
-        return todos.stream()
+        List<TodoResponse> todos = todoRepository.findByOwnerOrderByFolderIdAscRankAscIdAsc(user).stream()
                 .map(this::mapToTodoResponse)
                 .collect(Collectors.toList());
+        return includeArchived
+                ? withArchived(todos, () -> archivedTodoRepository.findByOwnerIdOrderByCreatedAtDesc(userId))
+                : todos;
     }
     
     @Override
     @Transactional
-    public MessageResponse toggleTodoDisabledStatus(Long id) {
+    public MessageResponse toggleTodoDisabledStatus(Long id, Set<Long> expectedVersions) {
         // Check if current user has moderator or admin privileges
         if (!isCurrentUserModeratorOrAdmin()) {
             throw new UnauthorizedException("Not authorized to toggle todo disabled status");
@@ -220,15 +430,206 @@ public class TodoServiceImpl implements TodoService {
         
         Todo todo = todoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+        ETags.checkIfMatch(expectedVersions, todo.getVersion());
 
         // Toggle disabled status
+        TodoState before = TodoState.of(todo);
         todo.setDisabled(!todo.isDisabled());
         todoRepository.save(todo);
+        // Flush so the outbox event carries the version this toggle produced
+        todoRepository.flush();
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, todo));
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
+        eventPublisher.publishEvent(AuditEvent.todoDisabledToggled(todo));
 
         String status = todo.isDisabled() ? "disabled" : "enabled";
         return new MessageResponse("Todo successfully " + status);
     }
     
+    @Override
+    @Transactional
+    public MessageResponse reportTodo(Long id, TodoReportRequest reportRequest) {
+        Long reporterId = getCurrentUserId();
+        // Todos the reporter cannot view are "not found" whether they exist or not, so reports do not reveal ids
+        Todo todo = todoRepository.findById(id)
+                .filter(found -> found.getOwner().getId().equals(reporterId) || isCurrentUserModeratorOrAdmin())
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+        if (todo.getOwner().getId().equals(reporterId)) {
+            throw new BadRequestException("You cannot report your own todo");
+        }
+        if (moderationQueueRepository.countOpenReportsLocked(reporterId) >= maxOpenReports) {
+            throw new TooManyRequestsException("You have " + maxOpenReports + " reports waiting for a moderator already");
+        }
+        String reason = reportRequest != null && reportRequest.getReason() != null && !reportRequest.getReason().isBlank()
+                ? reportRequest.getReason().trim() : null;
+        // A repeated report of a pending todo is accepted but not counted again
+        moderationQueueRepository.report(todo.getId(), todo.getOwner().getId(), reporterId, reason);
+        return new MessageResponse("Todo reported for moderation");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TodoResponse> searchTodos(String query, Long userId, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+
+        // Normal users search their own todos; moderators/admins search everyone's, optionally narrowed to one user
+        Long ownerId;
+        if (isCurrentUserModeratorOrAdmin()) {
+            if (userId != null && !userRepository.existsById(userId)) {
+                throw new ResourceNotFoundException("User not found with id: " + userId);
+            }
+            ownerId = userId;
+        } else {
+            User currentUser = getCurrentUser();
+            if (userId != null && !userId.equals(currentUser.getId())) {
+                throw new UnauthorizedException("Not authorized to search todos for this user");
+            }
+            ownerId = currentUser.getId();
+        }
+
+        Float afterRank = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                afterRank = Float.valueOf(position[0]);
+                afterId = Long.valueOf(position[1]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to know whether another page follows
+        List<Object[]> hits = todoRepository.searchRanked(query.strip(), ownerId, afterRank, afterId, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+
+        List<Long> ids = hits.stream().map(hit -> ((Number) hit[0]).longValue()).toList();
+        Map<Long, Todo> todosById = todoRepository.findAllWithOwnerAndFolderByIdIn(ids, ownerId).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        List<TodoResponse> items = ids.stream()
+                .map(todosById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToTodoResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = hits.get(hits.size() - 1);
+            nextCursor = CursorCodec.encode(((Number) last[1]).floatValue(), ((Number) last[0]).longValue());
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Look a todo up within the caller's own partition first; only ids the caller does not own
+     * fall back to the unpruned lookup, which decides between 404 and 403.
+     */
+    private Todo findTodo(Long id, Long ownerId) {
+        return todoRepository.findByIdAndOwnerId(id, ownerId)
+                .or(() -> todoRepository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+    }
+
+    /**
+     * Owner of a list request: the current user, or {@code userId} for moderators and admins
+     */
+    private Long resolveListOwner(Long userId) {
+        if (userId == null) {
+            return getCurrentUserId();
+        }
+        if (!isCurrentUserModeratorOrAdmin()) {
+            throw new UnauthorizedException("Not authorized to view todos for this user");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return userId;
+    }
+
+    // Tag names compare ignoring case, see uq_tags_user_name
+    private static List<String> normalizeTagNames(List<String> tags) {
+        return tags == null ? List.of() : tags.stream()
+                .filter(Objects::nonNull)
+                .map(tag -> tag.strip().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Append archived todos, newest first, to the ranked list of live ones
+     */
+    private List<TodoResponse> withArchived(List<TodoResponse> todos, Supplier<List<ArchivedTodo>> archived) {
+        return Stream.concat(todos.stream(), archived.get().stream().map(this::mapToTodoResponse))
+                .collect(Collectors.toList());
+    }
+
+    private void requireNeighbour(Long neighbourId, Todo todo, Long folderId) {
+        if (neighbourId == null) {
+            return;
+        }
+        if (neighbourId.equals(todo.getId())) {
+            throw new BadRequestException("A todo cannot be placed next to itself");
+        }
+        Todo neighbour = todoRepository.findByIdAndOwnerId(neighbourId, todo.getOwner().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + neighbourId));
+        Long neighbourFolderId = neighbour.getFolder() != null ? neighbour.getFolder().getId() : null;
+        if (!Objects.equals(neighbourFolderId, folderId)) {
+            throw new BadRequestException("Todo " + neighbourId + " is not in the target folder");
+        }
+    }
+
+    /**
+     * Rank for a todo placed between two todos of the owner's folder, or directly below afterId,
+     * directly above beforeId, or on top when both are null. The todo being placed (excludeId)
+     * does not count as a neighbour. Ranks of one owner are assigned under the per-user advisory
+     * lock, so concurrent placements into the same gap cannot pick the same key.
+     * <p>
+     * When the gap has no room left, because the neighbours are out of order or the key would
+     * outgrow the column, the folder is rebalanced once and the gap looked up again.
+     */
+    private String placeRank(Long ownerId, Long folderId, Long excludeId, Long afterId, Long beforeId) {
+        todoRepository.lockRanks(ownerId);
+        boolean rebalanced = false;
+        while (true) {
+            String lower = afterId != null ? findRank(afterId, ownerId) : null;
+            String upper = beforeId != null ? findRank(beforeId, ownerId) : null;
+            if (beforeId == null) {
+                upper = todoRepository.findNextRank(ownerId, folderId, lower != null ? lower : "", excludeId).orElse(null);
+            } else if (afterId == null) {
+                lower = todoRepository.findPreviousRank(ownerId, folderId, upper, excludeId).orElse(null);
+            }
+            try {
+                String rank = RankKeys.between(lower, upper);
+                if (rank.length() <= MAX_RANK_LENGTH) {
+                    return rank;
+                }
+            } catch (IllegalArgumentException e) {
+                // Out of order or duplicate neighbours; rebalancing gives them distinct ranks
+            }
+            if (rebalanced) {
+                throw new BadRequestException("Todo " + afterId + " is not directly above todo " + beforeId);
+            }
+            todoRepository.rebalanceRanks(ownerId, folderId, excludeId);
+            rebalanced = true;
+        }
+    }
+
+    private String findRank(Long id, Long ownerId) {
+        return todoRepository.findRankByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
+    }
+
     private TodoResponse mapToTodoResponse(Todo todo) {
         return TodoResponse.builder()
                 .id(todo.getId())
@@ -242,6 +643,35 @@ public class TodoServiceImpl implements TodoService {
                 .folderName(todo.getFolder() != null ? todo.getFolder().getName() : null)
                 .createdAt(todo.getCreatedAt())
                 .updatedAt(todo.getUpdatedAt())
+                .version(todo.getVersion())
+                .rank(todo.getRank())
+                .dueAt(todo.getDueAt())
+                .templateId(todo.getTemplateId())
+                .occurrenceOn(todo.getOccurrenceOn())
+                .tagIds(todo.getTagIds() != null ? List.of(todo.getTagIds()) : List.of())
+                .build();
+    }
+
+    private TodoResponse mapToTodoResponse(ArchivedTodo todo) {
+        return TodoResponse.builder()
+                .id(todo.getId())
+                .title(todo.getTitle())
+                .description(todo.getDescription())
+                .completed(todo.isCompleted())
+                .disabled(todo.isDisabled())
+                .ownerId(todo.getOwner().getId())
+                .ownerUsername(todo.getOwner().getUsername())
+                .folderId(todo.getFolder() != null ? todo.getFolder().getId() : null)
+                .folderName(todo.getFolder() != null ? todo.getFolder().getName() : null)
+                .dueAt(todo.getDueAt())
+                .templateId(todo.getTemplateId())
+                .occurrenceOn(todo.getOccurrenceOn())
+                .createdAt(todo.getCreatedAt())
+                .updatedAt(todo.getUpdatedAt())
+                .version(todo.getVersion())
+                .rank(todo.getRank())
+                .tagIds(List.of())
+                .archived(true)
                 .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.TodoCountsView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.TodoStatsService;
+import com.aifinancial.clarity.poc.stats.TodoStatsCache;
+import com.aifinancial.clarity.poc.stats.UserTodoStats;
+
+@Service
+public class TodoStatsServiceImpl implements TodoStatsService {
+
+    private final FolderRepository folderRepository;
+    private final UserRepository userRepository;
+    private final TodoStatsCache todoStatsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public TodoStatsServiceImpl(FolderRepository folderRepository, UserRepository userRepository,
+                                TodoStatsCache todoStatsCache, PlatformTransactionManager transactionManager) {
+        this.folderRepository = folderRepository;
+        this.userRepository = userRepository;
+        this.todoStatsCache = todoStatsCache;
+        // Read-write on purpose: a stamp from a lagging read replica would keep serving an entry
+        // the primary has already moved past
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Taken from the token rather than loaded, so a cache hit costs a single change stamp lookup
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
+    private boolean isCurrentUserModeratorOrAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_MODERATOR") ||
+                        a.getAuthority().equals("ROLE_SUPER_ADMIN"));
+    }
+
+    @Override
+    public TodoStatsResponse getCurrentUserStats() {
+        return getStats(getCurrentUserId());
+    }
+
+    @Override
+    public TodoStatsResponse getUserStats(Long userId) {
+        if (!userId.equals(getCurrentUserId()) && !isCurrentUserModeratorOrAdmin()) {
+            throw new UnauthorizedException("Not authorized to view statistics for this user");
+        }
+        return getStats(userId);
+    }
+
+    private TodoStatsResponse getStats(Long userId) {
+        // Read before the counts, so an entry is never older than the stamp it is cached under
+        long changeStamp = transactionTemplate.execute(status -> userRepository.findChangeStampByUserId(userId).orElse(0L));
+        return todoStatsCache.get(userId, changeStamp).orElseGet(() -> load(userId, changeStamp));
+    }
+
+    private TodoStatsResponse load(Long userId, long changeStamp) {
+        List<TodoCountsView> rows = transactionTemplate.execute(status -> folderRepository.findTodoCountsByOwnerId(userId));
+        // No folders and no stats row: either a user without todos or no user at all
+        if (rows.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        UserTodoStats stats = UserTodoStats.fromCounts(rows);
+        TodoStatsResponse response = stats.toResponse(userId);
+        todoStatsCache.install(userId, changeStamp, stats);
+        return response;
+    }
+}
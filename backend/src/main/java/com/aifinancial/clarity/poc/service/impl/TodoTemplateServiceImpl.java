@@ -0,0 +1,184 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.constant.RecurrenceFrequency;
+import com.aifinancial.clarity.poc.dto.request.TodoTemplateRequest;
+import com.aifinancial.clarity.poc.dto.response.TodoTemplateResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.TodoTemplate;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoTemplateRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.TodoTemplateService;
+import com.aifinancial.clarity.poc.util.ETags;
+
+@Service
+public class TodoTemplateServiceImpl implements TodoTemplateService {
+
+    private static final String DEFAULT_TIME_ZONE = "UTC";
+
+    private final TodoTemplateRepository todoTemplateRepository;
+    private final FolderRepository folderRepository;
+    private final UserRepository userRepository;
+
+    public TodoTemplateServiceImpl(TodoTemplateRepository todoTemplateRepository, FolderRepository folderRepository,
+                                   UserRepository userRepository) {
+        this.todoTemplateRepository = todoTemplateRepository;
+        this.folderRepository = folderRepository;
+        this.userRepository = userRepository;
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TodoTemplateResponse> getCurrentUserTemplates() {
+        return todoTemplateRepository.findByOwnerIdOrderByCreatedAtDesc(getCurrentUserId()).stream()
+                .map(this::mapToTodoTemplateResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TodoTemplateResponse getTemplateById(Long id) {
+        return mapToTodoTemplateResponse(findOwnTemplate(id, getCurrentUserId()));
+    }
+
+    @Override
+    @Transactional
+    public TodoTemplateResponse createTemplate(TodoTemplateRequest templateRequest) {
+        Long ownerId = getCurrentUserId();
+        TodoTemplate template = new TodoTemplate();
+        template.setOwner(userRepository.getReferenceById(ownerId));
+        applyRequest(template, templateRequest, ownerId);
+        return mapToTodoTemplateResponse(todoTemplateRepository.saveAndFlush(template));
+    }
+
+    @Override
+    @Transactional
+    public TodoTemplateResponse updateTemplate(Long id, TodoTemplateRequest templateRequest, Set<Long> expectedVersions) {
+        Long ownerId = getCurrentUserId();
+        TodoTemplate template = findOwnTemplate(id, ownerId);
+        ETags.checkIfMatch(expectedVersions, template.getVersion());
+        applyRequest(template, templateRequest, ownerId);
+        return mapToTodoTemplateResponse(todoTemplateRepository.saveAndFlush(template));
+    }
+
+    @Override
+    @Transactional
+    public void deleteTemplate(Long id, Set<Long> expectedVersions) {
+        TodoTemplate template = findOwnTemplate(id, getCurrentUserId());
+        ETags.checkIfMatch(expectedVersions, template.getVersion());
+        // Occurrences keep their rows; their template_id is cleared (ON DELETE SET NULL)
+        todoTemplateRepository.delete(template);
+    }
+
+    // Templates of other users are reported as missing, so their ids reveal nothing
+    private TodoTemplate findOwnTemplate(Long id, Long ownerId) {
+        return todoTemplateRepository.findByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo template not found with id: " + id));
+    }
+
+    private void applyRequest(TodoTemplate template, TodoTemplateRequest templateRequest, Long ownerId) {
+        String timeZone = templateRequest.getTimeZone() != null ? templateRequest.getTimeZone().strip() : DEFAULT_TIME_ZONE;
+        // Only region ids: PostgreSQL reads offsets such as UTC+1 with the POSIX sign, the opposite of Java
+        if (!ZoneId.getAvailableZoneIds().contains(timeZone)) {
+            throw new BadRequestException("Unknown time zone: " + timeZone);
+        }
+        LocalDate startsOn = templateRequest.getStartsOn();
+        LocalDate endsOn = templateRequest.getEndsOn();
+        if (endsOn != null && endsOn.isBefore(startsOn)) {
+            throw new BadRequestException("End date cannot be before the start date");
+        }
+
+        short weekdays = 0;
+        if (templateRequest.getFrequency() == RecurrenceFrequency.WEEKLY) {
+            Set<DayOfWeek> days = templateRequest.getWeekdays();
+            weekdays = toWeekdayMask(days == null || days.isEmpty() ? Set.of(startsOn.getDayOfWeek()) : days);
+        }
+
+        Folder folder = null;
+        if (templateRequest.getFolderId() != null) {
+            folder = folderRepository.findById(templateRequest.getFolderId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Folder not found with id: " + templateRequest.getFolderId()));
+            if (!folder.getOwner().getId().equals(ownerId)) {
+                throw new UnauthorizedException("Not authorized to add todos to this folder");
+            }
+        }
+
+        template.setTitle(templateRequest.getTitle());
+        template.setDescription(templateRequest.getDescription());
+        template.setFolder(folder);
+        template.setFrequency(templateRequest.getFrequency());
+        template.setIntervalCount(templateRequest.getIntervalCount());
+        template.setWeekdays(weekdays);
+        template.setStartsOn(startsOn);
+        template.setEndsOn(endsOn);
+        template.setDueTime(templateRequest.getDueTime());
+        template.setTimeZone(timeZone);
+
+        // Materialize again from today on, so the next run applies the new rule; ON CONFLICT skips dates already created
+        LocalDate today = LocalDate.now(ZoneId.of(timeZone));
+        LocalDate next = startsOn.isAfter(today) ? startsOn : today;
+        template.setNextOccurrenceOn(endsOn != null && next.isAfter(endsOn) ? null : next);
+        template.setMaterializeAt(OffsetDateTime.now());
+    }
+
+    static short toWeekdayMask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return (short) mask;
+    }
+
+    static List<DayOfWeek> fromWeekdayMask(short mask) {
+        List<DayOfWeek> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private TodoTemplateResponse mapToTodoTemplateResponse(TodoTemplate template) {
+        return TodoTemplateResponse.builder()
+                .id(template.getId())
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .folderId(template.getFolder() != null ? template.getFolder().getId() : null)
+                .frequency(template.getFrequency())
+                .intervalCount(template.getIntervalCount())
+                .weekdays(fromWeekdayMask(template.getWeekdays()))
+                .startsOn(template.getStartsOn())
+                .endsOn(template.getEndsOn())
+                .dueTime(template.getDueTime())
+                .timeZone(template.getTimeZone())
+                .nextOccurrenceOn(template.getNextOccurrenceOn())
+                .createdAt(template.getCreatedAt())
+                .updatedAt(template.getUpdatedAt())
+                .version(template.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.aifinancial.clarity.poc.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.dto.response.FolderTreeNodeResponse;
+import com.aifinancial.clarity.poc.dto.response.FolderTreeResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoSummaryResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.TodoSummaryView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.TreeService;
+import com.aifinancial.clarity.poc.util.CursorCodec;
+import com.aifinancial.clarity.poc.util.FolderTrees;
+
+/**
+ * Builds the folder tree from two set-based queries, one for the folders and one for the first
+ * todos of every folder, assembled in memory in O(folders + todos)
+ */
+@Service
+public class TreeServiceImpl implements TreeService {
+
+    static final int MAX_TODOS_PER_FOLDER = 500;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final FolderRepository folderRepository;
+    private final TodoRepository todoRepository;
+    private final UserRepository userRepository;
+
+    public TreeServiceImpl(FolderRepository folderRepository, TodoRepository todoRepository,
+                           UserRepository userRepository) {
+        this.folderRepository = folderRepository;
+        this.todoRepository = todoRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Taken from the token rather than loaded, so the tree costs no user lookup
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+
+    private boolean isCurrentUserModeratorOrAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_MODERATOR") ||
+                        a.getAuthority().equals("ROLE_SUPER_ADMIN"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FolderTreeResponse getTreeIfModified(Long userId, int todosPerFolder, LongPredicate notModified) {
+        Long ownerId = resolveOwner(userId);
+        int limit = Math.max(1, Math.min(todosPerFolder, MAX_TODOS_PER_FOLDER));
+
+        // Read before the tree, see TodoServiceImpl.getTodosIfModified
+        long changeStamp = userRepository.findChangeStampByUserId(ownerId).orElse(0L);
+        if (notModified.test(changeStamp)) {
+            return null;
+        }
+
+        List<FolderTreeNodeResponse> flat = new ArrayList<>();
+        Map<Long, FolderTreeNodeResponse> nodes = new HashMap<>();
+        for (Folder folder : folderRepository.findByOwnerIdOrderByCreatedAtDesc(ownerId)) {
+            FolderTreeNodeResponse node = mapToNode(folder);
+            flat.add(node);
+            nodes.put(node.getId(), node);
+        }
+
+        // One extra todo per folder tells whether the folder has more
+        List<TodoSummaryResponse> unfiled = new ArrayList<>();
+        for (TodoSummaryView row : todoRepository.findTreeSummaries(ownerId, limit + 1)) {
+            FolderTreeNodeResponse node = row.getFolderId() != null ? nodes.get(row.getFolderId()) : null;
+            if (node != null) {
+                node.getTodos().add(mapToSummary(row));
+            } else if (row.getFolderId() == null) {
+                unfiled.add(mapToSummary(row));
+            }
+            // Todos of a folder created after the folders were read are left for the next read
+        }
+
+        String unfiledCursor = trimToLimit(unfiled, limit);
+        for (FolderTreeNodeResponse node : flat) {
+            node.setTodosCursor(trimToLimit(node.getTodos(), limit));
+        }
+        List<FolderTreeNodeResponse> roots = FolderTrees.nest(flat, FolderTreeNodeResponse::getId,
+                FolderTreeNodeResponse::getParentId, (parent, child) -> parent.getChildren().add(child));
+
+        return FolderTreeResponse.builder()
+                .ownerId(ownerId)
+                .folders(roots)
+                .unfiledTodos(unfiled)
+                .unfiledTodosCursor(unfiledCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TodoSummaryResponse> getTreeTodos(Long userId, Long folderId, String cursor, int size) {
+        Long ownerId = resolveOwner(userId);
+        if (folderId != null && !folderRepository.existsByIdAndOwnerId(folderId, ownerId)) {
+            throw new ResourceNotFoundException("Folder not found with id: " + folderId);
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        String afterRank = "";
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                afterRank = position[0];
+                afterId = Long.parseLong(position[1]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        List<TodoSummaryView> rows = folderId != null
+                ? todoRepository.findSummariesInFolderAfter(ownerId, folderId, afterRank, afterId, pageSize + 1)
+                : todoRepository.findUnfiledSummariesAfter(ownerId, afterRank, afterId, pageSize + 1);
+        List<TodoSummaryResponse> items = rows.stream().map(this::mapToSummary).collect(Collectors.toList());
+        String nextCursor = trimToLimit(items, pageSize);
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private Long resolveOwner(Long userId) {
+        if (userId == null) {
+            return getCurrentUserId();
+        }
+        if (!userId.equals(getCurrentUserId()) && !isCurrentUserModeratorOrAdmin()) {
+            throw new UnauthorizedException("Not authorized to view the folder tree of this user");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return userId;
+    }
+
+    /**
+     * Drops the todos past the limit, read one beyond it
+     *
+     * @return the cursor after the last todo kept, or null when none were dropped
+     */
+    private static String trimToLimit(List<TodoSummaryResponse> todos, int limit) {
+        if (todos.size() <= limit) {
+            return null;
+        }
+        todos.subList(limit, todos.size()).clear();
+        TodoSummaryResponse last = todos.get(todos.size() - 1);
+        return CursorCodec.encode(last.getRank(), last.getId());
+    }
+
+    private FolderTreeNodeResponse mapToNode(Folder folder) {
+        return FolderTreeNodeResponse.builder()
+                .id(folder.getId())
+                .name(folder.getName())
+                .description(folder.getDescription())
+                .parentId(folder.getParent() != null ? folder.getParent().getId() : null)
+                .todoCount(folder.getTodoCount())
+                .completedCount(folder.getCompletedCount())
+                .disabledCount(folder.getDisabledCount())
+                .version(folder.getVersion())
+                .build();
+    }
+
+    private TodoSummaryResponse mapToSummary(TodoSummaryView row) {
+        return TodoSummaryResponse.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .completed(row.getCompleted())
+                .disabled(row.getDisabled())
+                .folderId(row.getFolderId())
+                .rank(row.getRank())
+                .version(row.getVersion())
+                .build();
+    }
+}
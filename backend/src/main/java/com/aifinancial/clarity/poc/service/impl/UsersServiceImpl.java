@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,12 +15,16 @@ import com.aifinancial.clarity.poc.dto.response.FolderResponse;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
+import com.aifinancial.clarity.poc.event.AuditEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent.TodoState;
 import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
 import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
@@ -35,18 +40,24 @@ public class UsersServiceImpl implements UsersService {
     private final TodoRepository todoRepository;
     private final UserConverter userConverter;
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxRecorder outboxRecorder;
 
     public UsersServiceImpl(
             UserRepository userRepository,
             FolderRepository folderRepository,
             TodoRepository todoRepository,
             UserConverter userConverter,
-            RoleRepository roleRepository) {
+            RoleRepository roleRepository,
+            ApplicationEventPublisher eventPublisher,
+            OutboxRecorder outboxRecorder) {
         this.userRepository = userRepository;
         this.folderRepository = folderRepository;
         this.todoRepository = todoRepository;
         this.userConverter = userConverter;
         this.roleRepository = roleRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxRecorder = outboxRecorder;
     }
 
     @Override
@@ -72,8 +83,12 @@ public class UsersServiceImpl implements UsersService {
         }
 
         // Update user role using the Role entity
+        String previousRole = user.getRole() != null ? user.getRole().getName() : null;
         user.setRole(newRole);
         userRepository.save(user);
+        // 與角色變更同一交易寫入 outbox
+        outboxRecorder.recordUserRoleChanged(user, previousRole);
+        eventPublisher.publishEvent(AuditEvent.userRoleChanged(user, previousRole));
 
         // Use role name from the entity in the response message
         return new MessageResponse("User role updated successfully to " + newRole.getName());
@@ -92,9 +107,13 @@ public class UsersServiceImpl implements UsersService {
                         .description(folder.getDescription())
                         .ownerId(folder.getOwner().getId())
                         .ownerUsername(folder.getOwner().getUsername())
-                        .todoCount(folder.getTodos() != null ? folder.getTodos().size() : 0)
+                        .parentId(folder.getParent() != null ? folder.getParent().getId() : null)
+                        .todoCount(folder.getTodoCount())
+                        .completedCount(folder.getCompletedCount())
+                        .disabledCount(folder.getDisabledCount())
                         .createdAt(folder.getCreatedAt())
                         .updatedAt(folder.getUpdatedAt())
+                        .version(folder.getVersion())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -104,7 +123,7 @@ public class UsersServiceImpl implements UsersService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         
-        List<Todo> todos = todoRepository.findByOwnerOrderByCreatedAtDesc(user);
+        List<Todo> todos = todoRepository.findByOwnerOrderByFolderIdAscRankAscIdAsc(user);
         return todos.stream()
                 .map(todo -> TodoResponse.builder()
                         .id(todo.getId())
@@ -118,6 +137,12 @@ public class UsersServiceImpl implements UsersService {
                         .folderName(todo.getFolder() != null ? todo.getFolder().getName() : null)
                         .createdAt(todo.getCreatedAt())
                         .updatedAt(todo.getUpdatedAt())
+                        .version(todo.getVersion())
+                        .rank(todo.getRank())
+                        .dueAt(todo.getDueAt())
+                        .templateId(todo.getTemplateId())
+                        .occurrenceOn(todo.getOccurrenceOn())
+                        .tagIds(todo.getTagIds() != null ? List.of(todo.getTagIds()) : List.of())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -129,8 +154,13 @@ public class UsersServiceImpl implements UsersService {
                 .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + todoId));
 
         // 切換禁用狀態
+        TodoState before = TodoState.of(todo);
         todo.setDisabled(!todo.isDisabled());
         todoRepository.save(todo);
+        todoRepository.flush();
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, todo));
+        outboxRecorder.recordTodo(OutboxRecorder.TODO_UPDATED, todo);
+        eventPublisher.publishEvent(AuditEvent.todoDisabledToggled(todo));
 
         String status = todo.isDisabled() ? "disabled" : "enabled";
         return new MessageResponse("Todo successfully " + status);
@@ -140,4 +170,4 @@ public class UsersServiceImpl implements UsersService {
     public Optional<User> findUserById(Long userId) {
         return userRepository.findById(userId);
     }
-} 
\ No newline at end of file
+}
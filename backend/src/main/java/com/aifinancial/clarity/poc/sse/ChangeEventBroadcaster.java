@@ -0,0 +1,387 @@
+package com.aifinancial.clarity.poc.sse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.aifinancial.clarity.poc.dto.response.ChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans change events out to the open SSE streams of their owner.
+ * <p>
+ * Streams hold no thread: events go into a bounded queue per stream, and a small shared pool of
+ * sender threads drains queues that have something in them. A stream whose queue fills up is
+ * closed, so one slow client cannot hold back the others or grow memory; it reconnects with
+ * Last-Event-ID and resumes from the replay ring. A send blocks while the client's socket buffer
+ * is full; one that takes longer than the send timeout also closes its stream, and the pool gets
+ * an extra thread until the stuck write returns, so stalled clients never occupy every sender. Event ids are {@code <epoch>-<sequence>}: the
+ * epoch changes on every start, so an id issued by another node or before a restart leads to a
+ * {@code resync} event instead of a replay.
+ */
+@Component
+public class ChangeEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBroadcaster.class);
+
+    public static final String CHANGE_EVENT = "change";
+    // Tells the client to catch up through GET /sync, as events it needs are not available
+    public static final String RESYNC_EVENT = "resync";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Object lock = new Object();
+    // Guarded by lock. A slot with a null event marks events lost while the listener was down.
+    private final RingEntry[] ring;
+    private long nextSequence = 1;
+    private final Map<Long, Set<Subscriber>> subscribers = new HashMap<>();
+
+    private final ThreadPoolExecutor sender;
+    private final int senderThreads;
+    // Guarded by sender: sends past the timeout whose thread the pool has replaced
+    private int stalledSends;
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService watchdog;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final int queueCapacity;
+
+    public ChangeEventBroadcaster(@Value("${sse.timeout:30m}") Duration timeout,
+                                  @Value("${sse.send-timeout:10s}") Duration sendTimeout,
+                                  @Value("${sse.queue-capacity:256}") int queueCapacity,
+                                  @Value("${sse.replay-size:10000}") int replaySize,
+                                  @Value("${sse.sender-threads:4}") int senderThreads) {
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.queueCapacity = queueCapacity;
+        this.ring = new RingEntry[replaySize];
+        this.senderThreads = senderThreads;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                runnable -> daemon(runnable, "sse-sender-" + threadNumber.incrementAndGet()));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "sse-watchdog"));
+        long checkIntervalMs = Math.max(1, sendTimeout.toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::expireStalledSends, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream of the user's change events
+     *
+     * @param lastEventId id of the last event the client received, or null on a first connect
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        return subscribe(userId, lastEventId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long userId, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        // Replay and registration happen under the lock, so no event falls between the two
+        synchronized (lock) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.computeIfAbsent(userId, id -> new LinkedHashSet<>()).add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Assign the next event id, keep the event for replay and queue it for the owner's streams
+     */
+    public void publish(ChangeEvent event) {
+        List<Subscriber> targets;
+        List<Subscriber> overflowed;
+        synchronized (lock) {
+            String id = record(event);
+            targets = new ArrayList<>(subscribers.getOrDefault(event.getUserId(), Set.of()));
+            overflowed = offer(targets, new Outgoing(id, CHANGE_EVENT, event));
+        }
+        dispatch(targets, overflowed);
+    }
+
+    /**
+     * Record that change events were lost, e.g. while the LISTEN connection was down. Every open
+     * stream gets a resync event, and so does any later resume from before the gap.
+     */
+    public void publishGap() {
+        List<Subscriber> targets = new ArrayList<>();
+        List<Subscriber> overflowed;
+        synchronized (lock) {
+            String id = record(null);
+            subscribers.values().forEach(targets::addAll);
+            overflowed = offer(targets, new Outgoing(id, RESYNC_EVENT, Map.of()));
+        }
+        dispatch(targets, overflowed);
+    }
+
+    /**
+     * Send a comment on every stream. It keeps proxies from closing idle streams and finds
+     * clients that went away without closing their connection.
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        List<Subscriber> targets = new ArrayList<>();
+        List<Subscriber> overflowed;
+        synchronized (lock) {
+            subscribers.values().forEach(targets::addAll);
+            overflowed = offer(targets, Outgoing.HEARTBEAT);
+        }
+        dispatch(targets, overflowed);
+    }
+
+    public int getSubscriberCount() {
+        synchronized (lock) {
+            return subscribers.values().stream().mapToInt(Set::size).sum();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> open = new ArrayList<>();
+        synchronized (lock) {
+            subscribers.values().forEach(open::addAll);
+            subscribers.clear();
+        }
+        open.forEach(subscriber -> subscriber.emitter.complete());
+        watchdog.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    // Caller holds the lock. Never blocks: a full queue marks its stream as too slow.
+    private List<Subscriber> offer(List<Subscriber> targets, Outgoing outgoing) {
+        List<Subscriber> overflowed = new ArrayList<>();
+        for (Subscriber subscriber : targets) {
+            if (!subscriber.queue.offer(outgoing)) {
+                overflowed.add(subscriber);
+            }
+        }
+        return overflowed;
+    }
+
+    private void dispatch(List<Subscriber> targets, List<Subscriber> overflowed) {
+        for (Subscriber subscriber : targets) {
+            if (overflowed.contains(subscriber)) {
+                drop(subscriber);
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private String record(ChangeEvent event) {
+        long sequence = nextSequence++;
+        ring[(int) (sequence % ring.length)] = new RingEntry(sequence, event);
+        return eventId(sequence);
+    }
+
+    // Caller holds the lock
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        long latest = nextSequence - 1;
+        boolean resumable = lastSequence >= 0 && lastSequence <= latest && lastSequence >= latest - ring.length;
+        List<Outgoing> missed = new ArrayList<>();
+        for (long sequence = lastSequence + 1; resumable && sequence <= latest; sequence++) {
+            RingEntry entry = ring[(int) (sequence % ring.length)];
+            if (entry.event() == null) {
+                resumable = false;
+            } else if (entry.event().getUserId().equals(subscriber.userId)) {
+                missed.add(new Outgoing(eventId(sequence), CHANGE_EVENT, entry.event()));
+            }
+        }
+        if (!resumable || missed.size() > queueCapacity) {
+            // The client must catch up through GET /sync; later resumes start from here
+            missed = List.of(new Outgoing(eventId(latest), RESYNC_EVENT, Map.of()));
+        }
+        subscriber.queue.addAll(missed);
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.closed = true;
+        synchronized (lock) {
+            Set<Subscriber> userSubscribers = subscribers.get(subscriber.userId);
+            if (userSubscribers != null && userSubscribers.remove(subscriber) && userSubscribers.isEmpty()) {
+                subscribers.remove(subscriber.userId);
+            }
+        }
+    }
+
+    // Completing waits for a send in progress, so it is left to a sender thread
+    private void drop(Subscriber subscriber) {
+        logger.debug("Closing slow SSE stream of user {}: {} events queued", subscriber.userId, subscriber.queue.size());
+        unregister(subscriber);
+        execute(subscriber.emitter::complete);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Outgoing next;
+            while (!subscriber.closed && (next = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, next)) {
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // Recheck: an event queued after the last poll would otherwise wait for the next one
+        } while (!subscriber.closed && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    // Returns whether the stream is still open
+    private boolean send(Subscriber subscriber, Outgoing outgoing) {
+        boolean sent = false;
+        synchronized (subscriber) {
+            subscriber.sendStartedAt = System.nanoTime();
+            subscriber.inSend = true;
+        }
+        sending.add(subscriber);
+        try {
+            subscriber.emitter.send(outgoing.toEvent());
+            sent = true;
+        } catch (IOException | IllegalStateException e) {
+            // The client is gone; the container completes the emitter
+            unregister(subscriber);
+        } finally {
+            sending.remove(subscriber);
+        }
+        boolean stalled;
+        synchronized (subscriber) {
+            subscriber.inSend = false;
+            stalled = subscriber.stalled;
+        }
+        if (stalled) {
+            // The watchdog has closed the stream and given the pool a thread in place of this one
+            resizeSender(-1);
+            subscriber.emitter.complete();
+            return false;
+        }
+        return sent;
+    }
+
+    private void expireStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            // Decided under the subscriber's monitor, so a send that returns meanwhile either sees
+            // the flag and gives back the thread added here, or is not flagged at all
+            synchronized (subscriber) {
+                if (!subscriber.inSend || subscriber.stalled || now - subscriber.sendStartedAt <= sendTimeoutNanos) {
+                    continue;
+                }
+                subscriber.stalled = true;
+                resizeSender(1);
+            }
+            logger.debug("Closing stalled SSE stream of user {}: a send has been blocked for over {} ms",
+                    subscriber.userId, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            unregister(subscriber);
+        }
+    }
+
+    private void resizeSender(int stalledDelta) {
+        synchronized (sender) {
+            stalledSends += stalledDelta;
+            int size = senderThreads + stalledSends;
+            // The core size may never exceed the maximum, so the order depends on the direction
+            if (size > sender.getMaximumPoolSize()) {
+                sender.setMaximumPoolSize(size);
+                sender.setCorePoolSize(size);
+            } else {
+                sender.setCorePoolSize(size);
+                sender.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void execute(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private record RingEntry(long sequence, ChangeEvent event) {
+    }
+
+    private record Outgoing(String id, String name, Object data) {
+
+        static final Outgoing HEARTBEAT = new Outgoing(null, null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Outgoing> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // Guarded by the subscriber itself. stalled is set once a send has run past the timeout.
+        private long sendStartedAt;
+        private boolean inSend;
+        private boolean stalled;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
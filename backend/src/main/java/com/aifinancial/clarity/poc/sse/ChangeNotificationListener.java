@@ -0,0 +1,139 @@
+package com.aifinancial.clarity.poc.sse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.aifinancial.clarity.poc.dto.response.ChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Holds this node's single LISTEN connection on the {@code entity_changes} channel, fed by the
+ * triggers of V13, and hands every notification to the {@link ChangeEventBroadcaster}.
+ * <p>
+ * The connection is opened outside the pool, against the primary: it stays open for the life of
+ * the node, and replicas do not deliver notifications. Notifications sent while it is down are
+ * lost, so after a reconnect the broadcaster is told to have clients resync.
+ */
+@Component
+public class ChangeNotificationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeNotificationListener.class);
+
+    static final String CHANNEL = "entity_changes";
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+    // A half-open connection raises no error while waiting, so it is probed when idle this long
+    private static final long IDLE_PROBE_MS = 30_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ChangeEventBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+    private final long reconnectDelayMs;
+    private volatile boolean running;
+    private Thread thread;
+
+    public ChangeNotificationListener(DataSourceProperties dataSourceProperties,
+                                      ChangeEventBroadcaster broadcaster,
+                                      ObjectMapper objectMapper,
+                                      @Value("${sse.listener.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(POLL_TIMEOUT_MS * 2L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    // Anything committed from here on is delivered, so a resync now covers the gap
+                    broadcaster.publishGap();
+                }
+                reconnect = true;
+                logger.info("Listening for change notifications on channel {}", CHANNEL);
+                receive(connection);
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Change notification connection failed, reconnecting in {} ms: {}", reconnectDelayMs, e.getMessage());
+                    sleep(reconnectDelayMs);
+                }
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastActivity = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications != null && notifications.length > 0) {
+                lastActivity = System.currentTimeMillis();
+                for (PGNotification notification : notifications) {
+                    dispatch(notification.getParameter());
+                }
+            } else if (System.currentTimeMillis() - lastActivity > IDLE_PROBE_MS) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.setQueryTimeout(5);
+                    statement.execute("SELECT 1");
+                }
+                lastActivity = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            broadcaster.publish(objectMapper.readValue(payload, ChangeEvent.class));
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable change notification {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.aifinancial.clarity.poc.stats;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+
+/**
+ * In-memory per-user todo statistics, each entry tagged with the user's change stamp (V11) it was
+ * loaded at. Every write to a user's todos or folders moves the stamp, on whichever node it runs,
+ * including imports and background jobs, so an entry is only served while the stamp the caller
+ * just read still matches; otherwise it is a miss.
+ * <p>
+ * Callers read the stamp before the counts, so a write committing in between leaves an entry
+ * newer than its stamp, which the next read replaces. Local writes also drop the entry once their
+ * transaction commits, freeing it without waiting for the next read.
+ */
+@Component
+public class TodoStatsCache {
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxUsers;
+
+    public TodoStatsCache(@Value("${todo-stats.cache.max-users:10000}") int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * @param changeStamp the user's current change stamp, read from the primary
+     */
+    public Optional<TodoStatsResponse> get(Long userId, long changeStamp) {
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.changeStamp() != changeStamp) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.stats().toResponse(userId));
+    }
+
+    /**
+     * @param changeStamp the stamp read before the counts the entry was built from
+     */
+    public void install(Long userId, long changeStamp, UserTodoStats stats) {
+        if (entries.size() >= maxUsers && !entries.containsKey(userId)) {
+            evictOne();
+        }
+        // A slower load must not replace an entry installed at a later stamp
+        entries.merge(userId, new Entry(changeStamp, stats),
+                (current, loaded) -> loaded.changeStamp() > current.changeStamp() ? loaded : current);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (!Objects.equals(event.before(), event.after())) {
+            afterCommit(() -> entries.remove(event.userId()));
+        }
+    }
+
+    @EventListener
+    public void onStatsInvalidated(TodoStatsInvalidatedEvent event) {
+        afterCommit(() -> entries.remove(event.userId()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void evictOne() {
+        Iterator<Long> iterator = entries.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(long changeStamp, UserTodoStats stats) {
+    }
+}
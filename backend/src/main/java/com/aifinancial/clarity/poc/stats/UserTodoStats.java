@@ -0,0 +1,97 @@
+package com.aifinancial.clarity.poc.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aifinancial.clarity.poc.dto.response.FolderStatsResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoCountsResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+import com.aifinancial.clarity.poc.repository.projection.TodoCountsView;
+
+/**
+ * Todo counts of one user, overall and per folder. Not changed once built, so cached instances
+ * are shared between threads.
+ */
+public class UserTodoStats {
+
+    private final Counts overall = new Counts();
+    private final Map<Long, FolderCounts> folders = new LinkedHashMap<>();
+
+    /**
+     * Build from the rows of {@code FolderRepository.findTodoCountsByOwnerId}
+     */
+    public static UserTodoStats fromCounts(List<TodoCountsView> rows) {
+        UserTodoStats stats = new UserTodoStats();
+        rows.stream()
+                .sorted(Comparator.comparing(TodoCountsView::getFolderName,
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)))
+                .forEach(row -> {
+                    Counts counts = row.getFolderId() == null ? stats.overall
+                            : stats.folders.computeIfAbsent(row.getFolderId(), id -> new FolderCounts(row.getFolderName())).counts;
+                    counts.total = row.getTodoCount();
+                    counts.completed = row.getCompletedCount();
+                    counts.disabled = row.getDisabledCount();
+                });
+        return stats;
+    }
+
+    public TodoStatsResponse toResponse(Long userId) {
+        Counts unfiled = overall.copy();
+        List<FolderStatsResponse> folderStats = new ArrayList<>(folders.size());
+        folders.forEach((folderId, folder) -> {
+            unfiled.subtract(folder.counts);
+            folderStats.add(FolderStatsResponse.builder()
+                    .folderId(folderId)
+                    .folderName(folder.name)
+                    .counts(folder.counts.toResponse())
+                    .build());
+        });
+        return TodoStatsResponse.builder()
+                .userId(userId)
+                .overall(overall.toResponse())
+                .unfiled(unfiled.toResponse())
+                .folders(folderStats)
+                .build();
+    }
+
+    private static final class FolderCounts {
+        private final String name;
+        private final Counts counts = new Counts();
+
+        private FolderCounts(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Counts {
+        private int total;
+        private int completed;
+        private int disabled;
+
+        private void subtract(Counts other) {
+            total -= other.total;
+            completed -= other.completed;
+            disabled -= other.disabled;
+        }
+
+        private Counts copy() {
+            Counts copy = new Counts();
+            copy.total = total;
+            copy.completed = completed;
+            copy.disabled = disabled;
+            return copy;
+        }
+
+        private TodoCountsResponse toResponse() {
+            return TodoCountsResponse.builder()
+                    .total(total)
+                    .completed(completed)
+                    .open(total - completed)
+                    .disabled(disabled)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.aifinancial.clarity.poc.util;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Helpers for writing RFC 4180 CSV
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {
+    }
+
+    /**
+     * Formats a single CSV field, quoting values that contain separators,
+     * quotes or line breaks. Null becomes an empty, unquoted field.
+     */
+    public static String formatField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof OffsetDateTime dateTime
+                ? DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime)
+                : value.toString();
+        if (text.isEmpty()) {
+            // Quoted so that PostgreSQL COPY reads it back as an empty string rather than NULL
+            return "\"\"";
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,78 @@
+package com.aifinancial.clarity.poc.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.aifinancial.clarity.poc.exception.PreconditionFailedException;
+
+/**
+ * Strong entity tags derived from JPA version columns and per-user change stamps, and the matching
+ * If-Match checks
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Tag of a list endpoint's response, from the owner's change stamp. Stamps are unique across
+     * users, so the tag does not need the owner id.
+     */
+    public static String ofList(String list, long changeStamp) {
+        return "\"" + list + "-" + changeStamp + "\"";
+    }
+
+    /**
+     * Versions an If-Match header accepts. If-Match uses the strong comparison, so weak tags and
+     * tags that are not versions are kept out of the set and can never match.
+     *
+     * @return null when the write is unconditional (no header, or {@code *}); an empty set when no
+     *         listed tag can match, including for a malformed header
+     */
+    public static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        int i = 0;
+        while (i < ifMatch.length()) {
+            char c = ifMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < ifMatch.length() && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                return Set.of();
+            }
+            if (!weak) {
+                parseVersion(ifMatch.substring(open + 1, close), versions);
+            }
+            i = close + 1;
+        }
+        return versions;
+    }
+
+    private static void parseVersion(String opaqueTag, Set<Long> versions) {
+        try {
+            versions.add(Long.valueOf(opaqueTag));
+        } catch (NumberFormatException e) {
+            // A list tag or a tag from elsewhere; it cannot name a version
+        }
+    }
+
+    /**
+     * @throws PreconditionFailedException if versions are required and the entity has moved past all of them
+     */
+    public static void checkIfMatch(Set<Long> expectedVersions, Long currentVersion) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            throw new PreconditionFailedException("The resource has been modified; current version is " + of(currentVersion));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.aifinancial.clarity.poc.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Orders flat folder lists, read in one query, as a tree
+ */
+public final class FolderTrees {
+
+    private FolderTrees() {
+    }
+
+    /**
+     * Depth-first order in O(n): every folder is directly followed by its subtree, and siblings
+     * keep their relative order from the input. Folders whose parent is not in the list are
+     * treated as roots.
+     */
+    public static <T> List<T> depthFirst(List<T> folders, Function<T, Long> id, Function<T, Long> parentId) {
+        Set<Long> ids = new HashSet<>();
+        for (T folder : folders) {
+            ids.add(id.apply(folder));
+        }
+        List<T> roots = new ArrayList<>();
+        Map<Long, List<T>> children = new HashMap<>();
+        for (T folder : folders) {
+            Long parent = parentId.apply(folder);
+            if (parent != null && ids.contains(parent)) {
+                children.computeIfAbsent(parent, key -> new ArrayList<>()).add(folder);
+            } else {
+                roots.add(folder);
+            }
+        }
+
+        // Iterative, so deep trees cannot overflow the stack
+        List<T> ordered = new ArrayList<>(folders.size());
+        Deque<Iterator<T>> stack = new ArrayDeque<>();
+        stack.push(roots.iterator());
+        while (!stack.isEmpty()) {
+            Iterator<T> siblings = stack.peek();
+            if (!siblings.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            T folder = siblings.next();
+            ordered.add(folder);
+            List<T> below = children.get(id.apply(folder));
+            if (below != null) {
+                stack.push(below.iterator());
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Links every folder to its parent through {@code addChild(parent, child)} in O(n) and returns
+     * the roots. Children and roots keep their relative order from the input; folders whose parent
+     * is not in the list are treated as roots.
+     */
+    public static <T> List<T> nest(List<T> folders, Function<T, Long> id, Function<T, Long> parentId,
+                                   BiConsumer<T, T> addChild) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T folder : folders) {
+            byId.put(id.apply(folder), folder);
+        }
+        List<T> roots = new ArrayList<>();
+        for (T folder : folders) {
+            Long parent = parentId.apply(folder);
+            T parentFolder = parent != null ? byId.get(parent) : null;
+            if (parentFolder != null) {
+                addChild.accept(parentFolder, folder);
+            } else {
+                roots.add(folder);
+            }
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,81 @@
+package com.aifinancial.clarity.poc.util;
+
+/**
+ * Fractional index keys for todos.rank: strings of base-62 digits, ordered bytewise like the
+ * column's "C" collation, that never end in the zero digit. Read as the fraction 0.d1d2d3..., every
+ * pair of keys has a key strictly between them, so placing an item never renumbers its neighbours.
+ * Keys grow by about one digit per six placements into the same gap, and by one digit per about
+ * thirty placements at either end; see todo_rank_key() in V16 for the evenly spaced keys that
+ * rebalancing writes.
+ */
+public final class RankKeys {
+
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private RankKeys() {
+    }
+
+    /**
+     * A key strictly between two keys
+     *
+     * @param lower key of the item above, or null for the top
+     * @param upper key of the item below, or null for the bottom
+     * @throws IllegalArgumentException if lower is not below upper, or either is not a valid key
+     */
+    public static String between(String lower, String upper) {
+        String a = lower == null ? "" : lower;
+        requireValid(a, true);
+        if (upper != null) {
+            requireValid(upper, false);
+            if (a.compareTo(upper) >= 0) {
+                throw new IllegalArgumentException("Rank " + lower + " is not below " + upper);
+            }
+        }
+        return midpoint(a, upper);
+    }
+
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            // Shared leading digits, reading a missing digit of a as zero, are copied as they are
+            int n = 0;
+            while (n < b.length() && (n < a.length() ? a.charAt(n) : DIGITS.charAt(0)) == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(n < a.length() ? a.substring(n) : "", b.substring(n));
+            }
+        }
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b == null ? BASE : DIGITS.indexOf(b.charAt(0));
+        if (digitB - digitA > 1) {
+            // Open-ended gaps step by one digit, leaving room for the next placement at the same end
+            if (b == null && !a.isEmpty()) {
+                return String.valueOf(DIGITS.charAt(digitA + 1));
+            }
+            if (a.isEmpty() && b != null) {
+                return String.valueOf(DIGITS.charAt(digitB - 1));
+            }
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        // Adjacent first digits: b's first digit alone sorts between them when b has more digits
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    private static void requireValid(String key, boolean allowEmpty) {
+        if (key.isEmpty() && allowEmpty) {
+            return;
+        }
+        if (key.isEmpty() || key.charAt(key.length() - 1) == DIGITS.charAt(0)) {
+            throw new IllegalArgumentException("Invalid rank: " + key);
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Invalid rank: " + key);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aifinancial.clarity.poc;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Base of the tests that run against a real Postgres: each test class gets a fresh container migrated with the
+ * real migrations, and each test starts without users, and so without their todos, folders and tags.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    protected static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    protected static DriverManagerDataSource dataSource;
+
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("filesystem:../db/migration")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void resetDatabase() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE users CASCADE");
+    }
+
+    protected Long insertUser(String username) {
+        return insertUser(username, "NORMAL");
+    }
+
+    protected Long insertUser(String username, String role) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO users (username, email, password, role_id)
+                VALUES (?, ? || '@example.com', 'x', (SELECT id FROM roles WHERE name = ?))
+                RETURNING id
+                """, Long.class, username, username, role);
+    }
+
+    protected Long insertFolder(String name, Long ownerId, Long parentId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO folders (name, user_id, parent_id) VALUES (?, ?, ?) RETURNING id", Long.class, name, ownerId, parentId);
+    }
+
+    protected Long insertTodo(String title, Long ownerId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO todos (title, completed, user_id) VALUES (?, false, ?) RETURNING id", Long.class, title, ownerId);
+    }
+
+    protected long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.aifinancial.clarity.poc.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+import com.aifinancial.clarity.poc.event.AuditEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the real migrations and checks that the writer flushes by size and by time, writes only
+ * events of committed transactions, and leaves nothing behind on shutdown.
+ */
+class AuditLogWriterIntegrationTest extends PostgresIntegrationTest {
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("TRUNCATE audit_log");
+    }
+
+    @Test
+    void flushesAFullBatchBeforeTheInterval() throws Exception {
+        AuditLogWriter writer = newWriter(64, 10, 60_000);
+        writer.start();
+        try {
+            for (long i = 1; i <= 10; i++) {
+                writer.enqueue(event(i));
+            }
+            awaitCount(10);
+            assertEquals(10, writer.getWrittenEvents());
+        } finally {
+            writer.stop();
+        }
+        assertEquals(Map.of("ownerId", 7), new ObjectMapper().readValue(
+                jdbcTemplate.queryForObject("SELECT details::text FROM audit_log WHERE target_id = 1", String.class), Map.class));
+    }
+
+    @Test
+    void flushesAPartialBatchAfterTheInterval() throws Exception {
+        AuditLogWriter writer = newWriter(64, 100, 50);
+        writer.start();
+        try {
+            writer.enqueue(event(1));
+            awaitCount(1);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void writesOnlyEventsOfCommittedTransactions() throws Exception {
+        AuditLogWriter writer = newWriter(64, 100, 50);
+        writer.start();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> writer.onAudit(event(1)));
+            transaction.executeWithoutResult(status -> {
+                writer.onAudit(event(2));
+                status.setRollbackOnly();
+            });
+            awaitCount(1);
+        } finally {
+            writer.stop();
+        }
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT target_id FROM audit_log", Long.class));
+    }
+
+    @Test
+    void flushesEverythingOnShutdownAndWritesLateEventsDirectly() {
+        AuditLogWriter writer = newWriter(64, 1000, 60_000);
+        writer.start();
+        for (long i = 1; i <= 50; i++) {
+            writer.enqueue(event(i));
+        }
+        writer.stop();
+        assertEquals(50, count());
+
+        writer.enqueue(event(51));
+        assertEquals(51, count());
+    }
+
+    @Test
+    void writesDirectlyWhenTheBufferIsFull() throws Exception {
+        AuditLogWriter writer = newWriter(4, 1000, 60_000);
+        writer.start();
+        // Let the flusher finish its first, empty pass and park for the interval
+        Thread.sleep(200);
+        try {
+            for (long i = 1; i <= 6; i++) {
+                writer.enqueue(event(i));
+            }
+            assertEquals(2, writer.getOverflowWrites());
+            assertEquals(2, count());
+        } finally {
+            writer.stop();
+        }
+        assertEquals(6, count());
+    }
+
+    private AuditLogWriter newWriter(int capacity, int batchSize, long flushIntervalMs) {
+        return new AuditLogWriter(jdbcTemplate, transactionManager, new ObjectMapper(), capacity, batchSize, flushIntervalMs);
+    }
+
+    private AuditEvent event(long todoId) {
+        return new AuditEvent(OffsetDateTime.now(), 1L, "moderator", AuditEvent.TODO_DISABLED, "TODO", todoId, Map.of("ownerId", 7));
+    }
+
+    private void awaitCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(count() >= expected, "expected " + expected + " audit rows, found " + count());
+        assertEquals(expected, count());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM audit_log", Integer.class);
+    }
+}
@@ -5,7 +5,12 @@ import com.aifinancial.clarity.poc.config.WebConfig;
 import com.aifinancial.clarity.poc.constant.PermissionConstants;
 import com.aifinancial.clarity.poc.constant.RoleConstants;
 import com.aifinancial.clarity.poc.dto.request.FolderRequest;
+import com.aifinancial.clarity.poc.dto.request.MoveFolderRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.MoveTodosResponse;
+import com.aifinancial.clarity.poc.dto.response.FolderSubtreeStatsResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoCountsResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.exception.UnauthorizedException;
 import com.aifinancial.clarity.poc.model.Role;
@@ -17,6 +22,7 @@ import com.aifinancial.clarity.poc.service.FolderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
@@ -29,12 +35,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -106,17 +115,28 @@ public class FolderControllerTest {
     @Test
     @WithMockUser // Authenticated user
     void testGetFolders_CurrentUser_Success() throws Exception {
-        when(folderService.getCurrentUserFolders()).thenReturn(currentUserFolders);
+        when(folderService.getFoldersIfModified(isNull(), any())).thenAnswer(changeStamp(7L, currentUserFolders));
 
         mockMvc.perform(get("/folders"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
-                .andExpect(jsonPath("$[1].id", is(2)));
+                .andExpect(jsonPath("$[1].id", is(2)))
+                .andExpect(header().string("ETag", "\"folders-7\""));
 
-        verify(folderService, times(1)).getCurrentUserFolders();
-        verify(folderService, never()).getFoldersByUserId(anyLong());
+        verify(folderService, times(1)).getFoldersIfModified(isNull(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetFolders_CurrentUser_NotModified() throws Exception {
+        when(folderService.getFoldersIfModified(isNull(), any())).thenAnswer(changeStamp(7L, currentUserFolders));
+
+        mockMvc.perform(get("/folders").header("If-None-Match", "\"folders-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"folders-7\""))
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -125,7 +145,7 @@ public class FolderControllerTest {
         mockMvc.perform(get("/folders"))
                 .andExpect(status().isUnauthorized()); // Security filter chain denies access
 
-        verify(folderService, never()).getCurrentUserFolders();
+        verify(folderService, never()).getFoldersIfModified(any(), any());
     }
 
     // --- Test GET /folders?userId={userId} ---
@@ -133,7 +153,7 @@ public class FolderControllerTest {
     @WithMockUser(authorities = {"ROLE_" + RoleConstants.ROLE_MODERATOR}) // Moderator/Admin can view others' folders
     void testGetFolders_ByUserId_Success() throws Exception {
         Long targetUserId = 1L;
-        when(folderService.getFoldersByUserId(targetUserId)).thenReturn(user1Folders);
+        when(folderService.getFoldersIfModified(eq(targetUserId), any())).thenAnswer(changeStamp(9L, user1Folders));
 
         mockMvc.perform(get("/folders").param("userId", String.valueOf(targetUserId)))
                 .andExpect(status().isOk())
@@ -141,8 +161,7 @@ public class FolderControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].ownerId", is(targetUserId.intValue())));
 
-        verify(folderService, times(1)).getFoldersByUserId(targetUserId);
-        verify(folderService, never()).getCurrentUserFolders();
+        verify(folderService, times(1)).getFoldersIfModified(eq(targetUserId), any());
     }
 
     @Test
@@ -150,12 +169,12 @@ public class FolderControllerTest {
     void testGetFolders_ByUserId_Forbidden() throws Exception {
         Long targetUserId = 2L;
         // Assume service layer throws UnauthorizedException for this case
-        when(folderService.getFoldersByUserId(targetUserId)).thenThrow(new UnauthorizedException("Not authorized"));
+        when(folderService.getFoldersIfModified(eq(targetUserId), any())).thenThrow(new UnauthorizedException("Not authorized"));
 
         mockMvc.perform(get("/folders").param("userId", String.valueOf(targetUserId)))
                .andExpect(status().isForbidden()); // GlobalExceptionHandler maps UnauthorizedException to 403
 
-        verify(folderService, times(1)).getFoldersByUserId(targetUserId);
+        verify(folderService, times(1)).getFoldersIfModified(eq(targetUserId), any());
     }
 
     @Test
@@ -164,7 +183,7 @@ public class FolderControllerTest {
          mockMvc.perform(get("/folders").param("userId", "1"))
                 .andExpect(status().isUnauthorized());
 
-        verify(folderService, never()).getFoldersByUserId(anyLong());
+        verify(folderService, never()).getFoldersIfModified(any(), any());
     }
 
     // --- Test GET /folders/{id} ---
@@ -216,6 +235,43 @@ public class FolderControllerTest {
         verify(folderService, never()).getFolder(anyLong());
     }
 
+    // --- Test GET /folders/{id}/subtree ---
+    @Test
+    @WithMockUser
+    void testGetSubtree_Success() throws Exception {
+        when(folderService.getSubtree(1L)).thenReturn(currentUserFolders);
+
+        mockMvc.perform(get("/folders/{id}/subtree", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(currentUserFolders.size())));
+
+        verify(folderService, times(1)).getSubtree(1L);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetSubtreeStats_Success() throws Exception {
+        FolderSubtreeStatsResponse stats = FolderSubtreeStatsResponse.builder()
+                .folderId(1L).folderName("Root").folderCount(3)
+                .counts(TodoCountsResponse.builder().total(7).completed(2).open(5).disabled(1).build())
+                .build();
+        when(folderService.getSubtreeStats(1L)).thenReturn(stats);
+
+        mockMvc.perform(get("/folders/{id}/subtree/stats", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.folderCount", is(3)))
+                .andExpect(jsonPath("$.counts.total", is(7)));
+    }
+
+    @Test
+    @WithAnonymousUser
+    void testGetSubtree_Unauthorized() throws Exception {
+        mockMvc.perform(get("/folders/{id}/subtree", 1L))
+                .andExpect(status().isUnauthorized());
+
+        verify(folderService, never()).getSubtree(anyLong());
+    }
+
     // --- Test POST /folders ---
     @Test
     @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_CREATE)
@@ -271,7 +327,7 @@ public class FolderControllerTest {
                                             .updatedAt(OffsetDateTime.now())
                                             .build();
 
-        when(folderService.updateFolder(eq(folderId), any(FolderRequest.class))).thenReturn(updatedResponse);
+        when(folderService.updateFolder(eq(folderId), any(FolderRequest.class), isNull())).thenReturn(updatedResponse);
 
         mockMvc.perform(put("/folders/{id}", folderId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -280,14 +336,14 @@ public class FolderControllerTest {
                 .andExpect(jsonPath("$.id", is(folderId.intValue())))
                 .andExpect(jsonPath("$.name", is(updateRequest.getName())));
 
-        verify(folderService, times(1)).updateFolder(eq(folderId), any(FolderRequest.class));
+        verify(folderService, times(1)).updateFolder(eq(folderId), any(FolderRequest.class), isNull());
     }
 
     @Test
     @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_EDIT)
     void testUpdateFolder_NotFound() throws Exception {
         Long nonExistentFolderId = 99L;
-        when(folderService.updateFolder(eq(nonExistentFolderId), any(FolderRequest.class)))
+        when(folderService.updateFolder(eq(nonExistentFolderId), any(FolderRequest.class), isNull()))
             .thenThrow(new ResourceNotFoundException("Folder not found"));
 
         mockMvc.perform(put("/folders/{id}", nonExistentFolderId)
@@ -295,7 +351,7 @@ public class FolderControllerTest {
                         .content(objectMapper.writeValueAsString(folderRequest)))
                 .andExpect(status().isNotFound());
 
-        verify(folderService, times(1)).updateFolder(eq(nonExistentFolderId), any(FolderRequest.class));
+        verify(folderService, times(1)).updateFolder(eq(nonExistentFolderId), any(FolderRequest.class), isNull());
     }
 
     @Test
@@ -306,7 +362,7 @@ public class FolderControllerTest {
                         .content(objectMapper.writeValueAsString(folderRequest)))
                 .andExpect(status().isForbidden());
 
-        verify(folderService, never()).updateFolder(anyLong(), any(FolderRequest.class));
+        verify(folderService, never()).updateFolder(anyLong(), any(FolderRequest.class), any());
     }
 
     @Test
@@ -317,7 +373,91 @@ public class FolderControllerTest {
                         .content(objectMapper.writeValueAsString(folderRequest)))
                 .andExpect(status().isUnauthorized());
 
-        verify(folderService, never()).updateFolder(anyLong(), any(FolderRequest.class));
+        verify(folderService, never()).updateFolder(anyLong(), any(FolderRequest.class), any());
+    }
+
+    // --- Test PATCH /folders/{id}/move ---
+    @Test
+    @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_EDIT)
+    void testMoveFolder_Success() throws Exception {
+        MoveFolderRequest moveRequest = new MoveFolderRequest(2L);
+        folderResponse1.setParentId(2L);
+        folderResponse1.setVersion(6L);
+        when(folderService.moveFolder(1L, moveRequest, Set.of(5L))).thenReturn(folderResponse1);
+
+        mockMvc.perform(patch("/folders/{id}/move", 1L)
+                        .header("If-Match", "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentId", is(2)))
+                .andExpect(header().string("ETag", "\"6\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_EDIT)
+    void testMoveFolder_IntoOwnSubtree_BadRequest() throws Exception {
+        when(folderService.moveFolder(eq(1L), any(MoveFolderRequest.class), isNull()))
+                .thenThrow(new BadRequestException("A folder cannot be moved into its own subtree"));
+
+        mockMvc.perform(patch("/folders/{id}/move", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MoveFolderRequest(3L))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser // Missing authority
+    void testMoveFolder_Forbidden() throws Exception {
+        mockMvc.perform(patch("/folders/{id}/move", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        verify(folderService, never()).moveFolder(anyLong(), any(), any());
+    }
+
+    // --- Test POST /folders/{id}/duplicate and /folders/{id}/move-todos ---
+    @Test
+    @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_CREATE)
+    void testDuplicateFolder_Success() throws Exception {
+        folderResponse1.setName("Folder 1 (copy)");
+        folderResponse1.setVersion(0L);
+        when(folderService.duplicateFolder(1L)).thenReturn(folderResponse1);
+
+        mockMvc.perform(post("/folders/{id}/duplicate", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Folder 1 (copy)")))
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testMoveTodos_Success() throws Exception {
+        when(folderService.moveTodos(1L, 2L)).thenReturn(new MoveTodosResponse(1L, 2L, 42));
+
+        mockMvc.perform(post("/folders/{id}/move-todos", 1L).param("to", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movedCount", is(42)));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testMoveTodos_WithoutTarget_MovesOutOfAnyFolder() throws Exception {
+        when(folderService.moveTodos(1L, null)).thenReturn(new MoveTodosResponse(1L, null, 3));
+
+        mockMvc.perform(post("/folders/{id}/move-todos", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movedCount", is(3)));
+    }
+
+    @Test
+    @WithMockUser // Missing authority
+    void testMoveTodos_Forbidden() throws Exception {
+        mockMvc.perform(post("/folders/{id}/move-todos", 1L).param("to", "2"))
+                .andExpect(status().isForbidden());
+
+        verify(folderService, never()).moveTodos(anyLong(), any());
     }
 
     // --- Test DELETE /folders/{id} ---
@@ -325,24 +465,24 @@ public class FolderControllerTest {
     @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_DELETE)
     void testDeleteFolder_Success() throws Exception {
         Long folderId = 1L;
-        doNothing().when(folderService).deleteFolder(folderId); // Mock void method
+        doNothing().when(folderService).deleteFolder(folderId, null); // Mock void method
 
         mockMvc.perform(delete("/folders/{id}", folderId))
                 .andExpect(status().isNoContent()); // Expect 204
 
-        verify(folderService, times(1)).deleteFolder(folderId);
+        verify(folderService, times(1)).deleteFolder(folderId, null);
     }
 
     @Test
     @WithMockUser(authorities = PermissionConstants.FOLDERS_OWN_DELETE)
     void testDeleteFolder_NotFound() throws Exception {
         Long nonExistentFolderId = 99L;
-        doThrow(new ResourceNotFoundException("Folder not found")).when(folderService).deleteFolder(nonExistentFolderId);
+        doThrow(new ResourceNotFoundException("Folder not found")).when(folderService).deleteFolder(nonExistentFolderId, null);
 
         mockMvc.perform(delete("/folders/{id}", nonExistentFolderId))
                 .andExpect(status().isNotFound());
 
-        verify(folderService, times(1)).deleteFolder(nonExistentFolderId);
+        verify(folderService, times(1)).deleteFolder(nonExistentFolderId, null);
     }
 
     @Test
@@ -351,7 +491,7 @@ public class FolderControllerTest {
          mockMvc.perform(delete("/folders/{id}", 1L))
                 .andExpect(status().isForbidden());
 
-        verify(folderService, never()).deleteFolder(anyLong());
+        verify(folderService, never()).deleteFolder(anyLong(), any());
     }
 
      @Test
@@ -360,6 +500,11 @@ public class FolderControllerTest {
          mockMvc.perform(delete("/folders/{id}", 1L))
                 .andExpect(status().isUnauthorized());
 
-        verify(folderService, never()).deleteFolder(anyLong());
+        verify(folderService, never()).deleteFolder(anyLong(), any());
+    }
+
+    // Applies the controller's not-modified check to the given change stamp, as the service does
+    private static Answer<List<FolderResponse>> changeStamp(long changeStamp, List<FolderResponse> folders) {
+        return invocation -> invocation.<LongPredicate>getArgument(1).test(changeStamp) ? null : folders;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.aifinancial.clarity.poc.controller;
+
+import com.aifinancial.clarity.poc.config.SecurityConfig;
+import com.aifinancial.clarity.poc.config.WebConfig;
+import com.aifinancial.clarity.poc.constant.ModerationAction;
+import com.aifinancial.clarity.poc.constant.PermissionConstants;
+import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.dto.request.ModerationResolveRequest;
+import com.aifinancial.clarity.poc.dto.request.ModerationRuleRequest;
+import com.aifinancial.clarity.poc.dto.response.ModerationItemResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationResolveResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationRuleResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
+import com.aifinancial.clarity.poc.dto.response.UserOverviewResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.security.JwtAuthenticationEntryPoint;
+import com.aifinancial.clarity.poc.security.JwtAuthenticationFilter;
+import com.aifinancial.clarity.poc.security.JwtTokenProvider;
+import com.aifinancial.clarity.poc.security.UserDetailsServiceImpl;
+import com.aifinancial.clarity.poc.service.ModeratorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ModeratorController.class)
+@Import({SecurityConfig.class, WebConfig.class, JwtAuthenticationEntryPoint.class, JwtAuthenticationFilter.class})
+public class ModeratorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ModeratorService moderatorService;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    @WithMockUser(roles = RoleConstants.ROLE_MODERATOR)
+    void testGetUserOverview_DefaultsToMostRecentlyActive() throws Exception {
+        UserOverviewResponse overview = UserOverviewResponse.builder()
+                .id(2L).username("john_doe").todoCount(12).completedCount(5).disabledCount(1).folderCount(3)
+                .build();
+        when(moderatorService.getUserOverview(0, 20, "lastActivityAt", "desc"))
+                .thenReturn(new SliceResponse<>(List.of(overview), 0, 20, false));
+
+        mockMvc.perform(get("/moderator/overview"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].todoCount", is(12)))
+                .andExpect(jsonPath("$.items[0].folderCount", is(3)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    @WithMockUser(roles = RoleConstants.ROLE_SUPER_ADMIN)
+    void testGetUserOverview_PassesPagingAndSort() throws Exception {
+        when(moderatorService.getUserOverview(2, 50, "todoCount", "asc"))
+                .thenReturn(new SliceResponse<>(List.of(), 2, 50, false));
+
+        mockMvc.perform(get("/moderator/overview")
+                        .param("page", "2").param("size", "50").param("sort", "todoCount").param("direction", "asc"))
+                .andExpect(status().isOk());
+
+        verify(moderatorService).getUserOverview(2, 50, "todoCount", "asc");
+    }
+
+    @Test
+    @WithMockUser(roles = RoleConstants.ROLE_MODERATOR)
+    void testGetUserOverview_UnsupportedSort_BadRequest() throws Exception {
+        when(moderatorService.getUserOverview(0, 20, "password", "desc"))
+                .thenThrow(new BadRequestException("Unsupported sort field: password"));
+
+        mockMvc.perform(get("/moderator/overview").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = RoleConstants.ROLE_NORMAL)
+    void testGetUserOverview_NormalUser_Forbidden() throws Exception {
+        mockMvc.perform(get("/moderator/overview"))
+                .andExpect(status().isForbidden());
+
+        verify(moderatorService, never()).getUserOverview(anyInt(), anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void testGetUserOverview_Anonymous_Unauthorized() throws Exception {
+        mockMvc.perform(get("/moderator/overview"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(authorities = {"ROLE_" + RoleConstants.ROLE_MODERATOR, PermissionConstants.TODOS_OTHERS_BAN})
+    void testClaimQueueItems_DefaultsToTwentyItems() throws Exception {
+        ModerationItemResponse item = ModerationItemResponse.builder()
+                .id(7L).todoId(3L).ownerId(2L).title("casino night").source("RULE").detail("casino")
+                .build();
+        when(moderatorService.claimQueueItems(20)).thenReturn(List.of(item));
+
+        mockMvc.perform(post("/moderator/queue/claim"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].todoId", is(3)))
+                .andExpect(jsonPath("$[0].detail", is("casino")));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"ROLE_" + RoleConstants.ROLE_MODERATOR, PermissionConstants.TODOS_OTHERS_BAN})
+    void testResolveQueueItems_Success() throws Exception {
+        when(moderatorService.resolveQueueItems(any(ModerationResolveRequest.class)))
+                .thenReturn(new ModerationResolveResponse(2, 2, 1));
+
+        mockMvc.perform(post("/moderator/queue/resolve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemIds\":[7,8],\"action\":\"DISABLE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolvedCount", is(2)))
+                .andExpect(jsonPath("$.disabledCount", is(1)));
+
+        verify(moderatorService).resolveQueueItems(argThat(request ->
+                request.getItemIds().equals(List.of(7L, 8L)) && request.getAction() == ModerationAction.DISABLE));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"ROLE_" + RoleConstants.ROLE_MODERATOR, PermissionConstants.TODOS_OTHERS_BAN})
+    void testResolveQueueItems_MissingAction_BadRequest() throws Exception {
+        mockMvc.perform(post("/moderator/queue/resolve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemIds\":[7]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(moderatorService, never()).resolveQueueItems(any(ModerationResolveRequest.class));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"ROLE_" + RoleConstants.ROLE_MODERATOR, PermissionConstants.TODOS_OTHERS_BAN})
+    void testCreateRule_Success() throws Exception {
+        when(moderatorService.createRule(any(ModerationRuleRequest.class)))
+                .thenReturn(ModerationRuleResponse.builder().id(1L).keyword("casino").build());
+
+        mockMvc.perform(post("/moderator/rules")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"keyword\":\"Casino\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keyword", is("casino")));
+    }
+
+    @Test
+    @WithMockUser(roles = RoleConstants.ROLE_NORMAL)
+    void testClaimQueueItems_NormalUser_Forbidden() throws Exception {
+        mockMvc.perform(post("/moderator/queue/claim"))
+                .andExpect(status().isForbidden());
+
+        verify(moderatorService, never()).claimQueueItems(anyInt());
+    }
+}
@@ -2,14 +2,22 @@ package com.aifinancial.clarity.poc.controller;
 
 import com.aifinancial.clarity.poc.config.SecurityConfig;
 import com.aifinancial.clarity.poc.config.WebConfig;
+import com.aifinancial.clarity.poc.dto.request.MoveTodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoReportRequest;
 import com.aifinancial.clarity.poc.dto.request.TodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoTagsRequest;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.PreconditionFailedException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.exception.UnauthorizedException;
 import com.aifinancial.clarity.poc.constant.PermissionConstants;
 import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.constant.TagMatch;
 import com.aifinancial.clarity.poc.model.Role;
+import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.security.JwtAuthenticationEntryPoint;
 import com.aifinancial.clarity.poc.security.JwtAuthenticationFilter;
 import com.aifinancial.clarity.poc.security.JwtTokenProvider;
@@ -19,10 +27,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -32,12 +42,18 @@ import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -86,6 +102,7 @@ public class TodoControllerTest {
                 .folderName("Folder A")
                 .createdAt(now.minusDays(1))
                 .updatedAt(now)
+                .version(0L)
                 .build();
 
         todoResponse2 = TodoResponse.builder()
@@ -118,7 +135,7 @@ public class TodoControllerTest {
     @Test
     @WithMockUser // Simulates an authenticated user
     void testGetTodos_CurrentUser_Success() throws Exception {
-        when(todoService.getCurrentUserTodos()).thenReturn(currentUserTodos);
+        when(todoService.getTodosIfModified(isNull(), eq(false), any())).thenAnswer(changeStamp(7L, currentUserTodos));
 
         mockMvc.perform(get("/todos"))
                 .andExpect(status().isOk())
@@ -127,10 +144,45 @@ public class TodoControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].title", is("Todo 1")))
                 .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].title", is("Todo 2")));
+                .andExpect(jsonPath("$[1].title", is("Todo 2")))
+                .andExpect(header().string("ETag", "\"todos-7\""));
 
-        verify(todoService, times(1)).getCurrentUserTodos();
-        verify(todoService, never()).getTodosByUserId(anyLong());
+        verify(todoService, times(1)).getTodosIfModified(isNull(), eq(false), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTodos_CurrentUser_IncludeArchived() throws Exception {
+        when(todoService.getTodosIfModified(isNull(), eq(true), any())).thenAnswer(changeStamp(7L, currentUserTodos));
+
+        mockMvc.perform(get("/todos").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("ETag", "\"todos-archived-7\""));
+
+        verify(todoService, times(1)).getTodosIfModified(isNull(), eq(true), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTodos_CurrentUser_NotModified() throws Exception {
+        when(todoService.getTodosIfModified(isNull(), eq(false), any())).thenAnswer(changeStamp(7L, currentUserTodos));
+
+        mockMvc.perform(get("/todos").header("If-None-Match", "\"todos-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"todos-7\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTodos_CurrentUser_ChangedSinceETag() throws Exception {
+        when(todoService.getTodosIfModified(isNull(), eq(false), any())).thenAnswer(changeStamp(8L, currentUserTodos));
+
+        mockMvc.perform(get("/todos").header("If-None-Match", "\"todos-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"todos-8\""))
+                .andExpect(jsonPath("$", hasSize(2)));
     }
 
     @Test
@@ -139,7 +191,7 @@ public class TodoControllerTest {
         mockMvc.perform(get("/todos"))
                 .andExpect(status().isUnauthorized()); // Expect 401 due to security config
 
-        verify(todoService, never()).getCurrentUserTodos();
+        verify(todoService, never()).getTodosIfModified(any(), anyBoolean(), any());
     }
 
     // --- Test GET /todos?userId={userId} ---
@@ -147,7 +199,7 @@ public class TodoControllerTest {
     @WithMockUser(authorities = {"ROLE_" + RoleConstants.ROLE_MODERATOR}) // Moderator can view others' todos
     void testGetTodos_ByUserId_Success() throws Exception {
         Long targetUserId = 1L;
-        when(todoService.getTodosByUserId(targetUserId)).thenReturn(user1Todos);
+        when(todoService.getTodosIfModified(eq(targetUserId), eq(false), any())).thenAnswer(changeStamp(9L, user1Todos));
 
         mockMvc.perform(get("/todos").param("userId", String.valueOf(targetUserId)))
                 .andExpect(status().isOk())
@@ -155,8 +207,7 @@ public class TodoControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].ownerId", is(targetUserId.intValue())));
 
-        verify(todoService, times(1)).getTodosByUserId(targetUserId);
-        verify(todoService, never()).getCurrentUserTodos();
+        verify(todoService, times(1)).getTodosIfModified(eq(targetUserId), eq(false), any());
     }
 
     @Test
@@ -164,7 +215,7 @@ public class TodoControllerTest {
     void testGetTodos_ByUserId_Forbidden() throws Exception {
         Long targetUserId = 2L; // Trying to access another user's todos
         // Mock the service to throw the expected exception for this scenario
-        when(todoService.getTodosByUserId(targetUserId)).thenThrow(new UnauthorizedException("Not authorized"));
+        when(todoService.getTodosIfModified(eq(targetUserId), eq(false), any())).thenThrow(new UnauthorizedException("Not authorized"));
 
         mockMvc.perform(get("/todos").param("userId", String.valueOf(targetUserId)))
                 // Expect 403 Forbidden because the service layer should deny access
@@ -173,7 +224,7 @@ public class TodoControllerTest {
                 // The GlobalExceptionHandler will map UnauthorizedException to 403.
                .andExpect(status().isForbidden());
 
-        verify(todoService, times(1)).getTodosByUserId(targetUserId);
+        verify(todoService, times(1)).getTodosIfModified(eq(targetUserId), eq(false), any());
     }
 
     @Test
@@ -182,7 +233,7 @@ public class TodoControllerTest {
          mockMvc.perform(get("/todos").param("userId", "1"))
                 .andExpect(status().isUnauthorized());
 
-        verify(todoService, never()).getTodosByUserId(anyLong());
+        verify(todoService, never()).getTodosIfModified(any(), anyBoolean(), any());
     }
 
     // --- Test GET /todos/folder/{folderId} ---
@@ -190,7 +241,7 @@ public class TodoControllerTest {
     @WithMockUser
     void testGetTodosByFolder_Success() throws Exception {
         Long folderId = 10L;
-        when(todoService.getTodosByFolder(folderId)).thenReturn(folderTodos);
+        when(todoService.getTodosByFolder(folderId, false)).thenReturn(folderTodos);
 
         mockMvc.perform(get("/todos/folder/{folderId}", folderId))
                 .andExpect(status().isOk())
@@ -199,31 +250,31 @@ public class TodoControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].folderId", is(folderId.intValue())));
 
-        verify(todoService, times(1)).getTodosByFolder(folderId);
+        verify(todoService, times(1)).getTodosByFolder(folderId, false);
     }
 
     @Test
     @WithMockUser
     void testGetTodosByFolder_NotFound() throws Exception {
         Long nonExistentFolderId = 99L;
-        when(todoService.getTodosByFolder(nonExistentFolderId)).thenThrow(new ResourceNotFoundException("Folder not found"));
+        when(todoService.getTodosByFolder(nonExistentFolderId, false)).thenThrow(new ResourceNotFoundException("Folder not found"));
 
         mockMvc.perform(get("/todos/folder/{folderId}", nonExistentFolderId))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).getTodosByFolder(nonExistentFolderId);
+        verify(todoService, times(1)).getTodosByFolder(nonExistentFolderId, false);
     }
 
      @Test
     @WithMockUser
     void testGetTodosByFolder_Forbidden() throws Exception {
         Long otherUserFolderId = 20L;
-        when(todoService.getTodosByFolder(otherUserFolderId)).thenThrow(new UnauthorizedException("Not authorized"));
+        when(todoService.getTodosByFolder(otherUserFolderId, false)).thenThrow(new UnauthorizedException("Not authorized"));
 
         mockMvc.perform(get("/todos/folder/{folderId}", otherUserFolderId))
                .andExpect(status().isForbidden()); // Service throws Unauthorized -> 403
 
-        verify(todoService, times(1)).getTodosByFolder(otherUserFolderId);
+        verify(todoService, times(1)).getTodosByFolder(otherUserFolderId, false);
     }
 
     @Test
@@ -232,7 +283,7 @@ public class TodoControllerTest {
         mockMvc.perform(get("/todos/folder/{folderId}", 10L))
                 .andExpect(status().isUnauthorized());
 
-        verify(todoService, never()).getTodosByFolder(anyLong());
+        verify(todoService, never()).getTodosByFolder(anyLong(), anyBoolean());
     }
 
     // --- Test GET /todos/{id} ---
@@ -246,7 +297,8 @@ public class TodoControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(todoId.intValue())))
-                .andExpect(jsonPath("$.title", is(todoResponse1.getTitle())));
+                .andExpect(jsonPath("$.title", is(todoResponse1.getTitle())))
+                .andExpect(header().string("ETag", "\"" + todoResponse1.getVersion() + "\""));
 
         verify(todoService, times(1)).getTodo(todoId);
     }
@@ -346,7 +398,7 @@ public class TodoControllerTest {
                                         .updatedAt(OffsetDateTime.now())
                                         .build();
 
-        when(todoService.updateTodo(eq(todoId), any(TodoRequest.class))).thenReturn(updatedResponse);
+        when(todoService.updateTodo(eq(todoId), any(TodoRequest.class), isNull())).thenReturn(updatedResponse);
 
         mockMvc.perform(put("/todos/{id}", todoId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -356,14 +408,45 @@ public class TodoControllerTest {
                 .andExpect(jsonPath("$.title", is(updateRequest.getTitle())))
                 .andExpect(jsonPath("$.completed", is(true)));
 
-        verify(todoService, times(1)).updateTodo(eq(todoId), any(TodoRequest.class));
+        verify(todoService, times(1)).updateTodo(eq(todoId), any(TodoRequest.class), isNull());
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testUpdateTodo_IfMatch_Success() throws Exception {
+        Long todoId = 1L;
+        todoResponse1.setVersion(4L);
+        when(todoService.updateTodo(eq(todoId), any(TodoRequest.class), eq(Set.of(3L)))).thenReturn(todoResponse1);
+
+        mockMvc.perform(put("/todos/{id}", todoId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(todoService, times(1)).updateTodo(eq(todoId), any(TodoRequest.class), eq(Set.of(3L)));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testUpdateTodo_IfMatch_PreconditionFailed() throws Exception {
+        Long todoId = 1L;
+        when(todoService.updateTodo(eq(todoId), any(TodoRequest.class), eq(Set.of(3L))))
+                .thenThrow(new PreconditionFailedException("The resource has been modified"));
+
+        mockMvc.perform(put("/todos/{id}", todoId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
     @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
     void testUpdateTodo_NotFound() throws Exception {
         Long nonExistentTodoId = 99L;
-         when(todoService.updateTodo(eq(nonExistentTodoId), any(TodoRequest.class)))
+         when(todoService.updateTodo(eq(nonExistentTodoId), any(TodoRequest.class), isNull()))
                  .thenThrow(new ResourceNotFoundException("Todo not found"));
 
         mockMvc.perform(put("/todos/{id}", nonExistentTodoId)
@@ -371,7 +454,7 @@ public class TodoControllerTest {
                         .content(objectMapper.writeValueAsString(todoRequest)))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).updateTodo(eq(nonExistentTodoId), any(TodoRequest.class));
+        verify(todoService, times(1)).updateTodo(eq(nonExistentTodoId), any(TodoRequest.class), isNull());
     }
 
     @Test
@@ -382,7 +465,7 @@ public class TodoControllerTest {
                         .content(objectMapper.writeValueAsString(todoRequest)))
                 .andExpect(status().isForbidden());
 
-        verify(todoService, never()).updateTodo(anyLong(), any(TodoRequest.class));
+        verify(todoService, never()).updateTodo(anyLong(), any(TodoRequest.class), any());
     }
 
     @Test
@@ -393,7 +476,7 @@ public class TodoControllerTest {
                         .content(objectMapper.writeValueAsString(todoRequest)))
                 .andExpect(status().isUnauthorized());
 
-        verify(todoService, never()).updateTodo(anyLong(), any(TodoRequest.class));
+        verify(todoService, never()).updateTodo(anyLong(), any(TodoRequest.class), any());
     }
 
     // --- Test PATCH /todos/{id}/toggle-completed ---
@@ -404,26 +487,52 @@ public class TodoControllerTest {
         TodoResponse toggledResponse = todoResponse1; // Assume response shows toggled state
         toggledResponse.setCompleted(!toggledResponse.isCompleted());
 
-        when(todoService.toggleCompleted(todoId)).thenReturn(toggledResponse);
+        when(todoService.toggleCompleted(todoId, null)).thenReturn(toggledResponse);
 
         mockMvc.perform(patch("/todos/{id}/toggle-completed", todoId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(todoId.intValue())))
                 .andExpect(jsonPath("$.completed", is(toggledResponse.isCompleted())));
 
-        verify(todoService, times(1)).toggleCompleted(todoId);
+        verify(todoService, times(1)).toggleCompleted(todoId, null);
     }
 
     @Test
     @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
     void testToggleCompleted_NotFound() throws Exception {
         Long nonExistentTodoId = 99L;
-        when(todoService.toggleCompleted(nonExistentTodoId)).thenThrow(new ResourceNotFoundException("Todo not found"));
+        when(todoService.toggleCompleted(nonExistentTodoId, null)).thenThrow(new ResourceNotFoundException("Todo not found"));
 
         mockMvc.perform(patch("/todos/{id}/toggle-completed", nonExistentTodoId))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).toggleCompleted(nonExistentTodoId);
+        verify(todoService, times(1)).toggleCompleted(nonExistentTodoId, null);
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testToggleCompleted_StaleAfterRebalance_PreconditionFailed() throws Exception {
+        Long todoId = 1L;
+        // The If-Match version still matched when loaded, but a rank rebalance bumped the row before the flush
+        when(todoService.toggleCompleted(todoId, Set.of(3L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Todo.class, todoId));
+
+        mockMvc.perform(patch("/todos/{id}/toggle-completed", todoId)
+                        .header("If-Match", "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testToggleCompleted_ConcurrentWriteWithoutIfMatch_Conflict() throws Exception {
+        Long todoId = 1L;
+        when(todoService.toggleCompleted(todoId, null))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Todo.class, todoId));
+
+        // No precondition was sent, so none can have failed
+        mockMvc.perform(patch("/todos/{id}/toggle-completed", todoId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status", is(409)));
     }
 
     @Test
@@ -432,7 +541,7 @@ public class TodoControllerTest {
         mockMvc.perform(patch("/todos/{id}/toggle-completed", 1L))
                 .andExpect(status().isForbidden());
 
-        verify(todoService, never()).toggleCompleted(anyLong());
+        verify(todoService, never()).toggleCompleted(anyLong(), any());
     }
 
      @Test
@@ -441,7 +550,51 @@ public class TodoControllerTest {
         mockMvc.perform(patch("/todos/{id}/toggle-completed", 1L))
                 .andExpect(status().isUnauthorized());
 
-        verify(todoService, never()).toggleCompleted(anyLong());
+        verify(todoService, never()).toggleCompleted(anyLong(), any());
+    }
+
+    // --- Test PATCH /todos/{id}/move ---
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testMoveTodo_Success() throws Exception {
+        Long todoId = 1L;
+        MoveTodoRequest moveRequest = new MoveTodoRequest(10L, 2L, 3L);
+        todoResponse1.setVersion(4L);
+        todoResponse1.setRank("Vk");
+        when(todoService.moveTodo(todoId, moveRequest, Set.of(3L))).thenReturn(todoResponse1);
+
+        mockMvc.perform(patch("/todos/{id}/move", todoId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank", is("Vk")))
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(todoService, times(1)).moveTodo(todoId, moveRequest, Set.of(3L));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testMoveTodo_NeighbourInOtherFolder_BadRequest() throws Exception {
+        when(todoService.moveTodo(eq(1L), any(MoveTodoRequest.class), isNull()))
+                .thenThrow(new BadRequestException("Todo 2 is not in the target folder"));
+
+        mockMvc.perform(patch("/todos/{id}/move", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MoveTodoRequest(null, 2L, null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser // Missing authority
+    void testMoveTodo_Forbidden() throws Exception {
+        mockMvc.perform(patch("/todos/{id}/move", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        verify(todoService, never()).moveTodo(anyLong(), any(), any());
     }
 
     // --- Test DELETE /todos/{id} ---
@@ -449,12 +602,12 @@ public class TodoControllerTest {
     @WithMockUser(authorities = PermissionConstants.TODOS_OWN_DELETE)
     void testDeleteTodo_Success() throws Exception {
         Long todoId = 1L;
-        doNothing().when(todoService).deleteTodo(todoId);
+        doNothing().when(todoService).deleteTodo(todoId, null);
 
         mockMvc.perform(delete("/todos/{id}", todoId))
                 .andExpect(status().isNoContent()); // Expect 204 No Content
 
-        verify(todoService, times(1)).deleteTodo(todoId);
+        verify(todoService, times(1)).deleteTodo(todoId, null);
     }
 
     @Test
@@ -462,12 +615,12 @@ public class TodoControllerTest {
     void testDeleteTodo_NotFound() throws Exception {
         Long nonExistentTodoId = 99L;
         // Mock service to throw exception when todo not found
-        doThrow(new ResourceNotFoundException("Todo not found")).when(todoService).deleteTodo(nonExistentTodoId);
+        doThrow(new ResourceNotFoundException("Todo not found")).when(todoService).deleteTodo(nonExistentTodoId, null);
 
         mockMvc.perform(delete("/todos/{id}", nonExistentTodoId))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).deleteTodo(nonExistentTodoId);
+        verify(todoService, times(1)).deleteTodo(nonExistentTodoId, null);
     }
 
     @Test
@@ -476,7 +629,7 @@ public class TodoControllerTest {
         mockMvc.perform(delete("/todos/{id}", 1L))
                 .andExpect(status().isForbidden());
 
-        verify(todoService, never()).deleteTodo(anyLong());
+        verify(todoService, never()).deleteTodo(anyLong(), any());
     }
 
      @Test
@@ -485,7 +638,7 @@ public class TodoControllerTest {
         mockMvc.perform(delete("/todos/{id}", 1L))
                 .andExpect(status().isUnauthorized());
 
-        verify(todoService, never()).deleteTodo(anyLong());
+        verify(todoService, never()).deleteTodo(anyLong(), any());
     }
 
     // --- Test PUT /todos/{id}/toggle-disabled ---
@@ -494,26 +647,26 @@ public class TodoControllerTest {
     void testToggleDisabled_Success() throws Exception {
         Long todoId = 1L;
         MessageResponse response = new MessageResponse("Todo successfully disabled");
-        when(todoService.toggleTodoDisabledStatus(todoId)).thenReturn(response);
+        when(todoService.toggleTodoDisabledStatus(todoId, null)).thenReturn(response);
 
         mockMvc.perform(put("/todos/{id}/toggle-disabled", todoId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is(response.getMessage())));
 
-        verify(todoService, times(1)).toggleTodoDisabledStatus(todoId);
+        verify(todoService, times(1)).toggleTodoDisabledStatus(todoId, null);
     }
 
     @Test
     @WithMockUser(authorities = PermissionConstants.TODOS_OTHERS_BAN)
     void testToggleDisabled_NotFound() throws Exception {
          Long nonExistentTodoId = 99L;
-        when(todoService.toggleTodoDisabledStatus(nonExistentTodoId))
+        when(todoService.toggleTodoDisabledStatus(nonExistentTodoId, null))
             .thenThrow(new ResourceNotFoundException("Todo not found"));
 
         mockMvc.perform(put("/todos/{id}/toggle-disabled", nonExistentTodoId))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).toggleTodoDisabledStatus(nonExistentTodoId);
+        verify(todoService, times(1)).toggleTodoDisabledStatus(nonExistentTodoId, null);
     }
 
     @Test
@@ -522,7 +675,7 @@ public class TodoControllerTest {
         mockMvc.perform(put("/todos/{id}/toggle-disabled", 1L))
                 .andExpect(status().isForbidden());
 
-        verify(todoService, never()).toggleTodoDisabledStatus(anyLong());
+        verify(todoService, never()).toggleTodoDisabledStatus(anyLong(), any());
     }
 
     @Test
@@ -531,6 +684,141 @@ public class TodoControllerTest {
         mockMvc.perform(put("/todos/{id}/toggle-disabled", 1L))
                 .andExpect(status().isUnauthorized());
 
-        verify(todoService, never()).toggleTodoDisabledStatus(anyLong());
+        verify(todoService, never()).toggleTodoDisabledStatus(anyLong(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTodos_ByTags_Success() throws Exception {
+        when(todoService.getTodosByTagsIfModified(isNull(), eq(List.of("work", "home")), eq(TagMatch.ANY), any()))
+                .thenAnswer(invocation -> invocation.<LongPredicate>getArgument(3).test(7L) ? null : folderTodos);
+
+        mockMvc.perform(get("/todos").param("tags", "work,home").param("mode", "any"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("ETag",
+                        "\"todos-any-" + Integer.toHexString("work,home".hashCode()) + "-7\""));
+
+        verify(todoService, never()).getTodosIfModified(any(), anyBoolean(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTodos_ByTags_InvalidMode_BadRequest() throws Exception {
+        mockMvc.perform(get("/todos").param("tags", "work").param("mode", "some"))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).getTodosByTagsIfModified(any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTodos_ByTags_WithArchived_BadRequest() throws Exception {
+        mockMvc.perform(get("/todos").param("tags", "work").param("includeArchived", "true"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testSetTags_Success() throws Exception {
+        todoResponse1.setTagIds(List.of(3L, 5L));
+        todoResponse1.setVersion(2L);
+        when(todoService.setTags(eq(1L), any(TodoTagsRequest.class), eq(Set.of(1L)))).thenReturn(todoResponse1);
+
+        mockMvc.perform(put("/todos/{id}/tags", 1L)
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoTagsRequest(List.of(5L, 3L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tagIds", hasSize(2)))
+                .andExpect(header().string("ETag", "\"2\""));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testSetTags_MissingTagIds_BadRequest() throws Exception {
+        mockMvc.perform(put("/todos/{id}/tags", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).setTags(anyLong(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_EDIT)
+    void testSetTags_UnknownTag_NotFound() throws Exception {
+        when(todoService.setTags(eq(1L), any(TodoTagsRequest.class), isNull()))
+                .thenThrow(new ResourceNotFoundException("Tag not found among ids: [9]"));
+
+        mockMvc.perform(put("/todos/{id}/tags", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoTagsRequest(List.of(9L)))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchTodos_Success() throws Exception {
+        when(todoService.searchTodos("milk", null, null, 20))
+                .thenReturn(new CursorPage<>(currentUserTodos, "next"));
+
+        mockMvc.perform(get("/todos/search").param("q", "milk"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+
+        verify(todoService, times(1)).searchTodos("milk", null, null, 20);
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchTodos_InvalidCursor_BadRequest() throws Exception {
+        when(todoService.searchTodos("milk", null, "bad", 20)).thenThrow(new BadRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/todos/search").param("q", "milk").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void testSearchTodos_Unauthorized() throws Exception {
+        mockMvc.perform(get("/todos/search").param("q", "milk"))
+                .andExpect(status().isUnauthorized());
+
+        verify(todoService, never()).searchTodos(any(), any(), any(), anyInt());
+    }
+
+    // Applies the controller's not-modified check to the given change stamp, as the service does
+    private static Answer<List<TodoResponse>> changeStamp(long changeStamp, List<TodoResponse> todos) {
+        return invocation -> invocation.<LongPredicate>getArgument(2).test(changeStamp) ? null : todos;
+    }
+
+    // --- Test POST /todos/{id}/report ---
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_VIEW)
+    void testReportTodo_Success() throws Exception {
+        when(todoService.reportTodo(eq(3L), any(TodoReportRequest.class)))
+                .thenReturn(new MessageResponse("Todo reported for moderation"));
+
+        mockMvc.perform(post("/todos/{id}/report", 3L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reason\":\"spam\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("Todo reported for moderation")));
+
+        verify(todoService).reportTodo(eq(3L), argThat(request -> "spam".equals(request.getReason())));
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.TODOS_OWN_VIEW)
+    void testReportTodo_ReasonTooLong_BadRequest() throws Exception {
+        mockMvc.perform(post("/todos/{id}/report", 3L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoReportRequest("x".repeat(201)))))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).reportTodo(anyLong(), any());
     }
-}
\ No newline at end of file
+}
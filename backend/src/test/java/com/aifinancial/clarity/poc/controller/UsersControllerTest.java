@@ -4,6 +4,8 @@ import com.aifinancial.clarity.poc.config.SecurityConfig;
 import com.aifinancial.clarity.poc.config.WebConfig;
 import com.aifinancial.clarity.poc.dto.request.RoleUpdateRequest;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
+import com.aifinancial.clarity.poc.dto.response.UserSummaryResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
 import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
@@ -32,6 +34,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -264,4 +267,37 @@ public class UsersControllerTest {
 
         verify(adminService, never()).updateUserRole(any(RoleUpdateRequest.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.USERS_VIEW)
+    void testSearchUsers_Success() throws Exception {
+        UserSummaryResponse summary = new UserSummaryResponse(1L, "john_doe", "john@example.com", RoleConstants.ROLE_NORMAL);
+        when(adminService.searchUsers("john", 0, 20)).thenReturn(new SliceResponse<>(List.of(summary), 0, 20, false));
+
+        mockMvc.perform(get("/api/users/search").param("q", "john"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].username", is("john_doe")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        verify(adminService, times(1)).searchUsers("john", 0, 20);
+    }
+
+    @Test
+    @WithMockUser(authorities = PermissionConstants.USERS_VIEW)
+    void testSearchUsers_QueryTooShort_BadRequest() throws Exception {
+        when(adminService.searchUsers("ab", 0, 20)).thenThrow(new BadRequestException("Search query too short"));
+
+        mockMvc.perform(get("/api/users/search").param("q", "ab"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchUsers_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/users/search").param("q", "john"))
+                .andExpect(status().isForbidden());
+
+        verify(adminService, never()).searchUsers(any(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,127 @@
+package com.aifinancial.clarity.poc.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private ReplicaHealthMonitor healthMonitor;
+    private ReadYourWritesTracker readYourWritesTracker;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", mock(DataSource.class));
+        replicas.put("replica-1", mock(DataSource.class));
+        healthMonitor = new ReplicaHealthMonitor(replicas, 1000);
+        healthMonitor.updateStatus("replica-0", true, 0);
+        healthMonitor.updateStatus("replica-1", true, 0);
+
+        readYourWritesTracker = new ReadYourWritesTracker(5000, now::get);
+        routingDataSource = new ReplicaRoutingDataSource(healthMonitor, readYourWritesTracker);
+
+        UserDetailsImpl user = new UserDetailsImpl(42L, "user", "user@example.com", "password", Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions are spread across healthy replicas")
+    void readOnlyTransaction_RoutesToReplicasRoundRobin() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+
+        assertTrue(first.toString().startsWith("replica-"));
+        assertTrue(second.toString().startsWith("replica-"));
+        assertFalse(first.equals(second));
+    }
+
+    @Test
+    @DisplayName("Read-write transactions go to the primary")
+    void readWriteTransaction_RoutesToPrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Reads fall back to the primary when no replica is healthy")
+    void readOnlyTransaction_AllReplicasDown_RoutesToPrimary() {
+        healthMonitor.updateStatus("replica-0", false, -1);
+        healthMonitor.updateStatus("replica-1", false, -1);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Lagging replicas are skipped")
+    void readOnlyTransaction_LaggingReplica_IsSkipped() {
+        healthMonitor.updateStatus("replica-0", true, 5000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        }
+    }
+
+    @Test
+    @DisplayName("A user's reads stay on the primary during the read-your-writes window")
+    void readAfterOwnWrite_RoutesToPrimaryUntilWindowPasses() {
+        // Write transaction records the user's write
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        now.addAndGet(5000);
+        assertTrue(routingDataSource.determineCurrentLookupKey().toString().startsWith("replica-"));
+    }
+
+    @Test
+    @DisplayName("Other users are not pinned by someone else's write")
+    void readAfterOtherUsersWrite_RoutesToReplica() {
+        readYourWritesTracker.recordWrite(7L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertTrue(routingDataSource.determineCurrentLookupKey().toString().startsWith("replica-"));
+    }
+
+    @Test
+    @DisplayName("Expired write records are evicted")
+    void evictExpired_RemovesPassedWindows() {
+        readYourWritesTracker.recordWrite(7L);
+        now.addAndGet(5000);
+        readYourWritesTracker.evictExpired();
+
+        assertFalse(readYourWritesTracker.isWithinWindow(7L));
+    }
+}
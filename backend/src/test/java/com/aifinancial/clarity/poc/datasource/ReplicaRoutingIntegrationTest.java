@@ -0,0 +1,107 @@
+package com.aifinancial.clarity.poc.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+
+/**
+ * Runs the routing DataSource against two independent Postgres containers standing in for a primary and a replica.
+ * Each database knows its own name, so the query result shows where a transaction was routed.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    private ReplicaHealthMonitor healthMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    static void createMarkers() {
+        new JdbcTemplate(dataSourceFor(primary)).execute("CREATE TABLE node AS SELECT 'primary'::text AS name");
+        new JdbcTemplate(dataSourceFor(replica)).execute("CREATE TABLE node AS SELECT 'replica'::text AS name");
+    }
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", dataSourceFor(replica));
+        healthMonitor = new ReplicaHealthMonitor(replicas, 1000);
+        healthMonitor.checkReplicas();
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(healthMonitor, new ReadYourWritesTracker(60_000));
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(ReplicaRoutingDataSource.PRIMARY, dataSourceFor(primary));
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        UserDetailsImpl user = new UserDetailsImpl(1L, "user", "user@example.com", "password", java.util.List.of());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesUseThePrimary() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readsAfterOwnWriteStayOnThePrimary() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        healthMonitor.updateStatus("replica-0", false, -1);
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource dataSourceFor(PostgreSQLContainer<?> container) {
+        return new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+}
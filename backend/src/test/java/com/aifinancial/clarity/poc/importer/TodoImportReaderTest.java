@@ -0,0 +1,98 @@
+package com.aifinancial.clarity.poc.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TodoImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<TodoImportRecord> records = new ArrayList<>();
+    private final List<ImportRowException> errors = new ArrayList<>();
+
+    private void readAll(DataFormat format, String content) throws IOException {
+        try (TodoImportReader reader = TodoImportReader.open(format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper)) {
+            while (true) {
+                try {
+                    TodoImportRecord record = reader.next();
+                    if (record == null) {
+                        return;
+                    }
+                    records.add(record);
+                } catch (ImportRowException e) {
+                    errors.add(e);
+                }
+            }
+        }
+    }
+
+    @Test
+    void csv_ParsesQuotedFieldsAndTracksStartLines() throws IOException {
+        readAll(DataFormat.CSV, "\uFEFFid,Title,description,completed,folderName\r\n"
+                + "1,\"Buy milk, eggs\",,true,Home\r\n"
+                + "2,\"Say \"\"hi\"\"\",\"two\nlines\",0,\r\n"
+                + "\r\n"
+                + "3,Last,,,Work");
+
+        assertEquals(3, records.size());
+        assertTrue(errors.isEmpty());
+
+        assertEquals(new TodoImportRecord(2, "Buy milk, eggs", null, true, "Home"), records.get(0));
+        assertEquals(new TodoImportRecord(3, "Say \"hi\"", "two\nlines", false, null), records.get(1));
+        assertEquals(new TodoImportRecord(6, "Last", null, false, "Work"), records.get(2));
+    }
+
+    @Test
+    void csv_ReportsInvalidRowsAndContinues() throws IOException {
+        readAll(DataFormat.CSV, "title,completed\n"
+                + ",true\n"
+                + "ok,maybe\n"
+                + "x".repeat(101) + ",false\n"
+                + "fine,no\n"
+                + "\"unterminated,1\n");
+
+        assertEquals(1, records.size());
+        assertEquals("fine", records.get(0).getTitle());
+        assertEquals(List.of(2L, 3L, 4L, 6L), errors.stream().map(ImportRowException::getLineNumber).toList());
+        assertEquals("Title is required", errors.get(0).getMessage());
+        assertEquals("Unterminated quoted field", errors.get(3).getMessage());
+    }
+
+    @Test
+    void csv_WithoutTitleColumn_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> readAll(DataFormat.CSV, "name,completed\nfoo,true\n"));
+    }
+
+    @Test
+    void ndjson_ParsesObjectsAndReportsBadLines() throws IOException {
+        readAll(DataFormat.NDJSON, "{\"title\":\"a\",\"completed\":true,\"folderName\":\"Home\"}\n"
+                + "not json\n"
+                + "\n"
+                + "[1,2]\n"
+                + "{\"title\":\"b\",\"description\":null,\"folder\":\"Work\",\"id\":7}\n");
+
+        assertEquals(2, records.size());
+        assertEquals(new TodoImportRecord(1, "a", null, true, "Home"), records.get(0));
+        TodoImportRecord second = records.get(1);
+        assertEquals(5, second.getLineNumber());
+        assertFalse(second.isCompleted());
+        assertNull(second.getDescription());
+        assertEquals("Work", second.getFolderName());
+        assertEquals(List.of(2L, 4L), errors.stream().map(ImportRowException::getLineNumber).toList());
+    }
+}
@@ -0,0 +1,206 @@
+package com.aifinancial.clarity.poc.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+
+/**
+ * Runs the real migrations and checks that the materializer expands daily and weekly rules into
+ * todos below the existing ones, including those appended while it waited for the rank lock,
+ * records their outbox events, never creates an occurrence twice, even once archived, stops at the
+ * end date and leaves templates claimed by another node alone.
+ */
+class RecurringTodoMaterializerJobIntegrationTest extends PostgresIntegrationTest {
+
+    private List<Object> events;
+    private Long userId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        events = new ArrayList<>();
+        jdbcTemplate.execute("TRUNCATE outbox");
+        userId = insertUser("recurring");
+        today = jdbcTemplate.queryForObject("SELECT (now() AT TIME ZONE 'UTC')::date", LocalDate.class);
+    }
+
+    @Test
+    void materializesTheLookaheadOnceBelowExistingTodos() {
+        jdbcTemplate.update("INSERT INTO todos (title, completed, user_id, rank) VALUES ('existing', false, ?, 'm')", userId);
+        Long template = insertTemplate("DAILY", 1, 0, today, null);
+
+        RecurringTodoMaterializerJob job = newJob(100);
+        assertEquals(8, job.materialize());
+        assertEquals(List.of(new TodoStatsInvalidatedEvent(userId)), events);
+        // Not due again until the refresh interval has passed
+        assertEquals(0, job.materialize());
+
+        List<String> titles = jdbcTemplate.queryForList("SELECT title FROM todos WHERE user_id = ? ORDER BY rank", String.class, userId);
+        assertEquals("existing", titles.get(0));
+        assertEquals(List.of(today, today.plusDays(7)), jdbcTemplate.queryForList(
+                "SELECT occurrence_on FROM todos WHERE template_id = ? AND occurrence_on IN (?, ?) ORDER BY rank", LocalDate.class,
+                template, today, today.plusDays(7)));
+        assertEquals(today.plusDays(8), nextOccurrenceOn(template));
+        List<Long> created = jdbcTemplate.queryForList("SELECT id FROM todos WHERE template_id = ? ORDER BY id", Long.class, template);
+
+        // A second run over the same dates, e.g. by another node, creates nothing
+        jdbcTemplate.update("UPDATE todo_templates SET next_occurrence_on = ?, materialize_at = now() WHERE id = ?", today, template);
+        assertEquals(0, job.materialize());
+        assertEquals(8, count("SELECT count(*) FROM todos WHERE template_id = " + template));
+        assertEquals(created, jdbcTemplate.queryForList(
+                "SELECT aggregate_id FROM outbox WHERE event_type = 'TODO_CREATED' ORDER BY aggregate_id", Long.class));
+        assertEquals(8, job.getMaterializedTodos());
+        assertEquals(2, job.getProcessedTemplates());
+    }
+
+    @Test
+    void ranksBelowTodosAppendedWhileWaitingForTheRankLock() throws Exception {
+        insertTemplate("DAILY", 1, 0, today, null);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("SELECT pg_advisory_xact_lock(" + userId + ")");
+
+            Future<Integer> run = executor.submit(() -> newJob(100).materialize());
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (count("SELECT count(*) FROM pg_locks WHERE locktype = 'advisory' AND NOT granted") == 0) {
+                assertTrue(System.currentTimeMillis() < deadline, "the job never waited for the rank lock");
+                Thread.sleep(20);
+            }
+            connection.createStatement().execute(
+                    "INSERT INTO todos (title, completed, user_id, rank) VALUES ('late', false, " + userId + ", 'z')");
+            connection.commit();
+
+            assertEquals(8, run.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        List<String> titles = jdbcTemplate.queryForList("SELECT title FROM todos WHERE user_id = ? ORDER BY rank", String.class, userId);
+        assertEquals("late", titles.get(0));
+    }
+
+    @Test
+    void doesNotRecreateArchivedOccurrences() {
+        Long template = insertTemplate("DAILY", 1, 0, today, null);
+        RecurringTodoMaterializerJob job = newJob(100);
+        job.materialize();
+        jdbcTemplate.update("UPDATE todos SET completed = true WHERE template_id = ? AND occurrence_on = ?", template, today);
+        new TodoArchiveJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), events::add, Duration.ZERO, 100, 10).archive();
+        assertEquals(1, count("SELECT count(*) FROM todos_archive WHERE template_id = %d AND occurrence_on = '%s'"
+                .formatted(template, today)));
+
+        jdbcTemplate.update("UPDATE todo_templates SET next_occurrence_on = ?, materialize_at = now() WHERE id = ?", today, template);
+        assertEquals(0, job.materialize());
+        assertEquals(0, count("SELECT count(*) FROM todos WHERE template_id = %d AND occurrence_on = '%s'".formatted(template, today)));
+    }
+
+    @Test
+    void followsIntervalsAndWeekdays() {
+        // Every other day, and Mondays and Thursdays of every other week
+        Long daily = insertTemplate("DAILY", 2, 0, today, null);
+        Long weekly = insertTemplate("WEEKLY", 2, 0b1001, today.minusDays(14), null);
+
+        newJob(100).materialize();
+
+        assertEquals(4, count("SELECT count(*) FROM todos WHERE template_id = " + daily));
+        List<LocalDate> expected = new ArrayList<>();
+        for (LocalDate d = today; !d.isAfter(today.plusDays(7)); d = d.plusDays(1)) {
+            boolean evenWeek = ((d.toEpochDay() - today.minusDays(14).toEpochDay()) / 7) % 2 == 0;
+            if (evenWeek && (d.getDayOfWeek() == DayOfWeek.MONDAY || d.getDayOfWeek() == DayOfWeek.THURSDAY)) {
+                expected.add(d);
+            }
+        }
+        assertEquals(expected, jdbcTemplate.queryForList(
+                "SELECT occurrence_on FROM todos WHERE template_id = ? ORDER BY occurrence_on", LocalDate.class, weekly));
+    }
+
+    @Test
+    void dueTimesAreLocalToTheTemplateTimeZone() {
+        Long template = insertTemplate("DAILY", 1, 0, today, null);
+        jdbcTemplate.update("UPDATE todo_templates SET due_time = '09:30', time_zone = 'America/New_York' WHERE id = ?", template);
+
+        newJob(100).materialize();
+
+        assertEquals(0, count("""
+                SELECT count(*) FROM todos
+                WHERE template_id = %d AND due_at <> (occurrence_on + time '09:30') AT TIME ZONE 'America/New_York'
+                """.formatted(template)));
+        assertEquals(1, count("SELECT count(DISTINCT (due_at AT TIME ZONE 'America/New_York')::time) FROM todos WHERE template_id = " + template));
+    }
+
+    @Test
+    void stopsAtTheEndDate() {
+        Long template = insertTemplate("DAILY", 1, 0, today, today.plusDays(2));
+
+        assertEquals(3, newJob(100).materialize());
+        assertNull(nextOccurrenceOn(template));
+        jdbcTemplate.update("UPDATE todo_templates SET materialize_at = now() WHERE id = ?", template);
+        assertEquals(0, newJob(100).materialize());
+    }
+
+    @Test
+    void processesDueTemplatesInBatches() {
+        for (int i = 0; i < 5; i++) {
+            insertTemplate("DAILY", 7, 0, today, null);
+        }
+        RecurringTodoMaterializerJob job = newJob(2);
+
+        assertEquals(10, job.materialize());
+        assertEquals(5, job.getProcessedTemplates());
+        assertEquals(3, job.getBatches());
+    }
+
+    @Test
+    void skipsTemplatesLockedByAnotherNode() throws Exception {
+        Long locked = insertTemplate("DAILY", 1, 0, today, null);
+        Long free = insertTemplate("DAILY", 1, 0, today, null);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("SELECT id FROM todo_templates WHERE id = " + locked + " FOR UPDATE");
+
+            assertEquals(8, newJob(100).materialize());
+
+            connection.rollback();
+        }
+        assertEquals(0, count("SELECT count(*) FROM todos WHERE template_id = " + locked));
+        assertEquals(8, count("SELECT count(*) FROM todos WHERE template_id = " + free));
+        assertEquals(8, newJob(100).materialize());
+    }
+
+    private Long insertTemplate(String frequency, int interval, int weekdays, LocalDate startsOn, LocalDate endsOn) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO todo_templates (user_id, title, frequency, interval_count, weekdays, starts_on, ends_on, next_occurrence_on)
+                VALUES (?, ?, ?, ?, ?, ?, ?, greatest(?, (now() AT TIME ZONE 'UTC')::date))
+                RETURNING id
+                """, Long.class, userId, frequency.toLowerCase(), frequency, interval, weekdays, startsOn, endsOn, startsOn);
+    }
+
+    private LocalDate nextOccurrenceOn(Long template) {
+        return jdbcTemplate.queryForObject("SELECT next_occurrence_on FROM todo_templates WHERE id = ?", LocalDate.class, template);
+    }
+
+    // Seven days ahead, due again after 12 to 36 hours
+    private RecurringTodoMaterializerJob newJob(int batchSize) {
+        return new RecurringTodoMaterializerJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), events::add,
+                7, Duration.ofDays(1), batchSize, 10);
+    }
+}
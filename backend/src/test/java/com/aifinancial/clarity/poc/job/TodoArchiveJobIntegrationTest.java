@@ -0,0 +1,83 @@
+package com.aifinancial.clarity.poc.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+
+/**
+ * Runs the real migrations and checks that the archive job moves only old completed todos,
+ * keeps the counters exact and skips rows another transaction holds locked.
+ */
+class TodoArchiveJobIntegrationTest extends PostgresIntegrationTest {
+
+    private List<Object> events;
+    private Long userId;
+    private Long folderId;
+
+    @BeforeEach
+    void setUp() {
+        events = new ArrayList<>();
+        jdbcTemplate.execute("TRUNCATE outbox");
+        userId = insertUser("archiver");
+        folderId = jdbcTemplate.queryForObject(
+                "INSERT INTO folders (name, user_id) VALUES ('done', ?) RETURNING id", Long.class, userId);
+
+        // Five old completed todos, one old open todo and one recently completed todo
+        jdbcTemplate.update("""
+                INSERT INTO todos (title, completed, user_id, folder_id, updated_at, rank, due_at)
+                SELECT 'old ' || g, true, ?, ?, now() - interval '200 days', 'r' || g, now() - interval '210 days'
+                FROM generate_series(1, 5) g
+                """, userId, folderId);
+        jdbcTemplate.update("INSERT INTO todos (title, completed, user_id, updated_at) VALUES ('open', false, ?, now() - interval '200 days')",
+                userId);
+        jdbcTemplate.update("INSERT INTO todos (title, completed, user_id, folder_id) VALUES ('recent', true, ?, ?)", userId, folderId);
+    }
+
+    @Test
+    void movesOldCompletedTodosInBatches() {
+        List<Long> oldIds = jdbcTemplate.queryForList("SELECT id FROM todos WHERE title LIKE 'old%' ORDER BY id", Long.class);
+
+        assertEquals(5, newJob().archive());
+
+        assertEquals(oldIds, jdbcTemplate.queryForList("SELECT id FROM todos_archive ORDER BY id", Long.class));
+        assertEquals(List.of("r1", "r2", "r3", "r4", "r5"), jdbcTemplate.queryForList("SELECT rank FROM todos_archive ORDER BY id", String.class));
+        assertEquals(5, count("SELECT count(*) FROM todos_archive WHERE due_at < now() - interval '209 days'"));
+        assertEquals(2, count("SELECT count(*) FROM todos"));
+        assertEquals(2, count("SELECT todo_count FROM user_todo_stats WHERE user_id = " + userId));
+        assertEquals(1, count("SELECT todo_count FROM folders WHERE id = " + folderId));
+        assertEquals(List.of(new TodoStatsInvalidatedEvent(userId)), events.stream().distinct().toList());
+        assertEquals(oldIds, jdbcTemplate.queryForList(
+                "SELECT aggregate_id FROM outbox WHERE event_type = 'TODO_ARCHIVED' ORDER BY aggregate_id", Long.class));
+        assertEquals(0, newJob().archive());
+    }
+
+    @Test
+    void skipsRowsLockedByAnotherTransaction() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute(
+                    "SELECT id FROM todos WHERE title = 'old 1' FOR UPDATE");
+
+            assertEquals(4, newJob().archive());
+
+            connection.rollback();
+        }
+        assertEquals(1, newJob().archive());
+        assertEquals(5, count("SELECT count(*) FROM todos_archive"));
+    }
+
+    private TodoArchiveJob newJob() {
+        return new TodoArchiveJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), events::add,
+                Duration.ofDays(90), 2, 100);
+    }
+}
@@ -0,0 +1,204 @@
+package com.aifinancial.clarity.poc.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and hammers the todos table from several threads, then checks the
+ * trigger-maintained counters against a full recount.
+ */
+class TodoCountersIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int USERS = 3;
+    private static final int FOLDERS_PER_USER = 3;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 100;
+
+    private static final String FOLDER_DRIFT_SQL = """
+            SELECT count(*) FROM folders f
+            LEFT JOIN (
+                SELECT folder_id, count(*) AS todo_count,
+                       count(*) FILTER (WHERE completed) AS completed_count,
+                       count(*) FILTER (WHERE disabled) AS disabled_count
+                FROM todos GROUP BY folder_id
+            ) c ON c.folder_id = f.id
+            WHERE (f.todo_count, f.completed_count, f.disabled_count)
+                  IS DISTINCT FROM (coalesce(c.todo_count, 0), coalesce(c.completed_count, 0), coalesce(c.disabled_count, 0))
+            """;
+
+    private static final String USER_DRIFT_SQL = """
+            SELECT count(*) FROM users u
+            LEFT JOIN user_todo_stats s ON s.user_id = u.id
+            LEFT JOIN (
+                SELECT user_id, count(*) AS todo_count,
+                       count(*) FILTER (WHERE completed) AS completed_count,
+                       count(*) FILTER (WHERE disabled) AS disabled_count
+                FROM todos GROUP BY user_id
+            ) c ON c.user_id = u.id
+            WHERE (coalesce(s.todo_count, 0), coalesce(s.completed_count, 0), coalesce(s.disabled_count, 0))
+                  IS DISTINCT FROM (coalesce(c.todo_count, 0), coalesce(c.completed_count, 0), coalesce(c.disabled_count, 0))
+            """;
+
+    private TransactionTemplate transactionTemplate;
+    private List<Long> userIds;
+    private Map<Long, List<Long>> folderIdsByUser;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        userIds = new ArrayList<>();
+        folderIdsByUser = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            Long userId = insertUser("user" + i);
+            userIds.add(userId);
+            List<Long> folderIds = new ArrayList<>();
+            for (int j = 0; j < FOLDERS_PER_USER; j++) {
+                folderIds.add(insertFolder("folder" + j, userId, null));
+            }
+            folderIdsByUser.put(userId, folderIds);
+        }
+    }
+
+    @Test
+    void countersStayExactUnderConcurrentWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(this::runRandomOperations));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, drift(FOLDER_DRIFT_SQL));
+        assertEquals(0, drift(USER_DRIFT_SQL));
+        assertEquals(0, newJob().reconcile());
+    }
+
+    @Test
+    void reconciliationRepairsDriftedCounters() {
+        Long userId = userIds.get(0);
+        Long folderId = folderIdsByUser.get(userId).get(0);
+        jdbcTemplate.update("INSERT INTO todos (title, completed, user_id, folder_id) VALUES ('a', true, ?, ?), ('b', false, ?, ?)",
+                userId, folderId, userId, folderId);
+
+        jdbcTemplate.update("UPDATE folders SET todo_count = 42, completed_count = -1 WHERE id = ?", folderId);
+        jdbcTemplate.update("DELETE FROM user_todo_stats WHERE user_id = ?", userId);
+
+        assertEquals(2, newJob().reconcile());
+        assertEquals(0, drift(FOLDER_DRIFT_SQL));
+        assertEquals(0, drift(USER_DRIFT_SQL));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT todo_count FROM folders WHERE id = ?", Integer.class, folderId));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT completed_count FROM user_todo_stats WHERE user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    void changeStampMovesOnEveryWriteOfTheOwner() {
+        Long userId = userIds.get(0);
+        Long otherUserId = userIds.get(1);
+        Long folderId = folderIdsByUser.get(userId).get(0);
+        long otherStamp = changeStamp(otherUserId);
+
+        long created = bumped(userId, () -> jdbcTemplate.update(
+                "INSERT INTO todos (title, user_id, folder_id) VALUES ('a', ?, ?)", userId, folderId));
+        // Leaves every counter as it was
+        long retitled = bumped(userId, () -> jdbcTemplate.update("UPDATE todos SET title = 'b' WHERE user_id = ?", userId));
+        long renamed = bumped(userId, () -> jdbcTemplate.update("UPDATE folders SET name = 'renamed' WHERE id = ?", folderId));
+        jdbcTemplate.update("UPDATE folders SET todo_count = 42 WHERE id = ?", folderId);
+        long reconciled = bumped(userId, () -> newJob().reconcile());
+        long deleted = bumped(userId, () -> jdbcTemplate.update("DELETE FROM folders WHERE id = ?", folderId));
+
+        assertEquals(List.of(created, retitled, renamed, reconciled, deleted),
+                List.of(created, retitled, renamed, reconciled, deleted).stream().sorted().distinct().toList());
+        assertEquals(otherStamp, changeStamp(otherUserId));
+    }
+
+    private void runRandomOperations() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            Long userId = userIds.get(random.nextInt(userIds.size()));
+            List<Long> folderIds = folderIdsByUser.get(userId);
+            Long folderId = random.nextInt(5) == 0 ? null : folderIds.get(random.nextInt(folderIds.size()));
+            Long targetFolderId = folderIds.get(random.nextInt(folderIds.size()));
+            int operation = random.nextInt(5);
+            try {
+                runOperation(operation, userId, folderId, targetFolderId);
+            } catch (PessimisticLockingFailureException e) {
+                // Random multi-row updates can deadlock on todo row locks; the loser rolls back with no counter effect
+            }
+        }
+    }
+
+    private void runOperation(int operation, Long userId, Long folderId, Long targetFolderId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        transactionTemplate.executeWithoutResult(status -> {
+            switch (operation) {
+                case 0 -> jdbcTemplate.update(
+                        "INSERT INTO todos (title, completed, disabled, user_id, folder_id) VALUES ('t', ?, ?, ?, ?)",
+                        random.nextBoolean(), random.nextBoolean(), userId, folderId);
+                case 1 -> jdbcTemplate.update("""
+                        UPDATE todos SET completed = NOT completed
+                        WHERE id IN (SELECT id FROM todos WHERE user_id = ? ORDER BY random() LIMIT 3)
+                        """, userId);
+                case 2 -> jdbcTemplate.update("""
+                        UPDATE todos SET folder_id = ?, disabled = NOT disabled
+                        WHERE id IN (SELECT id FROM todos WHERE user_id = ? ORDER BY random() LIMIT 2)
+                        """, targetFolderId, userId);
+                case 3 -> jdbcTemplate.update(
+                        "DELETE FROM todos WHERE id IN (SELECT id FROM todos WHERE user_id = ? ORDER BY random() LIMIT 1)",
+                        userId);
+                default -> {
+                    // Several statements in one transaction, including a bulk insert
+                    jdbcTemplate.update("""
+                            INSERT INTO todos (title, completed, user_id, folder_id)
+                            SELECT 'bulk', g % 2 = 0, ?, ? FROM generate_series(1, 20) g
+                            """, userId, targetFolderId);
+                    jdbcTemplate.update("UPDATE todos SET folder_id = NULL WHERE user_id = ? AND folder_id = ? AND completed",
+                            userId, targetFolderId);
+                }
+            }
+        });
+    }
+
+    // Runs the write and checks it moved the user's change stamp forward
+    private long bumped(Long userId, Runnable write) {
+        long before = changeStamp(userId);
+        write.run();
+        long after = changeStamp(userId);
+        assertTrue(after > before, "change stamp did not move: " + before + " -> " + after);
+        return after;
+    }
+
+    private long changeStamp(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT change_stamp FROM user_todo_stats WHERE user_id = ?", Long.class, userId);
+    }
+
+    private CounterReconciliationJob newJob() {
+        return new CounterReconciliationJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), 2);
+    }
+
+    private int drift(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
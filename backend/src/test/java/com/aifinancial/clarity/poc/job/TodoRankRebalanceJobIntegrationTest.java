@@ -0,0 +1,101 @@
+package com.aifinancial.clarity.poc.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and checks that rebalancing respaces only folders holding a long rank,
+ * keeps their order, bumps the versions it rewrites with an outbox event for each, and that
+ * todo_rank_key() produces ordered keys.
+ */
+class TodoRankRebalanceJobIntegrationTest extends PostgresIntegrationTest {
+
+    private Long userId;
+    private Long folderId;
+    private Long otherFolderId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE outbox");
+        userId = insertUser("ranker");
+        folderId = jdbcTemplate.queryForObject(
+                "INSERT INTO folders (name, user_id) VALUES ('crowded', ?) RETURNING id", Long.class, userId);
+        otherFolderId = jdbcTemplate.queryForObject(
+                "INSERT INTO folders (name, user_id) VALUES ('tidy', ?) RETURNING id", Long.class, userId);
+
+        // Keys as left behind by many moves into the gap just below 'V', in both a folder and among unfiled todos
+        String longKey = "V" + "1".repeat(40);
+        for (Long folder : new Long[] { folderId, null }) {
+            jdbcTemplate.update("""
+                    INSERT INTO todos (title, user_id, folder_id, rank, updated_at)
+                    VALUES ('first', ?, ?, 'A', now() - interval '1 day'), ('second', ?, ?, 'V', now() - interval '1 day'),
+                           ('third', ?, ?, ?, now() - interval '1 day'), ('fourth', ?, ?, 'k', now() - interval '1 day')
+                    """, userId, folder, userId, folder, userId, folder, longKey, userId, folder);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO todos (title, user_id, folder_id, rank, updated_at)
+                VALUES ('x', ?, ?, 'F', now() - interval '1 day'), ('y', ?, ?, 'FV', now() - interval '1 day')
+                """, userId, otherFolderId, userId, otherFolderId);
+    }
+
+    @Test
+    void respacesFoldersWithLongRanksKeepingTheirOrder() {
+        assertEquals(8, newJob().rebalance());
+
+        List<String> order = List.of("first", "second", "third", "fourth");
+        assertEquals(order, titles("folder_id = " + folderId));
+        assertEquals(order, titles("folder_id IS NULL"));
+        assertTrue(jdbcTemplate.queryForObject("SELECT max(length(rank)) FROM todos", Integer.class) <= 2);
+        // Rewritten rows are stamped for /sync; the tidy folder is left alone
+        assertEquals(8, count("SELECT count(*) FROM todos WHERE updated_at > now() - interval '1 hour'"));
+        assertEquals(List.of("F", "FV"), jdbcTemplate.queryForList(
+                "SELECT rank FROM todos WHERE folder_id = ? ORDER BY rank", String.class, otherFolderId));
+        assertEquals(8, count("SELECT count(*) FROM todos WHERE version = 1"));
+        assertEquals(8, count("SELECT count(*) FROM outbox o JOIN todos t ON t.id = o.aggregate_id "
+                + "WHERE o.event_type = 'TODO_UPDATED' AND (o.payload ->> 'version')::int = t.version"));
+
+        assertEquals(0, newJob().rebalance());
+    }
+
+    @Test
+    void staleWriteAfterRebalanceFailsItsVersionCheck() {
+        Long third = jdbcTemplate.queryForObject(
+                "SELECT id FROM todos WHERE title = 'third' AND folder_id = ?", Long.class, folderId);
+        String staleRank = jdbcTemplate.queryForObject("SELECT rank FROM todos WHERE id = ?", String.class, third);
+
+        newJob().rebalance();
+
+        // The versioned UPDATE Hibernate issues for a toggle of the todo as loaded before the rebalance
+        assertEquals(0, jdbcTemplate.update(
+                "UPDATE todos SET completed = true, rank = ?, version = 1 WHERE id = ? AND version = 0", staleRank, third));
+        assertTrue(jdbcTemplate.queryForObject("SELECT length(rank) FROM todos WHERE id = ?", Integer.class, third) <= 2);
+    }
+
+    @Test
+    void rankKeysAreEvenlySpacedAndOrdered() {
+        List<String> keys = jdbcTemplate.queryForList(
+                "SELECT todo_rank_key(g, 5000) FROM generate_series(1, 5000) g ORDER BY g", String.class);
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " >= " + keys.get(i));
+            assertTrue(!keys.get(i).endsWith("0") && keys.get(i).length() <= 4, keys.get(i));
+        }
+    }
+
+    private TodoRankRebalanceJob newJob() {
+        return new TodoRankRebalanceJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), 32, 100);
+    }
+
+    private List<String> titles(String condition) {
+        return jdbcTemplate.queryForList(
+                "SELECT title FROM todos WHERE user_id = ? AND " + condition + " ORDER BY rank, id", String.class, userId);
+    }
+}
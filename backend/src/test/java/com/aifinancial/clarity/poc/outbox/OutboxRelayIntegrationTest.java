@@ -0,0 +1,111 @@
+package com.aifinancial.clarity.poc.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and checks that the relay delivers events in order and removes them,
+ * backs off after a failing sink and skips events another relay holds locked.
+ */
+class OutboxRelayIntegrationTest extends PostgresIntegrationTest {
+
+    private List<Long> delivered;
+
+    @BeforeEach
+    void setUp() {
+        delivered = new ArrayList<>();
+        jdbcTemplate.execute("TRUNCATE outbox");
+        jdbcTemplate.update("""
+                INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload)
+                SELECT 'TODO', g, 'TODO_CREATED', jsonb_build_object('id', g) FROM generate_series(1, 5) g
+                """);
+    }
+
+    @Test
+    void deliversEventsInOrderAndRemovesThem() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM outbox ORDER BY id", Long.class);
+        OutboxRelay relay = newRelay(recordingSink());
+
+        assertEquals(5, relay.relay());
+
+        assertEquals(ids, delivered);
+        assertEquals(0, count("SELECT count(*) FROM outbox"));
+        assertEquals(5, relay.getDeliveredEvents());
+        assertTrue(relay.getLastDeliveryLagMs() >= 0);
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void backsOffAfterAFailingSink() {
+        OutboxSink failing = new OutboxSink() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public void publish(List<OutboxMessage> messages) throws Exception {
+                throw new IllegalStateException("broker down");
+            }
+        };
+        OutboxRelay relay = newRelay(recordingSink(), failing);
+
+        assertEquals(0, relay.relay());
+
+        assertEquals(1, relay.getFailedBatches());
+        assertEquals(5, count("SELECT count(*) FROM outbox"));
+        assertEquals(2, count("SELECT count(*) FROM outbox WHERE attempts = 1 AND next_attempt_at > now() AND last_error = 'failing: broker down'"));
+        // The failed batch is not due yet; the events behind it still go out
+        assertEquals(3, newRelay(recordingSink()).relay());
+        assertEquals(2, count("SELECT count(*) FROM outbox"));
+
+        jdbcTemplate.update("UPDATE outbox SET next_attempt_at = now()");
+        assertEquals(2, newRelay(recordingSink()).relay());
+        assertEquals(0, count("SELECT count(*) FROM outbox"));
+    }
+
+    @Test
+    void skipsEventsLockedByAnotherRelay() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute(
+                    "SELECT id FROM outbox WHERE aggregate_id = 1 FOR UPDATE");
+
+            assertEquals(4, newRelay(recordingSink()).relay());
+
+            connection.rollback();
+        }
+        assertEquals(1, newRelay(recordingSink()).relay());
+        assertEquals(0, count("SELECT count(*) FROM outbox"));
+    }
+
+    private OutboxSink recordingSink() {
+        return new OutboxSink() {
+            @Override
+            public String getName() {
+                return "recording";
+            }
+
+            @Override
+            public void publish(List<OutboxMessage> messages) {
+                messages.forEach(message -> delivered.add(message.id()));
+            }
+        };
+    }
+
+    private OutboxRelay newRelay(OutboxSink... sinks) {
+        return new OutboxRelay(jdbcTemplate, new DataSourceTransactionManager(dataSource), List.of(sinks),
+                2, 100, Duration.ofMinutes(1), Duration.ofMinutes(5));
+    }
+}
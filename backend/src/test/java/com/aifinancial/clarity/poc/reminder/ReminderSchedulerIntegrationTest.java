@@ -0,0 +1,265 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+import com.aifinancial.clarity.poc.event.TodoDueDateChangedEvent;
+
+/**
+ * Runs the real migrations and checks that the due-date triggers keep todo_reminders in step, and
+ * that the scheduler fires reminders on time, follows moved due dates, picks up writes that commit
+ * out of order, retries after a failing sink, leaves reminders locked by another node alone and
+ * never makes committing threads wait for a delivery.
+ */
+class ReminderSchedulerIntegrationTest extends PostgresIntegrationTest {
+
+    private List<Long> delivered;
+    private Long userId;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        delivered = new ArrayList<>();
+        userId = insertUser("reminded");
+        // Whole seconds, so due dates fall on tick boundaries
+        now = System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    @Test
+    void triggersArmMoveAndCancelReminders() {
+        Long todo = insertDueTodo("call", now + 60_000);
+        insertDueTodo("undated", null);
+        insertDueTodo("overdue", now - 60_000);
+        String txid = jdbcTemplate.queryForObject("SELECT change_txid::text FROM todo_reminders WHERE todo_id = ?", String.class, todo);
+        assertEquals(1, count("SELECT count(*) FROM todo_reminders"));
+
+        jdbcTemplate.update("UPDATE todos SET due_at = ? WHERE id = ?", new Timestamp(now + 120_000), todo);
+        assertEquals(now + 120_000, count("SELECT (extract(epoch FROM due_at) * 1000)::bigint FROM todo_reminders WHERE todo_id = " + todo));
+        assertEquals(1, count("SELECT count(*) FROM todo_reminders WHERE change_txid > '" + txid + "'::xid8"));
+
+        jdbcTemplate.update("UPDATE todos SET completed = true WHERE id = ?", todo);
+        assertEquals(0, count("SELECT count(*) FROM todo_reminders"));
+        jdbcTemplate.update("UPDATE todos SET completed = false WHERE id = ?", todo);
+        assertEquals(1, count("SELECT count(*) FROM todo_reminders"));
+        jdbcTemplate.update("DELETE FROM todos WHERE id = ?", todo);
+        assertEquals(0, count("SELECT count(*) FROM todo_reminders"));
+    }
+
+    @Test
+    void firesOnTheDueTickAndRemovesTheReminder() {
+        Long first = insertDueTodo("first", now + 30_000);
+        Long second = insertDueTodo("second", now + 45_000);
+        insertDueTodo("later", now + 3_600_000);
+        ReminderScheduler scheduler = newScheduler(recordingSink());
+
+        assertEquals(0, scheduler.tick(now));
+        assertEquals(2, scheduler.getScheduledReminders());
+        assertEquals(0, scheduler.tick(now + 29_900));
+        assertEquals(1, scheduler.tick(now + 30_000));
+        assertEquals(1, scheduler.tick(now + 50_000));
+
+        assertEquals(List.of(first, second), delivered);
+        assertEquals(1, count("SELECT count(*) FROM todo_reminders"));
+        assertEquals(2, scheduler.getFiredReminders());
+    }
+
+    @Test
+    void followsDueDatesChangedAfterTheyWereScheduled() {
+        Long moved = insertDueTodo("moved", now + 30_000);
+        ReminderScheduler scheduler = newScheduler(recordingSink());
+        scheduler.tick(now);
+
+        jdbcTemplate.update("UPDATE todos SET due_at = ? WHERE id = ?", new Timestamp(now + 40_000), moved);
+        Long added = insertDueTodo("added", now + 35_000);
+
+        // The stale entry fires, but the claim finds the reminder not due yet
+        assertEquals(0, scheduler.tick(now + 30_000));
+        assertEquals(1, scheduler.tick(now + 35_000));
+        assertEquals(1, scheduler.tick(now + 40_000));
+        assertEquals(List.of(added, moved), delivered);
+    }
+
+    @Test
+    void picksUpAWriterThatCommitsAfterALaterOne() throws Exception {
+        Long otherUser = insertUser("reminded-late");
+        ReminderScheduler scheduler = newScheduler(recordingSink());
+        scheduler.tick(now);
+
+        Long late;
+        Long early;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            // The first writer starts before the second and commits after the refill that reads the second
+            ResultSet inserted = connection.createStatement().executeQuery(
+                    "INSERT INTO todos (title, completed, user_id, due_at) VALUES ('late', false, " + otherUser
+                    + ", to_timestamp(" + (now + 30_000) / 1000 + ")) RETURNING id");
+            inserted.next();
+            late = inserted.getLong(1);
+            early = insertDueTodo("early", now + 35_000);
+
+            scheduler.tick(now + 2_000);
+            connection.commit();
+        }
+        scheduler.tick(now + 4_000);
+
+        assertEquals(1, scheduler.tick(now + 30_000));
+        assertEquals(1, scheduler.tick(now + 35_000));
+        assertEquals(List.of(late, early), delivered);
+    }
+
+    @Test
+    void schedulesLocallyWrittenDueDatesWithinTheLoadedWindowOnTheNextTick() {
+        ReminderScheduler scheduler = newScheduler(recordingSink());
+        scheduler.tick(now);
+
+        scheduler.onDueDateChanged(new TodoDueDateChangedEvent(1L, at(now + 30_000)));
+        scheduler.onDueDateChanged(new TodoDueDateChangedEvent(2L, at(now + 3_600_000)));
+        assertEquals(0, scheduler.getScheduledReminders());
+        scheduler.tick(now + 100);
+        assertEquals(1, scheduler.getScheduledReminders());
+    }
+
+    @Test
+    void dueDateChangesDoNotWaitForATickThatIsDelivering() throws Exception {
+        insertDueTodo("slow", now + 30_000);
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReminderSink blockingSink = new ReminderSink() {
+            @Override
+            public String getName() {
+                return "blocking";
+            }
+
+            @Override
+            public void deliver(List<Reminder> reminders) {
+                delivering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ReminderScheduler scheduler = newScheduler(blockingSink);
+        scheduler.tick(now);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> tick = executor.submit(() -> scheduler.tick(now + 30_000));
+            assertTrue(delivering.await(10, TimeUnit.SECONDS));
+
+            // Neither call needs the tick to finish
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                scheduler.onDueDateChanged(new TodoDueDateChangedEvent(1L, at(now + 60_000)));
+                scheduler.getScheduledReminders();
+            });
+            release.countDown();
+            assertEquals(1, tick.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retriesAfterAFailingSink() {
+        Long todo = insertDueTodo("flaky", now + 30_000);
+        boolean[] failing = {true};
+        ReminderSink sink = new ReminderSink() {
+            @Override
+            public String getName() {
+                return "flaky";
+            }
+
+            @Override
+            public void deliver(List<Reminder> reminders) {
+                if (failing[0]) {
+                    throw new IllegalStateException("push service down");
+                }
+                reminders.forEach(reminder -> delivered.add(reminder.todoId()));
+            }
+        };
+        ReminderScheduler scheduler = newScheduler(sink);
+        scheduler.tick(now);
+
+        assertEquals(0, scheduler.tick(now + 30_000));
+        assertEquals(1, scheduler.getFailedBatches());
+        assertEquals(1, count("SELECT count(*) FROM todo_reminders"));
+
+        failing[0] = false;
+        assertEquals(0, scheduler.tick(now + 30_500));
+        assertEquals(1, scheduler.tick(now + 31_000));
+        assertEquals(List.of(todo), delivered);
+    }
+
+    @Test
+    void leavesRemindersLockedByAnotherNodeAndPicksThemUpWhenOverdue() throws Exception {
+        Long locked = insertDueTodo("locked", now + 30_000);
+        Long free = insertDueTodo("free", now + 30_000);
+        ReminderScheduler scheduler = newScheduler(recordingSink());
+        scheduler.tick(now);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("SELECT todo_id FROM todo_reminders WHERE todo_id = " + locked + " FOR UPDATE");
+
+            assertEquals(1, scheduler.tick(now + 30_000));
+
+            connection.rollback();
+        }
+        // The other node gave up its claim; the overdue sweep of a later refill finds the reminder
+        assertEquals(0, scheduler.tick(now + 31_000));
+        assertEquals(1, scheduler.tick(now + 36_000));
+        assertEquals(List.of(free, locked), delivered);
+    }
+
+    private Long insertDueTodo(String title, Long dueAtMs) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO todos (title, completed, user_id, due_at) VALUES (?, false, ?, ?) RETURNING id", Long.class,
+                title, userId, dueAtMs != null ? new Timestamp(dueAtMs) : null);
+    }
+
+    private static OffsetDateTime at(long epochMs) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneOffset.UTC);
+    }
+
+    private ReminderSink recordingSink() {
+        return new ReminderSink() {
+            @Override
+            public String getName() {
+                return "recording";
+            }
+
+            @Override
+            public void deliver(List<Reminder> reminders) {
+                reminders.forEach(reminder -> delivered.add(reminder.todoId()));
+            }
+        };
+    }
+
+    // 100 ms ticks, refills every 2 s, overdue after 5 s, retries after 1 s
+    private ReminderScheduler newScheduler(ReminderSink... sinks) {
+        return new ReminderScheduler(jdbcTemplate, new DataSourceTransactionManager(dataSource), List.of(sinks),
+                100, 8, Duration.ofMinutes(10), 2_000, Duration.ofSeconds(5), Duration.ofSeconds(1), 500);
+    }
+}
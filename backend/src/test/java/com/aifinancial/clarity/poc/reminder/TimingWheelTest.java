@@ -0,0 +1,77 @@
+package com.aifinancial.clarity.poc.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    @Test
+    void expiresItemsOnTheFirstTickAtOrAfterTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1_000);
+        assertTrue(wheel.add("a", 1_250));
+        assertTrue(wheel.add("b", 1_300));
+
+        assertEquals(List.of(), wheel.advance(1_299));
+        assertEquals(List.of("a", "b"), wheel.advance(1_300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rejectsDeadlinesAlreadyReached() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1_000);
+        wheel.advance(1_150);
+
+        assertFalse(wheel.add("late", 1_100));
+        assertFalse(wheel.add("now", 1_000));
+        assertTrue(wheel.add("next", 1_101));
+        assertEquals(List.of("next"), wheel.advance(1_200));
+    }
+
+    @Test
+    void cascadesDeadlinesBeyondTheFirstLevel() {
+        // Level 0 spans 4 ticks, level 1 16, level 2 64
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 4, 0);
+        wheel.add(50, 50);
+        wheel.add(5, 5);
+        wheel.add(17, 17);
+        wheel.add(63, 63);
+        wheel.add(1_000, 1_000);
+
+        assertEquals(List.of(5), wheel.advance(16));
+        assertEquals(List.of(17), wheel.advance(17));
+        assertEquals(List.of(50, 63), wheel.advance(999));
+        assertEquals(List.of(1_000), wheel.advance(1_000));
+    }
+
+    @Test
+    void matchesASortedScheduleForRandomDeadlines() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 16, 0);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = 1 + random.nextInt(2_000_000);
+            deadlines.add(deadline);
+            wheel.add(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 2_000_000; now += 1 + random.nextInt(5_000)) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(deadline > now - 5_010, "fired late");
+                fired.add(deadline);
+            }
+        }
+        fired.addAll(wheel.advance(2_000_000));
+
+        assertEquals(deadlines.stream().sorted().toList(), fired.stream().sorted().toList());
+        assertEquals(0, wheel.size());
+    }
+}
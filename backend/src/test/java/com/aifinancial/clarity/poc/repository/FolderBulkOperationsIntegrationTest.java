@@ -0,0 +1,135 @@
+package com.aifinancial.clarity.poc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and checks that folder duplication copies the whole subtree with its
+ * todos and tags in one statement, and that moving a folder's todos appends them to the target
+ * in order, with the triggers keeping paths, counters and tag ids exact, and that deleting a
+ * folder records events for everything its delete cascades to.
+ */
+class FolderBulkOperationsIntegrationTest extends PostgresIntegrationTest {
+
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    private Long userId;
+    private Long root;
+    private Long child;
+    private Long target;
+    private Long tag;
+
+    @BeforeEach
+    void setUp() {
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        jdbcTemplate.execute("TRUNCATE outbox");
+
+        userId = insertUser("bulk");
+        root = insertFolder("projects", userId, null);
+        child = insertFolder("archive", userId, root);
+        target = insertFolder("inbox", userId, null);
+        insertTodo("first", root, "a");
+        insertTodo("second", root, "b");
+        insertTodo("old", child, "a");
+        insertTodo("waiting", target, "x");
+        tag = jdbcTemplate.queryForObject("INSERT INTO tags (name, user_id) VALUES ('work', ?) RETURNING id", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO todo_tags (user_id, todo_id, tag_id) SELECT user_id, id, ? FROM todos WHERE title = 'second'", tag);
+    }
+
+    @Test
+    void duplicatesTheSubtreeWithTodosAndTags() {
+        Long copy = duplicate(root);
+
+        assertEquals("projects (copy)", jdbcTemplate.queryForObject("SELECT name FROM folders WHERE id = ?", String.class, copy));
+        Long childCopy = jdbcTemplate.queryForObject("SELECT id FROM folders WHERE parent_id = ?", Long.class, copy);
+        assertEquals(copy + "." + childCopy, jdbcTemplate.queryForObject("SELECT path::text FROM folders WHERE id = ?", String.class, childCopy));
+        assertEquals(List.of("first", "second"), titlesIn(copy));
+        assertEquals(List.of("old"), titlesIn(childCopy));
+        assertEquals(List.of(2L, 1L), jdbcTemplate.queryForList(
+                "SELECT todo_count::bigint FROM folders WHERE id IN (?, ?) ORDER BY id", Long.class, copy, childCopy));
+        assertEquals(2, count("SELECT count(*) FROM todo_tags"));
+        assertEquals(1, count("SELECT count(*) FROM todos WHERE folder_id = " + copy + " AND tag_ids = ARRAY[" + tag + "]::bigint[]"));
+        assertEquals(7, count("SELECT todo_count FROM user_todo_stats WHERE user_id = " + userId));
+        // Two FOLDER_CREATED and three TODO_CREATED
+        assertEquals(List.of(2L, 3L), jdbcTemplate.queryForList(
+                "SELECT count(*) FROM outbox GROUP BY aggregate_type ORDER BY aggregate_type", Long.class));
+        // The original is untouched
+        assertEquals(List.of("first", "second"), titlesIn(root));
+    }
+
+    @Test
+    void duplicatesASubfolderUnderTheSameParent() {
+        Long copy = duplicate(child);
+
+        assertEquals(root, jdbcTemplate.queryForObject("SELECT parent_id FROM folders WHERE id = ?", Long.class, copy));
+        assertEquals(root + "." + copy, jdbcTemplate.queryForObject("SELECT path::text FROM folders WHERE id = ?", String.class, copy));
+        assertEquals(List.of("old"), titlesIn(copy));
+    }
+
+    @Test
+    void movesTodosBelowTheTargetsTodosInOrder() {
+        assertEquals(2, move(root, target));
+
+        assertEquals(List.of("waiting", "first", "second"), titlesIn(target));
+        assertEquals(List.of(), titlesIn(root));
+        assertEquals(List.of(0L, 3L), jdbcTemplate.queryForList(
+                "SELECT todo_count::bigint FROM folders WHERE id IN (?, ?) ORDER BY id", Long.class, root, target));
+        // The tagged todo keeps its tag; every moved todo gets a new version and an event
+        assertEquals(1, count("SELECT count(*) FROM todos WHERE folder_id = " + target + " AND tag_ids = ARRAY[" + tag + "]::bigint[]"));
+        assertEquals(0, count("SELECT count(*) FROM todos WHERE title IN ('first', 'second') AND version = 0"));
+        assertEquals(2, count("SELECT count(*) FROM outbox WHERE event_type = 'TODO_UPDATED' AND payload ->> 'folderId' = '" + target + "'"));
+        // Subfolders and their todos stay where they are
+        assertEquals(List.of("old"), titlesIn(child));
+    }
+
+    @Test
+    void movesTodosOutOfAnyFolder() {
+        insertTodo("loose", null, "m");
+
+        assertEquals(1, move(child, null));
+
+        assertEquals(List.of("loose", "old"), jdbcTemplate.queryForList(
+                "SELECT title FROM todos WHERE folder_id IS NULL ORDER BY rank", String.class));
+        assertEquals(0, move(child, null));
+    }
+
+    @Test
+    void recordsEventsForTheWholeDeletedSubtree() {
+        namedJdbcTemplate.update(FolderRepository.RECORD_SUBTREE_DELETED_SQL, new MapSqlParameterSource("rootId", root));
+        jdbcTemplate.update("DELETE FROM folders WHERE id = ?", root);
+
+        assertEquals(List.of(root, child), jdbcTemplate.queryForList(
+                "SELECT aggregate_id FROM outbox WHERE event_type = 'FOLDER_DELETED' ORDER BY aggregate_id", Long.class));
+        assertEquals(List.of("first", "old", "second"), jdbcTemplate.queryForList(
+                "SELECT payload ->> 'title' FROM outbox WHERE event_type = 'TODO_DELETED' ORDER BY 1", String.class));
+        // Every event is for a row that is gone
+        assertEquals(0, count("SELECT count(*) FROM outbox o JOIN todos t ON t.id = o.aggregate_id WHERE o.aggregate_type = 'TODO'"));
+        assertEquals(List.of("waiting"), titlesIn(target));
+    }
+
+    private Long duplicate(Long folderId) {
+        return namedJdbcTemplate.queryForObject(FolderRepository.DUPLICATE_SUBTREE_SQL,
+                new MapSqlParameterSource().addValue("rootId", folderId).addValue("ownerId", userId), Long.class);
+    }
+
+    private int move(Long sourceId, Long targetId) {
+        return namedJdbcTemplate.queryForObject(TodoRepository.MOVE_FOLDER_TODOS_SQL, new MapSqlParameterSource()
+                .addValue("ownerId", userId).addValue("sourceId", sourceId).addValue("targetId", targetId), Integer.class);
+    }
+
+    private void insertTodo(String title, Long folderId, String rank) {
+        jdbcTemplate.update("INSERT INTO todos (title, completed, user_id, folder_id, rank) VALUES (?, false, ?, ?, ?)",
+                title, userId, folderId, rank);
+    }
+
+    private List<String> titlesIn(Long folderId) {
+        return jdbcTemplate.queryForList("SELECT title FROM todos WHERE folder_id = ? ORDER BY rank", String.class, folderId);
+    }
+}
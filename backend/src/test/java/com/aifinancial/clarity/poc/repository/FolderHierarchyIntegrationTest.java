@@ -0,0 +1,93 @@
+package com.aifinancial.clarity.poc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and checks that the folder path triggers keep folders.path in step
+ * with parent_id, move whole subtrees and reject cycles and foreign parents.
+ */
+class FolderHierarchyIntegrationTest extends PostgresIntegrationTest {
+
+    private Long userId;
+    private Long root;
+    private Long child;
+    private Long grandchild;
+    private Long otherRoot;
+
+    @BeforeEach
+    void setUp() {
+        userId = insertUser("nester");
+        root = insertFolder("root", userId, null);
+        child = insertFolder("child", userId, root);
+        grandchild = insertFolder("grandchild", userId, child);
+        otherRoot = insertFolder("other", userId, null);
+        jdbcTemplate.update("INSERT INTO todos (title, completed, user_id, folder_id) VALUES ('a', true, ?, ?), ('b', false, ?, ?)",
+                userId, child, userId, grandchild);
+    }
+
+    @Test
+    void insertsGetTheirParentsPath() {
+        assertEquals(root + "." + child + "." + grandchild, path(grandchild));
+        assertEquals(List.of(root, child, grandchild), subtree(root));
+    }
+
+    @Test
+    void movingAFolderReRootsItsSubtreeOnly() {
+        jdbcTemplate.update("UPDATE folders SET parent_id = ? WHERE id = ?", otherRoot, child);
+
+        assertEquals(otherRoot + "." + child + "." + grandchild, path(grandchild));
+        assertEquals(List.of(root), subtree(root));
+        assertEquals(List.of(child, grandchild, otherRoot), subtree(otherRoot));
+
+        jdbcTemplate.update("UPDATE folders SET parent_id = NULL WHERE id = ?", child);
+        assertEquals(child + "." + grandchild, path(grandchild));
+    }
+
+    @Test
+    void renamingKeepsThePath() {
+        jdbcTemplate.update("UPDATE folders SET name = 'renamed', parent_id = parent_id WHERE id = ?", child);
+
+        assertEquals(root + "." + child + "." + grandchild, path(grandchild));
+    }
+
+    @Test
+    void rejectsCyclesAndParentsOfOtherUsers() {
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.update("UPDATE folders SET parent_id = ? WHERE id = ?", grandchild, root));
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.update("UPDATE folders SET parent_id = ? WHERE id = ?", root, root));
+
+        Long stranger = insertUser("stranger");
+        assertThrows(DataAccessException.class, () -> insertFolder("intruder", stranger, root));
+        assertEquals(root + "." + child + "." + grandchild, path(grandchild));
+    }
+
+    @Test
+    void deletingAFolderDeletesItsSubtreeAndKeepsCountersExact() {
+        assertEquals(2, count("SELECT sum(todo_count) FROM folders WHERE path <@ (SELECT path FROM folders WHERE id = " + root + ")"));
+
+        jdbcTemplate.update("DELETE FROM folders WHERE id = ?", root);
+
+        assertEquals(1, count("SELECT count(*) FROM folders"));
+        assertEquals(0, count("SELECT count(*) FROM todos"));
+        assertEquals(0, count("SELECT todo_count FROM user_todo_stats WHERE user_id = " + userId));
+    }
+
+    private String path(Long folderId) {
+        return jdbcTemplate.queryForObject("SELECT path::text FROM folders WHERE id = ?", String.class, folderId);
+    }
+
+    private List<Long> subtree(Long rootId) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM folders WHERE path <@ (SELECT path FROM folders WHERE id = ?) ORDER BY id", Long.class, rootId);
+    }
+}
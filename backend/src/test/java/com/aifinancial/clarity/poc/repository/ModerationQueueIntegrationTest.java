@@ -0,0 +1,169 @@
+package com.aifinancial.clarity.poc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and checks that rule hits and reports fill the moderation queue once
+ * per todo and count each reporter once, that concurrent claims skip each other's items instead
+ * of waiting, that expired leases are handed out again, and that a bulk resolve disables the
+ * todos in one statement.
+ */
+class ModerationQueueIntegrationTest extends PostgresIntegrationTest {
+
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    private Long userId;
+    private Long moderator;
+    private Long otherModerator;
+
+    @BeforeEach
+    void setUp() {
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        jdbcTemplate.execute("TRUNCATE outbox");
+        jdbcTemplate.execute("TRUNCATE moderation_rules");
+
+        userId = insertUser("writer", "NORMAL");
+        moderator = insertUser("mod1", "MODERATOR");
+        otherModerator = insertUser("mod2", "MODERATOR");
+    }
+
+    @Test
+    void queuesRuleHitsOncePerTodoWhenTheirTextIsWritten() {
+        jdbcTemplate.update("INSERT INTO moderation_rules (keyword) VALUES ('casino'), ('poker')");
+        Long hit = insertTodo("Casino and poker night");
+        Long clean = insertTodo("groceries");
+        jdbcTemplate.update("INSERT INTO todos (title, completed, disabled, user_id) VALUES ('casino', false, true, ?)", userId);
+
+        assertEquals(List.of(hit), pendingTodoIds());
+        assertEquals("casino", jdbcTemplate.queryForObject("SELECT detail FROM moderation_queue", String.class));
+
+        // Edits that leave the text alone queue nothing, nor does a second hit of a pending todo
+        jdbcTemplate.update("UPDATE todos SET completed = true, rank = 'z' WHERE user_id = ?", userId);
+        jdbcTemplate.update("UPDATE todos SET title = 'more poker' WHERE id = ?", hit);
+        assertEquals(List.of(hit), pendingTodoIds());
+
+        jdbcTemplate.update("UPDATE todos SET description = 'and some POKER chips' WHERE id = ?", clean);
+        assertEquals(List.of(hit, clean), pendingTodoIds());
+    }
+
+    @Test
+    void concurrentClaimsSkipEachOthersItems() throws Exception {
+        report(insertTodo("first"));
+        report(insertTodo("second"));
+        report(insertTodo("third"));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            NamedParameterJdbcTemplate first = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+            List<Map<String, Object>> claimedFirst = claim(first, moderator, 2, 300);
+            // The first claim has not committed; its rows are skipped rather than waited for
+            List<Map<String, Object>> claimedSecond = claim(namedJdbcTemplate, otherModerator, 5, 300);
+
+            assertEquals(List.of("first", "second"), claimedFirst.stream().map(row -> row.get("title")).toList());
+            assertEquals(List.of("third"), claimedSecond.stream().map(row -> row.get("title")).toList());
+            connection.commit();
+        }
+        // Leased items are not handed out again
+        assertEquals(List.of(), claim(namedJdbcTemplate, otherModerator, 5, 300));
+    }
+
+    @Test
+    void handsOutItemsAgainOnceTheLeaseExpired() {
+        report(insertTodo("slow"));
+        Long item = (Long) claim(namedJdbcTemplate, moderator, 10, 0).get(0).get("id");
+
+        assertEquals(List.of(item), claim(namedJdbcTemplate, otherModerator, 10, 300).stream().map(row -> row.get("id")).toList());
+        // The first moderator lost the item and can no longer resolve it
+        assertEquals(List.of(), resolve(moderator, List.of(item), "DISABLE"));
+        assertEquals(1, resolve(otherModerator, List.of(item), "CLEAR").size());
+    }
+
+    @Test
+    void resolvesClaimedItemsInOneStatement() {
+        Long bad = insertTodo("bad");
+        Long worse = insertTodo("worse");
+        Long fine = insertTodo("fine");
+        report(bad);
+        report(worse);
+        report(fine);
+        List<Long> items = claim(namedJdbcTemplate, moderator, 2, 300).stream().map(row -> (Long) row.get("id")).toList();
+        Long fineItem = (Long) claim(namedJdbcTemplate, moderator, 1, 300).get(0).get("id");
+
+        List<Map<String, Object>> resolved = resolve(moderator, items, "DISABLE");
+        assertEquals(List.of(true, true), resolved.stream().map(row -> row.get("disabled")).toList());
+        assertEquals(List.of(bad, worse), jdbcTemplate.queryForList(
+                "SELECT id FROM todos WHERE disabled AND version = 1 ORDER BY id", Long.class));
+        assertEquals(2, count("SELECT disabled_count FROM user_todo_stats WHERE user_id = " + userId));
+        assertEquals(2, count("SELECT count(*) FROM outbox WHERE event_type = 'TODO_UPDATED' AND payload ->> 'disabled' = 'true'"));
+
+        assertEquals(List.of(false), resolve(moderator, List.of(fineItem), "CLEAR").stream().map(row -> row.get("disabled")).toList());
+        assertEquals(0, count("SELECT count(*) FROM todos WHERE id = " + fine + " AND (disabled OR version > 0)"));
+        assertEquals(0, count("SELECT count(*) FROM moderation_queue WHERE status = 'PENDING'"));
+        // Resolving again changes nothing
+        assertEquals(List.of(), resolve(moderator, items, "DISABLE"));
+    }
+
+    @Test
+    void countsReportsOfAPendingTodoOncePerReporter() {
+        Long todo = insertTodo("spam");
+        assertEquals(1, report(todo, moderator));
+        assertEquals(1, report(todo, otherModerator));
+        assertEquals(0, report(todo, moderator));
+
+        assertEquals(2, count("SELECT report_count FROM moderation_queue WHERE status = 'PENDING'"));
+        assertEquals(1, openReports(moderator));
+
+        Long item = (Long) claim(namedJdbcTemplate, moderator, 1, 300).get(0).get("id");
+        resolve(moderator, List.of(item), "CLEAR");
+        assertEquals(0, openReports(moderator));
+        report(todo);
+        assertEquals(2, count("SELECT count(*) FROM moderation_queue WHERE todo_id = " + todo));
+        assertEquals(1, count("SELECT report_count FROM moderation_queue WHERE status = 'PENDING'"));
+        assertEquals(1, openReports(moderator));
+    }
+
+    private List<Map<String, Object>> claim(NamedParameterJdbcTemplate template, Long moderatorId, int limit, long leaseSeconds) {
+        return template.queryForList(ModerationQueueRepository.CLAIM_BATCH_SQL, new MapSqlParameterSource()
+                .addValue("moderatorId", moderatorId).addValue("limit", limit).addValue("leaseSeconds", leaseSeconds));
+    }
+
+    private List<Map<String, Object>> resolve(Long moderatorId, List<Long> itemIds, String action) {
+        return namedJdbcTemplate.queryForList(ModerationQueueRepository.RESOLVE_CLAIMED_SQL, new MapSqlParameterSource()
+                .addValue("moderatorId", moderatorId).addValue("itemIds", itemIds.toArray(Long[]::new)).addValue("action", action));
+    }
+
+    private void report(Long todoId) {
+        report(todoId, moderator);
+    }
+
+    private int report(Long todoId, Long reporterId) {
+        return namedJdbcTemplate.update(ModerationQueueRepository.REPORT_SQL, new MapSqlParameterSource()
+                .addValue("todoId", todoId).addValue("ownerId", userId).addValue("reporterId", reporterId).addValue("reason", null));
+    }
+
+    private long openReports(Long reporterId) {
+        return namedJdbcTemplate.queryForObject(ModerationQueueRepository.COUNT_OPEN_REPORTS_SQL,
+                new MapSqlParameterSource("reporterId", reporterId), Long.class);
+    }
+
+    private Long insertTodo(String title) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO todos (title, completed, user_id) VALUES (?, false, ?) RETURNING id", Long.class, title, userId);
+    }
+
+    private List<Long> pendingTodoIds() {
+        return jdbcTemplate.queryForList("SELECT todo_id FROM moderation_queue WHERE status = 'PENDING' ORDER BY todo_id", Long.class);
+    }
+}
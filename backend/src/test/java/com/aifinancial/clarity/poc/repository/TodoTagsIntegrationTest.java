@@ -0,0 +1,130 @@
+package com.aifinancial.clarity.poc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+
+/**
+ * Runs the real migrations and checks that the todo_tags triggers keep todos.tag_ids in step
+ * with the links, that the events recorded before a tag is deleted match what the delete leaves
+ * behind, and that the array operators behind the tag filter match the right todos.
+ */
+class TodoTagsIntegrationTest extends PostgresIntegrationTest {
+
+    private Long userId;
+    private Long work;
+    private Long home;
+    private Long urgent;
+    private Long report;
+    private Long groceries;
+    private Long taxes;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE outbox");
+        userId = insertUser("tagger");
+        work = insertTag("work", userId);
+        home = insertTag("home", userId);
+        urgent = insertTag("urgent", userId);
+        report = insertTodo("report", userId);
+        groceries = insertTodo("groceries", userId);
+        taxes = insertTodo("taxes", userId);
+        link(report, work, urgent);
+        link(groceries, home);
+        link(taxes, home, urgent);
+    }
+
+    @Test
+    void linksAreMirroredIntoSortedTagIdsAndBumpTheVersion() {
+        assertEquals(List.of(work, urgent), tagIds(report));
+        assertEquals(1, count("SELECT version FROM todos WHERE id = " + report));
+
+        link(report, home);
+        jdbcTemplate.update("DELETE FROM todo_tags WHERE todo_id = ? AND tag_id = ?", report, work);
+
+        assertEquals(List.of(home, urgent), tagIds(report));
+        assertEquals(3, count("SELECT version FROM todos WHERE id = " + report));
+        assertEquals(List.of(home), tagIds(groceries));
+    }
+
+    @Test
+    void allAndAnyMatchThroughTheArrayOperators() {
+        assertEquals(List.of(taxes), matching("@>", home, urgent));
+        assertEquals(List.of(report, taxes), matching("@>", urgent));
+        assertEquals(List.of(report, groceries, taxes), matching("&&", work, home));
+        assertEquals(List.of(), matching("@>", work, home));
+    }
+
+    @Test
+    void rejectsTagsAndTodosOfOtherUsers() {
+        Long stranger = insertUser("stranger");
+        Long foreignTag = insertTag("work", stranger);
+        Long foreignTodo = insertTodo("foreign", stranger);
+
+        assertThrows(DataAccessException.class, () -> link(report, foreignTag));
+        assertThrows(DataAccessException.class, () -> link(foreignTodo, work));
+        assertThrows(DataAccessException.class, () -> insertTag("WORK", userId));
+        assertEquals(List.of(work, urgent), tagIds(report));
+    }
+
+    @Test
+    void deletingATagOrTodoRemovesItsLinks() {
+        jdbcTemplate.update("DELETE FROM tags WHERE id = ?", urgent);
+
+        assertEquals(List.of(work), tagIds(report));
+        assertEquals(List.of(home), tagIds(taxes));
+
+        jdbcTemplate.update("DELETE FROM todos WHERE id = ?", report);
+        assertEquals(2, count("SELECT count(*) FROM todo_tags"));
+    }
+
+    @Test
+    void eventsRecordedBeforeATagIsDeletedMatchTheRewrittenTodos() {
+        // One transaction, as in TagServiceImpl.deleteTag, so updated_at agrees with the trigger's
+        int recorded = new TransactionTemplate(new DataSourceTransactionManager(dataSource)).execute(status -> {
+            int events = new NamedParameterJdbcTemplate(jdbcTemplate).update(TagRepository.RECORD_TAG_REMOVED_SQL,
+                    new MapSqlParameterSource().addValue("ownerId", userId).addValue("tagId", urgent));
+            jdbcTemplate.update("DELETE FROM tags WHERE id = ?", urgent);
+            return events;
+        });
+
+        assertEquals(2, recorded);
+
+        assertEquals(2, count("SELECT count(*) FROM outbox o JOIN todos t ON t.id = o.aggregate_id "
+                + "WHERE o.event_type = 'TODO_UPDATED' AND o.payload = " + TodoRepository.TODO_EVENT_PAYLOAD));
+        assertEquals(List.of(report, taxes), jdbcTemplate.queryForList(
+                "SELECT aggregate_id FROM outbox ORDER BY aggregate_id", Long.class));
+    }
+
+    private Long insertTag(String name, Long ownerId) {
+        return jdbcTemplate.queryForObject("INSERT INTO tags (name, user_id) VALUES (?, ?) RETURNING id", Long.class, name, ownerId);
+    }
+
+    // One statement per call, like the repository's unnest insert
+    private void link(Long todoId, Long... tagIds) {
+        jdbcTemplate.update("""
+                INSERT INTO todo_tags (user_id, todo_id, tag_id)
+                SELECT t.user_id, t.id, u.tag_id FROM todos t, unnest(?::bigint[]) AS u(tag_id) WHERE t.id = ?
+                """, tagIds, todoId);
+    }
+
+    private List<Long> tagIds(Long todoId) {
+        return jdbcTemplate.queryForList("SELECT unnest(tag_ids) FROM todos WHERE id = ?", Long.class, todoId);
+    }
+
+    private List<Long> matching(String operator, Long... tagIds) {
+        return jdbcTemplate.queryForList("SELECT id FROM todos WHERE user_id = ? AND tag_ids " + operator + " ?::bigint[] ORDER BY id",
+                Long.class, userId, tagIds);
+    }
+}
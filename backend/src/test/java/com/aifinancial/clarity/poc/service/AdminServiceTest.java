@@ -19,19 +19,27 @@ import static org.mockito.Mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
 
 import com.aifinancial.clarity.poc.constant.RoleConstants;
 import com.aifinancial.clarity.poc.converter.UserConverter;
 import com.aifinancial.clarity.poc.dto.request.RoleUpdateRequest;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
+import com.aifinancial.clarity.poc.dto.response.UserSummaryResponse;
 import com.aifinancial.clarity.poc.dto.response.UserResponse;
+import com.aifinancial.clarity.poc.event.AuditEvent;
 import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.RoleRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.UserSummaryView;
 import com.aifinancial.clarity.poc.service.impl.AdminServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +55,12 @@ public class AdminServiceTest {
     @Mock
     private UserConverter userConverter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxRecorder outboxRecorder;
+
     @InjectMocks
     private AdminServiceImpl adminService;
 
@@ -174,6 +188,10 @@ public class AdminServiceTest {
         verify(userRepository, times(1)).save(normalUser);
         assertEquals(moderatorRoleEntity, normalUser.getRole(), "User's Role entity should be updated");
         assertEquals(targetRoleName, normalUser.getRole().getName(), "User's role name should be updated");
+        verify(outboxRecorder, times(1)).recordUserRoleChanged(normalUser, RoleConstants.ROLE_NORMAL);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AuditEvent audit
+                && AuditEvent.USER_ROLE_CHANGED.equals(audit.action()) && normalUser.getId().equals(audit.targetId())
+                && RoleConstants.ROLE_NORMAL.equals(audit.details().get("previousRole"))));
         verify(userConverter, never()).toDto(any(User.class));
     }
 
@@ -191,6 +209,7 @@ public class AdminServiceTest {
         verify(userRepository, times(1)).findById(nonExistentUserId);
         verify(roleRepository, never()).findByName(anyString());
         verify(userRepository, never()).save(any(User.class));
+        verify(outboxRecorder, never()).recordUserRoleChanged(any(User.class), any());
     }
 
     @Test
@@ -226,4 +245,52 @@ public class AdminServiceTest {
         verify(roleRepository, times(1)).findByName(targetRoleName.toUpperCase());
         verify(userRepository, never()).save(any(User.class));
     }
-} 
\ No newline at end of file
+
+    private UserSummaryView summaryView(Long id, String username, String email, String role) {
+        UserSummaryView view = mock(UserSummaryView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getUsername()).thenReturn(username);
+        when(view.getEmail()).thenReturn(email);
+        when(view.getRole()).thenReturn(role);
+        return view;
+    }
+
+    @Test
+    @DisplayName("searchUsers - Success maps projection and escapes LIKE wildcards")
+    void testSearchUsers_Success() {
+        UserSummaryView view = summaryView(7L, "john_doe", "john@example.com", RoleConstants.ROLE_NORMAL);
+        when(userRepository.searchByUsernameOrEmail("john_d%", "%john\\_d\\%%", PageRequest.of(1, 10)))
+                .thenReturn(new SliceImpl<>(List.of(view), PageRequest.of(1, 10), true));
+
+        SliceResponse<UserSummaryResponse> result = adminService.searchUsers("  john_d%  ", 1, 10);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(7L, result.getItems().get(0).getId());
+        assertEquals("john_doe", result.getItems().get(0).getUsername());
+        assertEquals(RoleConstants.ROLE_NORMAL, result.getItems().get(0).getRole());
+        assertEquals(1, result.getPage());
+        assertEquals(10, result.getSize());
+        assertTrue(result.isHasNext());
+    }
+
+    @Test
+    @DisplayName("searchUsers - Page size is capped")
+    void testSearchUsers_PageSizeCapped() {
+        when(userRepository.searchByUsernameOrEmail(anyString(), anyString(), any()))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        SliceResponse<UserSummaryResponse> result = adminService.searchUsers("john", 0, 10_000);
+
+        assertEquals(100, result.getSize());
+        verify(userRepository).searchByUsernameOrEmail("john", "%john%", PageRequest.of(0, 100));
+    }
+
+    @Test
+    @DisplayName("searchUsers - Query without a 3 character word is rejected")
+    void testSearchUsers_QueryTooShort() {
+        assertThrows(BadRequestException.class, () -> adminService.searchUsers("ab", 0, 20));
+        assertThrows(BadRequestException.class, () -> adminService.searchUsers("a.b@c", 0, 20));
+        assertThrows(BadRequestException.class, () -> adminService.searchUsers("john", -1, 20));
+        verify(userRepository, never()).searchByUsernameOrEmail(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,86 @@
+package com.aifinancial.clarity.poc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import static org.mockito.quality.Strictness.LENIENT;
+
+import com.aifinancial.clarity.poc.dto.response.CacheRegionStatisticsResponse;
+import com.aifinancial.clarity.poc.dto.response.CacheStatisticsResponse;
+import com.aifinancial.clarity.poc.service.impl.CacheStatisticsServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = LENIENT)
+public class CacheStatisticsServiceTest {
+
+    private static final String ROLE_REGION = "com.aifinancial.clarity.poc.model.Role";
+    private static final String PERMISSION_REGION = "com.aifinancial.clarity.poc.model.Permission";
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private CacheRegionStatistics roleRegionStatistics;
+
+    private CacheStatisticsServiceImpl cacheStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        // SessionFactory is itself an EntityManagerFactory, so wire the service by hand
+        cacheStatisticsService = new CacheStatisticsServiceImpl(entityManagerFactory);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[] { ROLE_REGION, PERMISSION_REGION });
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(90L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(10L);
+        when(statistics.getQueryCacheHitCount()).thenReturn(0L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(0L);
+
+        when(statistics.getCacheRegionStatistics(ROLE_REGION)).thenReturn(roleRegionStatistics);
+        when(statistics.getCacheRegionStatistics(PERMISSION_REGION)).thenReturn(null);
+        when(roleRegionStatistics.getHitCount()).thenReturn(3L);
+        when(roleRegionStatistics.getMissCount()).thenReturn(1L);
+        when(roleRegionStatistics.getPutCount()).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("Computes overall and per-region hit ratios")
+    void getCacheStatistics_ComputesHitRatios() {
+        CacheStatisticsResponse response = cacheStatisticsService.getCacheStatistics();
+
+        assertTrue(response.isStatisticsEnabled());
+        assertEquals(0.9, response.getSecondLevelCacheHitRatio(), 1e-9);
+        assertEquals(0.0, response.getQueryCacheHitRatio(), 1e-9);
+        assertEquals(2, response.getRegions().size());
+
+        // Regions are sorted by name, so Permission comes before Role
+        CacheRegionStatisticsResponse permissionRegion = response.getRegions().get(0);
+        assertEquals(PERMISSION_REGION, permissionRegion.getRegion());
+        assertEquals(0, permissionRegion.getHits());
+
+        CacheRegionStatisticsResponse roleRegion = response.getRegions().get(1);
+        assertEquals(ROLE_REGION, roleRegion.getRegion());
+        assertEquals(0.75, roleRegion.getHitRatio(), 1e-9);
+        assertEquals(1, roleRegion.getPuts());
+    }
+}
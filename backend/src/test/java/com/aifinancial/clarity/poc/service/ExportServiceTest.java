@@ -0,0 +1,158 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.aifinancial.clarity.poc.constant.DataFormat;
+import com.aifinancial.clarity.poc.dto.response.FolderExportRow;
+import com.aifinancial.clarity.poc.dto.response.TodoExportRow;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = LENIENT)
+public class ExportServiceTest {
+
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private FolderRepository folderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportServiceImpl(todoRepository, folderRepository, userRepository, objectMapper);
+        when(userRepository.existsById(2L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(Long userId, String role) {
+        UserDetailsImpl principal = new UserDetailsImpl(userId, "user" + userId, "user" + userId + "@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private TodoExportRow todoRow(Long id, String title, String description) {
+        return new TodoExportRow(id, title, description, false, false, 1L, null, null, TIMESTAMP, TIMESTAMP);
+    }
+
+    @Test
+    void resolveExportOwnerId_DefaultsToCurrentUser() {
+        authenticate(1L, "NORMAL");
+        assertEquals(1L, exportService.resolveExportOwnerId(null));
+        assertEquals(1L, exportService.resolveExportOwnerId(1L));
+    }
+
+    @Test
+    void resolveExportOwnerId_OtherUser_NormalUser_ThrowsUnauthorized() {
+        authenticate(1L, "NORMAL");
+        assertThrows(UnauthorizedException.class, () -> exportService.resolveExportOwnerId(2L));
+    }
+
+    @Test
+    void resolveExportOwnerId_OtherUser_Moderator_Succeeds() {
+        authenticate(3L, "MODERATOR");
+        assertEquals(2L, exportService.resolveExportOwnerId(2L));
+    }
+
+    @Test
+    void resolveExportOwnerId_UnknownUser_ThrowsNotFound() {
+        authenticate(3L, "SUPER_ADMIN");
+        assertThrows(ResourceNotFoundException.class, () -> exportService.resolveExportOwnerId(99L));
+    }
+
+    @Test
+    void writeTodos_Ndjson_WritesOneObjectPerLineAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(todoRepository.streamExportRowsByOwnerId(1L)).thenReturn(
+                Stream.of(todoRow(1L, "First", "line one\nline two"), todoRow(2L, "Second", null))
+                        .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeTodos(1L, DataFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"title\":\"First\",\"description\":\"line one\\nline two\""));
+        assertTrue(lines[0].contains("\"createdAt\":\"2025-01-02T03:04:05Z\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertEquals("", lines[2]);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writeTodos_Csv_QuotesFieldsThatNeedEscaping() throws Exception {
+        when(todoRepository.streamExportRowsByOwnerId(1L)).thenReturn(
+                Stream.of(todoRow(1L, "Plain", null), todoRow(2L, "Say \"hi\", then\nleave", "x")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeTodos(1L, DataFormat.CSV, out);
+
+        assertEquals("id,title,description,completed,disabled,ownerId,folderId,folderName,createdAt,updatedAt\r\n"
+                + "1,Plain,,false,false,1,,,2025-01-02T03:04:05Z,2025-01-02T03:04:05Z\r\n"
+                + "2,\"Say \"\"hi\"\", then\nleave\",x,false,false,1,,,2025-01-02T03:04:05Z,2025-01-02T03:04:05Z\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeFolders_Csv_EmptyExportWritesHeaderOnly() throws Exception {
+        when(folderRepository.streamExportRowsByOwnerId(1L)).thenReturn(Stream.<FolderExportRow>empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeFolders(1L, DataFormat.CSV, out);
+
+        assertEquals("id,name,description,ownerId,createdAt,updatedAt\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void dataFormat_FromValue_RejectsUnknownFormat() {
+        assertEquals(DataFormat.CSV, DataFormat.fromValue("csv"));
+        assertEquals(DataFormat.NDJSON, DataFormat.fromValue("NDJSON"));
+        assertThrows(BadRequestException.class, () -> DataFormat.fromValue("xml"));
+    }
+}
@@ -10,14 +10,17 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,6 +28,7 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -32,14 +36,19 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import com.aifinancial.clarity.poc.dto.request.FolderRequest;
+import com.aifinancial.clarity.poc.dto.request.MoveFolderRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.MoveTodosResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.exception.UnauthorizedException;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.Permission;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
 import com.aifinancial.clarity.poc.security.UserDetailsImpl;
 import com.aifinancial.clarity.poc.service.impl.FolderServiceImpl;
@@ -52,15 +61,24 @@ public class FolderServiceTest {
     @Mock
     private FolderRepository folderRepository;
 
+    @Mock
+    private TodoRepository todoRepository;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private SecurityContext securityContext;
 
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private OutboxRecorder outboxRecorder;
+
     @InjectMocks
     private FolderServiceImpl folderService;
 
@@ -171,6 +189,43 @@ public class FolderServiceTest {
         verify(folderRepository, times(1)).findByOwnerOrderByCreatedAtDesc(normalUser);
     }
 
+    @Test
+    void testGetCurrentUserFolders_ChildrenFollowTheirParent() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        Folder child = childOf(folder1, 3L);
+        Folder grandchild = childOf(child, 4L);
+        Folder otherRoot = childOf(null, 5L);
+        // Newest first, as read from the database
+        when(folderRepository.findByOwnerOrderByCreatedAtDesc(normalUser))
+                .thenReturn(Arrays.asList(grandchild, otherRoot, child, folder1));
+
+        List<FolderResponse> result = folderService.getCurrentUserFolders();
+
+        assertEquals(Arrays.asList(5L, 1L, 3L, 4L), result.stream().map(FolderResponse::getId).toList());
+        assertEquals(folder1.getId(), result.get(2).getParentId());
+    }
+
+    @Test
+    void testGetFoldersIfModified_StampUnchanged_ReadsNoFolders() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(userRepository.findChangeStampByUserId(normalUser.getId())).thenReturn(Optional.of(5L));
+
+        List<FolderResponse> result = folderService.getFoldersIfModified(null, changeStamp -> changeStamp == 5L);
+
+        assertNull(result);
+        verify(folderRepository, never()).findByOwnerOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void testGetFoldersIfModified_NoWritesYet_ComparesStampZero() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(userRepository.findChangeStampByUserId(normalUser.getId())).thenReturn(Optional.empty());
+
+        List<FolderResponse> result = folderService.getFoldersIfModified(null, changeStamp -> changeStamp != 0L);
+
+        assertEquals(1, result.size());
+    }
+
     @Test
     void testCreateFolder() {
         FolderRequest request = new FolderRequest();
@@ -198,6 +253,61 @@ public class FolderServiceTest {
         verify(folderRepository, times(1)).save(any(Folder.class));
     }
 
+    @Test
+    void testCreateFolder_InOtherUsersFolder_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> {
+            folderService.createFolder(new FolderRequest("Sub", null, folder2.getId()));
+        });
+
+        verify(folderRepository, never()).save(any(Folder.class));
+    }
+
+    @Test
+    void testMoveFolder_UnderParent() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        Folder target = childOf(null, 3L);
+        when(folderRepository.findById(3L)).thenReturn(Optional.of(target));
+        when(folderRepository.save(any(Folder.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        FolderResponse result = folderService.moveFolder(folder1.getId(), new MoveFolderRequest(3L), null);
+
+        assertEquals(3L, result.getParentId());
+        // The cycle check runs under the tree lock
+        InOrder order = inOrder(folderRepository);
+        order.verify(folderRepository).lockTree(normalUser.getId());
+        order.verify(folderRepository).isInSubtree(folder1.getId(), 3L);
+        order.verify(folderRepository).save(folder1);
+        verify(outboxRecorder).recordFolder(OutboxRecorder.FOLDER_UPDATED, folder1);
+    }
+
+    @Test
+    void testMoveFolder_IntoOwnSubtree_BadRequest() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        Folder child = childOf(folder1, 3L);
+        when(folderRepository.findById(3L)).thenReturn(Optional.of(child));
+        when(folderRepository.isInSubtree(folder1.getId(), 3L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> {
+            folderService.moveFolder(folder1.getId(), new MoveFolderRequest(3L), null);
+        });
+
+        verify(folderRepository, never()).save(any(Folder.class));
+    }
+
+    @Test
+    void testMoveFolder_IntoOtherUsersFolder_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> {
+            folderService.moveFolder(folder1.getId(), new MoveFolderRequest(folder2.getId()), null);
+        });
+
+        verify(folderRepository, never()).lockTree(any());
+        verify(folderRepository, never()).save(any(Folder.class));
+    }
+
     @Test
     void testUpdateFolder_Owner() {
         FolderRequest request = new FolderRequest();
@@ -215,7 +325,7 @@ public class FolderServiceTest {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
         when(folderRepository.save(any(Folder.class))).thenReturn(updatedFolder);
 
-        FolderResponse result = folderService.updateFolder(folder1.getId(), request);
+        FolderResponse result = folderService.updateFolder(folder1.getId(), request, null);
 
         assertNotNull(result);
         assertEquals(updatedFolder.getId(), result.getId());
@@ -234,7 +344,7 @@ public class FolderServiceTest {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
 
         assertThrows(UnauthorizedException.class, () -> {
-            folderService.updateFolder(folder2.getId(), request);
+            folderService.updateFolder(folder2.getId(), request, null);
         });
 
         verify(folderRepository, times(1)).findById(folder2.getId());
@@ -246,11 +356,15 @@ public class FolderServiceTest {
     void testDeleteFolder_Owner() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
 
-        folderService.deleteFolder(folder1.getId());
+        folderService.deleteFolder(folder1.getId(), null);
 
         verify(folderRepository, times(1)).findById(folder1.getId());
         verify(userRepository, times(1)).findById(normalUser.getId());
-        verify(folderRepository, times(1)).delete(folder1);
+        // Events of the whole subtree are recorded under its lock, before the cascade removes it
+        InOrder order = inOrder(folderRepository);
+        order.verify(folderRepository).lockSubtree(folder1.getId());
+        order.verify(folderRepository).recordSubtreeDeleted(folder1.getId());
+        order.verify(folderRepository).delete(folder1);
     }
 
     @Test
@@ -258,7 +372,7 @@ public class FolderServiceTest {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
 
         assertThrows(UnauthorizedException.class, () -> {
-            folderService.deleteFolder(folder2.getId());
+            folderService.deleteFolder(folder2.getId(), null);
         });
 
         verify(folderRepository, times(1)).findById(folder2.getId());
@@ -271,7 +385,7 @@ public class FolderServiceTest {
         when(authentication.getPrincipal()).thenReturn(adminUserDetails);
 
         assertDoesNotThrow(() -> {
-            folderService.deleteFolder(folder1.getId());
+            folderService.deleteFolder(folder1.getId(), null);
         });
 
         verify(folderRepository, times(1)).findById(folder1.getId());
@@ -286,10 +400,91 @@ public class FolderServiceTest {
         when(folderRepository.findById(nonExistentFolderId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
-            folderService.deleteFolder(nonExistentFolderId);
+            folderService.deleteFolder(nonExistentFolderId, null);
         });
 
         verify(folderRepository, times(1)).findById(nonExistentFolderId);
         verify(folderRepository, never()).delete(any(Folder.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testDuplicateFolder_CopiesUnderTheTreeLock() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        Folder copy = childOf(null, 7L);
+        copy.setName("Test Folder 1 (copy)");
+        when(folderRepository.duplicateSubtree(folder1.getId(), normalUser.getId())).thenReturn(7L);
+        when(folderRepository.findById(7L)).thenReturn(Optional.of(copy));
+
+        FolderResponse result = folderService.duplicateFolder(folder1.getId());
+
+        assertEquals(7L, result.getId());
+        assertEquals("Test Folder 1 (copy)", result.getName());
+        InOrder order = inOrder(folderRepository);
+        order.verify(folderRepository).lockTree(normalUser.getId());
+        order.verify(folderRepository).duplicateSubtree(folder1.getId(), normalUser.getId());
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testDuplicateFolder_OtherUsersFolder_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> folderService.duplicateFolder(folder2.getId()));
+
+        verify(folderRepository, never()).duplicateSubtree(any(), any());
+    }
+
+    @Test
+    void testMoveTodos_IntoAnotherFolderUnderTheRankLock() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(folderRepository.findById(3L)).thenReturn(Optional.of(childOf(null, 3L)));
+        when(todoRepository.moveFolderTodos(normalUser.getId(), folder1.getId(), 3L)).thenReturn(250);
+
+        MoveTodosResponse result = folderService.moveTodos(folder1.getId(), 3L);
+
+        assertEquals(250, result.getMovedCount());
+        assertEquals(3L, result.getTargetFolderId());
+        InOrder order = inOrder(todoRepository);
+        order.verify(todoRepository).lockRanks(normalUser.getId());
+        order.verify(todoRepository).moveFolderTodos(normalUser.getId(), folder1.getId(), 3L);
+    }
+
+    @Test
+    void testMoveTodos_OutOfAnyFolder() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(todoRepository.moveFolderTodos(normalUser.getId(), folder1.getId(), null)).thenReturn(2);
+
+        MoveTodosResponse result = folderService.moveTodos(folder1.getId(), null);
+
+        assertEquals(2, result.getMovedCount());
+        assertNull(result.getTargetFolderId());
+    }
+
+    @Test
+    void testMoveTodos_IntoTheSameFolder_BadRequest() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(BadRequestException.class, () -> folderService.moveTodos(folder1.getId(), folder1.getId()));
+
+        verify(todoRepository, never()).moveFolderTodos(any(), any(), any());
+    }
+
+    @Test
+    void testMoveTodos_IntoOtherUsersFolder_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> folderService.moveTodos(folder1.getId(), folder2.getId()));
+
+        verify(todoRepository, never()).lockRanks(any());
+        verify(todoRepository, never()).moveFolderTodos(any(), any(), any());
+    }
+
+    private Folder childOf(Folder parent, Long id) {
+        Folder folder = new Folder();
+        folder.setId(id);
+        folder.setName("Folder " + id);
+        folder.setOwner(normalUser);
+        folder.setParent(parent);
+        return folder;
+    }
+}
@@ -1,5 +1,7 @@
 package com.aifinancial.clarity.poc.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -11,12 +13,17 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,19 +31,46 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import static org.mockito.quality.Strictness.LENIENT;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import com.aifinancial.clarity.poc.constant.ModerationAction;
 import com.aifinancial.clarity.poc.converter.UserConverter;
+import com.aifinancial.clarity.poc.dto.request.ModerationResolveRequest;
+import com.aifinancial.clarity.poc.dto.request.ModerationRuleRequest;
 import com.aifinancial.clarity.poc.dto.response.FolderResponse;
 import com.aifinancial.clarity.poc.dto.response.MessageResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationItemResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationResolveResponse;
+import com.aifinancial.clarity.poc.dto.response.ModerationRuleResponse;
+import com.aifinancial.clarity.poc.dto.response.SliceResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.dto.response.UserOverviewResponse;
+import com.aifinancial.clarity.poc.event.AuditEvent;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
 import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.ModerationRule;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.ModerationQueueRepository;
+import com.aifinancial.clarity.poc.repository.ModerationRuleRepository;
 import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.ModerationItemView;
+import com.aifinancial.clarity.poc.repository.projection.ResolvedModerationItemView;
+import com.aifinancial.clarity.poc.repository.projection.UserOverviewView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
 import com.aifinancial.clarity.poc.service.impl.ModeratorServiceImpl;
 import com.aifinancial.clarity.poc.constant.RoleConstants;
 
@@ -56,6 +90,18 @@ public class ModeratorServiceTest {
     @Mock
     private UserConverter userConverter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxRecorder outboxRecorder;
+
+    @Mock
+    private ModerationQueueRepository moderationQueueRepository;
+
+    @Mock
+    private ModerationRuleRepository moderationRuleRepository;
+
     @InjectMocks
     private ModeratorServiceImpl moderatorService;
 
@@ -147,7 +193,7 @@ public class ModeratorServiceTest {
         when(todoRepository.findById(todo1.getId())).thenReturn(Optional.of(todo1));
         when(todoRepository.findById(todo3.getId())).thenReturn(Optional.of(todo3));
         when(folderRepository.findByOwnerOrderByCreatedAtDesc(normalUser)).thenReturn(Arrays.asList(folder1));
-        when(todoRepository.findByOwnerOrderByCreatedAtDesc(normalUser)).thenReturn(Arrays.asList(todo1, todo2));
+        when(todoRepository.findByOwnerOrderByFolderIdAscRankAscIdAsc(normalUser)).thenReturn(Arrays.asList(todo1, todo2));
     }
     
     @Test
@@ -190,7 +236,7 @@ public class ModeratorServiceTest {
         
         // Verify method calls
         verify(userRepository, times(1)).findById(normalUser.getId());
-        verify(todoRepository, times(1)).findByOwnerOrderByCreatedAtDesc(normalUser);
+        verify(todoRepository, times(1)).findByOwnerOrderByFolderIdAscRankAscIdAsc(normalUser);
     }
 
     @Test
@@ -212,6 +258,8 @@ public class ModeratorServiceTest {
         // Verify method calls
         verify(todoRepository, times(1)).findById(todo1.getId());
         verify(todoRepository, times(1)).save(todo1);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AuditEvent audit
+                && AuditEvent.TODO_DISABLED.equals(audit.action()) && todo1.getId().equals(audit.targetId())));
     }
 
     @Test
@@ -233,6 +281,8 @@ public class ModeratorServiceTest {
         // Verify method calls
         verify(todoRepository, times(1)).findById(todo3.getId());
         verify(todoRepository, times(1)).save(todo3);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AuditEvent audit
+                && AuditEvent.TODO_ENABLED.equals(audit.action()) && todo3.getId().equals(audit.targetId())));
     }
 
     @Test
@@ -271,6 +321,136 @@ public class ModeratorServiceTest {
 
         // Verify method calls
         verify(userRepository, times(1)).findById(999L);
-        verify(todoRepository, never()).findByOwnerOrderByCreatedAtDesc(any(User.class));
+        verify(todoRepository, never()).findByOwnerOrderByFolderIdAscRankAscIdAsc(any(User.class));
+    }
+
+    @Test
+    void testGetUserOverviewSortsByMetricThenId() {
+        UserOverviewView view = mock(UserOverviewView.class);
+        when(view.getId()).thenReturn(2L);
+        when(view.getUsername()).thenReturn("user");
+        when(view.getTodoCount()).thenReturn(12L);
+        when(view.getFolderCount()).thenReturn(3L);
+        when(view.getLastActivityAt()).thenReturn(Instant.parse("2025-01-02T03:04:05Z"));
+        when(userRepository.findUserOverview(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(view), PageRequest.of(1, 10), true));
+
+        SliceResponse<UserOverviewResponse> result = moderatorService.getUserOverview(1, 10, "todoCount", "desc");
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(userRepository).findUserOverview(pageable.capture());
+        assertEquals(1, pageable.getValue().getPageNumber());
+        assertEquals(Sort.by(Sort.Order.desc("todoCount"), Sort.Order.asc("id")), pageable.getValue().getSort());
+        assertEquals(1, result.getItems().size());
+        assertEquals(12L, result.getItems().get(0).getTodoCount());
+        assertEquals(3L, result.getItems().get(0).getFolderCount());
+        assertEquals(OffsetDateTime.parse("2025-01-02T03:04:05Z"), result.getItems().get(0).getLastActivityAt());
+        assertTrue(result.isHasNext());
+    }
+
+    @Test
+    void testGetUserOverviewCapsPageSize() {
+        when(userRepository.findUserOverview(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        SliceResponse<UserOverviewResponse> result = moderatorService.getUserOverview(0, 5000, "username", "ASC");
+
+        assertEquals(100, result.getSize());
+    }
+
+    @Test
+    void testGetUserOverviewRejectsInvalidInput() {
+        assertThrows(BadRequestException.class, () -> moderatorService.getUserOverview(0, 20, "password", "desc"));
+        assertThrows(BadRequestException.class, () -> moderatorService.getUserOverview(0, 20, "todoCount", "sideways"));
+        assertThrows(BadRequestException.class, () -> moderatorService.getUserOverview(-1, 20, "todoCount", "desc"));
+
+        verify(userRepository, never()).findUserOverview(any(Pageable.class));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testClaimQueueItemsCapsTheBatchAndLeasesToTheCurrentModerator() {
+        loginAs(moderatorUser);
+        ModerationItemView item = mock(ModerationItemView.class);
+        when(item.getId()).thenReturn(7L);
+        when(item.getTodoId()).thenReturn(1L);
+        when(item.getSource()).thenReturn("REPORT");
+        when(item.getReportCount()).thenReturn(2);
+        when(item.getLeaseExpiresAt()).thenReturn(Instant.parse("2025-01-02T03:09:05Z"));
+        when(moderationQueueRepository.claimBatch(2L, 100, 300L)).thenReturn(List.of(item));
+        ModeratorServiceImpl service = new ModeratorServiceImpl(folderRepository, todoRepository, userRepository, userConverter,
+                eventPublisher, outboxRecorder, moderationQueueRepository, moderationRuleRepository, Duration.ofMinutes(5));
+
+        List<ModerationItemResponse> result = service.claimQueueItems(5000);
+
+        assertEquals(1, result.size());
+        assertEquals(7L, result.get(0).getId());
+        assertEquals(2, result.get(0).getReportCount());
+        assertEquals(OffsetDateTime.parse("2025-01-02T03:09:05Z"), result.get(0).getLeaseExpiresAt());
+    }
+
+    @Test
+    void testResolveQueueItemsAuditsDisabledTodos() {
+        loginAs(moderatorUser);
+        ResolvedModerationItemView disabled = resolvedItem(7L, 1L, true);
+        ResolvedModerationItemView alreadyDisabled = resolvedItem(8L, 2L, false);
+        when(moderationQueueRepository.resolveClaimed(eq(2L), any(Long[].class), eq("DISABLE")))
+                .thenReturn(List.of(disabled, alreadyDisabled));
+
+        ModerationResolveResponse result = moderatorService.resolveQueueItems(
+                new ModerationResolveRequest(List.of(7L, 8L, 8L, 9L), ModerationAction.DISABLE));
+
+        ArgumentCaptor<Long[]> itemIds = ArgumentCaptor.forClass(Long[].class);
+        verify(moderationQueueRepository).resolveClaimed(eq(2L), itemIds.capture(), eq("DISABLE"));
+        assertEquals(List.of(7L, 8L, 9L), Arrays.asList(itemIds.getValue()));
+        assertEquals(3, result.getRequestedCount());
+        assertEquals(2, result.getResolvedCount());
+        assertEquals(1, result.getDisabledCount());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AuditEvent audit
+                && AuditEvent.TODO_DISABLED.equals(audit.action()) && audit.targetId().equals(1L)));
+        verify(eventPublisher).publishEvent(new TodoStatsInvalidatedEvent(normalUser.getId()));
+    }
+
+    @Test
+    void testCreateRuleStoresTheKeywordLowerCased() {
+        loginAs(moderatorUser);
+        when(moderationRuleRepository.save(any(ModerationRule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ModerationRuleResponse result = moderatorService.createRule(new ModerationRuleRequest("  Casino "));
+
+        assertEquals("casino", result.getKeyword());
+        assertEquals(2L, result.getCreatedBy());
+    }
+
+    @Test
+    void testCreateRuleRejectsAKeywordInUse() {
+        loginAs(moderatorUser);
+        when(moderationRuleRepository.existsByKeyword("casino")).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> moderatorService.createRule(new ModerationRuleRequest("CASINO")));
+        verify(moderationRuleRepository, never()).save(any(ModerationRule.class));
+    }
+
+    @Test
+    void testDeleteRuleNotFound() {
+        when(moderationRuleRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> moderatorService.deleteRule(99L));
+    }
+
+    private void loginAs(User user) {
+        UserDetailsImpl principal = new UserDetailsImpl(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), List.of());
+        SecurityContextHolder.setContext(new SecurityContextImpl(new UsernamePasswordAuthenticationToken(principal, null, List.of())));
+    }
+
+    private static ResolvedModerationItemView resolvedItem(Long itemId, Long todoId, boolean disabled) {
+        ResolvedModerationItemView view = mock(ResolvedModerationItemView.class);
+        when(view.getItemId()).thenReturn(itemId);
+        when(view.getTodoId()).thenReturn(todoId);
+        when(view.getOwnerId()).thenReturn(1L);
+        when(view.getDisabled()).thenReturn(disabled);
+        return view;
     }
-} 
\ No newline at end of file
+}
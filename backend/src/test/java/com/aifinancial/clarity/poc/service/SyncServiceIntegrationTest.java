@@ -0,0 +1,207 @@
+package com.aifinancial.clarity.poc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+import com.aifinancial.clarity.poc.dto.response.FolderResponse;
+import com.aifinancial.clarity.poc.dto.response.SyncResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.job.SyncTombstonePurgeJob;
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.Todo;
+import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.impl.SyncServiceImpl;
+import com.aifinancial.clarity.poc.util.CursorCodec;
+
+/**
+ * Runs the real migrations and checks that GET /sync pages through a snapshot, then reports
+ * only what changed, including deletions recorded by the tombstone triggers.
+ */
+class SyncServiceIntegrationTest extends PostgresIntegrationTest {
+
+    private SyncServiceImpl syncService;
+    private Long userId;
+    private Long otherUserId;
+    private Long folderId;
+
+    @BeforeEach
+    void setUp() {
+        userId = insertUser("syncer");
+        otherUserId = insertUser("bystander");
+        folderId = jdbcTemplate.queryForObject(
+                "INSERT INTO folders (name, user_id, updated_at) VALUES ('inbox', ?, now() - interval '1 hour') RETURNING id",
+                Long.class, userId);
+        jdbcTemplate.update("""
+                INSERT INTO todos (title, user_id, folder_id, updated_at)
+                SELECT 'todo ' || g, ?, ?, now() - interval '1 hour' + g * interval '1 second' FROM generate_series(1, 3) g
+                """, userId, folderId);
+        jdbcTemplate.update("INSERT INTO todos (title, user_id) VALUES ('not mine', ?)", otherUserId);
+
+        // The repositories only turn listed ids into entities
+        User owner = User.builder().id(userId).username("syncer").build();
+        TodoRepository todoRepository = mock(TodoRepository.class);
+        when(todoRepository.findAllWithOwnerAndFolderByIdIn(any(), anyLong())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(id -> Todo.builder().id(id).title("todo").owner(owner).build())
+                        .toList());
+        FolderRepository folderRepository = mock(FolderRepository.class);
+        when(folderRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Folder> folders = new ArrayList<>();
+            ids.forEach(id -> folders.add(Folder.builder().id(id).name("folder").owner(owner).build()));
+            return folders;
+        });
+        syncService = new SyncServiceImpl(new NamedParameterJdbcTemplate(dataSource), todoRepository, folderRepository,
+                null, Duration.ofDays(30));
+
+        UserDetailsImpl principal = new UserDetailsImpl(userId, "syncer", "syncer@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_NORMAL")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pagesThroughSnapshotThenReturnsOnlyChanges() {
+        SyncResponse first = syncService.getChanges(null, 3);
+        assertTrue(first.isFullResync());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(folderId), folderIds(first));
+        assertEquals(2, first.getTodos().size());
+
+        SyncResponse second = syncService.getChanges(first.getCursor(), 3);
+        assertFalse(second.isFullResync());
+        assertFalse(second.isHasMore());
+        assertEquals(1, second.getTodos().size());
+        assertEquals(List.of(), second.getDeletedTodoIds());
+
+        assertEquals(List.of(), syncService.getChanges(second.getCursor(), 3).getTodos());
+
+        Long updated = todoId("todo 1");
+        Long deleted = todoId("todo 2");
+        jdbcTemplate.update("UPDATE todos SET title = 'renamed', updated_at = now() WHERE id = ?", updated);
+        jdbcTemplate.update("DELETE FROM todos WHERE id = ?", deleted);
+        jdbcTemplate.update("UPDATE todos SET title = 'renamed', updated_at = now() WHERE user_id = ?", otherUserId);
+
+        SyncResponse changes = syncService.getChanges(second.getCursor(), 3);
+        assertFalse(changes.isFullResync());
+        assertEquals(List.of(updated), todoIds(changes));
+        assertEquals(List.of(), changes.getFolders());
+        assertEquals(List.of(deleted), changes.getDeletedTodoIds());
+    }
+
+    @Test
+    void folderDeleteReportsCascadedTodos() {
+        SyncResponse snapshot = syncService.getChanges(null, 100);
+        List<Long> todoIds = todoIds(snapshot);
+
+        jdbcTemplate.update("DELETE FROM folders WHERE id = ?", folderId);
+
+        SyncResponse changes = syncService.getChanges(snapshot.getCursor(), 100);
+        assertEquals(List.of(folderId), changes.getDeletedFolderIds());
+        assertEquals(todoIds, changes.getDeletedTodoIds().stream().sorted().toList());
+    }
+
+    @Test
+    void snapshotReportsTodosDeletedBetweenItsPages() {
+        SyncResponse first = syncService.getChanges(null, 2);
+        Long sentOnFirstPage = first.getTodos().get(0).getId();
+
+        jdbcTemplate.update("DELETE FROM todos WHERE id = ?", sentOnFirstPage);
+
+        SyncResponse second = syncService.getChanges(first.getCursor(), 100);
+        assertFalse(second.isHasMore());
+        assertFalse(todoIds(second).contains(sentOnFirstPage));
+
+        // Committed after the snapshot was taken, so it comes with the next pass
+        assertEquals(List.of(sentOnFirstPage), syncService.getChanges(second.getCursor(), 100).getDeletedTodoIds());
+    }
+
+    @Test
+    void cursorOlderThanRetentionRestartsSnapshot() {
+        String stale = CursorCodec.encode("1:1:", OffsetDateTime.now().minusDays(31), "", "", 0, 0, 0);
+
+        SyncResponse response = syncService.getChanges(stale, 100);
+
+        assertTrue(response.isFullResync());
+        assertEquals(3, response.getTodos().size());
+        assertThrows(BadRequestException.class, () -> syncService.getChanges("not-a-cursor", 100));
+    }
+
+    @Test
+    void changeCommittedLateIsNotSkipped() throws Exception {
+        SyncResponse snapshot = syncService.getChanges(null, 100);
+        Long slow = todoId("todo 1");
+
+        // Stands for an import that started an hour ago and is still running
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE todos SET title = 'slow', updated_at = now() - interval '1 hour' WHERE id = ?")) {
+                update.setLong(1, slow);
+                update.executeUpdate();
+            }
+
+            SyncResponse beforeCommit = syncService.getChanges(snapshot.getCursor(), 100);
+            assertEquals(List.of(), todoIds(beforeCommit));
+
+            connection.commit();
+
+            SyncResponse afterCommit = syncService.getChanges(beforeCommit.getCursor(), 100);
+            assertEquals(List.of(slow), todoIds(afterCommit));
+            assertEquals(List.of(), todoIds(syncService.getChanges(afterCommit.getCursor(), 100)));
+        }
+    }
+
+    @Test
+    void purgeJobDeletesOnlyExpiredTombstones() {
+        jdbcTemplate.update("DELETE FROM todos WHERE user_id = ?", userId);
+        jdbcTemplate.update("UPDATE sync_tombstones SET deleted_at = now() - interval '40 days' WHERE id = (SELECT min(id) FROM sync_tombstones)");
+
+        assertEquals(1, new SyncTombstonePurgeJob(jdbcTemplate, Duration.ofDays(30), 2).purge());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM sync_tombstones", Integer.class));
+    }
+
+    private Long todoId(String title) {
+        return jdbcTemplate.queryForObject("SELECT id FROM todos WHERE title = ?", Long.class, title);
+    }
+
+    private List<Long> folderIds(SyncResponse response) {
+        return response.getFolders().stream().map(FolderResponse::getId).toList();
+    }
+
+    private List<Long> todoIds(SyncResponse response) {
+        return response.getTodos().stream().map(TodoResponse::getId).toList();
+    }
+}
@@ -0,0 +1,170 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.aifinancial.clarity.poc.dto.request.TagRequest;
+import com.aifinancial.clarity.poc.dto.response.TagResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.PreconditionFailedException;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.model.Tag;
+import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.repository.TagRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.TagTodoCountView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.impl.TagServiceImpl;
+import com.aifinancial.clarity.poc.constant.RoleConstants;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = LENIENT)
+public class TagServiceTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TagServiceImpl tagService;
+
+    private User owner;
+    private Tag work;
+
+    @BeforeEach
+    void setUp() {
+        tagService = new TagServiceImpl(tagRepository, userRepository);
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "user1", "user1@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_" + RoleConstants.ROLE_NORMAL)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        owner = new User();
+        owner.setId(1L);
+        work = new Tag();
+        work.setId(5L);
+        work.setName("work");
+        work.setOwner(owner);
+        work.setVersion(2L);
+        when(tagRepository.findByIdAndOwnerId(5L, 1L)).thenReturn(Optional.of(work));
+        when(tagRepository.findLockedByIdAndOwnerId(5L, 1L)).thenReturn(Optional.of(work));
+        when(tagRepository.saveAndFlush(any(Tag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetCurrentUserTags_CarriesTodoCounts() {
+        Tag home = new Tag();
+        home.setId(6L);
+        home.setName("home");
+        when(tagRepository.findByOwnerIdOrderByNameAsc(1L)).thenReturn(List.of(home, work));
+        when(tagRepository.countTodosByOwnerId(1L)).thenReturn(List.of(count(5L, 12L)));
+
+        List<TagResponse> tags = tagService.getCurrentUserTags();
+
+        assertEquals(List.of("home", "work"), tags.stream().map(TagResponse::getName).toList());
+        assertEquals(0L, tags.get(0).getTodoCount());
+        assertEquals(12L, tags.get(1).getTodoCount());
+    }
+
+    @Test
+    void testCreateTag_StripsNameAndAssignsOwner() {
+        TagResponse created = tagService.createTag(new TagRequest("  home "));
+
+        assertEquals("home", created.getName());
+        assertEquals(0L, created.getTodoCount());
+        verify(tagRepository).saveAndFlush(any(Tag.class));
+    }
+
+    @Test
+    void testCreateTag_DuplicateName_ThrowsBadRequest() {
+        when(tagRepository.existsByOwnerIdAndNameIgnoreCase(1L, "Work")).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> tagService.createTag(new TagRequest("Work")));
+        verify(tagRepository, never()).saveAndFlush(any(Tag.class));
+    }
+
+    @Test
+    void testCreateTag_ConcurrentDuplicate_ThrowsBadRequest() {
+        when(tagRepository.saveAndFlush(any(Tag.class))).thenThrow(new DataIntegrityViolationException("uq_tags_user_name"));
+
+        assertThrows(BadRequestException.class, () -> tagService.createTag(new TagRequest("home")));
+    }
+
+    @Test
+    void testRenameTag_CaseOnly_SkipsDuplicateCheck() {
+        when(tagRepository.existsByOwnerIdAndNameIgnoreCase(1L, "Work")).thenReturn(true);
+        when(tagRepository.countTodosByOwnerIdAndTagId(1L, 5L)).thenReturn(3L);
+
+        TagResponse renamed = tagService.renameTag(5L, new TagRequest("Work"), Set.of(2L));
+
+        assertEquals("Work", renamed.getName());
+        assertEquals(3L, renamed.getTodoCount());
+    }
+
+    @Test
+    void testRenameTag_StaleVersion_ThrowsPreconditionFailed() {
+        assertThrows(PreconditionFailedException.class, () -> tagService.renameTag(5L, new TagRequest("office"), Set.of(1L)));
+        verify(tagRepository, never()).saveAndFlush(any(Tag.class));
+    }
+
+    @Test
+    void testDeleteTag_OtherUsersTag_ThrowsNotFound() {
+        when(tagRepository.findLockedByIdAndOwnerId(9L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> tagService.deleteTag(9L, null));
+        verify(tagRepository, never()).recordTagRemoved(any(), any());
+        verify(tagRepository, never()).delete(any(Tag.class));
+    }
+
+    @Test
+    void testDeleteTag_Success() {
+        tagService.deleteTag(5L, Set.of(2L));
+
+        InOrder inOrder = inOrder(tagRepository);
+        inOrder.verify(tagRepository).recordTagRemoved(1L, 5L);
+        inOrder.verify(tagRepository).delete(work);
+    }
+
+    private TagTodoCountView count(Long tagId, long todoCount) {
+        return new TagTodoCountView() {
+            @Override
+            public Long getTagId() {
+                return tagId;
+            }
+
+            @Override
+            public long getTodoCount() {
+                return todoCount;
+            }
+        };
+    }
+}
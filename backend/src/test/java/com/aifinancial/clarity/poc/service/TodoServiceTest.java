@@ -12,11 +12,12 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,28 +25,52 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import static org.mockito.Mockito.never;
-
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.aifinancial.clarity.poc.dto.request.MoveTodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoReportRequest;
 import com.aifinancial.clarity.poc.dto.request.TodoRequest;
+import com.aifinancial.clarity.poc.dto.request.TodoTagsRequest;
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.dto.response.MessageResponse;
 import com.aifinancial.clarity.poc.dto.response.TodoResponse;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent.TodoState;
+import com.aifinancial.clarity.poc.exception.PreconditionFailedException;
 import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.model.ArchivedTodo;
 import com.aifinancial.clarity.poc.model.Folder;
 import com.aifinancial.clarity.poc.model.Permission;
 import com.aifinancial.clarity.poc.model.Role;
 import com.aifinancial.clarity.poc.model.Todo;
 import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.outbox.OutboxRecorder;
+import com.aifinancial.clarity.poc.repository.ArchivedTodoRepository;
 import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.ModerationQueueRepository;
+import com.aifinancial.clarity.poc.repository.TagRepository;
 import com.aifinancial.clarity.poc.repository.TodoRepository;
 import com.aifinancial.clarity.poc.repository.UserRepository;
 import com.aifinancial.clarity.poc.security.UserDetailsImpl;
 import com.aifinancial.clarity.poc.service.impl.TodoServiceImpl;
 import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.TooManyRequestsException;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.util.CursorCodec;
 import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.constant.TagMatch;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = LENIENT)
@@ -54,19 +79,33 @@ public class TodoServiceTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private ArchivedTodoRepository archivedTodoRepository;
+
     @Mock
     private FolderRepository folderRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private ModerationQueueRepository moderationQueueRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private SecurityContext securityContext;
 
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
+    @Mock
+    private OutboxRecorder outboxRecorder;
+
     private TodoServiceImpl todoService;
 
     private User normalUser;
@@ -192,6 +231,9 @@ public class TodoServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
+        todoService = new TodoServiceImpl(todoRepository, archivedTodoRepository, folderRepository, userRepository, tagRepository,
+                eventPublisher, outboxRecorder, moderationQueueRepository, 20);
+
         when(userRepository.findById(normalUser.getId())).thenReturn(Optional.of(normalUser));
         when(userRepository.findById(moderatorUser.getId())).thenReturn(Optional.of(moderatorUser));
         when(userRepository.findById(adminUser.getId())).thenReturn(Optional.of(adminUser));
@@ -200,15 +242,18 @@ public class TodoServiceTest {
         when(todoRepository.findById(todo1.getId())).thenReturn(Optional.of(todo1));
         when(todoRepository.findById(todo2.getId())).thenReturn(Optional.of(todo2));
         when(todoRepository.findById(todo3.getId())).thenReturn(Optional.of(todo3));
-        when(todoRepository.findByOwnerOrderByCreatedAtDesc(normalUser)).thenReturn(Arrays.asList(todo1, todo2));
-        when(todoRepository.findByFolderOrderByCreatedAtDesc(folder1)).thenReturn(Arrays.asList(todo1, todo2));
+        when(todoRepository.findByIdAndOwnerId(todo1.getId(), normalUser.getId())).thenReturn(Optional.of(todo1));
+        when(todoRepository.findByIdAndOwnerId(todo2.getId(), normalUser.getId())).thenReturn(Optional.of(todo2));
+        when(todoRepository.findByIdAndOwnerId(todo3.getId(), moderatorUser.getId())).thenReturn(Optional.of(todo3));
+        when(todoRepository.findByOwnerOrderByFolderIdAscRankAscIdAsc(normalUser)).thenReturn(Arrays.asList(todo1, todo2));
+        when(todoRepository.findByOwnerIdAndFolderOrderByRankAscIdAsc(normalUser.getId(), folder1)).thenReturn(Arrays.asList(todo1, todo2));
     }
 
     @Test
     void testGetCurrentUserTodos() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
 
-        List<TodoResponse> result = todoService.getCurrentUserTodos();
+        List<TodoResponse> result = todoService.getCurrentUserTodos(false);
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -219,14 +264,107 @@ public class TodoServiceTest {
         assertEquals(normalUser.getId(), result.get(0).getOwnerId());
         assertEquals(normalUser.getUsername(), result.get(0).getOwnerUsername());
         verify(userRepository, times(1)).findById(normalUser.getId());
-        verify(todoRepository, times(1)).findByOwnerOrderByCreatedAtDesc(normalUser);
+        verify(todoRepository, times(1)).findByOwnerOrderByFolderIdAscRankAscIdAsc(normalUser);
+    }
+
+    @Test
+    void testGetTodosIfModified_StampUnchanged_ReadsNoTodos() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(userRepository.findChangeStampByUserId(normalUser.getId())).thenReturn(Optional.of(5L));
+
+        List<TodoResponse> result = todoService.getTodosIfModified(null, false, changeStamp -> changeStamp == 5L);
+
+        assertNull(result);
+        verify(userRepository, never()).findById(any());
+        verify(todoRepository, never()).findByOwnerOrderByFolderIdAscRankAscIdAsc(any());
+    }
+
+    @Test
+    void testGetTodosIfModified_StampChanged_ReturnsTodos() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(userRepository.findChangeStampByUserId(normalUser.getId())).thenReturn(Optional.of(6L));
+
+        List<TodoResponse> result = todoService.getTodosIfModified(null, false, changeStamp -> changeStamp == 5L);
+
+        assertEquals(2, result.size());
+        verify(todoRepository, times(1)).findByOwnerOrderByFolderIdAscRankAscIdAsc(normalUser);
+    }
+
+    @Test
+    void testGetTodosIfModified_OtherUserAsNormalUser_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> {
+            todoService.getTodosIfModified(moderatorUser.getId(), false, changeStamp -> true);
+        });
+
+        verify(userRepository, never()).findChangeStampByUserId(any());
+    }
+
+    @Test
+    void testGetCurrentUserTodos_WithoutArchived_DoesNotReadArchive() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        todoService.getCurrentUserTodos(false);
+
+        verify(archivedTodoRepository, never()).findByOwnerIdOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void testGetCurrentUserTodos_IncludeArchived_AppendedAfterLiveTodos() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        todo1.setCreatedAt(OffsetDateTime.now().minusDays(1));
+        todo2.setCreatedAt(OffsetDateTime.now().minusDays(300));
+        ArchivedTodo archived = archivedTodo(9L, normalUser, OffsetDateTime.now().minusDays(200));
+        when(archivedTodoRepository.findByOwnerIdOrderByCreatedAtDesc(normalUser.getId()))
+                .thenReturn(Collections.singletonList(archived));
+
+        List<TodoResponse> result = todoService.getCurrentUserTodos(true);
+
+        // Live todos keep their rank order; archived ones follow, newest first
+        assertEquals(Arrays.asList(todo1.getId(), todo2.getId(), 9L), result.stream().map(TodoResponse::getId).toList());
+        assertFalse(result.get(1).isArchived());
+        assertTrue(result.get(2).isArchived());
+        assertEquals(folder1.getName(), result.get(2).getFolderName());
+        assertEquals("M", result.get(2).getRank());
+        assertEquals(archived.getDueAt(), result.get(2).getDueAt());
+        assertEquals(4L, result.get(2).getTemplateId());
+        assertEquals(archived.getOccurrenceOn(), result.get(2).getOccurrenceOn());
+    }
+
+    @Test
+    void testGetTodo_Archived_ReadableByOwner() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(archivedTodoRepository.findById(9L))
+                .thenReturn(Optional.of(archivedTodo(9L, normalUser, OffsetDateTime.now().minusDays(200))));
+
+        TodoResponse result = todoService.getTodo(9L);
+
+        assertEquals(9L, result.getId());
+        assertTrue(result.isArchived());
+    }
+
+    @Test
+    void testGetTodo_ArchivedOfOtherUser_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(archivedTodoRepository.findById(9L))
+                .thenReturn(Optional.of(archivedTodo(9L, moderatorUser, OffsetDateTime.now().minusDays(200))));
+
+        assertThrows(UnauthorizedException.class, () -> todoService.getTodo(9L));
+    }
+
+    @Test
+    void testGetTodo_NotFoundAnywhere() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.getTodo(99L));
     }
 
     @Test
     void testGetTodosByFolder() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
 
-        List<TodoResponse> result = todoService.getTodosByFolder(folder1.getId());
+        List<TodoResponse> result = todoService.getTodosByFolder(folder1.getId(), false);
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -234,17 +372,17 @@ public class TodoServiceTest {
         assertEquals(folder1.getName(), result.get(0).getFolderName());
         verify(userRepository, times(1)).findById(normalUser.getId());
         verify(folderRepository, times(1)).findById(folder1.getId());
-        verify(todoRepository, times(1)).findByFolderOrderByCreatedAtDesc(folder1);
+        verify(todoRepository, times(1)).findByOwnerIdAndFolderOrderByRankAscIdAsc(normalUser.getId(), folder1);
     }
 
     @Test
     void testGetTodosByFolderUnauthorized() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
 
-        assertThrows(UnauthorizedException.class, () -> todoService.getTodosByFolder(folder2.getId()));
+        assertThrows(UnauthorizedException.class, () -> todoService.getTodosByFolder(folder2.getId(), false));
         verify(userRepository, times(1)).findById(normalUser.getId());
         verify(folderRepository, times(1)).findById(folder2.getId());
-        verify(todoRepository, never()).findByFolderOrderByCreatedAtDesc(any(Folder.class));
+        verify(todoRepository, never()).findByOwnerIdAndFolderOrderByRankAscIdAsc(any(), any(Folder.class));
     }
 
     @Test
@@ -283,6 +421,7 @@ public class TodoServiceTest {
         verify(userRepository, times(1)).findById(normalUser.getId());
         verify(folderRepository, times(1)).findById(folder1.getId());
         verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(outboxRecorder, times(1)).recordTodo(OutboxRecorder.TODO_CREATED, newTodo);
     }
 
     @Test
@@ -324,7 +463,7 @@ public class TodoServiceTest {
 
         when(todoRepository.save(any(Todo.class))).thenReturn(updatedTodo);
 
-        TodoResponse result = todoService.updateTodo(todo1.getId(), request);
+        TodoResponse result = todoService.updateTodo(todo1.getId(), request, null);
 
         assertNotNull(result);
         assertEquals(updatedTodo.getId(), result.getId());
@@ -333,11 +472,27 @@ public class TodoServiceTest {
         assertEquals(null, result.getFolderId());
         
         verify(userRepository, times(1)).findById(normalUser.getId());
-        verify(todoRepository, times(1)).findById(todo1.getId());
+        verify(todoRepository, times(1)).findByIdAndOwnerId(todo1.getId(), normalUser.getId());
+        verify(todoRepository, never()).findById(todo1.getId());
         verify(folderRepository, never()).findById(any());
         verify(todoRepository, times(1)).save(any(Todo.class));
     }
 
+    @Test
+    void testUpdateTodo_SetsAndClearsTheDueDate() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OffsetDateTime dueAt = OffsetDateTime.now().plusDays(1);
+        TodoRequest request = TodoRequest.builder().title("Pay rent").folderId(folder1.getId()).dueAt(dueAt).build();
+
+        assertEquals(dueAt, todoService.updateTodo(todo1.getId(), request, null).getDueAt());
+        assertEquals(dueAt, todo1.getDueAt());
+
+        request.setDueAt(null);
+        assertNull(todoService.updateTodo(todo1.getId(), request, null).getDueAt());
+        assertNull(todo1.getDueAt());
+    }
+
     @Test
     void testUpdateTodoUnauthorized() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
@@ -346,13 +501,28 @@ public class TodoServiceTest {
         request.setTitle("Updated Unauthorized Todo");
 
         assertThrows(UnauthorizedException.class, () -> {
-            todoService.updateTodo(todo3.getId(), request);
+            todoService.updateTodo(todo3.getId(), request, null);
         });
         
         verify(todoRepository, times(1)).findById(todo3.getId());
         verify(todoRepository, never()).save(any(Todo.class));
     }
 
+    @Test
+    void testUpdateTodoStaleVersion() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        todo1.setVersion(3L);
+
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Edited From A Stale Copy");
+
+        assertThrows(PreconditionFailedException.class, () -> {
+            todoService.updateTodo(todo1.getId(), request, Set.of(2L));
+        });
+
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
     @Test
     void testToggleCompleted() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
@@ -365,15 +535,19 @@ public class TodoServiceTest {
             return savedTodo; 
         });
 
-        TodoResponse result = todoService.toggleCompleted(todo1.getId());
+        TodoResponse result = todoService.toggleCompleted(todo1.getId(), null);
 
         assertNotNull(result);
         assertEquals(todo1.getId(), result.getId());
         assertEquals(!initialCompleted, result.isCompleted());
         
         verify(userRepository, times(1)).findById(normalUser.getId());
-        verify(todoRepository, times(1)).findById(todo1.getId());
+        verify(todoRepository, times(1)).findByIdAndOwnerId(todo1.getId(), normalUser.getId());
+        verify(todoRepository, never()).findById(todo1.getId());
         verify(todoRepository, times(1)).save(todo1);
+        verify(eventPublisher).publishEvent(new TodoChangedEvent(normalUser.getId(),
+                new TodoState(folder1.getId(), initialCompleted, false),
+                new TodoState(folder1.getId(), !initialCompleted, false)));
     }
 
     @Test
@@ -381,22 +555,110 @@ public class TodoServiceTest {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
         
         assertThrows(UnauthorizedException.class, () -> {
-            todoService.toggleCompleted(todo3.getId());
+            todoService.toggleCompleted(todo3.getId(), null);
         });
         
         verify(todoRepository, times(1)).findById(todo3.getId());
         verify(todoRepository, never()).save(any(Todo.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testMoveTodo_BetweenNeighbours_WritesOnlyTheMovedTodo() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        Todo unfiled = new Todo();
+        unfiled.setId(4L);
+        unfiled.setTitle("Unfiled Todo");
+        unfiled.setOwner(normalUser);
+        unfiled.setRank("V");
+        when(todoRepository.findByIdAndOwnerId(4L, normalUser.getId())).thenReturn(Optional.of(unfiled));
+        when(todoRepository.findRankByIdAndOwnerId(todo1.getId(), normalUser.getId())).thenReturn(Optional.of("A"));
+        when(todoRepository.findRankByIdAndOwnerId(todo2.getId(), normalUser.getId())).thenReturn(Optional.of("C"));
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TodoResponse result = todoService.moveTodo(4L,
+                new MoveTodoRequest(folder1.getId(), todo1.getId(), todo2.getId()), null);
+
+        assertEquals(folder1.getId(), result.getFolderId());
+        assertEquals("B", result.getRank());
+        verify(todoRepository).lockRanks(normalUser.getId());
+        verify(todoRepository, never()).rebalanceRanks(any(), any(), any());
+        verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(eventPublisher).publishEvent(new TodoChangedEvent(normalUser.getId(),
+                new TodoState(null, false, false), new TodoState(folder1.getId(), false, false)));
+        verify(outboxRecorder).recordTodo(OutboxRecorder.TODO_UPDATED, unfiled);
+    }
+
+    @Test
+    void testMoveTodo_ToTop_UsesFirstRankOfFolder() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(todoRepository.findNextRank(normalUser.getId(), folder1.getId(), "", todo2.getId())).thenReturn(Optional.of("2"));
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TodoResponse result = todoService.moveTodo(todo2.getId(), new MoveTodoRequest(folder1.getId(), null, null), null);
+
+        assertEquals("1", result.getRank());
+    }
+
+    @Test
+    void testMoveTodo_NoRoomBetweenNeighbours_RebalancesOnce() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        todo2.setRank("V");
+        when(todoRepository.findByIdAndOwnerId(4L, normalUser.getId())).thenReturn(Optional.of(todo2));
+        Todo third = new Todo();
+        third.setId(5L);
+        third.setOwner(normalUser);
+        third.setFolder(folder1);
+        when(todoRepository.findByIdAndOwnerId(5L, normalUser.getId())).thenReturn(Optional.of(third));
+        // Equal ranks leave no key between them until the folder is respaced
+        when(todoRepository.findRankByIdAndOwnerId(todo1.getId(), normalUser.getId())).thenReturn(Optional.of("K")).thenReturn(Optional.of("F"));
+        when(todoRepository.findRankByIdAndOwnerId(5L, normalUser.getId())).thenReturn(Optional.of("K")).thenReturn(Optional.of("k"));
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TodoResponse result = todoService.moveTodo(todo2.getId(), new MoveTodoRequest(folder1.getId(), todo1.getId(), 5L), null);
+
+        assertEquals("V", result.getRank());
+        verify(todoRepository, times(1)).rebalanceRanks(normalUser.getId(), folder1.getId(), todo2.getId());
+    }
+
+    @Test
+    void testMoveTodo_NeighbourInOtherFolder_BadRequest() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(BadRequestException.class, () -> {
+            todoService.moveTodo(todo1.getId(), new MoveTodoRequest(null, todo2.getId(), null), null);
+        });
+        assertThrows(BadRequestException.class, () -> {
+            todoService.moveTodo(todo1.getId(), new MoveTodoRequest(folder1.getId(), todo1.getId(), null), null);
+        });
+
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    void testMoveTodo_OtherUsersFolder_Unauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> {
+            todoService.moveTodo(todo1.getId(), new MoveTodoRequest(folder2.getId(), null, null), null);
+        });
+
+        verify(todoRepository, never()).lockRanks(any());
+        verify(todoRepository, never()).save(any(Todo.class));
     }
 
     @Test
     void testDeleteTodo() {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
         
-        todoService.deleteTodo(todo1.getId());
+        todoService.deleteTodo(todo1.getId(), null);
 
         verify(userRepository, times(1)).findById(normalUser.getId());
-        verify(todoRepository, times(1)).findById(todo1.getId());
+        verify(todoRepository, times(1)).findByIdAndOwnerId(todo1.getId(), normalUser.getId());
+        verify(todoRepository, never()).findById(todo1.getId());
         verify(todoRepository, times(1)).delete(todo1);
+        verify(eventPublisher).publishEvent(TodoChangedEvent.deleted(todo1));
+        verify(outboxRecorder).recordTodo(OutboxRecorder.TODO_DELETED, todo1);
     }
 
     @Test
@@ -404,10 +666,222 @@ public class TodoServiceTest {
         when(authentication.getPrincipal()).thenReturn(normalUserDetails);
         
         assertThrows(UnauthorizedException.class, () -> {
-            todoService.deleteTodo(todo3.getId());
+            todoService.deleteTodo(todo3.getId(), null);
         });
 
         verify(todoRepository, times(1)).findById(todo3.getId());
         verify(todoRepository, never()).delete(any(Todo.class));
+        verify(outboxRecorder, never()).recordTodo(any(), any());
+    }
+
+    @Test
+    void testSearchTodos_NormalUser_SearchesOwnTodosInRankOrder() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(todoRepository.searchRanked(eq("milk"), eq(normalUser.getId()), isNull(), isNull(), eq(2)))
+                .thenReturn(Arrays.asList(new Object[] {2L, 0.9f}, new Object[] {1L, 0.4f}));
+        when(todoRepository.findAllWithOwnerAndFolderByIdIn(Collections.singletonList(2L), normalUser.getId())).thenReturn(Collections.singletonList(todo2));
+
+        CursorPage<TodoResponse> result = todoService.searchTodos(" milk ", null, null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(todo2.getId(), result.getItems().get(0).getId());
+        assertEquals(CursorCodec.encode(0.9f, 2L), result.getNextCursor());
+    }
+
+    @Test
+    void testSearchTodos_LastPage_HasNoCursor() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(todoRepository.searchRanked(eq("milk"), eq(normalUser.getId()), eq(0.9f), eq(2L), eq(21)))
+                .thenReturn(Collections.singletonList(new Object[] {1L, 0.4f}));
+        when(todoRepository.findAllWithOwnerAndFolderByIdIn(Collections.singletonList(1L), normalUser.getId())).thenReturn(Collections.singletonList(todo1));
+
+        CursorPage<TodoResponse> result = todoService.searchTodos("milk", null, CursorCodec.encode(0.9f, 2L), 20);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testSearchTodos_NormalUser_OtherUserForbidden() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class, () -> todoService.searchTodos("milk", moderatorUser.getId(), null, 20));
+        verify(todoRepository, never()).searchRanked(anyString(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testSearchTodos_Moderator_SearchesAllUsers() {
+        doReturn(buildAuthorities(moderatorRole)).when(authentication).getAuthorities();
+        when(todoRepository.searchRanked(eq("milk"), isNull(), isNull(), isNull(), eq(21))).thenReturn(Collections.emptyList());
+
+        CursorPage<TodoResponse> result = todoService.searchTodos("milk", null, null, 20);
+
+        assertEquals(0, result.getItems().size());
+        verify(todoRepository, times(1)).searchRanked(eq("milk"), isNull(), isNull(), isNull(), eq(21));
+    }
+
+    @Test
+    void testSearchTodos_InvalidInput_ThrowsBadRequest() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(BadRequestException.class, () -> todoService.searchTodos("  ", null, null, 20));
+        assertThrows(BadRequestException.class, () -> todoService.searchTodos("milk", null, "not-a-cursor", 20));
+    }
+
+    @Test
+    void testGetTodosByTags_All_MatchesTodosCarryingEveryTag() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(tagRepository.findIdsByOwnerIdAndLowerNames(normalUser.getId(), List.of("home", "work"))).thenReturn(List.of(7L, 8L));
+        when(todoRepository.findByOwnerIdWithAllTags(normalUser.getId(), new Long[] {7L, 8L})).thenReturn(List.of(todo1));
+
+        List<TodoResponse> result = todoService.getTodosByTagsIfModified(null, List.of("Work", " home", "work"), TagMatch.ALL,
+                changeStamp -> false);
+
+        assertEquals(1, result.size());
+        assertEquals(todo1.getId(), result.get(0).getId());
+        verify(todoRepository, never()).findByOwnerIdWithAnyTag(any(), any());
+    }
+
+    @Test
+    void testGetTodosByTags_All_UnknownName_MatchesNothing() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(tagRepository.findIdsByOwnerIdAndLowerNames(normalUser.getId(), List.of("nope", "work"))).thenReturn(List.of(7L));
+        when(todoRepository.findByOwnerIdWithAnyTag(normalUser.getId(), new Long[] {7L})).thenReturn(List.of(todo1));
+
+        assertEquals(0, todoService.getTodosByTagsIfModified(null, List.of("work", "nope"), TagMatch.ALL, changeStamp -> false).size());
+        assertEquals(1, todoService.getTodosByTagsIfModified(null, List.of("work", "nope"), TagMatch.ANY, changeStamp -> false).size());
+        verify(todoRepository, never()).findByOwnerIdWithAllTags(any(), any());
+    }
+
+    @Test
+    void testGetTodosByTags_OtherUser_NormalUser_ThrowsUnauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        doReturn(buildAuthorities(normalRole)).when(authentication).getAuthorities();
+
+        assertThrows(UnauthorizedException.class,
+                () -> todoService.getTodosByTagsIfModified(moderatorUser.getId(), List.of("work"), TagMatch.ANY, changeStamp -> false));
+    }
+
+    @Test
+    void testSetTags_ReplacesTheTagsAndReturnsTheRewrittenTodo() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        todo1.setTagIds(new Long[] {7L});
+        todo1.setVersion(1L);
+        Todo tagged = new Todo();
+        tagged.setId(todo1.getId());
+        tagged.setOwner(normalUser);
+        tagged.setTagIds(new Long[] {8L, 9L});
+        tagged.setVersion(3L);
+        when(todoRepository.findLockedByIdAndOwnerId(todo1.getId(), normalUser.getId())).thenReturn(Optional.of(todo1));
+        when(todoRepository.findByIdAndOwnerId(todo1.getId(), normalUser.getId())).thenReturn(Optional.of(tagged));
+        when(tagRepository.countByOwnerIdAndIdIn(normalUser.getId(), List.of(9L, 8L))).thenReturn(2L);
+
+        TodoResponse result = todoService.setTags(todo1.getId(), new TodoTagsRequest(List.of(9L, 8L, 9L)), Set.of(1L));
+
+        assertEquals(List.of(8L, 9L), result.getTagIds());
+        assertEquals(3L, result.getVersion());
+        verify(tagRepository).removeTodoTagsExcept(normalUser.getId(), todo1.getId(), new Long[] {9L, 8L});
+        verify(tagRepository).addTodoTags(normalUser.getId(), todo1.getId(), new Long[] {9L, 8L});
+        verify(outboxRecorder).recordTodo(OutboxRecorder.TODO_UPDATED, tagged);
+    }
+
+    @Test
+    void testSetTags_StaleVersion_ChecksTheLockedRowAndWritesNothing() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        todo1.setVersion(2L);
+        when(todoRepository.findLockedByIdAndOwnerId(todo1.getId(), normalUser.getId())).thenReturn(Optional.of(todo1));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> todoService.setTags(todo1.getId(), new TodoTagsRequest(List.of(8L)), Set.of(1L)));
+        verify(tagRepository, never()).addTodoTags(any(), any(), any());
+        verify(tagRepository, never()).removeTodoTagsExcept(any(), any(), any());
+    }
+
+    @Test
+    void testSetTags_SameTags_WritesNothing() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        todo1.setTagIds(new Long[] {7L, 8L});
+        when(tagRepository.countByOwnerIdAndIdIn(normalUser.getId(), List.of(8L, 7L))).thenReturn(2L);
+
+        TodoResponse result = todoService.setTags(todo1.getId(), new TodoTagsRequest(List.of(8L, 7L)), null);
+
+        assertEquals(List.of(7L, 8L), result.getTagIds());
+        verify(tagRepository, never()).addTodoTags(any(), any(), any());
+        verify(tagRepository, never()).removeTodoTagsExcept(any(), any(), any());
+    }
+
+    @Test
+    void testSetTags_TagOfAnotherUser_ThrowsNotFound() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        when(tagRepository.countByOwnerIdAndIdIn(normalUser.getId(), List.of(7L, 20L))).thenReturn(1L);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> todoService.setTags(todo1.getId(), new TodoTagsRequest(List.of(7L, 20L)), null));
+        verify(tagRepository, never()).addTodoTags(any(), any(), any());
+    }
+
+    @Test
+    void testSetTags_OtherUsersTodo_ThrowsUnauthorized() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(UnauthorizedException.class,
+                () -> todoService.setTags(todo3.getId(), new TodoTagsRequest(List.of()), null));
+    }
+
+    private ArchivedTodo archivedTodo(Long id, User owner, OffsetDateTime createdAt) {
+        ArchivedTodo archived = new ArchivedTodo();
+        archived.setId(id);
+        archived.setTitle("Archived Todo " + id);
+        archived.setCompleted(true);
+        archived.setOwner(owner);
+        archived.setFolder(folder1);
+        archived.setCreatedAt(createdAt);
+        archived.setUpdatedAt(createdAt);
+        archived.setArchivedAt(OffsetDateTime.now());
+        archived.setRank("M");
+        archived.setDueAt(createdAt.plusDays(1));
+        archived.setTemplateId(4L);
+        archived.setOccurrenceOn(createdAt.toLocalDate());
+        return archived;
+    }
+
+    @Test
+    void testReportTodo_QueuesAnotherUsersTodo() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        doReturn(buildAuthorities(moderatorRole)).when(authentication).getAuthorities();
+        when(moderationQueueRepository.countOpenReportsLocked(normalUser.getId())).thenReturn(19L);
+
+        MessageResponse response = todoService.reportTodo(todo3.getId(), new TodoReportRequest("  spam  "));
+
+        assertEquals("Todo reported for moderation", response.getMessage());
+        verify(moderationQueueRepository).report(todo3.getId(), moderatorUser.getId(), normalUser.getId(), "spam");
+    }
+
+    @Test
+    void testReportTodo_TodoTheReporterCannotView_ThrowsNotFoundLikeAMissingOne() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        doReturn(buildAuthorities(normalRole)).when(authentication).getAuthorities();
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.reportTodo(todo3.getId(), null));
+        assertThrows(ResourceNotFoundException.class, () -> todoService.reportTodo(99L, null));
+        verify(moderationQueueRepository, never()).report(any(), any(), any(), any());
+    }
+
+    @Test
+    void testReportTodo_TooManyOpenReports_ThrowsTooManyRequests() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+        doReturn(buildAuthorities(moderatorRole)).when(authentication).getAuthorities();
+        when(moderationQueueRepository.countOpenReportsLocked(normalUser.getId())).thenReturn(20L);
+
+        assertThrows(TooManyRequestsException.class, () -> todoService.reportTodo(todo3.getId(), null));
+        verify(moderationQueueRepository, never()).report(any(), any(), any(), any());
+    }
+
+    @Test
+    void testReportTodo_RejectsOwnTodo() {
+        when(authentication.getPrincipal()).thenReturn(normalUserDetails);
+
+        assertThrows(BadRequestException.class, () -> todoService.reportTodo(todo1.getId(), null));
+        verify(moderationQueueRepository, never()).report(any(), any(), any(), any());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,143 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.TodoCountsView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.impl.TodoStatsServiceImpl;
+import com.aifinancial.clarity.poc.stats.TodoStatsCache;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = LENIENT)
+public class TodoStatsServiceTest {
+
+    @Mock
+    private FolderRepository folderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoStatsServiceImpl todoStatsService;
+
+    @BeforeEach
+    void setUp() {
+        todoStatsService = new TodoStatsServiceImpl(folderRepository, userRepository, new TodoStatsCache(100), transactionManager);
+        List<TodoCountsView> rows = List.of(countsRow(null, null, 4, 1, 1), countsRow(10L, "Work", 3, 1, 0));
+        when(folderRepository.findTodoCountsByOwnerId(1L)).thenReturn(rows);
+        when(folderRepository.findTodoCountsByOwnerId(2L)).thenReturn(rows);
+        when(userRepository.existsById(2L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(Long userId, String role) {
+        UserDetailsImpl principal = new UserDetailsImpl(userId, "user" + userId, "user" + userId + "@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private TodoCountsView countsRow(Long folderId, String folderName, int total, int completed, int disabled) {
+        TodoCountsView row = mock(TodoCountsView.class);
+        when(row.getFolderId()).thenReturn(folderId);
+        when(row.getFolderName()).thenReturn(folderName);
+        when(row.getTodoCount()).thenReturn(total);
+        when(row.getCompletedCount()).thenReturn(completed);
+        when(row.getDisabledCount()).thenReturn(disabled);
+        return row;
+    }
+
+    @Test
+    void getCurrentUserStats_LoadsOnMissThenServesFromCache() {
+        authenticate(1L, "NORMAL");
+
+        TodoStatsResponse first = todoStatsService.getCurrentUserStats();
+        TodoStatsResponse second = todoStatsService.getCurrentUserStats();
+
+        assertEquals(first, second);
+        assertEquals(4, first.getOverall().getTotal());
+        assertEquals(3, first.getOverall().getOpen());
+        assertEquals(1, first.getUnfiled().getTotal());
+        assertEquals(1, first.getUnfiled().getDisabled());
+        assertEquals("Work", first.getFolders().get(0).getFolderName());
+        verify(folderRepository, times(1)).findTodoCountsByOwnerId(1L);
+    }
+
+    @Test
+    void getCurrentUserStats_ReloadsOnceTheChangeStampMoved() {
+        authenticate(1L, "NORMAL");
+        when(userRepository.findChangeStampByUserId(1L)).thenReturn(Optional.of(5L));
+        todoStatsService.getCurrentUserStats();
+        todoStatsService.getCurrentUserStats();
+
+        // Written on another node: no event reached this one, only the stamp moved
+        when(userRepository.findChangeStampByUserId(1L)).thenReturn(Optional.of(9L));
+        todoStatsService.getCurrentUserStats();
+
+        verify(folderRepository, times(2)).findTodoCountsByOwnerId(1L);
+    }
+
+    @Test
+    void getUserStats_OtherUser_NormalUser_ThrowsUnauthorized() {
+        authenticate(1L, "NORMAL");
+        assertThrows(UnauthorizedException.class, () -> todoStatsService.getUserStats(2L));
+        verify(folderRepository, never()).findTodoCountsByOwnerId(2L);
+    }
+
+    @Test
+    void getUserStats_OtherUser_Moderator_Succeeds() {
+        authenticate(3L, "MODERATOR");
+        assertEquals(2L, todoStatsService.getUserStats(2L).getUserId());
+    }
+
+    @Test
+    void getUserStats_UnknownUser_ThrowsNotFound() {
+        authenticate(3L, "SUPER_ADMIN");
+        when(folderRepository.findTodoCountsByOwnerId(99L)).thenReturn(List.of());
+        assertThrows(ResourceNotFoundException.class, () -> todoStatsService.getUserStats(99L));
+    }
+
+    @Test
+    void getUserStats_UserWithoutTodos_ReturnsZeros() {
+        authenticate(3L, "SUPER_ADMIN");
+        when(folderRepository.findTodoCountsByOwnerId(5L)).thenReturn(List.of());
+        when(userRepository.existsById(5L)).thenReturn(true);
+
+        TodoStatsResponse response = todoStatsService.getUserStats(5L);
+
+        assertEquals(0, response.getOverall().getTotal());
+        assertEquals(0, response.getFolders().size());
+    }
+}
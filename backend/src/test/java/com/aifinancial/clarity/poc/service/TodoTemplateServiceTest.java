@@ -0,0 +1,194 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.aifinancial.clarity.poc.constant.RecurrenceFrequency;
+import com.aifinancial.clarity.poc.constant.RoleConstants;
+import com.aifinancial.clarity.poc.dto.request.TodoTemplateRequest;
+import com.aifinancial.clarity.poc.dto.response.TodoTemplateResponse;
+import com.aifinancial.clarity.poc.exception.BadRequestException;
+import com.aifinancial.clarity.poc.exception.PreconditionFailedException;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.model.TodoTemplate;
+import com.aifinancial.clarity.poc.model.User;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoTemplateRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.impl.TodoTemplateServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = LENIENT)
+public class TodoTemplateServiceTest {
+
+    @Mock
+    private TodoTemplateRepository todoTemplateRepository;
+
+    @Mock
+    private FolderRepository folderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TodoTemplateServiceImpl todoTemplateService;
+
+    private User owner;
+    private TodoTemplate standup;
+
+    @BeforeEach
+    void setUp() {
+        todoTemplateService = new TodoTemplateServiceImpl(todoTemplateRepository, folderRepository, userRepository);
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "user1", "user1@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_" + RoleConstants.ROLE_NORMAL)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        owner = new User();
+        owner.setId(1L);
+        standup = new TodoTemplate();
+        standup.setId(5L);
+        standup.setOwner(owner);
+        standup.setTitle("standup");
+        standup.setFrequency(RecurrenceFrequency.DAILY);
+        standup.setVersion(2L);
+        when(todoTemplateRepository.findByIdAndOwnerId(5L, 1L)).thenReturn(Optional.of(standup));
+        when(todoTemplateRepository.saveAndFlush(any(TodoTemplate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.getReferenceById(1L)).thenReturn(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testCreateTemplate_WeeklyDefaultsToTheStartWeekday() {
+        LocalDate nextMonday = LocalDate.now(ZoneId.of("Europe/Berlin")).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        TodoTemplateResponse template = todoTemplateService.createTemplate(request(RecurrenceFrequency.WEEKLY, nextMonday));
+
+        assertEquals(List.of(DayOfWeek.MONDAY), template.getWeekdays());
+        assertEquals(nextMonday, template.getNextOccurrenceOn());
+        assertEquals("Europe/Berlin", template.getTimeZone());
+    }
+
+    @Test
+    void testCreateTemplate_StoresTheWeekdaysAsAMask() {
+        TodoTemplateRequest request = request(RecurrenceFrequency.WEEKLY, LocalDate.now());
+        request.setWeekdays(Set.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY));
+
+        TodoTemplateResponse template = todoTemplateService.createTemplate(request);
+
+        assertEquals(List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY), template.getWeekdays());
+        verify(todoTemplateRepository).saveAndFlush(argThat(saved -> saved.getWeekdays() == 0b10101));
+    }
+
+    @Test
+    void testCreateTemplate_StartingInThePastMaterializesFromToday() {
+        TodoTemplateRequest request = request(RecurrenceFrequency.DAILY, LocalDate.of(2020, 1, 1));
+        request.setTimeZone(null);
+
+        TodoTemplateResponse template = todoTemplateService.createTemplate(request);
+
+        assertEquals(LocalDate.now(ZoneId.of("UTC")), template.getNextOccurrenceOn());
+        assertEquals(List.of(), template.getWeekdays());
+        assertEquals("UTC", template.getTimeZone());
+    }
+
+    @Test
+    void testCreateTemplate_EndedInThePastHasNothingToMaterialize() {
+        TodoTemplateRequest request = request(RecurrenceFrequency.DAILY, LocalDate.of(2020, 1, 1));
+        request.setEndsOn(LocalDate.of(2020, 2, 1));
+
+        assertNull(todoTemplateService.createTemplate(request).getNextOccurrenceOn());
+    }
+
+    @Test
+    void testCreateTemplate_RejectsUnknownTimeZonesAndOffsets() {
+        TodoTemplateRequest request = request(RecurrenceFrequency.DAILY, LocalDate.now());
+        request.setTimeZone("Mars/Olympus");
+        assertThrows(BadRequestException.class, () -> todoTemplateService.createTemplate(request));
+
+        request.setTimeZone("UTC+01:00");
+        assertThrows(BadRequestException.class, () -> todoTemplateService.createTemplate(request));
+        verify(todoTemplateRepository, never()).saveAndFlush(any(TodoTemplate.class));
+    }
+
+    @Test
+    void testCreateTemplate_RejectsAnEndBeforeTheStart() {
+        TodoTemplateRequest request = request(RecurrenceFrequency.DAILY, LocalDate.of(2030, 5, 2));
+        request.setEndsOn(LocalDate.of(2030, 5, 1));
+
+        assertThrows(BadRequestException.class, () -> todoTemplateService.createTemplate(request));
+    }
+
+    @Test
+    void testCreateTemplate_RejectsAFolderOfAnotherUser() {
+        User stranger = new User();
+        stranger.setId(2L);
+        Folder folder = new Folder();
+        folder.setId(9L);
+        folder.setOwner(stranger);
+        when(folderRepository.findById(9L)).thenReturn(Optional.of(folder));
+        TodoTemplateRequest request = request(RecurrenceFrequency.DAILY, LocalDate.now());
+        request.setFolderId(9L);
+
+        assertThrows(UnauthorizedException.class, () -> todoTemplateService.createTemplate(request));
+    }
+
+    @Test
+    void testUpdateTemplate_ChecksIfMatchAndHidesOtherUsersTemplates() {
+        TodoTemplateRequest request = request(RecurrenceFrequency.DAILY, LocalDate.now());
+
+        assertThrows(PreconditionFailedException.class, () -> todoTemplateService.updateTemplate(5L, request, Set.of(1L)));
+        assertThrows(ResourceNotFoundException.class, () -> todoTemplateService.updateTemplate(6L, request, null));
+        assertEquals("water plants", todoTemplateService.updateTemplate(5L, request, Set.of(2L)).getTitle());
+    }
+
+    @Test
+    void testDeleteTemplate_ChecksIfMatch() {
+        assertThrows(PreconditionFailedException.class, () -> todoTemplateService.deleteTemplate(5L, Set.of(3L)));
+        verify(todoTemplateRepository, never()).delete(any(TodoTemplate.class));
+
+        todoTemplateService.deleteTemplate(5L, null);
+        verify(todoTemplateRepository).delete(standup);
+    }
+
+    private static TodoTemplateRequest request(RecurrenceFrequency frequency, LocalDate startsOn) {
+        return TodoTemplateRequest.builder()
+                .title("water plants")
+                .frequency(frequency)
+                .startsOn(startsOn)
+                .dueTime(LocalTime.of(9, 0))
+                .timeZone("Europe/Berlin")
+                .build();
+    }
+}
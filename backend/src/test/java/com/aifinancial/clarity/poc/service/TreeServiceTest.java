@@ -0,0 +1,190 @@
+package com.aifinancial.clarity.poc.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import static org.mockito.quality.Strictness.LENIENT;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.aifinancial.clarity.poc.dto.response.CursorPage;
+import com.aifinancial.clarity.poc.dto.response.FolderTreeNodeResponse;
+import com.aifinancial.clarity.poc.dto.response.FolderTreeResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoSummaryResponse;
+import com.aifinancial.clarity.poc.exception.ResourceNotFoundException;
+import com.aifinancial.clarity.poc.exception.UnauthorizedException;
+import com.aifinancial.clarity.poc.model.Folder;
+import com.aifinancial.clarity.poc.repository.FolderRepository;
+import com.aifinancial.clarity.poc.repository.TodoRepository;
+import com.aifinancial.clarity.poc.repository.UserRepository;
+import com.aifinancial.clarity.poc.repository.projection.TodoSummaryView;
+import com.aifinancial.clarity.poc.security.UserDetailsImpl;
+import com.aifinancial.clarity.poc.service.impl.TreeServiceImpl;
+import com.aifinancial.clarity.poc.util.CursorCodec;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = LENIENT)
+public class TreeServiceTest {
+
+    @Mock
+    private FolderRepository folderRepository;
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TreeServiceImpl treeService;
+
+    @BeforeEach
+    void setUp() {
+        treeService = new TreeServiceImpl(folderRepository, todoRepository, userRepository);
+        Folder work = folder(10L, "Work", null);
+        Folder reports = folder(11L, "Reports", work);
+        Folder home = folder(12L, "Home", null);
+        when(folderRepository.findByOwnerIdOrderByCreatedAtDesc(1L)).thenReturn(List.of(reports, home, work));
+        when(userRepository.findChangeStampByUserId(anyLong())).thenReturn(Optional.of(7L));
+        when(userRepository.existsById(2L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(Long userId, String role) {
+        UserDetailsImpl principal = new UserDetailsImpl(userId, "user" + userId, "user" + userId + "@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private Folder folder(Long id, String name, Folder parent) {
+        Folder folder = new Folder();
+        folder.setId(id);
+        folder.setName(name);
+        folder.setParent(parent);
+        folder.setVersion(0L);
+        return folder;
+    }
+
+    private TodoSummaryView row(Long id, Long folderId, String rank) {
+        TodoSummaryView row = mock(TodoSummaryView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getTitle()).thenReturn("Todo " + id);
+        when(row.getFolderId()).thenReturn(folderId);
+        when(row.getRank()).thenReturn(rank);
+        when(row.getVersion()).thenReturn(0L);
+        return row;
+    }
+
+    @Test
+    void getTree_NestsFoldersAndTheirTodos() {
+        authenticate(1L, "NORMAL");
+        List<TodoSummaryView> rows = List.of(row(100L, 10L, "A"), row(101L, 11L, "B"), row(102L, null, "C"));
+        when(todoRepository.findTreeSummaries(1L, 3)).thenReturn(rows);
+
+        FolderTreeResponse tree = treeService.getTreeIfModified(null, 2, stamp -> false);
+
+        assertEquals(List.of(12L, 10L), tree.getFolders().stream().map(FolderTreeNodeResponse::getId).toList());
+        FolderTreeNodeResponse work = tree.getFolders().get(1);
+        assertEquals(List.of(100L), ids(work.getTodos()));
+        assertEquals(11L, work.getChildren().get(0).getId());
+        assertEquals(List.of(101L), ids(work.getChildren().get(0).getTodos()));
+        assertEquals(List.of(102L), ids(tree.getUnfiledTodos()));
+        assertNull(work.getTodosCursor());
+        assertNull(tree.getUnfiledTodosCursor());
+    }
+
+    @Test
+    void getTree_FolderPastTheLimit_GetsACursorAfterItsLastIncludedTodo() {
+        authenticate(1L, "NORMAL");
+        List<TodoSummaryView> rows = List.of(
+                row(100L, 10L, "A"), row(101L, 10L, "B"), row(102L, 10L, "C"), row(103L, 99L, "D"));
+        when(todoRepository.findTreeSummaries(1L, 3)).thenReturn(rows);
+
+        FolderTreeResponse tree = treeService.getTreeIfModified(null, 2, stamp -> false);
+
+        FolderTreeNodeResponse work = tree.getFolders().get(1);
+        assertEquals(List.of(100L, 101L), ids(work.getTodos()));
+        assertEquals(CursorCodec.encode("B", 101L), work.getTodosCursor());
+        // Todos of a folder that was not read are not shown as unfiled
+        assertEquals(List.of(), tree.getUnfiledTodos());
+    }
+
+    @Test
+    void getTree_NotModified_ReadsNothingElse() {
+        authenticate(1L, "NORMAL");
+
+        assertNull(treeService.getTreeIfModified(null, 50, stamp -> stamp == 7L));
+        verify(folderRepository, never()).findByOwnerIdOrderByCreatedAtDesc(anyLong());
+        verify(todoRepository, never()).findTreeSummaries(anyLong(), anyInt());
+    }
+
+    @Test
+    void getTree_OtherUser_NormalUser_ThrowsUnauthorized() {
+        authenticate(1L, "NORMAL");
+        assertThrows(UnauthorizedException.class, () -> treeService.getTreeIfModified(2L, 50, stamp -> false));
+    }
+
+    @Test
+    void getTree_OtherUser_Moderator_Succeeds() {
+        authenticate(3L, "MODERATOR");
+        when(todoRepository.findTreeSummaries(2L, 51)).thenReturn(List.of());
+        assertEquals(2L, treeService.getTreeIfModified(2L, 50, stamp -> false).getOwnerId());
+    }
+
+    @Test
+    void getTreeTodos_ContinuesAfterTheCursor() {
+        authenticate(1L, "NORMAL");
+        when(folderRepository.existsByIdAndOwnerId(10L, 1L)).thenReturn(true);
+        List<TodoSummaryView> rows = List.of(row(102L, 10L, "C"), row(103L, 10L, "D"), row(104L, 10L, "E"));
+        when(todoRepository.findSummariesInFolderAfter(1L, 10L, "B", 101L, 3)).thenReturn(rows);
+
+        CursorPage<TodoSummaryResponse> page = treeService.getTreeTodos(null, 10L, CursorCodec.encode("B", 101L), 2);
+
+        assertEquals(List.of(102L, 103L), ids(page.getItems()));
+        assertEquals(CursorCodec.encode("D", 103L), page.getNextCursor());
+    }
+
+    @Test
+    void getTreeTodos_Unfiled_StartsAtTheTop() {
+        authenticate(1L, "NORMAL");
+        List<TodoSummaryView> rows = List.of(row(102L, null, "C"));
+        when(todoRepository.findUnfiledSummariesAfter(1L, "", 0L, 101)).thenReturn(rows);
+
+        CursorPage<TodoSummaryResponse> page = treeService.getTreeTodos(null, null, null, 100);
+
+        assertEquals(List.of(102L), ids(page.getItems()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTreeTodos_FolderOfAnotherUser_ThrowsNotFound() {
+        authenticate(1L, "NORMAL");
+        when(folderRepository.existsByIdAndOwnerId(20L, 1L)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> treeService.getTreeTodos(null, 20L, null, 100));
+    }
+
+    private static List<Long> ids(List<TodoSummaryResponse> todos) {
+        return todos.stream().map(TodoSummaryResponse::getId).toList();
+    }
+}
@@ -0,0 +1,207 @@
+package com.aifinancial.clarity.poc.sse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.aifinancial.clarity.poc.dto.response.ChangeEvent;
+
+class ChangeEventBroadcasterTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long OTHER_USER_ID = 8L;
+
+    private ChangeEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ChangeEventBroadcaster(Duration.ofMinutes(1), Duration.ofMinutes(1), 4, 8, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void deliversEventsOnlyToTheirOwner() {
+        RecordingEmitter mine = subscribe(USER_ID, null);
+        RecordingEmitter other = subscribe(OTHER_USER_ID, null);
+
+        broadcaster.publish(event(USER_ID, 1L));
+        broadcaster.publish(event(USER_ID, 2L));
+
+        await(() -> mine.events().size() == 2);
+        assertTrue(mine.events().get(0).contains("event:change"));
+        assertTrue(mine.events().get(1).contains("ids=[2]"));
+        assertEquals(List.of(), other.events());
+    }
+
+    @Test
+    void resumeReplaysMissedEventsOfTheUser() {
+        RecordingEmitter first = subscribe(USER_ID, null);
+        broadcaster.publish(event(USER_ID, 1L));
+        await(() -> first.events().size() == 1);
+        String lastEventId = eventId(first.events().get(0));
+
+        broadcaster.publish(event(USER_ID, 2L));
+        broadcaster.publish(event(OTHER_USER_ID, 3L));
+        broadcaster.publish(event(USER_ID, 4L));
+        RecordingEmitter resumed = subscribe(USER_ID, lastEventId);
+
+        await(() -> resumed.events().size() == 2);
+        assertTrue(resumed.events().get(0).contains("ids=[2]"));
+        assertTrue(resumed.events().get(1).contains("ids=[4]"));
+    }
+
+    @Test
+    void resumeFromUnknownIdOrAcrossGapAsksForResync() {
+        RecordingEmitter first = subscribe(USER_ID, null);
+        broadcaster.publish(event(USER_ID, 1L));
+        await(() -> first.events().size() == 1);
+        String beforeGap = eventId(first.events().get(0));
+
+        broadcaster.publishGap();
+        await(() -> first.events().size() == 2);
+        assertTrue(first.events().get(1).contains("event:resync"));
+
+        RecordingEmitter acrossGap = subscribe(USER_ID, beforeGap);
+        RecordingEmitter afterGap = subscribe(USER_ID, eventId(first.events().get(1)));
+        RecordingEmitter otherNode = subscribe(USER_ID, "othernode-1");
+        broadcaster.publish(event(USER_ID, 2L));
+
+        await(() -> acrossGap.events().size() == 2 && afterGap.events().size() == 1 && otherNode.events().size() == 2);
+        assertTrue(acrossGap.events().get(0).contains("event:resync"));
+        assertTrue(afterGap.events().get(0).contains("ids=[2]"));
+        assertTrue(otherNode.events().get(0).contains("event:resync"));
+    }
+
+    @Test
+    void resumeFromBeyondTheReplayRingAsksForResync() {
+        RecordingEmitter first = subscribe(USER_ID, null);
+        broadcaster.publish(event(USER_ID, 1L));
+        await(() -> first.events().size() == 1);
+        String lastEventId = eventId(first.events().get(0));
+
+        for (long i = 0; i < 20; i++) {
+            broadcaster.publish(event(OTHER_USER_ID, i));
+        }
+        RecordingEmitter resumed = subscribe(USER_ID, lastEventId);
+
+        await(() -> resumed.events().size() == 1);
+        assertTrue(resumed.events().get(0).contains("event:resync"));
+    }
+
+    @Test
+    void slowStreamIsClosedWithoutHoldingBackOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        broadcaster.subscribe(USER_ID, null, slow);
+        RecordingEmitter fast = subscribe(USER_ID, null);
+
+        // One event is stuck in send, four fill the queue and the sixth overflows it
+        for (int i = 1; i <= 6; i++) {
+            broadcaster.publish(event(USER_ID, (long) i));
+            int delivered = i;
+            await(() -> fast.events().size() == delivered);
+        }
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+        release.countDown();
+    }
+
+    @Test
+    void stalledSendsAreDroppedWithoutStarvingHealthyStreams() {
+        ChangeEventBroadcaster timed = new ChangeEventBroadcaster(Duration.ofMinutes(1), Duration.ofMillis(100), 4, 8, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // More stalled clients than sender threads
+            for (long userId = 100; userId < 103; userId++) {
+                timed.subscribe(userId, null, new RecordingEmitter(release));
+                timed.publish(event(userId, userId));
+            }
+            RecordingEmitter healthy = new RecordingEmitter(null);
+            RecordingEmitter otherHealthy = new RecordingEmitter(null);
+            timed.subscribe(USER_ID, null, healthy);
+            timed.subscribe(OTHER_USER_ID, null, otherHealthy);
+
+            timed.publish(event(USER_ID, 1L));
+            timed.publish(event(OTHER_USER_ID, 2L));
+
+            await(() -> healthy.events().size() == 1 && otherHealthy.events().size() == 1);
+            await(() -> timed.getSubscriberCount() == 2);
+        } finally {
+            release.countDown();
+            timed.shutdown();
+        }
+    }
+
+    private RecordingEmitter subscribe(Long userId, String lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        broadcaster.subscribe(userId, lastEventId, emitter);
+        return emitter;
+    }
+
+    private ChangeEvent event(Long userId, Long id) {
+        return ChangeEvent.builder().userId(userId).type("TODO").op("UPDATE").ids(List.of(id)).build();
+    }
+
+    private String eventId(String event) {
+        return event.substring(3, event.indexOf('\n'));
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for events");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps what would be written to the stream, optionally blocking each send like a client
+     * that stopped reading
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream().map(part -> String.valueOf(part.getData())).collect(Collectors.joining()));
+        }
+
+        List<String> events() {
+            return events;
+        }
+    }
+}
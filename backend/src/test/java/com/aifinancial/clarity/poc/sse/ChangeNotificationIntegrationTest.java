@@ -0,0 +1,105 @@
+package com.aifinancial.clarity.poc.sse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import com.aifinancial.clarity.poc.PostgresIntegrationTest;
+import com.aifinancial.clarity.poc.dto.response.ChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the real migrations and checks that writes to todos and folders send one notification
+ * per owner and statement, and only once committed.
+ */
+class ChangeNotificationIntegrationTest extends PostgresIntegrationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Long userId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        userId = insertUser("listener");
+        otherUserId = insertUser("neighbour");
+    }
+
+    @Test
+    void notifiesEachOwnerOncePerStatement() throws Exception {
+        try (Connection connection = listen()) {
+            jdbcTemplate.update("""
+                    INSERT INTO todos (title, user_id)
+                    VALUES ('a', ?), ('b', ?), ('c', ?)
+                    """, userId, userId, otherUserId);
+
+            List<ChangeEvent> events = receive(connection);
+            assertEquals(2, events.size());
+            ChangeEvent mine = events.get(0);
+            assertEquals(userId, mine.getUserId());
+            assertEquals("TODO", mine.getType());
+            assertEquals("INSERT", mine.getOp());
+            assertEquals(jdbcTemplate.queryForList("SELECT id FROM todos WHERE user_id = ? ORDER BY id", Long.class, userId),
+                    mine.getIds());
+            assertEquals(otherUserId, events.get(1).getUserId());
+        }
+    }
+
+    @Test
+    void folderDeleteNotifiesFolderAndCascadedTodos() throws Exception {
+        Long folderId = jdbcTemplate.queryForObject(
+                "INSERT INTO folders (name, user_id) VALUES ('f', ?) RETURNING id", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO todos (title, user_id, folder_id) VALUES ('a', ?, ?)", userId, folderId);
+
+        try (Connection connection = listen()) {
+            jdbcTemplate.update("DELETE FROM folders WHERE id = ?", folderId);
+
+            List<String> kinds = receive(connection).stream()
+                    .map(event -> event.getType() + " " + event.getOp())
+                    .sorted()
+                    .toList();
+            assertEquals(List.of("FOLDER DELETE", "TODO DELETE"), kinds);
+        }
+    }
+
+    @Test
+    void rolledBackWritesAreNotAnnounced() throws Exception {
+        try (Connection connection = listen(); Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement statement = writer.createStatement()) {
+                statement.execute("INSERT INTO todos (title, user_id) VALUES ('gone', " + userId + ")");
+            }
+            writer.rollback();
+
+            assertEquals(List.of(), receive(connection));
+        }
+    }
+
+    private Connection listen() throws Exception {
+        Connection connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + ChangeNotificationListener.CHANNEL);
+        }
+        return connection;
+    }
+
+    private List<ChangeEvent> receive(Connection connection) throws Exception {
+        List<ChangeEvent> events = new ArrayList<>();
+        PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(500);
+        if (notifications != null) {
+            for (PGNotification notification : notifications) {
+                events.add(objectMapper.readValue(notification.getParameter(), ChangeEvent.class));
+            }
+        }
+        events.sort(Comparator.comparing(ChangeEvent::getUserId));
+        return events;
+    }
+}
@@ -0,0 +1,182 @@
+package com.aifinancial.clarity.poc.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aifinancial.clarity.poc.dto.response.TodoCountsResponse;
+import com.aifinancial.clarity.poc.dto.response.TodoStatsResponse;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent;
+import com.aifinancial.clarity.poc.event.TodoChangedEvent.TodoState;
+import com.aifinancial.clarity.poc.event.TodoStatsInvalidatedEvent;
+import com.aifinancial.clarity.poc.repository.projection.TodoCountsView;
+
+class TodoStatsCacheTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long FOLDER_ID = 10L;
+
+    private TodoStatsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TodoStatsCache(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadedEntryReportsFolderAndUnfiledCounts() {
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        TodoStatsResponse response = cache.get(USER_ID, 3).orElseThrow();
+
+        assertCounts(response.getOverall(), 5, 2, 3, 1);
+        assertCounts(response.getFolders().get(0).getCounts(), 3, 1, 2, 0);
+        assertCounts(response.getUnfiled(), 2, 1, 1, 1);
+        assertEquals("Work", response.getFolders().get(0).getFolderName());
+    }
+
+    @Test
+    void entryIsAMissOnceTheChangeStampMoved() {
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        // A write on another node moved the stamp without any event reaching this one
+        assertTrue(cache.get(USER_ID, 4).isEmpty());
+
+        cache.install(USER_ID, 4, stats(6, 2, 1, 3, 1, 0));
+        assertCounts(cache.get(USER_ID, 4).orElseThrow().getOverall(), 6, 2, 4, 1);
+    }
+
+    @Test
+    void slowerLoadDoesNotReplaceANewerEntry() {
+        cache.install(USER_ID, 4, stats(6, 2, 1, 3, 1, 0));
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        assertCounts(cache.get(USER_ID, 4).orElseThrow().getOverall(), 6, 2, 4, 1);
+    }
+
+    @Test
+    void committedChangeDropsTheEntry() {
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        inTransaction(true, () -> {
+            cache.onTodoChanged(deleteFromFolder());
+            assertTrue(cache.get(USER_ID, 3).isPresent());
+        });
+
+        assertTrue(cache.get(USER_ID, 3).isEmpty());
+    }
+
+    @Test
+    void rolledBackChangeIsIgnored() {
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        inTransaction(false, () -> cache.onTodoChanged(deleteFromFolder()));
+
+        assertCounts(cache.get(USER_ID, 3).orElseThrow().getOverall(), 5, 2, 3, 1);
+    }
+
+    @Test
+    void changeThatLeavesTheCountsAloneKeepsTheEntry() {
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        TodoState state = new TodoState(FOLDER_ID, false, false);
+        inTransaction(true, () -> cache.onTodoChanged(new TodoChangedEvent(USER_ID, state, state)));
+
+        assertTrue(cache.get(USER_ID, 3).isPresent());
+    }
+
+    @Test
+    void invalidationDropsTheEntryAfterCommit() {
+        cache.install(USER_ID, 3, stats(5, 2, 1, 3, 1, 0));
+
+        inTransaction(true, () -> {
+            cache.onStatsInvalidated(new TodoStatsInvalidatedEvent(USER_ID));
+            assertTrue(cache.get(USER_ID, 3).isPresent());
+        });
+
+        assertTrue(cache.get(USER_ID, 3).isEmpty());
+    }
+
+    @Test
+    void cacheIsBoundedByMaxUsers() {
+        cache = new TodoStatsCache(2);
+        for (long userId = 1; userId <= 5; userId++) {
+            cache.install(userId, 1, stats(0, 0, 0, 0, 0, 0));
+        }
+
+        assertEquals(2, cache.size());
+    }
+
+    private void inTransaction(boolean commit, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        work.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (commit) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static TodoChangedEvent deleteFromFolder() {
+        return new TodoChangedEvent(USER_ID, new TodoState(FOLDER_ID, true, false), null);
+    }
+
+    private static UserTodoStats stats(int total, int completed, int disabled,
+                                       int folderTotal, int folderCompleted, int folderDisabled) {
+        return UserTodoStats.fromCounts(List.of(
+                new Row(null, null, total, completed, disabled),
+                new Row(FOLDER_ID, "Work", folderTotal, folderCompleted, folderDisabled)));
+    }
+
+    private static void assertCounts(TodoCountsResponse counts, int total, int completed, int open, int disabled) {
+        assertEquals(total, counts.getTotal());
+        assertEquals(completed, counts.getCompleted());
+        assertEquals(open, counts.getOpen());
+        assertEquals(disabled, counts.getDisabled());
+    }
+
+    private record Row(Long folderId, String folderName, int todoCount, int completedCount, int disabledCount)
+            implements TodoCountsView {
+
+        @Override
+        public Long getFolderId() {
+            return folderId;
+        }
+
+        @Override
+        public String getFolderName() {
+            return folderName;
+        }
+
+        @Override
+        public int getTodoCount() {
+            return todoCount;
+        }
+
+        @Override
+        public int getCompletedCount() {
+            return completedCount;
+        }
+
+        @Override
+        public int getDisabledCount() {
+            return disabledCount;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.aifinancial.clarity.poc.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.aifinancial.clarity.poc.exception.PreconditionFailedException;
+
+class ETagsTest {
+
+    @Test
+    void missingHeaderAndWildcardAreUnconditional() {
+        assertNull(ETags.parseIfMatch(null));
+        assertNull(ETags.parseIfMatch(" "));
+        assertNull(ETags.parseIfMatch("*"));
+    }
+
+    @Test
+    void everyListedTagIsAccepted() {
+        assertEquals(Set.of(3L), ETags.parseIfMatch("\"3\""));
+        assertEquals(Set.of(1L, 2L), ETags.parseIfMatch("\"1\", \"2\""));
+        assertEquals(Set.of(7L), ETags.parseIfMatch("\"todos-7\",\"7\""));
+    }
+
+    @Test
+    void weakTagsNeverMatch() {
+        assertEquals(Set.of(), ETags.parseIfMatch("W/\"3\""));
+        assertEquals(Set.of(4L), ETags.parseIfMatch("W/\"3\", \"4\""));
+    }
+
+    @Test
+    void malformedHeaderMatchesNothing() {
+        assertEquals(Set.of(), ETags.parseIfMatch("3"));
+        assertEquals(Set.of(), ETags.parseIfMatch("\"3\", \"4"));
+    }
+
+    @Test
+    void checkPassesWhenTheCurrentVersionIsListed() {
+        assertDoesNotThrow(() -> ETags.checkIfMatch(null, 5L));
+        assertDoesNotThrow(() -> ETags.checkIfMatch(Set.of(4L, 5L), 5L));
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkIfMatch(Set.of(4L), 5L));
+        assertThrows(PreconditionFailedException.class, () -> ETags.checkIfMatch(Set.of(), 5L));
+    }
+}
@@ -0,0 +1,61 @@
+package com.aifinancial.clarity.poc.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class FolderTreesTest {
+
+    private record Node(Long id, Long parentId) {
+    }
+
+    @Test
+    void eachFolderIsFollowedByItsSubtreeInInputOrder() {
+        List<Node> folders = List.of(new Node(5L, 1L), new Node(2L, null), new Node(4L, 1L),
+                new Node(1L, null), new Node(6L, 4L), new Node(3L, 2L));
+
+        assertEquals(List.of(2L, 3L, 1L, 5L, 4L, 6L), ids(FolderTrees.depthFirst(folders, Node::id, Node::parentId)));
+    }
+
+    @Test
+    void foldersWithoutTheirParentInTheListAreRoots() {
+        List<Node> subtree = List.of(new Node(8L, 7L), new Node(7L, 3L));
+
+        assertEquals(List.of(7L, 8L), ids(FolderTrees.depthFirst(subtree, Node::id, Node::parentId)));
+    }
+
+    @Test
+    void deepTreesDoNotOverflowTheStack() {
+        List<Node> chain = new ArrayList<>();
+        for (long i = 1; i <= 100_000; i++) {
+            chain.add(new Node(i, i == 1 ? null : i - 1));
+        }
+
+        List<Node> ordered = FolderTrees.depthFirst(chain, Node::id, Node::parentId);
+
+        assertEquals(100_000, ordered.size());
+        assertEquals(100_000L, ordered.get(ordered.size() - 1).id());
+    }
+
+    @Test
+    void nestLinksChildrenInInputOrderAndReturnsTheRoots() {
+        List<Node> folders = List.of(new Node(5L, 1L), new Node(2L, null), new Node(4L, 1L),
+                new Node(1L, null), new Node(6L, 4L), new Node(8L, 7L));
+        Map<Long, List<Long>> children = new LinkedHashMap<>();
+
+        List<Node> roots = FolderTrees.nest(folders, Node::id, Node::parentId,
+                (parent, child) -> children.computeIfAbsent(parent.id(), key -> new ArrayList<>()).add(child.id()));
+
+        assertEquals(List.of(2L, 1L, 8L), ids(roots));
+        assertEquals(Map.of(1L, List.of(5L, 4L), 4L, List.of(6L)), children);
+    }
+
+    private static List<Long> ids(List<Node> nodes) {
+        return nodes.stream().map(Node::id).toList();
+    }
+}
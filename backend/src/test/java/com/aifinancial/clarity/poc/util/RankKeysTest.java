@@ -0,0 +1,74 @@
+package com.aifinancial.clarity.poc.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RankKeysTest {
+
+    @Test
+    void firstKeyIsTheMidpointDigit() {
+        assertEquals("V", RankKeys.between(null, null));
+    }
+
+    @Test
+    void keysSortBetweenTheirBounds() {
+        assertBetween("A", "C", RankKeys.between("A", "C"));
+        assertBetween("A", "B", RankKeys.between("A", "B"));
+        assertBetween("A", "A1", RankKeys.between("A", "A1"));
+        assertBetween("Az", "B", RankKeys.between("Az", "B"));
+        assertBetween("zz", null, RankKeys.between("zz", null));
+        assertBetween(null, "01", RankKeys.between(null, "01"));
+    }
+
+    @Test
+    void repeatedInsertsAtTheEndsStayOrderedAndGrowSlowly() {
+        String top = RankKeys.between(null, null);
+        String bottom = top;
+        for (int i = 0; i < 100; i++) {
+            String newTop = RankKeys.between(null, top);
+            assertBetween(null, top, newTop);
+            top = newTop;
+            String newBottom = RankKeys.between(bottom, null);
+            assertBetween(bottom, null, newBottom);
+            bottom = newBottom;
+        }
+        assertTrue(top.length() <= 5, top);
+        assertTrue(bottom.length() <= 5, bottom);
+    }
+
+    @Test
+    void randomPlacementsKeepTheListSorted() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int position = random.nextInt(keys.size() + 1);
+            String lower = position > 0 ? keys.get(position - 1) : null;
+            String upper = position < keys.size() ? keys.get(position) : null;
+            String key = RankKeys.between(lower, upper);
+            assertBetween(lower, upper, key);
+            keys.add(position, key);
+        }
+    }
+
+    @Test
+    void rejectsBoundsWithoutRoomOrInvalidKeys() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("B", "A"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("A", "A"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("A0", null));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("A-", null));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between(null, ""));
+    }
+
+    private static void assertBetween(String lower, String upper, String key) {
+        assertTrue(lower == null || lower.compareTo(key) < 0, () -> key + " is not above " + lower);
+        assertTrue(upper == null || key.compareTo(upper) < 0, () -> key + " is not below " + upper);
+        assertTrue(key.charAt(key.length() - 1) != '0', () -> key + " ends in a zero");
+    }
+}
@@ -0,0 +1,102 @@
+-- todos_partitioning.sql
+-- Description: Compares per-owner todo queries on the single heap table used up to V7 with the
+-- hash-partitioned layout of V8__partition_todos_by_user.sql, on the same seeded rows.
+--
+-- Run against a scratch database (not the application database):
+--     psql -d clarity_bench -f db/benchmark/todos_partitioning.sql
+-- Everything lives in schema todo_bench, which is dropped and rebuilt on every run.
+-- Seeds 20,000 users x 200 todos = 4,000,000 rows per layout; change generate_series below to scale.
+
+\timing on
+
+DROP SCHEMA IF EXISTS todo_bench CASCADE;
+CREATE SCHEMA todo_bench;
+
+-- 1. Layout before V8: one heap table with the V2/V4/V7 indexes
+CREATE TABLE todo_bench.todos_heap (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(1000),
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    disabled BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id BIGINT NOT NULL,
+    folder_id BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE
+);
+
+-- 2. Layout of V8: sixteen hash partitions on user_id
+CREATE TABLE todo_bench.todos_hash (LIKE todo_bench.todos_heap INCLUDING DEFAULTS)
+    PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE todo_bench.todos_hash_p%s PARTITION OF todo_bench.todos_hash FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- 3. Same rows in both. Ids are assigned in creation order across all users, as the
+-- sequence does in production, so one user's todos are scattered over the heap.
+INSERT INTO todo_bench.todos_heap (id, title, description, completed, disabled, user_id, folder_id, created_at, updated_at)
+SELECT row_number() OVER (ORDER BY n, u),
+       'todo ' || n, repeat('x', 80), n % 3 = 0, n % 50 = 0, u, u * 10 + n % 5,
+       now() - make_interval(mins => 200 - n), now() - make_interval(mins => 200 - n)
+FROM generate_series(1, 20000) u, generate_series(1, 200) n;
+
+INSERT INTO todo_bench.todos_hash SELECT * FROM todo_bench.todos_heap;
+
+ALTER TABLE todo_bench.todos_hash ADD PRIMARY KEY (id, user_id);
+CREATE INDEX ON todo_bench.todos_heap (user_id, updated_at);
+CREATE INDEX ON todo_bench.todos_heap (user_id, created_at);
+CREATE INDEX ON todo_bench.todos_heap (folder_id);
+CREATE INDEX ON todo_bench.todos_hash (user_id, updated_at);
+CREATE INDEX ON todo_bench.todos_hash (user_id, created_at);
+CREATE INDEX ON todo_bench.todos_hash (folder_id);
+
+VACUUM ANALYZE todo_bench.todos_heap;
+VACUUM ANALYZE todo_bench.todos_hash;
+
+-- 4. Size of the unit vacuum and index maintenance work on: the whole table vs one partition
+SELECT 'heap' AS layout,
+       pg_size_pretty(pg_table_size('todo_bench.todos_heap')) AS table_size,
+       pg_size_pretty(pg_indexes_size('todo_bench.todos_heap')) AS index_size
+UNION ALL
+SELECT 'one partition',
+       pg_size_pretty(pg_table_size('todo_bench.todos_hash_p00')),
+       pg_size_pretty(pg_indexes_size('todo_bench.todos_hash_p00'));
+
+-- 5. TodoRepository.findByOwnerOrderByCreatedAtDesc
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM todo_bench.todos_heap WHERE user_id = 4242 ORDER BY created_at DESC;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM todo_bench.todos_hash WHERE user_id = 4242 ORDER BY created_at DESC;
+
+-- 6. TodoRepository.findByIdAndOwnerId: the partition key prunes to one partition
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM todo_bench.todos_heap WHERE id = 2000000 AND user_id = 20000;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM todo_bench.todos_hash WHERE id = 2000000 AND user_id = 20000;
+
+-- 7. Lookup by id alone (moderator paths): without the key every partition is probed
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM todo_bench.todos_hash WHERE id = 2000000;
+
+-- 8. Latest change of one user, as read by the moderator overview
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT max(updated_at) FROM todo_bench.todos_heap WHERE user_id = 4242;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT max(updated_at) FROM todo_bench.todos_hash WHERE user_id = 4242;
+
+-- 9. Maintenance after churn on the owners of one partition (1/16 of the rows): the heap
+-- table is vacuumed and reindexed as a whole, the partitioned layout only where rows changed
+UPDATE todo_bench.todos_heap SET completed = NOT completed
+WHERE user_id IN (SELECT DISTINCT user_id FROM todo_bench.todos_hash_p00);
+UPDATE todo_bench.todos_hash SET completed = NOT completed
+WHERE user_id IN (SELECT DISTINCT user_id FROM todo_bench.todos_hash_p00);
+VACUUM todo_bench.todos_heap;
+VACUUM todo_bench.todos_hash_p00;
+REINDEX TABLE todo_bench.todos_heap;
+REINDEX TABLE todo_bench.todos_hash_p00;
@@ -0,0 +1,14 @@
+-- V10__add_entity_versions.sql
+-- Description: Adds optimistic-locking version columns to todos and folders. Hibernate bumps
+-- the version in the same UPDATE that writes the row and checks it in the WHERE clause.
+
+-- Constant defaults are stored in the catalog, so none of these rewrite the tables
+ALTER TABLE todos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE folders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Archived todos keep the version they had when they were moved
+ALTER TABLE todos_archive ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN todos.version IS 'Optimistic-locking version, incremented on every update; exposed as the ETag';
+COMMENT ON COLUMN folders.version IS 'Optimistic-locking version, incremented on every update; exposed as the ETag';
+COMMENT ON COLUMN todos_archive.version IS 'Version the todo had when it was archived';
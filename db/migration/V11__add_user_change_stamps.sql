@@ -0,0 +1,94 @@
+-- V11__add_user_change_stamps.sql
+-- Description: Adds a per-user change stamp to user_todo_stats, bumped by triggers on every
+-- write to a user's todos or folders. List endpoints use it as their ETag and answer
+-- If-None-Match with 304 after one primary-key lookup, without reading todos or folders.
+
+-- 1. Stamp column. Values come from one sequence, so a stamp identifies a single user's state
+-- and is never reused; 0 means the user has never written anything.
+CREATE SEQUENCE user_change_stamp_seq;
+
+ALTER TABLE user_todo_stats ADD COLUMN change_stamp BIGINT NOT NULL DEFAULT 0;
+
+-- Users created since V6 who only have folders have no stats row yet
+INSERT INTO user_todo_stats (user_id)
+SELECT id FROM users
+ON CONFLICT (user_id) DO NOTHING;
+
+UPDATE user_todo_stats SET change_stamp = nextval('user_change_stamp_seq');
+
+-- 2. Todo writes: the counter function now visits every owner in the statement, including
+-- those whose counts did not move (e.g. a title edit), and bumps their stamp. The stamp is
+-- drawn under the row lock, so it only ever grows for a user.
+CREATE OR REPLACE FUNCTION apply_todo_counter_deltas(deltas todo_counter_delta[]) RETURNS void AS $$
+BEGIN
+    -- Lock folders in id order so concurrent moves across the same folders cannot deadlock
+    PERFORM 1 FROM folders
+    WHERE id IN (SELECT d.folder_id FROM unnest(deltas) d WHERE d.folder_id IS NOT NULL)
+    ORDER BY id
+    FOR UPDATE;
+
+    UPDATE folders f
+    SET todo_count = f.todo_count + d.todo_delta,
+        completed_count = f.completed_count + d.completed_delta,
+        disabled_count = f.disabled_count + d.disabled_delta
+    FROM (
+        SELECT folder_id,
+               sum(todo_delta) AS todo_delta,
+               sum(completed_delta) AS completed_delta,
+               sum(disabled_delta) AS disabled_delta
+        FROM unnest(deltas)
+        WHERE folder_id IS NOT NULL
+        GROUP BY folder_id
+    ) d
+    WHERE f.id = d.folder_id
+      AND (d.todo_delta <> 0 OR d.completed_delta <> 0 OR d.disabled_delta <> 0);
+
+    -- Users deleted in this statement (cascading to their todos) are skipped
+    INSERT INTO user_todo_stats AS s (user_id, todo_count, completed_count, disabled_count, change_stamp)
+    SELECT d.user_id, d.todo_delta, d.completed_delta, d.disabled_delta, nextval('user_change_stamp_seq')
+    FROM (
+        SELECT user_id,
+               sum(todo_delta) AS todo_delta,
+               sum(completed_delta) AS completed_delta,
+               sum(disabled_delta) AS disabled_delta
+        FROM unnest(deltas)
+        GROUP BY user_id
+    ) d
+    WHERE EXISTS (SELECT 1 FROM users u WHERE u.id = d.user_id)
+    ORDER BY d.user_id
+    ON CONFLICT (user_id) DO UPDATE
+    SET todo_count = s.todo_count + EXCLUDED.todo_count,
+        completed_count = s.completed_count + EXCLUDED.completed_count,
+        disabled_count = s.disabled_count + EXCLUDED.disabled_count,
+        change_stamp = nextval('user_change_stamp_seq'),
+        updated_at = CURRENT_TIMESTAMP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 3. Folder writes. Updates that only move the counters come from the function above, which
+-- has already bumped the owner, so they are left out.
+CREATE OR REPLACE FUNCTION folders_bump_change_stamp() RETURNS trigger AS $$
+DECLARE
+    owner_id BIGINT := CASE WHEN TG_OP = 'DELETE' THEN OLD.user_id ELSE NEW.user_id END;
+BEGIN
+    -- Skipped when the owner itself is being deleted
+    INSERT INTO user_todo_stats AS s (user_id, change_stamp)
+    SELECT u.id, nextval('user_change_stamp_seq') FROM users u WHERE u.id = owner_id
+    ON CONFLICT (user_id) DO UPDATE
+    SET change_stamp = nextval('user_change_stamp_seq');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_folders_change_stamp_insert_delete
+    AFTER INSERT OR DELETE ON folders
+    FOR EACH ROW EXECUTE FUNCTION folders_bump_change_stamp();
+
+CREATE TRIGGER trg_folders_change_stamp_update
+    AFTER UPDATE ON folders
+    FOR EACH ROW
+    WHEN ((OLD.todo_count, OLD.completed_count, OLD.disabled_count)
+          IS NOT DISTINCT FROM (NEW.todo_count, NEW.completed_count, NEW.disabled_count))
+    EXECUTE FUNCTION folders_bump_change_stamp();
+
+COMMENT ON COLUMN user_todo_stats.change_stamp IS 'Bumped from user_change_stamp_seq on every write to the user''s todos or folders; ETag of the list endpoints';
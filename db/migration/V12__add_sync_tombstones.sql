@@ -0,0 +1,49 @@
+-- V12__add_sync_tombstones.sql
+-- Description: Adds sync_tombstones, which records deleted todos and folders so GET /sync can
+-- report deletions since a client's cursor, and an index that serves the folders side of it.
+
+-- 1. Tombstones. The id orders tombstones that share a deleted_at within one cursor position.
+CREATE TABLE sync_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(10) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_sync_tombstone_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT chk_sync_tombstone_entity_type CHECK (entity_type IN ('TODO', 'FOLDER'))
+);
+
+CREATE INDEX idx_sync_tombstones_user_deleted_at ON sync_tombstones(user_id, deleted_at, id);
+-- Lets the purge job find expired tombstones without a full scan
+CREATE INDEX idx_sync_tombstones_deleted_at ON sync_tombstones(deleted_at);
+
+-- 2. Recorded by statement-level triggers, so deletes that never pass through the services
+-- (todos cascading from a folder delete, the archive job) leave a tombstone too.
+-- Owners deleted in the same statement are skipped, as their data goes away with them.
+CREATE OR REPLACE FUNCTION record_sync_tombstones() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO sync_tombstones (user_id, entity_type, entity_id)
+    SELECT o.user_id, TG_ARGV[0], o.id
+    FROM old_rows o
+    WHERE EXISTS (SELECT 1 FROM users u WHERE u.id = o.user_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_todos_sync_tombstones
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_sync_tombstones('TODO');
+
+CREATE TRIGGER trg_folders_sync_tombstones
+    AFTER DELETE ON folders
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_sync_tombstones('FOLDER');
+
+-- 3. Changed folders of one owner in updated_at order; todos already have idx_todos_user_updated_at
+CREATE INDEX idx_folders_user_updated_at ON folders(user_id, updated_at);
+
+COMMENT ON TABLE sync_tombstones IS 'Deleted todos and folders, reported by GET /sync until purged after sync.tombstones.retention';
+COMMENT ON COLUMN sync_tombstones.entity_type IS 'TODO or FOLDER';
+COMMENT ON COLUMN sync_tombstones.entity_id IS 'Id the deleted todo or folder had';
+COMMENT ON COLUMN sync_tombstones.deleted_at IS 'Start of the deleting transaction';
@@ -0,0 +1,63 @@
+-- V13__add_change_notifications.sql
+-- Description: Publishes every committed write to todos and folders on the entity_changes
+-- channel, so each application node can push it to the owner's open /sync/events streams
+-- from a single LISTEN connection.
+
+-- 1. One notification per owner and statement. NOTIFY is delivered at commit, so rolled back
+-- writes are never announced. Payload:
+--   {"userId": 1, "type": "TODO", "op": "UPDATE", "ids": [4, 7]}
+-- ids is null when a statement touched more than 100 rows of one owner, to stay far below the
+-- 8000 byte payload limit; clients then rely on GET /sync alone.
+CREATE OR REPLACE FUNCTION notify_entity_changes() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('entity_changes', json_build_object(
+                    'userId', o.user_id, 'type', TG_ARGV[0], 'op', TG_OP,
+                    'ids', CASE WHEN count(*) <= 100 THEN array_agg(o.id ORDER BY o.id) END)::text)
+        FROM old_rows o
+        GROUP BY o.user_id;
+    ELSE
+        PERFORM pg_notify('entity_changes', json_build_object(
+                    'userId', n.user_id, 'type', TG_ARGV[0], 'op', TG_OP,
+                    'ids', CASE WHEN count(*) <= 100 THEN array_agg(n.id ORDER BY n.id) END)::text)
+        FROM new_rows n
+        GROUP BY n.user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 2. A trigger with transition tables can only fire on one event, hence three per table.
+-- Folder updates include the counter updates made for todo writes, which change what the
+-- owner sees in the folder list.
+CREATE TRIGGER trg_todos_notify_insert
+    AFTER INSERT ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_entity_changes('TODO');
+
+CREATE TRIGGER trg_todos_notify_update
+    AFTER UPDATE ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_entity_changes('TODO');
+
+CREATE TRIGGER trg_todos_notify_delete
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_entity_changes('TODO');
+
+CREATE TRIGGER trg_folders_notify_insert
+    AFTER INSERT ON folders
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_entity_changes('FOLDER');
+
+CREATE TRIGGER trg_folders_notify_update
+    AFTER UPDATE ON folders
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_entity_changes('FOLDER');
+
+CREATE TRIGGER trg_folders_notify_delete
+    AFTER DELETE ON folders
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_entity_changes('FOLDER');
+
+COMMENT ON FUNCTION notify_entity_changes() IS 'Sends one entity_changes notification per owner for each statement writing todos or folders';
@@ -0,0 +1,28 @@
+-- V14__add_outbox.sql
+-- Description: Adds the outbox table. Services write a row in the same transaction as each todo,
+-- folder and role change; OutboxRelay drains it in batches to the configured sinks.
+
+-- 1. Pending events. Rows are deleted once every sink accepted them, so the table only holds
+-- what is still to be delivered. A crash between delivery and delete sends a batch again:
+-- delivery is at least once, and consumers deduplicate on id.
+CREATE TABLE outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000)
+);
+
+-- 2. The relay takes due events oldest first
+CREATE INDEX idx_outbox_next_attempt_at ON outbox(next_attempt_at, id);
+
+COMMENT ON TABLE outbox IS 'Todo, folder and user events awaiting delivery to downstream consumers';
+COMMENT ON COLUMN outbox.aggregate_type IS 'TODO, FOLDER or USER';
+COMMENT ON COLUMN outbox.event_type IS 'e.g. TODO_CREATED, FOLDER_DELETED, USER_ROLE_CHANGED';
+COMMENT ON COLUMN outbox.payload IS 'State of the aggregate after the change';
+COMMENT ON COLUMN outbox.attempts IS 'Failed delivery attempts so far';
+COMMENT ON COLUMN outbox.next_attempt_at IS 'Not retried before this time after a failed attempt';
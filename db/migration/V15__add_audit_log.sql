@@ -0,0 +1,26 @@
+-- V15__add_audit_log.sql
+-- Description: Adds the audit_log table for moderation and admin actions. AuditLogWriter buffers
+-- entries in memory and inserts them here in multi-row batches.
+
+-- 1. Audit entries. Actor and target are plain ids without foreign keys, so entries outlive the
+-- users and todos they name; the actor's username is copied for the same reason.
+CREATE TABLE audit_log (
+    id BIGSERIAL PRIMARY KEY,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    actor_id BIGINT,
+    actor_username VARCHAR(50),
+    action VARCHAR(50) NOT NULL,
+    target_type VARCHAR(20) NOT NULL,
+    target_id BIGINT NOT NULL,
+    details JSONB
+);
+
+-- 2. GET /admin/audit pages newest first, optionally narrowed to an actor or a target
+CREATE INDEX idx_audit_log_actor_id ON audit_log(actor_id, id);
+CREATE INDEX idx_audit_log_target ON audit_log(target_type, target_id, id);
+
+COMMENT ON TABLE audit_log IS 'Who disabled or enabled which todo and who changed which user''s role';
+COMMENT ON COLUMN audit_log.occurred_at IS 'Time of the audited action, not the time the entry was written';
+COMMENT ON COLUMN audit_log.actor_id IS 'User who performed the action, null for system actions';
+COMMENT ON COLUMN audit_log.action IS 'e.g. TODO_DISABLED, TODO_ENABLED, USER_ROLE_CHANGED';
+COMMENT ON COLUMN audit_log.details IS 'Action specific context, such as the previous and new role';
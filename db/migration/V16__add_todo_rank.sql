@@ -0,0 +1,56 @@
+-- V16__add_todo_rank.sql
+-- Description: Adds todos.rank, a fractional index that orders todos within a folder. A key is a
+-- string of base-62 digits compared bytewise; a key between two others can always be made, so
+-- moving a todo rewrites only that todo. TodoRankRebalanceJob respaces folders whose keys got long.
+
+-- 1. Evenly spaced keys for positions 1..total, used by this backfill, imports and rebalancing.
+-- One digit more than needed leaves about 62 free keys between neighbours at the same length.
+-- Trailing zeros are dropped: nothing sorts between "x" and "x0", so no key may end in one.
+CREATE OR REPLACE FUNCTION todo_rank_key(pos BIGINT, total BIGINT) RETURNS TEXT AS $$
+DECLARE
+    digits CONSTANT TEXT := '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz';
+    width INT := 2;
+    space NUMERIC := 62 * 62;
+    value NUMERIC;
+    key TEXT := '';
+BEGIN
+    WHILE space < (total + 1) * 62 LOOP
+        width := width + 1;
+        space := space * 62;
+    END LOOP;
+    value := pos * floor(space / (total + 1));
+    FOR i IN 1..width LOOP
+        key := substr(digits, mod(value, 62)::INT + 1, 1) || key;
+        value := floor(value / 62);
+    END LOOP;
+    RETURN rtrim(key, '0');
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT;
+
+-- 2. The column. COLLATE "C" compares bytes, which is the order the keys are generated in.
+ALTER TABLE todos ADD COLUMN rank VARCHAR(255) COLLATE "C";
+
+-- Keep the current newest-first order within each folder
+UPDATE todos t
+SET rank = r.rank
+FROM (
+    SELECT id, user_id,
+           todo_rank_key(row_number() OVER (PARTITION BY user_id, folder_id ORDER BY created_at DESC, id DESC),
+                         count(*) OVER (PARTITION BY user_id, folder_id)) AS rank
+    FROM todos
+) r
+WHERE t.id = r.id AND t.user_id = r.user_id;
+
+ALTER TABLE todos ALTER COLUMN rank SET NOT NULL;
+-- The application always sets a rank; rows written by plain SQL start in the middle of their
+-- folder ('V' is the midpoint digit), ordered among themselves by id
+ALTER TABLE todos ALTER COLUMN rank SET DEFAULT 'V';
+
+-- 3. Ordered reads of a folder and the neighbour lookups of a move. todos is partitioned on
+-- user_id, so each partition's index covers one user's folders.
+CREATE INDEX idx_todos_folder_rank ON todos(folder_id, rank);
+
+-- 4. Lets the rebalance job find long keys without scanning every todo
+CREATE INDEX idx_todos_rank_length ON todos((length(rank)));
+
+COMMENT ON COLUMN todos.rank IS 'Fractional index ordering the todo within its folder (or among unfiled todos); ties broken by id';
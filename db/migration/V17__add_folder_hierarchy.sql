@@ -0,0 +1,82 @@
+-- V17__add_folder_hierarchy.sql
+-- Description: Lets folders nest. folders.parent_id links a folder to its parent and
+-- folders.path holds the ids from the root down to the folder as an ltree, maintained by
+-- triggers, so a subtree is one indexed "path <@ root_path" lookup and moving a subtree
+-- rewrites the paths of that subtree only.
+
+CREATE EXTENSION IF NOT EXISTS ltree;
+
+-- 1. Columns. Existing folders become roots; deleting a folder deletes its subfolders.
+ALTER TABLE folders ADD COLUMN parent_id BIGINT;
+ALTER TABLE folders ADD CONSTRAINT fk_folder_parent FOREIGN KEY (parent_id) REFERENCES folders(id) ON DELETE CASCADE;
+
+ALTER TABLE folders ADD COLUMN path ltree;
+UPDATE folders SET path = text2ltree(id::text);
+ALTER TABLE folders ALTER COLUMN path SET NOT NULL;
+
+-- 2. Path of an inserted or re-parented folder, from its parent's path. The parent must belong
+-- to the same user and must not lie in the folder's own subtree.
+-- Tree changes of one user are serialized on the per-user advisory lock also taken by imports:
+-- a concurrent move could otherwise leave a new child with its parent's old path. The
+-- application takes the lock before writing, so the row lock is never taken first.
+CREATE OR REPLACE FUNCTION folders_set_path() RETURNS trigger AS $$
+DECLARE
+    parent_owner BIGINT;
+    parent_path ltree;
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.parent_id IS NOT DISTINCT FROM OLD.parent_id THEN
+        RETURN NEW;
+    END IF;
+    IF NEW.parent_id IS NULL THEN
+        NEW.path := text2ltree(NEW.id::text);
+        IF TG_OP = 'UPDATE' THEN
+            PERFORM pg_advisory_xact_lock(NEW.user_id);
+        END IF;
+        RETURN NEW;
+    END IF;
+
+    PERFORM pg_advisory_xact_lock(NEW.user_id);
+
+    SELECT user_id, path INTO parent_owner, parent_path FROM folders WHERE id = NEW.parent_id;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'Parent folder % does not exist', NEW.parent_id USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    IF parent_owner <> NEW.user_id THEN
+        RAISE EXCEPTION 'Parent folder % belongs to another user', NEW.parent_id USING ERRCODE = 'check_violation';
+    END IF;
+    IF TG_OP = 'UPDATE' AND parent_path <@ OLD.path THEN
+        RAISE EXCEPTION 'Folder % cannot be moved into its own subtree', NEW.id USING ERRCODE = 'check_violation';
+    END IF;
+    NEW.path := parent_path || text2ltree(NEW.id::text);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only fires when parent_id is written, which the counter and path updates below never do;
+-- the application writes it with every folder update, hence the early return above
+CREATE TRIGGER trg_folders_set_path
+    BEFORE INSERT OR UPDATE OF parent_id ON folders
+    FOR EACH ROW EXECUTE FUNCTION folders_set_path();
+
+-- 3. After a move, re-root the descendants: one UPDATE touching exactly the moved subtree
+CREATE OR REPLACE FUNCTION folders_move_subtree() RETURNS trigger AS $$
+BEGIN
+    UPDATE folders
+    SET path = NEW.path || subpath(path, nlevel(OLD.path))
+    WHERE path <@ OLD.path AND id <> NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_folders_move_subtree
+    AFTER UPDATE OF parent_id ON folders
+    FOR EACH ROW
+    WHEN (OLD.path IS DISTINCT FROM NEW.path)
+    EXECUTE FUNCTION folders_move_subtree();
+
+-- 4. Subtree lookups (path <@ ...) and child lookups, the latter also serving the cascade
+CREATE INDEX idx_folders_path ON folders USING GIST (path);
+CREATE INDEX idx_folders_parent_id ON folders(parent_id);
+
+COMMENT ON COLUMN folders.parent_id IS 'Parent folder of the same user; null for top-level folders';
+COMMENT ON COLUMN folders.path IS 'Folder ids from the root down to this folder, maintained by trg_folders_set_path and trg_folders_move_subtree';
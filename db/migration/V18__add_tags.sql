@@ -0,0 +1,73 @@
+-- V18__add_tags.sql
+-- Description: Adds per-user tags and the todo_tags link table. Each todo also carries its
+-- tag ids in todos.tag_ids, maintained by triggers on todo_tags and indexed with GIN together
+-- with user_id, so "has all of these tags" and "has any of these tags" are one index lookup
+-- (@> and &&) however many todos and tags a user has.
+
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- 1. Tags. Names are unique per user, ignoring case.
+CREATE TABLE tags (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_tag_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    -- Target of the composite key below, which keeps todos and their tags with one owner
+    CONSTRAINT uq_tags_id_user UNIQUE (id, user_id)
+);
+
+CREATE UNIQUE INDEX uq_tags_user_name ON tags(user_id, lower(name));
+
+-- 2. Links. Both keys carry user_id, so a todo can only be tagged with its owner's tags, and
+-- deleting a todo or a tag removes its links.
+CREATE TABLE todo_tags (
+    user_id BIGINT NOT NULL,
+    todo_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, todo_id, tag_id),
+    CONSTRAINT fk_todo_tag_todo FOREIGN KEY (todo_id, user_id) REFERENCES todos(id, user_id) ON DELETE CASCADE,
+    CONSTRAINT fk_todo_tag_tag FOREIGN KEY (tag_id, user_id) REFERENCES tags(id, user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_todo_tags_tag_id ON todo_tags(tag_id);
+
+-- 3. Denormalized tag ids on todos, sorted
+ALTER TABLE todos ADD COLUMN tag_ids BIGINT[] NOT NULL DEFAULT '{}';
+
+-- 4. Statement-level triggers: tagging many todos, or deleting a tag used by many, rewrites
+-- each affected todo once. The rewrite bumps version and updated_at, so ETags, GET /sync and
+-- the change stamp of V11 see tag changes like any other edit.
+CREATE OR REPLACE FUNCTION todo_tags_refresh_todos() RETURNS trigger AS $$
+BEGIN
+    UPDATE todos t
+    SET tag_ids = coalesce((SELECT array_agg(l.tag_id ORDER BY l.tag_id)
+                            FROM todo_tags l
+                            WHERE l.user_id = t.user_id AND l.todo_id = t.id), '{}'),
+        version = t.version + 1,
+        updated_at = CURRENT_TIMESTAMP
+    FROM (SELECT DISTINCT user_id, todo_id FROM changed_links) c
+    WHERE t.user_id = c.user_id AND t.id = c.todo_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_todo_tags_insert
+    AFTER INSERT ON todo_tags
+    REFERENCING NEW TABLE AS changed_links
+    FOR EACH STATEMENT EXECUTE FUNCTION todo_tags_refresh_todos();
+
+CREATE TRIGGER trg_todo_tags_delete
+    AFTER DELETE ON todo_tags
+    REFERENCING OLD TABLE AS changed_links
+    FOR EACH STATEMENT EXECUTE FUNCTION todo_tags_refresh_todos();
+
+-- 5. Tag filters. btree_gin lets user_id share the GIN index, so the lookup never reads
+-- postings of the other users in the same partition.
+CREATE INDEX idx_todos_user_tag_ids ON todos USING GIN (user_id, tag_ids);
+
+COMMENT ON TABLE tags IS 'Labels a user can attach to any number of their todos';
+COMMENT ON TABLE todo_tags IS 'Tags attached to todos; source of todos.tag_ids';
+COMMENT ON COLUMN todos.tag_ids IS 'Sorted ids of the todo''s tags, maintained by trg_todo_tags_*';
@@ -0,0 +1,57 @@
+-- V19__add_todo_due_dates.sql
+-- Description: Adds todos.due_at and todo_reminders, the reminders still to fire. A trigger keeps
+-- one reminder per open todo with a future due date. Each node loads the reminders due within the
+-- next few minutes from the index on due_at into an in-memory timing wheel, and claims them with
+-- SKIP LOCKED when they fire, so several nodes never deliver the same reminder.
+
+-- 1. Due dates
+ALTER TABLE todos ADD COLUMN due_at TIMESTAMP WITH TIME ZONE;
+
+-- 2. Pending reminders. A row is deleted once its reminder was delivered. seq grows with every
+-- insert or change, so a scheduler can pick up changes since its last read with one index scan.
+CREATE SEQUENCE todo_reminders_seq;
+
+CREATE TABLE todo_reminders (
+    todo_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    due_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    seq BIGINT NOT NULL DEFAULT nextval('todo_reminders_seq'),
+    PRIMARY KEY (todo_id, user_id),
+    CONSTRAINT fk_todo_reminder_todo FOREIGN KEY (todo_id, user_id) REFERENCES todos(id, user_id) ON DELETE CASCADE
+);
+
+ALTER SEQUENCE todo_reminders_seq OWNED BY todo_reminders.seq;
+
+CREATE INDEX idx_todo_reminders_due_at ON todo_reminders(due_at);
+CREATE INDEX idx_todo_reminders_seq ON todo_reminders(seq);
+
+-- 3. Arms, moves or cancels the reminder when due_at or completed changes. Due dates already in
+-- the past when they are set, and completed todos, get no reminder.
+CREATE OR REPLACE FUNCTION todos_sync_reminder() RETURNS trigger AS $$
+BEGIN
+    IF NEW.due_at IS NULL OR NEW.completed OR NEW.due_at <= now() THEN
+        DELETE FROM todo_reminders WHERE todo_id = NEW.id AND user_id = NEW.user_id;
+    ELSE
+        INSERT INTO todo_reminders (todo_id, user_id, due_at)
+        VALUES (NEW.id, NEW.user_id, NEW.due_at)
+        ON CONFLICT (todo_id, user_id)
+        DO UPDATE SET due_at = EXCLUDED.due_at, seq = EXCLUDED.seq;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_todos_reminder_insert
+    AFTER INSERT ON todos
+    FOR EACH ROW
+    WHEN (NEW.due_at IS NOT NULL)
+    EXECUTE FUNCTION todos_sync_reminder();
+
+CREATE TRIGGER trg_todos_reminder_update
+    AFTER UPDATE ON todos
+    FOR EACH ROW
+    WHEN (OLD.due_at IS DISTINCT FROM NEW.due_at OR OLD.completed IS DISTINCT FROM NEW.completed)
+    EXECUTE FUNCTION todos_sync_reminder();
+
+COMMENT ON COLUMN todos.due_at IS 'When the todo is due; a reminder fires then unless it is completed';
+COMMENT ON TABLE todo_reminders IS 'Reminders still to fire, maintained by trg_todos_reminder_*; deleted once delivered';
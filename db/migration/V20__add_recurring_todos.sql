@@ -0,0 +1,54 @@
+-- V20__add_recurring_todos.sql
+-- Description: Adds todo_templates, recurrence rules from which RecurringTodoMaterializerJob
+-- creates the occurrences of the coming days ahead of time, many templates per INSERT ... SELECT.
+-- Each template is due for materialization at its own jittered time, so the work is spread over
+-- the day instead of piling up at midnight. Occurrences are unique per template and date, so a
+-- batch that runs twice creates nothing twice.
+
+-- 1. Templates. weekdays is a bit mask of ISO days (bit 0 = Monday) used by WEEKLY rules;
+-- interval_count repeats every n days or weeks, counted from starts_on.
+CREATE TABLE todo_templates (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    folder_id BIGINT,
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(1000),
+    frequency VARCHAR(10) NOT NULL,
+    interval_count INT NOT NULL DEFAULT 1,
+    weekdays SMALLINT NOT NULL DEFAULT 0,
+    starts_on DATE NOT NULL,
+    ends_on DATE,
+    -- Local time at which occurrences are due; occurrences have no due date when null
+    due_time TIME,
+    time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC',
+    -- First date not materialized yet; null once the rule has ended
+    next_occurrence_on DATE,
+    -- When the materializer should next extend this template's occurrences
+    materialize_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_todo_template_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_todo_template_folder FOREIGN KEY (folder_id) REFERENCES folders(id) ON DELETE SET NULL,
+    CONSTRAINT chk_todo_template_frequency CHECK (frequency IN ('DAILY', 'WEEKLY')),
+    CONSTRAINT chk_todo_template_interval CHECK (interval_count BETWEEN 1 AND 365),
+    CONSTRAINT chk_todo_template_weekdays CHECK (frequency <> 'WEEKLY' OR weekdays BETWEEN 1 AND 127),
+    CONSTRAINT chk_todo_template_period CHECK (ends_on IS NULL OR ends_on >= starts_on)
+);
+
+CREATE INDEX idx_todo_templates_user_id ON todo_templates(user_id);
+CREATE INDEX idx_todo_templates_folder_id ON todo_templates(folder_id);
+CREATE INDEX idx_todo_templates_materialize_at ON todo_templates(materialize_at) WHERE next_occurrence_on IS NOT NULL;
+
+-- 2. Occurrences are ordinary todos that remember their template and date. Deleting a template
+-- keeps the occurrences already created.
+ALTER TABLE todos ADD COLUMN template_id BIGINT;
+ALTER TABLE todos ADD COLUMN occurrence_on DATE;
+ALTER TABLE todos ADD CONSTRAINT fk_todo_template FOREIGN KEY (template_id) REFERENCES todo_templates(id) ON DELETE SET NULL;
+
+-- Arbiter of the materializer's ON CONFLICT DO NOTHING
+CREATE UNIQUE INDEX uq_todos_template_occurrence ON todos(user_id, template_id, occurrence_on) WHERE template_id IS NOT NULL;
+
+COMMENT ON TABLE todo_templates IS 'Recurrence rules; RecurringTodoMaterializerJob creates their occurrences as todos ahead of time';
+COMMENT ON COLUMN todos.template_id IS 'Template this todo is an occurrence of; null for one-off todos';
+COMMENT ON COLUMN todos.occurrence_on IS 'Date of the occurrence, unique per template';
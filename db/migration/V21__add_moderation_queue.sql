@@ -0,0 +1,94 @@
+-- V21__add_moderation_queue.sql
+-- Description: Adds moderation_queue, the todos waiting for a moderator's decision, and
+-- moderation_rules, keywords whose hits are queued by a trigger on todos. Users add to the
+-- queue by reporting a todo. Moderators claim batches with FOR UPDATE SKIP LOCKED under a
+-- lease, so concurrent moderators never receive the same item and never wait on each other,
+-- and resolve many items with one statement.
+
+-- 1. Keyword rules, stored lower-cased and matched as substrings of title and description
+CREATE TABLE moderation_rules (
+    id BIGSERIAL PRIMARY KEY,
+    keyword VARCHAR(100) NOT NULL,
+    created_by BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_moderation_rule_creator FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT chk_moderation_rule_keyword CHECK (keyword = lower(keyword) AND length(keyword) > 0)
+);
+
+CREATE UNIQUE INDEX uq_moderation_rules_keyword ON moderation_rules(keyword);
+
+-- 2. The queue. An item is PENDING until a moderator resolves it; claimed_by and
+-- lease_expires_at mark it as being worked on, and it can be claimed again once the lease has
+-- expired. There is at most one pending item per todo: further reports raise report_count.
+CREATE TABLE moderation_queue (
+    id BIGSERIAL PRIMARY KEY,
+    todo_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    source VARCHAR(10) NOT NULL,
+    -- Matched keyword for RULE items, the reporter's reason for REPORT items
+    detail VARCHAR(200),
+    reported_by BIGINT,
+    report_count INT NOT NULL DEFAULT 0,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    claimed_by BIGINT,
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    resolution VARCHAR(10),
+    resolved_by BIGINT,
+    resolved_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_moderation_queue_todo FOREIGN KEY (todo_id, user_id) REFERENCES todos(id, user_id) ON DELETE CASCADE,
+    CONSTRAINT fk_moderation_queue_reporter FOREIGN KEY (reported_by) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT fk_moderation_queue_claimer FOREIGN KEY (claimed_by) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT fk_moderation_queue_resolver FOREIGN KEY (resolved_by) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT chk_moderation_queue_source CHECK (source IN ('RULE', 'REPORT')),
+    CONSTRAINT chk_moderation_queue_status CHECK (status IN ('PENDING', 'RESOLVED')),
+    CONSTRAINT chk_moderation_queue_resolution CHECK (resolution IS NULL OR resolution IN ('DISABLE', 'CLEAR'))
+);
+
+-- Oldest pending items first; the claim walks this index and skips the locked rows
+CREATE INDEX idx_moderation_queue_pending ON moderation_queue(id) WHERE status = 'PENDING';
+-- Arbiter of the ON CONFLICT clauses of the rule trigger and of reports
+CREATE UNIQUE INDEX uq_moderation_queue_pending_todo ON moderation_queue(todo_id, user_id) WHERE status = 'PENDING';
+CREATE INDEX idx_moderation_queue_todo ON moderation_queue(todo_id, user_id);
+
+-- 3. Statement-level triggers: queues the enabled todos whose title or description was
+-- written and contains a rule keyword, once per todo however many keywords match.
+-- Rules apply to todos written after the rule was added.
+CREATE OR REPLACE FUNCTION todos_queue_rule_hits() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO moderation_queue (todo_id, user_id, source, detail)
+        SELECT DISTINCT ON (n.id, n.user_id) n.id, n.user_id, 'RULE', r.keyword
+        FROM new_rows n
+        JOIN moderation_rules r ON strpos(lower(n.title || ' ' || coalesce(n.description, '')), r.keyword) > 0
+        WHERE NOT n.disabled
+        ORDER BY n.id, n.user_id, r.id
+        ON CONFLICT (todo_id, user_id) WHERE status = 'PENDING' DO NOTHING;
+    ELSE
+        -- Rank moves, completions and tag changes rewrite todos too; only new text is checked
+        INSERT INTO moderation_queue (todo_id, user_id, source, detail)
+        SELECT DISTINCT ON (n.id, n.user_id) n.id, n.user_id, 'RULE', r.keyword
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id AND o.user_id = n.user_id
+        JOIN moderation_rules r ON strpos(lower(n.title || ' ' || coalesce(n.description, '')), r.keyword) > 0
+        WHERE NOT n.disabled
+          AND (o.title IS DISTINCT FROM n.title OR o.description IS DISTINCT FROM n.description)
+        ORDER BY n.id, n.user_id, r.id
+        ON CONFLICT (todo_id, user_id) WHERE status = 'PENDING' DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_todos_moderation_insert
+    AFTER INSERT ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_queue_rule_hits();
+
+CREATE TRIGGER trg_todos_moderation_update
+    AFTER UPDATE ON todos
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_queue_rule_hits();
+
+COMMENT ON TABLE moderation_rules IS 'Lower-cased keywords; trg_todos_moderation_* queue todos whose text contains one';
+COMMENT ON TABLE moderation_queue IS 'Todos waiting for a moderator, claimed with SKIP LOCKED under a lease and resolved in bulk';
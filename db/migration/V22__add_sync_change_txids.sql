@@ -0,0 +1,52 @@
+-- V22__add_sync_change_txids.sql
+-- Description: Tags every todo, folder and tombstone row with the id of the transaction that
+-- last wrote it, so GET /sync can page on commit visibility instead of updated_at. updated_at
+-- is the start of the writing transaction; a long one (an import) commits well after it and
+-- could land behind a cursor that had already moved past it.
+
+-- 1. Columns. A constant default is stored in the catalog, so existing rows are not rewritten;
+-- '0' precedes every real transaction id and is visible in every snapshot. New rows then take
+-- the inserting transaction's id from the column default.
+ALTER TABLE todos ADD COLUMN change_txid xid8 NOT NULL DEFAULT '0';
+ALTER TABLE todos ALTER COLUMN change_txid SET DEFAULT pg_current_xact_id();
+
+ALTER TABLE folders ADD COLUMN change_txid xid8 NOT NULL DEFAULT '0';
+ALTER TABLE folders ALTER COLUMN change_txid SET DEFAULT pg_current_xact_id();
+
+ALTER TABLE sync_tombstones ADD COLUMN change_txid xid8 NOT NULL DEFAULT '0';
+ALTER TABLE sync_tombstones ALTER COLUMN change_txid SET DEFAULT pg_current_xact_id();
+
+-- 2. Updates take the updating transaction's id, whichever path they come from (JPA, the
+-- import MERGE, the bulk statements of the services and jobs)
+CREATE OR REPLACE FUNCTION set_change_txid() RETURNS trigger AS $$
+BEGIN
+    NEW.change_txid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_todos_change_txid
+    BEFORE UPDATE ON todos
+    FOR EACH ROW EXECUTE FUNCTION set_change_txid();
+
+-- Counter-only updates from apply_todo_counter_deltas are skipped, as in V11: a folder is
+-- synced again on its own changes, not on every write to its todos
+CREATE TRIGGER trg_folders_change_txid
+    BEFORE UPDATE ON folders
+    FOR EACH ROW
+    WHEN ((OLD.todo_count, OLD.completed_count, OLD.disabled_count)
+          IS NOT DISTINCT FROM (NEW.todo_count, NEW.completed_count, NEW.disabled_count))
+    EXECUTE FUNCTION set_change_txid();
+
+-- 3. The sync streams are read in (change_txid, id) order per owner
+CREATE INDEX idx_todos_user_change_txid ON todos(user_id, change_txid, id);
+CREATE INDEX idx_folders_user_change_txid ON folders(user_id, change_txid, id);
+CREATE INDEX idx_sync_tombstones_user_change_txid ON sync_tombstones(user_id, change_txid, id);
+
+-- Only GET /sync used these
+DROP INDEX idx_folders_user_updated_at;
+DROP INDEX idx_sync_tombstones_user_deleted_at;
+
+COMMENT ON COLUMN todos.change_txid IS 'Transaction that last inserted or updated the row; GET /sync position';
+COMMENT ON COLUMN folders.change_txid IS 'Transaction that last inserted or updated the row, counter updates aside; GET /sync position';
+COMMENT ON COLUMN sync_tombstones.change_txid IS 'Deleting transaction; GET /sync position';
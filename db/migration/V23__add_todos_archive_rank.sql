@@ -0,0 +1,8 @@
+-- V23__add_todos_archive_rank.sql
+-- Description: Adds todos_archive.rank, so archived todos keep their place within their folder
+-- and lists that include them can show them in order.
+
+-- Todos archived before this migration have no rank
+ALTER TABLE todos_archive ADD COLUMN rank VARCHAR(255) COLLATE "C";
+
+COMMENT ON COLUMN todos_archive.rank IS 'Rank the todo had in todos when it was archived, see V16';
@@ -0,0 +1,8 @@
+-- V24__add_todos_archive_due_at.sql
+-- Description: Adds todos_archive.due_at, so archived todos keep the due date they had and lists
+-- that include them can show it.
+
+-- Todos archived before this migration have no due date
+ALTER TABLE todos_archive ADD COLUMN due_at TIMESTAMP WITH TIME ZONE;
+
+COMMENT ON COLUMN todos_archive.due_at IS 'Due date the todo had in todos when it was archived, see V19';
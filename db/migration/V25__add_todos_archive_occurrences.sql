@@ -0,0 +1,17 @@
+-- V25__add_todos_archive_occurrences.sql
+-- Description: Adds todos_archive.template_id and occurrence_on, so an archived occurrence of a
+-- recurring todo is still known as one. The materializer checks them as well as todos before it
+-- creates an occurrence, so archiving a date no longer lets it be created again.
+
+-- Todos archived before this migration have neither
+ALTER TABLE todos_archive ADD COLUMN template_id BIGINT;
+ALTER TABLE todos_archive ADD COLUMN occurrence_on DATE;
+ALTER TABLE todos_archive ADD CONSTRAINT fk_todo_archive_template
+    FOREIGN KEY (template_id) REFERENCES todo_templates(id) ON DELETE SET NULL;
+
+-- The materializer's lookup. Not unique: the archive job must never fail on a row it moves.
+CREATE INDEX idx_todos_archive_template_occurrence ON todos_archive(template_id, occurrence_on)
+    WHERE template_id IS NOT NULL;
+
+COMMENT ON COLUMN todos_archive.template_id IS 'Template the todo was an occurrence of when it was archived, see V20';
+COMMENT ON COLUMN todos_archive.occurrence_on IS 'Date of the occurrence; the materializer does not create it again';
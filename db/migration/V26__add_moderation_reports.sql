@@ -0,0 +1,20 @@
+-- V26__add_moderation_reports.sql
+-- Description: Adds moderation_reports, who reported which queue item. A user's further reports
+-- of an item that is still pending no longer add to its report_count, and the open reports of
+-- each user can be counted to cap them.
+
+CREATE TABLE moderation_reports (
+    item_id BIGINT NOT NULL,
+    reporter_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (item_id, reporter_id),
+    CONSTRAINT fk_moderation_report_item FOREIGN KEY (item_id) REFERENCES moderation_queue(id) ON DELETE CASCADE,
+    CONSTRAINT fk_moderation_report_reporter FOREIGN KEY (reporter_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Counts a reporter's open reports
+CREATE INDEX idx_moderation_reports_reporter ON moderation_reports(reporter_id, item_id);
+
+COMMENT ON TABLE moderation_reports IS 'One row per user who reported a moderation queue item';
+COMMENT ON COLUMN moderation_reports.item_id IS 'Reported queue item; open while it is PENDING';
+COMMENT ON COLUMN moderation_reports.reporter_id IS 'User who reported it';
@@ -0,0 +1,38 @@
+-- V27__add_reminder_change_txids.sql
+-- Description: Tags every todo_reminders row with the id of the transaction that last wrote it,
+-- replacing seq, so a scheduler refill picks up changes by commit visibility as GET /sync does
+-- since V22. seq was drawn from the sequence when the row was written, not when it committed: a
+-- lower seq committing after a refill had read a higher one was skipped until the overdue grace.
+
+-- 1. Column. Existing rows keep '0', which every snapshot sees, and new rows take the inserting
+-- transaction's id from the column default
+ALTER TABLE todo_reminders ADD COLUMN change_txid xid8 NOT NULL DEFAULT '0';
+ALTER TABLE todo_reminders ALTER COLUMN change_txid SET DEFAULT pg_current_xact_id();
+
+-- 2. Moved due dates take the updating transaction's id, with set_change_txid() of V22
+CREATE TRIGGER trg_todo_reminders_change_txid
+    BEFORE UPDATE ON todo_reminders
+    FOR EACH ROW EXECUTE FUNCTION set_change_txid();
+
+CREATE INDEX idx_todo_reminders_change_txid ON todo_reminders(change_txid);
+
+-- 3. The upsert no longer draws a seq; the trigger above stamps the row instead
+CREATE OR REPLACE FUNCTION todos_sync_reminder() RETURNS trigger AS $$
+BEGIN
+    IF NEW.due_at IS NULL OR NEW.completed OR NEW.due_at <= now() THEN
+        DELETE FROM todo_reminders WHERE todo_id = NEW.id AND user_id = NEW.user_id;
+    ELSE
+        INSERT INTO todo_reminders (todo_id, user_id, due_at)
+        VALUES (NEW.id, NEW.user_id, NEW.due_at)
+        ON CONFLICT (todo_id, user_id)
+        DO UPDATE SET due_at = EXCLUDED.due_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- The sequence is owned by the column and goes with it
+DROP INDEX idx_todo_reminders_seq;
+ALTER TABLE todo_reminders DROP COLUMN seq;
+
+COMMENT ON COLUMN todo_reminders.change_txid IS 'Transaction that last inserted or updated the row; reminder refill position';
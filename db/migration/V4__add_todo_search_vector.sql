@@ -0,0 +1,15 @@
+-- V4__add_todo_search_vector.sql
+-- Description: Adds a generated full-text search vector over todo titles and descriptions.
+
+-- 1. Generated tsvector column; titles weigh more than descriptions when ranking
+ALTER TABLE todos
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- 2. GIN index used by the @@ match in todo search
+CREATE INDEX idx_todos_search_vector ON todos USING GIN (search_vector);
+
+COMMENT ON COLUMN todos.search_vector IS 'Full-text search vector over title (weight A) and description (weight B), maintained by PostgreSQL';
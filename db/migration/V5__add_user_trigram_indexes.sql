@@ -0,0 +1,9 @@
+-- V5__add_user_trigram_indexes.sql
+-- Description: Adds pg_trgm GIN indexes for substring and fuzzy user lookup.
+
+-- 1. Trigram support (on Azure Database for PostgreSQL, PG_TRGM must be allow-listed in azure.extensions)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 2. Trigram indexes; serve ILIKE '%...%' as well as the similarity (%) operator
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING GIN (username gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING GIN (email gin_trgm_ops);
@@ -0,0 +1,158 @@
+-- V6__add_todo_counters.sql
+-- Description: Adds denormalized todo counters to folders and a per-user stats table,
+-- kept exact by statement-level triggers on todos.
+
+-- 1. Counter columns on folders
+ALTER TABLE folders
+    ADD COLUMN todo_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN completed_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN disabled_count INTEGER NOT NULL DEFAULT 0;
+
+-- 2. Per-user stats row
+CREATE TABLE user_todo_stats (
+    user_id BIGINT PRIMARY KEY,
+    todo_count INTEGER NOT NULL DEFAULT 0,
+    completed_count INTEGER NOT NULL DEFAULT 0,
+    disabled_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_todo_stats_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- 3. Backfill from existing todos
+UPDATE folders f
+SET todo_count = c.todo_count,
+    completed_count = c.completed_count,
+    disabled_count = c.disabled_count
+FROM (
+    SELECT folder_id,
+           count(*) AS todo_count,
+           count(*) FILTER (WHERE completed) AS completed_count,
+           count(*) FILTER (WHERE disabled) AS disabled_count
+    FROM todos
+    WHERE folder_id IS NOT NULL
+    GROUP BY folder_id
+) c
+WHERE f.id = c.folder_id;
+
+INSERT INTO user_todo_stats (user_id, todo_count, completed_count, disabled_count)
+SELECT u.id,
+       count(t.id),
+       count(t.id) FILTER (WHERE t.completed),
+       count(t.id) FILTER (WHERE t.disabled)
+FROM users u
+LEFT JOIN todos t ON t.user_id = u.id
+GROUP BY u.id;
+
+-- 4. Counter maintenance
+-- Statement-level triggers with transition tables: a bulk statement (e.g. an import of
+-- 100k rows) costs one grouped update per affected folder/user instead of one per row.
+-- Counters only ever move by relative deltas, so concurrent writers stay exact; the
+-- folder and stats row locks serialize them.
+CREATE TYPE todo_counter_delta AS (
+    folder_id BIGINT,
+    user_id BIGINT,
+    todo_delta INTEGER,
+    completed_delta INTEGER,
+    disabled_delta INTEGER
+);
+
+CREATE OR REPLACE FUNCTION apply_todo_counter_deltas(deltas todo_counter_delta[]) RETURNS void AS $$
+BEGIN
+    -- Lock folders in id order so concurrent moves across the same folders cannot deadlock
+    PERFORM 1 FROM folders
+    WHERE id IN (SELECT d.folder_id FROM unnest(deltas) d WHERE d.folder_id IS NOT NULL)
+    ORDER BY id
+    FOR UPDATE;
+
+    UPDATE folders f
+    SET todo_count = f.todo_count + d.todo_delta,
+        completed_count = f.completed_count + d.completed_delta,
+        disabled_count = f.disabled_count + d.disabled_delta
+    FROM (
+        SELECT folder_id,
+               sum(todo_delta) AS todo_delta,
+               sum(completed_delta) AS completed_delta,
+               sum(disabled_delta) AS disabled_delta
+        FROM unnest(deltas)
+        WHERE folder_id IS NOT NULL
+        GROUP BY folder_id
+    ) d
+    WHERE f.id = d.folder_id
+      AND (d.todo_delta <> 0 OR d.completed_delta <> 0 OR d.disabled_delta <> 0);
+
+    -- Users deleted in this statement (cascading to their todos) are skipped
+    INSERT INTO user_todo_stats AS s (user_id, todo_count, completed_count, disabled_count)
+    SELECT d.user_id, d.todo_delta, d.completed_delta, d.disabled_delta
+    FROM (
+        SELECT user_id,
+               sum(todo_delta) AS todo_delta,
+               sum(completed_delta) AS completed_delta,
+               sum(disabled_delta) AS disabled_delta
+        FROM unnest(deltas)
+        GROUP BY user_id
+    ) d
+    WHERE (d.todo_delta <> 0 OR d.completed_delta <> 0 OR d.disabled_delta <> 0)
+      AND EXISTS (SELECT 1 FROM users u WHERE u.id = d.user_id)
+    ORDER BY d.user_id
+    ON CONFLICT (user_id) DO UPDATE
+    SET todo_count = s.todo_count + EXCLUDED.todo_count,
+        completed_count = s.completed_count + EXCLUDED.completed_count,
+        disabled_count = s.disabled_count + EXCLUDED.disabled_count,
+        updated_at = CURRENT_TIMESTAMP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION todos_maintain_counters() RETURNS trigger AS $$
+DECLARE
+    deltas todo_counter_delta[];
+BEGIN
+    -- Contributions of the affected rows, pre-grouped by folder and owner
+    IF TG_OP = 'INSERT' THEN
+        deltas := ARRAY(
+            SELECT ROW(folder_id, user_id, count(*),
+                       count(*) FILTER (WHERE completed), count(*) FILTER (WHERE disabled))::todo_counter_delta
+            FROM new_rows
+            GROUP BY folder_id, user_id);
+    ELSIF TG_OP = 'DELETE' THEN
+        deltas := ARRAY(
+            SELECT ROW(folder_id, user_id, -count(*),
+                       -count(*) FILTER (WHERE completed), -count(*) FILTER (WHERE disabled))::todo_counter_delta
+            FROM old_rows
+            GROUP BY folder_id, user_id);
+    ELSE
+        deltas := ARRAY(
+            SELECT ROW(folder_id, user_id, sum(todo_delta), sum(completed_delta), sum(disabled_delta))::todo_counter_delta
+            FROM (
+                SELECT folder_id, user_id, 1 AS todo_delta, completed::int AS completed_delta, disabled::int AS disabled_delta
+                FROM new_rows
+                UNION ALL
+                SELECT folder_id, user_id, -1, -completed::int, -disabled::int
+                FROM old_rows
+            ) changes
+            GROUP BY folder_id, user_id);
+    END IF;
+
+    PERFORM apply_todo_counter_deltas(deltas);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_todos_counters_insert
+    AFTER INSERT ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_maintain_counters();
+
+CREATE TRIGGER trg_todos_counters_update
+    AFTER UPDATE ON todos
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_maintain_counters();
+
+CREATE TRIGGER trg_todos_counters_delete
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_maintain_counters();
+
+COMMENT ON COLUMN folders.todo_count IS 'Number of todos in the folder, maintained by trg_todos_counters_*';
+COMMENT ON COLUMN folders.completed_count IS 'Number of completed todos in the folder, maintained by trg_todos_counters_*';
+COMMENT ON COLUMN folders.disabled_count IS 'Number of disabled todos in the folder, maintained by trg_todos_counters_*';
+COMMENT ON TABLE user_todo_stats IS 'Per-user todo counters, maintained by trg_todos_counters_*';
@@ -0,0 +1,8 @@
+-- V7__add_todo_user_activity_index.sql
+-- Description: Replaces the single-column todos(user_id) index with (user_id, updated_at)
+-- so a user's most recent todo change is a single index probe.
+
+CREATE INDEX idx_todos_user_updated_at ON todos(user_id, updated_at);
+
+-- The new index has user_id as its leading column and serves every lookup the old one did
+DROP INDEX IF EXISTS idx_todos_user_id;
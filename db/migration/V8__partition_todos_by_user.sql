@@ -0,0 +1,90 @@
+-- V8__partition_todos_by_user.sql
+-- Description: Rebuilds todos as a table hash-partitioned on user_id. Every todo query is
+-- per owner, so carrying user_id lets the planner touch a single partition and keeps
+-- vacuum and index maintenance local to a sixteenth of the data.
+
+-- 1. Keep writers out while the rows are copied
+LOCK TABLE todos IN ACCESS EXCLUSIVE MODE;
+
+-- The id sequence outlives the old table and keeps numbering where it left off
+ALTER SEQUENCE todos_id_seq OWNED BY NONE;
+
+-- 2. Partitioned parent. The primary key of a partitioned table must contain the
+-- partition key, so it becomes (id, user_id); ids stay unique through the sequence.
+CREATE TABLE todos_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('todos_id_seq'),
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(1000),
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    disabled BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id BIGINT NOT NULL,
+    folder_id BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED
+) PARTITION BY HASH (user_id);
+
+-- 3. Sixteen partitions, todos_p00 .. todos_p15
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE todos_p%s PARTITION OF todos_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- 4. Copy the rows before any index or trigger exists. The counters of V6 already
+-- describe these rows, so the counter triggers must not see the copy.
+INSERT INTO todos_partitioned (id, title, description, completed, disabled, user_id, folder_id, created_at, updated_at)
+SELECT id, title, description, completed, disabled, user_id, folder_id, created_at, updated_at
+FROM todos;
+
+-- 5. Swap the tables; dropping the old one also drops its indexes and triggers
+DROP TABLE todos;
+ALTER TABLE todos_partitioned RENAME TO todos;
+ALTER SEQUENCE todos_id_seq OWNED BY todos.id;
+
+-- 6. Keys and indexes. Indexes on the parent are created on every partition.
+ALTER TABLE todos ADD CONSTRAINT todos_pkey PRIMARY KEY (id, user_id);
+ALTER TABLE todos ADD CONSTRAINT fk_todo_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE todos ADD CONSTRAINT fk_todo_folder FOREIGN KEY (folder_id) REFERENCES folders(id) ON DELETE CASCADE;
+
+CREATE INDEX idx_todos_user_updated_at ON todos(user_id, updated_at);
+CREATE INDEX idx_todos_user_created_at ON todos(user_id, created_at);
+CREATE INDEX idx_todos_folder_id ON todos(folder_id);
+CREATE INDEX idx_todos_search_vector ON todos USING GIN (search_vector);
+
+-- 7. Counter triggers of V6. Statement triggers on the parent see the rows of all
+-- partitions in their transition tables.
+CREATE TRIGGER trg_todos_counters_insert
+    AFTER INSERT ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_maintain_counters();
+
+CREATE TRIGGER trg_todos_counters_update
+    AFTER UPDATE ON todos
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_maintain_counters();
+
+CREATE TRIGGER trg_todos_counters_delete
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION todos_maintain_counters();
+
+ANALYZE todos;
+
+COMMENT ON TABLE todos IS 'Stores todo items, hash-partitioned on user_id into todos_p00 .. todos_p15';
+COMMENT ON COLUMN todos.id IS 'Primary key together with user_id, drawn from todos_id_seq';
+COMMENT ON COLUMN todos.title IS 'Todo title';
+COMMENT ON COLUMN todos.description IS 'Optional todo description';
+COMMENT ON COLUMN todos.completed IS 'Flag indicating if the todo is completed';
+COMMENT ON COLUMN todos.disabled IS 'Flag indicating if the todo is disabled (by moderator)';
+COMMENT ON COLUMN todos.user_id IS 'Reference to the user who owns this todo; partition key';
+COMMENT ON COLUMN todos.folder_id IS 'Optional reference to the folder containing this todo';
+COMMENT ON COLUMN todos.created_at IS 'Timestamp when the record was created';
+COMMENT ON COLUMN todos.updated_at IS 'Timestamp when the record was last updated';
+COMMENT ON COLUMN todos.search_vector IS 'Full-text search vector over title (weight A) and description (weight B), maintained by PostgreSQL';
@@ -0,0 +1,31 @@
+-- V9__add_todos_archive.sql
+-- Description: Adds the cold todos_archive table. A background job moves completed todos
+-- that have not changed for a while out of todos, keeping the hot table and its indexes small.
+
+-- 1. Archive table. Rows keep the id they had in todos, so ids stay unique across both.
+CREATE TABLE todos_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(1000),
+    completed BOOLEAN NOT NULL,
+    disabled BOOLEAN NOT NULL,
+    user_id BIGINT NOT NULL,
+    folder_id BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_todo_archive_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_todo_archive_folder FOREIGN KEY (folder_id) REFERENCES folders(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_todos_archive_user_created_at ON todos_archive(user_id, created_at);
+CREATE INDEX idx_todos_archive_folder_id ON todos_archive(folder_id);
+
+-- 2. Lets the archiver find its candidates without scanning the open todos
+CREATE INDEX idx_todos_completed_updated_at ON todos(updated_at) WHERE completed;
+
+COMMENT ON TABLE todos_archive IS 'Completed todos moved out of todos by the archive job; read-only';
+COMMENT ON COLUMN todos_archive.id IS 'Primary key, the id the todo had in todos';
+COMMENT ON COLUMN todos_archive.user_id IS 'Reference to the user who owns this todo';
+COMMENT ON COLUMN todos_archive.folder_id IS 'Optional reference to the folder containing this todo';
+COMMENT ON COLUMN todos_archive.archived_at IS 'Timestamp when the todo was moved to the archive';
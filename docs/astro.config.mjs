@@ -135,6 +135,126 @@ export default defineConfig({
 									link: "/database/migration-reference/v3",
 									attrs: { style: 'font-style: italic; font-size: 12px;' },
 								},
+								{
+									label: "v4__add_todo_search_vector.sql",
+									link: "/database/migration-reference/v4",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v5__add_user_trigram_indexes.sql",
+									link: "/database/migration-reference/v5",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v6__add_todo_counters.sql",
+									link: "/database/migration-reference/v6",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v7__add_todo_user_activity_index.sql",
+									link: "/database/migration-reference/v7",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v8__partition_todos_by_user.sql",
+									link: "/database/migration-reference/v8",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v9__add_todos_archive.sql",
+									link: "/database/migration-reference/v9",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v10__add_entity_versions.sql",
+									link: "/database/migration-reference/v10",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v11__add_user_change_stamps.sql",
+									link: "/database/migration-reference/v11",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v12__add_sync_tombstones.sql",
+									link: "/database/migration-reference/v12",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v13__add_change_notifications.sql",
+									link: "/database/migration-reference/v13",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v14__add_outbox.sql",
+									link: "/database/migration-reference/v14",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v15__add_audit_log.sql",
+									link: "/database/migration-reference/v15",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v16__add_todo_rank.sql",
+									link: "/database/migration-reference/v16",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v17__add_folder_hierarchy.sql",
+									link: "/database/migration-reference/v17",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v18__add_tags.sql",
+									link: "/database/migration-reference/v18",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v19__add_todo_due_dates.sql",
+									link: "/database/migration-reference/v19",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v20__add_recurring_todos.sql",
+									link: "/database/migration-reference/v20",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v21__add_moderation_queue.sql",
+									link: "/database/migration-reference/v21",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v22__add_sync_change_txids.sql",
+									link: "/database/migration-reference/v22",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v23__add_todos_archive_rank.sql",
+									link: "/database/migration-reference/v23",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v24__add_todos_archive_due_at.sql",
+									link: "/database/migration-reference/v24",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v25__add_todos_archive_occurrences.sql",
+									link: "/database/migration-reference/v25",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v26__add_moderation_reports.sql",
+									link: "/database/migration-reference/v26",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
+								{
+									label: "v27__add_reminder_change_txids.sql",
+									link: "/database/migration-reference/v27",
+									attrs: { style: 'font-style: italic; font-size: 12px;' },
+								},
 							],
 						},
 					],